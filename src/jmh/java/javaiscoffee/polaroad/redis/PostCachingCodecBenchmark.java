@@ -0,0 +1,77 @@
+package javaiscoffee.polaroad.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javaiscoffee.polaroad.post.PostConcept;
+import javaiscoffee.polaroad.post.PostInfoCachingDto;
+import javaiscoffee.polaroad.post.PostRegion;
+import javaiscoffee.polaroad.post.card.CardInfoDto;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagInfoDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포스트 캐싱 직렬화 비교 (기존 Jackson JSON vs PostCachingCodec)
+ * ./gradlew jmh 로 실행하고 인코딩 크기는 시작할 때 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostCachingCodecBenchmark {
+
+    //카드 수, 카드 내용 길이
+    @Param({"1:100", "10:800"})
+    public String shape;
+
+    private ObjectMapper objectMapper;
+    private PostCachingCodec codec;
+    private PostInfoCachingDto post;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        codec = new PostCachingCodec(objectMapper);
+
+        String[] values = shape.split(":");
+        int cardNumber = Integer.parseInt(values[0]);
+        String content = "한강 옆 수제비 집, 국물이 진하고 반죽이 쫄깃하다. ".repeat(Integer.parseInt(values[1]) / 30 + 1);
+        List<CardInfoDto> cards = new ArrayList<>();
+        for (int i = 0; i < cardNumber; i++) {
+            cards.add(new CardInfoDto((long) i + 10_000, i, 37.5665 + i * 0.01, 126.9780 + i * 0.01,
+                    "서울특별시 영등포구 여의도동", "https://image.polaroad.com/post/" + i + ".jpg", content));
+        }
+        List<PostHashtagInfoDto> hashtags = List.of(new PostHashtagInfoDto(1L, "맛집"), new PostHashtagInfoDto(20L, "한강"), new PostHashtagInfoDto(300L, "데이트"));
+        post = new PostInfoCachingDto("한강 물 수제비 맛집", 1234L, "37.5665,126.9780;".repeat(100), 42, 1234L, 0,
+                PostConcept.FOOD, PostRegion.SEOUL, LocalDateTime.now(), cards, hashtags);
+
+        json = objectMapper.writeValueAsString(post).getBytes(StandardCharsets.UTF_8);
+        binary = codec.encode(post);
+        System.out.printf("%n[%s] json = %d bytes, binary = %d bytes%n", shape, json.length, binary.length);
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() throws Exception {
+        return objectMapper.writeValueAsString(post).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public PostInfoCachingDto jacksonDecode() throws Exception {
+        return objectMapper.readValue(new String(json, StandardCharsets.UTF_8), PostInfoCachingDto.class);
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return codec.encode(post);
+    }
+
+    @Benchmark
+    public PostInfoCachingDto codecDecode() {
+        return codec.decode(binary);
+    }
+}
@@ -0,0 +1,168 @@
+package javaiscoffee.polaroad.redis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 포스트 조회 수 증가 방식 비교 (레디스 왕복 수)
+ * - sequential = 기존 방식, 명령마다 왕복 (최대 9번)
+ * - pipelined = 조회 기록, 조회 수를 각각 파이프라인으로 전송 (2번)
+ * - aggregated = PostViewAggregator, 조회한 멤버를 모아서 1000번마다 HyperLogLog, 시간 버킷에 스크립트로 반영
+ *
+ * localhost:6379 레디스가 필요하고, 끝날 때 벤치마크용 멤버 조회 기록과 오늘 날짜의 조회 수 key를 삭제하므로 전용 레디스에서 실행한다.
+ * 조회 1번당 레디스가 실행한 명령 수(INFO commandstats 기준, 스크립트 안에서 실행한 명령 포함)는 끝날 때 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostViewCountBenchmark {
+    private final static long MEMBER_ID = -1L;
+
+    @Param({"sequential", "pipelined", "aggregated"})
+    public String mode;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private PostViewAggregator postViewAggregator;
+    //매번 처음 조회하는 포스트가 되도록 증가
+    private long postId;
+    private long commandsBefore;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        connectionFactory = new LettuceConnectionFactory("localhost", 6379);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        postViewAggregator = new PostViewAggregator(redisTemplate, new PostTrending(redisTemplate, new BatchJobCoordinator(redisTemplate, new SimpleMeterRegistry()), 24, 1, 5));
+        postId = 0;
+        commandsBefore = countCommands();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        postViewAggregator.flush();
+        long commands = countCommands() - commandsBefore;
+        System.out.printf("%n[%s] 조회 %d번, 조회 1번당 레디스 명령 %.2f개%n", mode, postId, (double) commands / postId);
+        LocalDate today = LocalDate.now();
+        String week = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+        String month = YearMonth.from(today).toString();
+        redisTemplate.delete(List.of("mv:" + MEMBER_ID, "pvd:" + today, "pvw:" + week, "pvm:" + month,
+                PostViewRanking.hourBucketKey(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)), PostViewBatchUpdator.PENDING_KEY,
+                PostTrending.TRENDING_KEY, PostTrending.EPOCH_KEY));
+        //aggregated 방식이 만든 포스트별 HyperLogLog 삭제
+        List<String> keys = new ArrayList<>();
+        for (long id = 1; id <= postId; id++) {
+            keys.addAll(List.of("uv:" + id, "uvd:" + today + ":" + id));
+            if (keys.size() >= 1000 || id == postId) {
+                redisTemplate.delete(keys);
+                keys.clear();
+            }
+        }
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public void addPostView() {
+        postId++;
+        switch (mode) {
+            case "sequential" -> addPostViewSequential(postId, MEMBER_ID);
+            case "pipelined" -> addPostViewPipelined(postId, MEMBER_ID);
+            default -> {
+                postViewAggregator.addPostView(postId, MEMBER_ID);
+                if (postId % 1000 == 0) postViewAggregator.flush();
+            }
+        }
+    }
+
+    //INFO commandstats의 명령별 호출 수 합계, INFO 명령은 제외
+    private long countCommands() {
+        Properties stats = redisTemplate.execute((RedisCallback<Properties>) connection -> connection.serverCommands().info("commandstats"));
+        long total = 0;
+        for (String name : stats.stringPropertyNames()) {
+            if (!name.startsWith("cmdstat_") || name.equals("cmdstat_info")) continue;
+            String calls = stats.getProperty(name).split(",")[0];
+            total += Long.parseLong(calls.substring(calls.indexOf('=') + 1));
+        }
+        return total;
+    }
+
+    //기존 RedisService.addPostView
+    private void addPostViewSequential(Long postId, Long memberId) {
+        String memberViewKey = "mv:" + memberId;
+        Double score = redisTemplate.opsForZSet().score(memberViewKey, postId.toString());
+        if (score != null) return;
+        redisTemplate.opsForZSet().add(memberViewKey, postId.toString(), System.currentTimeMillis() / 1000);
+        redisTemplate.expire(memberViewKey, Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay()).getSeconds(), TimeUnit.SECONDS);
+
+        String dailyKey = "pvd:" + LocalDate.now();
+        String weeklyKey = "pvw:" + LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        String monthlyKey = "pvm:" + YearMonth.now();
+        Double daily = redisTemplate.opsForZSet().incrementScore(dailyKey, postId.toString(), 1);
+        Double weekly = redisTemplate.opsForZSet().incrementScore(weeklyKey, postId.toString(), 1);
+        Double monthly = redisTemplate.opsForZSet().incrementScore(monthlyKey, postId.toString(), 1);
+        if (daily != null && daily.equals(1d)) {
+            redisTemplate.expire(dailyKey, Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay()).getSeconds(), TimeUnit.SECONDS);
+        }
+        if (weekly != null && weekly.equals(1d)) {
+            redisTemplate.expire(weeklyKey, Duration.between(LocalDateTime.now(), LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay()).getSeconds(), TimeUnit.SECONDS);
+        }
+        if (monthly != null && monthly.equals(1d)) {
+            redisTemplate.expire(monthlyKey, Duration.between(LocalDateTime.now(), LocalDate.now().plusMonths(1).withDayOfMonth(1).atStartOfDay()).getSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    //파이프라인 2번으로 나눈 RedisService.addPostView
+    private void addPostViewPipelined(Long postId, Long memberId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        String member = postId.toString();
+        String memberViewKey = "mv:" + memberId;
+        long untilTomorrow = Duration.between(now, today.plusDays(1).atStartOfDay()).getSeconds();
+        List<Object> personalResults = executePipelined(operations -> {
+            operations.opsForZSet().addIfAbsent(memberViewKey, member, System.currentTimeMillis() / 1000);
+            operations.expire(memberViewKey, untilTomorrow, TimeUnit.SECONDS);
+        });
+        if (!Boolean.TRUE.equals(personalResults.get(0))) return;
+
+        String dailyKey = "pvd:" + today;
+        String weeklyKey = "pvw:" + today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        String monthlyKey = "pvm:" + YearMonth.from(today);
+        long untilNextWeek = Duration.between(now, today.with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay()).getSeconds();
+        long untilNextMonth = Duration.between(now, today.plusMonths(1).withDayOfMonth(1).atStartOfDay()).getSeconds();
+        executePipelined(operations -> {
+            operations.opsForZSet().incrementScore(dailyKey, member, 1);
+            operations.opsForZSet().incrementScore(weeklyKey, member, 1);
+            operations.opsForZSet().incrementScore(monthlyKey, member, 1);
+            operations.expire(dailyKey, untilTomorrow, TimeUnit.SECONDS);
+            operations.expire(weeklyKey, untilNextWeek, TimeUnit.SECONDS);
+            operations.expire(monthlyKey, untilNextMonth, TimeUnit.SECONDS);
+        });
+    }
+
+    private List<Object> executePipelined(Consumer<RedisOperations<String, String>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, String>) operations);
+                return null;
+            }
+        });
+    }
+}
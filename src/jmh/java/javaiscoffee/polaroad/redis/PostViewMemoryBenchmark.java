@@ -0,0 +1,118 @@
+package javaiscoffee.polaroad.redis;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 중복 조회 확인 방식별 레디스 메모리 비교
+ * - zset = 기존 방식, 멤버별 오늘 조회한 포스트 ZSET (mv:{memberId})
+ * - hll = 포스트별 순 조회자 HyperLogLog (uvd:{postId})
+ *
+ * 시작할 때 members명이 각각 postsPerMember개 포스트를 조회한 가상 조회 기록을 두 방식으로 만들고 key별 MEMORY USAGE 합계를 출력한다.
+ * 포스트는 앞쪽 포스트가 많이 조회되도록 고른다. 벤치마크는 조회 1번 기록 시간을 비교한다.
+ * localhost:6379 레디스가 필요하고 bench: 로 시작하는 key만 만들고 끝날 때 삭제한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostViewMemoryBenchmark {
+    private final static String ZSET_PREFIX = "bench:mv:";
+    private final static String HLL_PREFIX = "bench:uvd:";
+
+    //멤버 수, 멤버당 조회한 포스트 수, 포스트 수
+    @Param({"10000:20:10000", "100000:20:10000"})
+    public String load;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private final Random random = new Random(42);
+    private int members;
+    private int posts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        connectionFactory = new LettuceConnectionFactory("localhost", 6379);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        String[] values = load.split(":");
+        members = Integer.parseInt(values[0]);
+        int postsPerMember = Integer.parseInt(values[1]);
+        posts = Integer.parseInt(values[2]);
+        long now = System.currentTimeMillis() / 1000;
+        for (int member = 0; member < members; member += 1000) {
+            int from = member;
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int m = from; m < Math.min(from + 1000, members); m++) {
+                    for (int i = 0; i < postsPerMember; i++) {
+                        int post = nextPost();
+                        connection.zSetCommands().zAdd(bytes(ZSET_PREFIX + m), now, bytes(String.valueOf(post)));
+                        connection.hyperLogLogCommands().pfAdd(bytes(HLL_PREFIX + post), bytes(String.valueOf(m)));
+                    }
+                }
+                return null;
+            });
+        }
+        long zsetBytes = memoryUsage(ZSET_PREFIX, members);
+        long hllBytes = memoryUsage(HLL_PREFIX, posts);
+        System.out.printf("%n[%s] zset = %,d bytes (%,d keys), hll = %,d bytes (%,d keys)%n", load, zsetBytes, members, hllBytes, posts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(ZSET_PREFIX, members);
+        delete(HLL_PREFIX, posts);
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Boolean zsetAddView() {
+        return redisTemplate.opsForZSet().addIfAbsent(ZSET_PREFIX + random.nextInt(members), String.valueOf(nextPost()), System.currentTimeMillis() / 1000);
+    }
+
+    @Benchmark
+    public Long hllAddView() {
+        return redisTemplate.opsForHyperLogLog().add(HLL_PREFIX + nextPost(), String.valueOf(random.nextInt(members)));
+    }
+
+    //제곱해서 앞쪽 포스트가 더 자주 나오도록 함
+    private int nextPost() {
+        double r = random.nextDouble();
+        return (int) (r * r * posts);
+    }
+
+    private long memoryUsage(String prefix, int count) {
+        return redisTemplate.execute((RedisCallback<Long>) connection -> {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                Object usage = connection.execute("MEMORY", bytes("USAGE"), bytes(prefix + i));
+                if (usage instanceof Long usageBytes) total += usageBytes;
+            }
+            return total;
+        });
+    }
+
+    private void delete(String prefix, int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add(prefix + i);
+            if (keys.size() >= 1000 || i == count - 1) {
+                redisTemplate.delete(keys);
+                keys.clear();
+            }
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -7,6 +7,8 @@ import javaiscoffee.polaroad.post.*;
 import javaiscoffee.polaroad.post.card.Card;
 import javaiscoffee.polaroad.post.card.CardInfoDto;
 import javaiscoffee.polaroad.post.hashtag.PostHashtagInfoDto;
+import javaiscoffee.polaroad.post.outbox.PostChangeOutbox;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
 import javaiscoffee.polaroad.report.ReportRepository;
 import javaiscoffee.polaroad.response.ResponseMessages;
 import javaiscoffee.polaroad.review.ResponseGetReviewDto;
@@ -35,13 +37,15 @@ public class AdminService {
     private final MemberRepository memberRepository;
     private final ReportRepository reportRepository;
     private final AdminLogRepository adminLogRepository;
+    private final PostChangeOutbox postChangeOutbox;
     @Autowired
-    public AdminService(PostRepository postRepository, ReviewRepository reviewRepository, MemberRepository memberRepository, ReportRepository reportRepository, AdminLogRepository adminLogRepository) {
+    public AdminService(PostRepository postRepository, ReviewRepository reviewRepository, MemberRepository memberRepository, ReportRepository reportRepository, AdminLogRepository adminLogRepository, PostChangeOutbox postChangeOutbox) {
         this.postRepository = postRepository;
         this.reviewRepository = reviewRepository;
         this.memberRepository = memberRepository;
         this.reportRepository = reportRepository;
         this.adminLogRepository = adminLogRepository;
+        this.postChangeOutbox = postChangeOutbox;
     }
 
     //관리자가 사용자 지정한 상태로 변화시키기
@@ -89,6 +93,8 @@ public class AdminService {
         Member admin = checkAdmin(adminId);
         Post post = postRepository.findById(postId).orElseThrow(() -> new NotFoundException(ResponseMessages.NOT_FOUND.getMessage()));
         post.setStatus(status);
+        //캐시, 색인 갱신을 위해 변경 사항 기록
+        postChangeOutbox.append(postId, PostChangeType.STATUS_CHANGED);
         if( status.equals(PostStatus.ACTIVE)) {
             saveAdminLog(admin, postId, AdminTargetType.POST, AdminActionType.RESTORE, PostStatus.ACTIVE.toString(), reason);
         }
@@ -162,12 +168,16 @@ public class AdminService {
                 memberDto,
                 post.getRoutePoint(),
                 post.getGoodNumber(),
+                post.getViewNumber(),
                 post.getThumbnailIndex(),
                 post.getConcept(),
                 post.getRegion(),
                 post.getUpdatedTime(),
                 cardDtos,
-                hashtagDtos
+                hashtagDtos,
+                null,
+                null,
+                null
         );
     }
     //카드 정보 Dto로 변환
@@ -0,0 +1,27 @@
+package javaiscoffee.polaroad.batch;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 배치 작업별로 DB에 마지막으로 쓴 펜싱 토큰과 마지막으로 커밋한 배치 ID
+ * BatchFencing이 DB에 쓰는 트랜잭션 안에서 JDBC로 갱신하고 비교한다.
+ */
+@Entity
+@Table(name = "batch_fence")
+@Getter
+@NoArgsConstructor
+@ToString
+public class BatchFence {
+    @Id
+    @Column(length = 100)
+    private String jobName;
+    private long token;
+    @Column(length = 200)
+    private String appliedBatch;
+}
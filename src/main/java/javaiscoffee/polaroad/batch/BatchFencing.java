@@ -0,0 +1,67 @@
+package javaiscoffee.polaroad.batch;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * DB에 쓰는 배치 작업의 펜싱 토큰 검사
+ * 리스가 만료된 걸 모르고 계속 실행 중인 이전 파드(GC 멈춤, 네트워크 지연 등)가 새 파드와 같은 변동을 두 번 반영하지 않도록,
+ * 반영하는 트랜잭션 안에서 batch_fence 행의 토큰을 내 토큰으로 올리고 더 큰 토큰이 기록되어 있으면 롤백한다.
+ * 갱신한 행은 커밋할 때까지 잠기므로 같은 작업의 트랜잭션은 토큰 순서대로만 커밋된다.
+ *
+ * 다시 반영하면 값이 두 번 더해지는 작업은 checkBatch로 커밋하는 배치 ID를 같은 행에 함께 기록해서,
+ * 커밋 직후 레디스에서 지우기 전에 종료된 배치를 복구할 때 건너뛴다.
+ */
+@Component
+public class BatchFencing {
+    private final static String ADVANCE_TOKEN_SQL = "update batch_fence set token = ? where job_name = ? and token <= ?";
+    private final static String INSERT_FENCE_SQL = "insert into batch_fence (job_name, token) select ?, 0 from dual " +
+            "where not exists (select 1 from batch_fence where job_name = ?)";
+    private final static String SELECT_APPLIED_BATCH_SQL = "select applied_batch from batch_fence where job_name = ?";
+    private final static String UPDATE_APPLIED_BATCH_SQL = "update batch_fence set applied_batch = ? where job_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BatchFencing(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 반영하는 트랜잭션 안에서 호출, 더 큰 토큰의 리스가 이미 DB에 썼으면 StaleBatchLeaseException
+     */
+    public void check(BatchLease lease) {
+        if (advanceToken(lease) > 0) return;
+        //처음 실행하는 작업이면 행을 만들고 다시 갱신
+        insertFence(lease.getJobName());
+        if (advanceToken(lease) == 0) throw new StaleBatchLeaseException(lease);
+    }
+
+    /**
+     * 반영하는 트랜잭션 안에서 check 대신 호출, 펜싱 토큰을 검사하고 이미 커밋한 배치면 false
+     * 처음 반영하는 배치면 배치 ID를 기록하고 true, 같은 트랜잭션으로 커밋되므로 반영과 기록은 같이 남거나 같이 롤백된다.
+     * 작업마다 마지막 배치 ID 하나만 기록하므로 배치는 순서대로 하나씩 커밋해야 한다.
+     */
+    public boolean checkBatch(BatchLease lease, String batchId) {
+        check(lease);
+        //check에서 갱신한 행은 커밋할 때까지 잠겨있어서 다른 파드가 사이에 기록하지 못함
+        String appliedBatch = jdbcTemplate.queryForObject(SELECT_APPLIED_BATCH_SQL, String.class, lease.getJobName());
+        if (batchId.equals(appliedBatch)) return false;
+        jdbcTemplate.update(UPDATE_APPLIED_BATCH_SQL, batchId, lease.getJobName());
+        return true;
+    }
+
+    private int advanceToken(BatchLease lease) {
+        return jdbcTemplate.update(ADVANCE_TOKEN_SQL, lease.getToken(), lease.getJobName(), lease.getToken());
+    }
+
+    private void insertFence(String jobName) {
+        try {
+            jdbcTemplate.update(INSERT_FENCE_SQL, jobName, jobName);
+        } catch (DuplicateKeyException e) {
+            //다른 파드가 먼저 만들었으면 그대로 사용
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package javaiscoffee.polaroad.batch;
+
+/**
+ * 리스를 획득한 파드에서 실행하는 배치 작업
+ */
+@FunctionalInterface
+public interface BatchJob {
+    /**
+     * @return 처리한 항목 수
+     */
+    long run(BatchLease lease);
+}
@@ -0,0 +1,157 @@
+package javaiscoffee.polaroad.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 레디스 리스로 전체 파드 중 한 곳에서만 배치 작업을 실행
+ * 작업마다 리스 key(lock:{job})를 펜싱 토큰과 함께 획득한 파드만 실행하고, 끝나면 내 리스일 때만 삭제한다.
+ * 마지막 완료 시각(lock:{job}:last)을 레디스 시각으로 기록해서 여러 파드의 스케줄이 조금씩 어긋나도
+ * 최소 실행 간격 안에는 한 번만 실행한다.
+ *
+ * 종료할 때는 새 리스를 획득하지 않고 갖고 있던 리스를 바로 반납해서 다른 파드가 리스 만료를 기다리지 않고 이어받는다.
+ * 실행 중이던 작업은 다음 renew()에서 리스를 잃은 것을 확인하고 멈춘다.
+ *
+ * renew()와 반영 사이에 리스가 만료될 수 있으므로 리스만으로는 두 파드가 동시에 반영하지 않는다고 보장할 수 없다.
+ * 다시 반영하면 결과가 달라지는 DB 반영(조회 수, 추천 수, 추천 토글)은 BatchFencing으로 트랜잭션 안에서 펜싱 토큰을 검사하고,
+ * 그 외 작업(랭킹 합치기, 급상승 기준 시각 변경, 아웃박스 전달, 검색 재색인, 미리보기 이미지 채우기)은 두 번 실행해도 결과가 같아서 리스만 사용한다.
+ *
+ * 지표
+ * batch.job.duration 작업 실행 시간 (result = success, failure)
+ * batch.job.items 작업에서 처리한 항목 수
+ * batch.job.lag 전체 파드 기준 마지막 완료 이후 지난 시간(초)
+ */
+@Slf4j
+@Component
+public class BatchJobCoordinator {
+    private final static String LEASE_PREFIX = "lock:";
+    private final static RedisScript<List> ACQUIRE_SCRIPT = RedisScript.of(new ClassPathResource("redis/acquire-batch-lease.lua"), List.class);
+    private final static RedisScript<Long> RENEW_SCRIPT = RedisScript.of(new ClassPathResource("redis/renew-batch-lease.lua"), Long.class);
+    private final static RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(new ClassPathResource("redis/release-batch-lease.lua"), Long.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    //이 파드가 갖고 있는 리스
+    private final ConcurrentMap<String, BatchLease> heldLeases = new ConcurrentHashMap<>();
+    //작업별 마지막 완료 시각(ms), 리스를 획득하려고 할 때마다 갱신
+    private final ConcurrentMap<String, AtomicLong> lastCompletedTimes = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown = false;
+
+    @Autowired
+    public BatchJobCoordinator(RedisTemplate<String, String> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 리스를 획득하면 작업을 실행하고 반납
+     * @param minInterval 전체 파드 기준 마지막 완료 후 이 시간이 지나지 않았으면 실행하지 않음
+     * @return 리스를 획득하지 못해서 실행하지 않았으면 false
+     */
+    public boolean run(String jobName, Duration leaseTimeout, Duration minInterval, BatchJob job) {
+        BatchLease lease = tryAcquire(jobName, leaseTimeout, minInterval);
+        if (lease == null) return false;
+        execute(lease, job);
+        return true;
+    }
+
+    /**
+     * 리스 획득, 획득하지 못했으면 null
+     * 획득한 리스는 execute()로 실행하거나 release()로 반납해야 한다.
+     */
+    public BatchLease tryAcquire(String jobName, Duration leaseTimeout, Duration minInterval) {
+        if (shuttingDown) return null;
+        String leaseKey = LEASE_PREFIX + jobName;
+        List<?> result = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(leaseKey, leaseKey + ":token", leaseKey + ":last"),
+                instanceId, String.valueOf(leaseTimeout.toMillis()), String.valueOf(minInterval.toMillis()));
+        if (result == null || result.size() < 2) return null;
+        long token = ((Number) result.get(0)).longValue();
+        updateLastCompletedTime(jobName, ((Number) result.get(1)).longValue());
+        if (token == 0) return null;
+
+        BatchLease lease = new BatchLease(jobName, token, leaseTimeout, instanceId + ":" + token, this);
+        heldLeases.put(jobName, lease);
+        return lease;
+    }
+
+    /**
+     * 리스를 획득한 작업 실행, 실패해도 예외를 던지지 않고 기록만 하고 리스는 반납
+     */
+    public void execute(BatchLease lease, BatchJob job) {
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            long items = job.run(lease);
+            completed = true;
+            meterRegistry.counter("batch.job.items", "job", lease.getJobName()).increment(items);
+            log.debug("배치 작업 완료 = {} 토큰 {} {}건", lease.getJobName(), lease.getToken(), items);
+        } catch (StaleBatchLeaseException e) {
+            log.warn("배치 작업 중단 = {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("배치 작업 실패 = {} 토큰 {}", lease.getJobName(), lease.getToken(), e);
+        } finally {
+            meterRegistry.timer("batch.job.duration", "job", lease.getJobName(), "result", completed ? "success" : "failure")
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            release(lease, completed);
+        }
+    }
+
+    /**
+     * 리스가 아직 내 것일 때만 반납
+     * @param completed 작업을 끝까지 마쳤으면 마지막 완료 시각 기록
+     */
+    public void release(BatchLease lease, boolean completed) {
+        heldLeases.remove(lease.getJobName(), lease);
+        try {
+            String leaseKey = LEASE_PREFIX + lease.getJobName();
+            Long completedTime = redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey, leaseKey + ":last"), lease.getValue(), completed ? "1" : "0");
+            if (completedTime != null && completedTime > 0) updateLastCompletedTime(lease.getJobName(), completedTime);
+        } catch (RuntimeException e) {
+            //반납하지 못해도 리스 시간이 지나면 다른 파드가 획득
+            log.error("배치 작업 리스 반납 실패 = {}", lease.getJobName(), e);
+        }
+    }
+
+    boolean renew(BatchLease lease) {
+        if (shuttingDown) return false;
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(LEASE_PREFIX + lease.getJobName()), lease.getValue(), String.valueOf(lease.getTimeout().toMillis()));
+        if (Long.valueOf(1).equals(renewed)) return true;
+        log.warn("배치 작업 리스를 잃어서 중단 = {} 토큰 {}", lease.getJobName(), lease.getToken());
+        return false;
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        shuttingDown = true;
+        heldLeases.values().forEach(lease -> {
+            log.info("종료 전 배치 작업 리스 반납 = {} 토큰 {}", lease.getJobName(), lease.getToken());
+            release(lease, false);
+        });
+    }
+
+    private void updateLastCompletedTime(String jobName, long completedTime) {
+        if (completedTime <= 0) return;
+        lastCompletedTimes.computeIfAbsent(jobName, name -> {
+            AtomicLong lastCompletedTime = new AtomicLong();
+            meterRegistry.gauge("batch.job.lag", Tags.of("job", name), lastCompletedTime,
+                    time -> time.get() == 0 ? Double.NaN : (System.currentTimeMillis() - time.get()) / 1000.0);
+            return lastCompletedTime;
+        }).accumulateAndGet(completedTime, Math::max);
+    }
+}
@@ -0,0 +1,39 @@
+package javaiscoffee.polaroad.batch;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 배치 작업 리스
+ * 펜싱 토큰은 리스를 획득할 때마다 1씩 커지므로, 리스가 만료되어 다른 파드가 새로 획득하면 이전 리스는 더 이상 연장되지 않는다.
+ * 오래 걸리는 작업은 나눠서 반영하기 전마다 renew()로 아직 리스를 갖고 있는지 확인하고 연장한다.
+ * renew() 직후에 만료될 수도 있으므로 DB 반영은 BatchFencing으로 반영하는 트랜잭션 안에서 토큰을 한 번 더 검사한다.
+ */
+public class BatchLease {
+    @Getter
+    private final String jobName;
+    @Getter
+    private final long token;
+    @Getter
+    private final Duration timeout;
+    //리스 key에 저장된 값 (파드 ID:토큰)
+    @Getter
+    private final String value;
+    private final BatchJobCoordinator coordinator;
+
+    BatchLease(String jobName, long token, Duration timeout, String value, BatchJobCoordinator coordinator) {
+        this.jobName = jobName;
+        this.token = token;
+        this.timeout = timeout;
+        this.value = value;
+        this.coordinator = coordinator;
+    }
+
+    /**
+     * 아직 리스를 갖고 있으면 리스 시간을 다시 늘리고 true, 다른 파드로 넘어갔거나 종료 중이면 false
+     */
+    public boolean renew() {
+        return coordinator.renew(this);
+    }
+}
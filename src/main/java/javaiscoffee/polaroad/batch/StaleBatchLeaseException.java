@@ -0,0 +1,10 @@
+package javaiscoffee.polaroad.batch;
+
+/**
+ * 더 큰 펜싱 토큰의 리스가 이미 DB에 썼을 때 발생, 트랜잭션을 롤백하고 작업을 중단한다.
+ */
+public class StaleBatchLeaseException extends RuntimeException {
+    public StaleBatchLeaseException(BatchLease lease) {
+        super("배치 작업 리스가 다른 파드로 넘어감 = " + lease.getJobName() + " 토큰 " + lease.getToken());
+    }
+}
@@ -0,0 +1,45 @@
+package javaiscoffee.polaroad.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * 포스트 내용 조회에서 서로 의존하지 않는 조회를 동시에 실행하기 위한 스레드 풀
+     * 큐가 가득 차면 요청 스레드에서 직접 실행해서 작업이 버려지지 않도록 한다.
+     */
+    @Bean(name = "postDetailExecutor")
+    public ThreadPoolTaskExecutor postDetailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(64);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("post-detail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * 엘라스틱서치 전체 재색인을 백그라운드로 실행하기 위한 스레드
+     * 몇 시간씩 걸리므로 공용 ForkJoinPool을 쓰지 않고, 리스로 한 번에 하나만 실행하므로 스레드 하나만 둔다.
+     * 종료할 때는 재색인이 리스를 잃은 걸 확인하고 새 인덱스를 지울 때까지 기다린다.
+     */
+    @Bean(name = "elasticReindexExecutor")
+    public ThreadPoolTaskExecutor elasticReindexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("elastic-reindex-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
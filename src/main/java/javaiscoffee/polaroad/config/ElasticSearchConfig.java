@@ -1,28 +1,33 @@
 package javaiscoffee.polaroad.config;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.elasticsearch.client.ClientConfiguration;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchConfiguration;
 
+import java.time.Duration;
+
 @Configuration
 @Profile("prod2")
 public class ElasticSearchConfig extends ElasticsearchConfiguration {
     @Value("${spring.elasticsearch.uris}")
     private String elasticSearchUris;
-    @Value("${spring.elasticsearch.username}")
+    @Value("${spring.elasticsearch.username:}")
     private String username;
-    @Value("${spring.elasticsearch.password}")
+    @Value("${spring.elasticsearch.password:}")
     private String password;
+    //로컬 단일 노드로 테스트할 때는 false로 https, 인증 없이 연결
+    @Value("${elastic.ssl-enabled:true}")
+    private boolean sslEnabled;
 
     @Override
     public ClientConfiguration clientConfiguration() {
-        return ClientConfiguration.builder()
-                .connectedTo(elasticSearchUris)
-                .usingSsl()
-                .withBasicAuth(username,password)
-                .build();
+        ClientConfiguration.MaybeSecureClientConfigurationBuilder builder = ClientConfiguration.builder()
+                .connectedTo(elasticSearchUris.split(","));
+        ClientConfiguration.TerminalClientConfigurationBuilder terminal = sslEnabled ? builder.usingSsl() : builder;
+        if (!username.isEmpty()) terminal.withBasicAuth(username, password);
+        //전체 재색인 bulk 요청은 기본 타임아웃보다 오래 걸릴 수 있음
+        return terminal.withSocketTimeout(Duration.ofSeconds(60)).build();
     }
 }
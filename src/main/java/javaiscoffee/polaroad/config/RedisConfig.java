@@ -0,0 +1,23 @@
+package javaiscoffee.polaroad.config;
+
+import javaiscoffee.polaroad.post.hashtag.HashtagDictionary;
+import javaiscoffee.polaroad.redis.PostChangeBroadcaster;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisConfig {
+
+    //파드 간 포스트 변경 사항, 새 해쉬태그 전파를 위한 pub/sub 구독 등록
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory, PostChangeBroadcaster postChangeBroadcaster, HashtagDictionary hashtagDictionary) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(postChangeBroadcaster, new ChannelTopic(PostChangeBroadcaster.POST_CHANGE_CHANNEL));
+        container.addMessageListener(hashtagDictionary, new ChannelTopic(HashtagDictionary.HASHTAG_CREATED_CHANNEL));
+        return container;
+    }
+}
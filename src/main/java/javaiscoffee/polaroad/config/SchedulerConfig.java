@@ -1,9 +1,26 @@
 package javaiscoffee.polaroad.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 @EnableScheduling
 public class SchedulerConfig {
+
+    /**
+     * 스케줄 작업용 스레드 풀
+     * 오래 걸리는 배치 작업이 아웃박스 릴레이 같은 짧은 주기 작업을 막지 않도록 여러 스레드로 실행하고,
+     * 종료할 때는 실행 중인 배치 작업이 끝나고 리스를 반납할 때까지 기다린다.
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
 }
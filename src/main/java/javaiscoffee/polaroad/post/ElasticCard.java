@@ -0,0 +1,36 @@
+package javaiscoffee.polaroad.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+/**
+ * 엘라스틱서치 포스트 문서에 들어가는 카드
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElasticCard {
+    @Field(type = FieldType.Long)
+    private Long cardId;
+
+    @Field(type = FieldType.Integer, index = false)
+    private int cardIndex;
+
+    @Field(type = FieldType.Text, analyzer = "nori")
+    private String location;
+
+    @Field(type = FieldType.Text, analyzer = "nori")
+    private String content;
+
+    @Field(type = FieldType.Keyword, index = false)
+    private String image;
+
+    @Field(type = FieldType.Double, index = false)
+    private double latitude;
+
+    @Field(type = FieldType.Double, index = false)
+    private double longitude;
+}
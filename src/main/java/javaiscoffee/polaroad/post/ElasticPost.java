@@ -1,36 +1,27 @@
 package javaiscoffee.polaroad.post;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
-import com.fasterxml.jackson.annotation.JsonIdentityInfo;
-import com.fasterxml.jackson.annotation.ObjectIdGenerators;
-import jakarta.persistence.*;
-import jakarta.validation.constraints.NotNull;
-import javaiscoffee.polaroad.member.Member;
-import javaiscoffee.polaroad.post.card.Card;
-import javaiscoffee.polaroad.post.good.PostGood;
-import javaiscoffee.polaroad.post.hashtag.PostHashtag;
-import javaiscoffee.polaroad.post.wishlist.WishListPost;
-import javaiscoffee.polaroad.review.Review;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.*;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
-@Document(indexName = "posts")
+/**
+ * 엘라스틱서치 포스트 문서
+ * indexName은 실제 인덱스가 아니라 별칭이고, 전체 재색인 때마다 새 버전 인덱스를 만들어서 별칭을 교체한다.
+ * 그래서 스프링이 별칭 이름으로 인덱스를 자동 생성하지 않도록 createIndex = false
+ */
+@Document(indexName = ElasticPost.INDEX_ALIAS, createIndex = false)
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
-@JsonIdentityInfo(
-        generator = ObjectIdGenerators.PropertyGenerator.class,
-        property = "postId"
-)
 @Builder
-@ToString(exclude = {"member", "cards", "postHashtags"})
+@ToString(exclude = {"cards"})
 @Setting(settingPath = "/static/elastic/elastic-settings.json")
 public class ElasticPost {
+    public final static String INDEX_ALIAS = "posts";
+
     @Id
     @Field(type = FieldType.Long)
     private Long postId;
@@ -43,6 +34,10 @@ public class ElasticPost {
     @Field(type = FieldType.Long)
     private Long memberId;
 
+    @Setter
+    @Field(type = FieldType.Keyword)
+    private String nickname;
+
     @Setter
     @Field(type = FieldType.Keyword)
     private PostConcept concept;
@@ -51,7 +46,7 @@ public class ElasticPost {
     @Field(type = FieldType.Keyword)
     private PostRegion region;
 
-    @Setter @NotNull
+    @Setter
     @Field(type = FieldType.Keyword)
     private PostStatus status;
 
@@ -59,15 +54,15 @@ public class ElasticPost {
     @Field(type = FieldType.Text, index = false) // Store but do not index routePoint
     private String routePoint;
 
-    @NotNull @Setter
-    @Field(type = FieldType.Integer, index = false) // Not used for searching or sorting
+    @Setter
+    @Field(type = FieldType.Integer)
     private int goodNumber;
 
-    @NotNull @Setter
+    @Setter
     @Field(type = FieldType.Integer, index = false) // Not used for searching or sorting
     private int reviewNumber;
 
-    @NotNull @Setter
+    @Setter
     @Field(type = FieldType.Integer, index = false) // Not used for searching or sorting
     private int thumbnailIndex;
 
@@ -77,38 +72,13 @@ public class ElasticPost {
     @Field(type = FieldType.Date, format = DateFormat.date_hour_minute_second)
     private LocalDateTime updatedTime;
 
-    @NotNull
-    @Field(type = FieldType.Nested)  // Use nested for complex objects if needed
-    private List<Card> cards;
-
-    @NotNull
+    //삭제되지 않은 카드만 카드 순서대로 저장
+    @Setter
     @Field(type = FieldType.Nested)
-    private List<PostHashtag> postHashtags;
+    private List<ElasticCard> cards;
 
-    @NotNull
-    @Field(type = FieldType.Nested)
-    private List<Review> reviews;
-    @NotNull
-    @Field(type = FieldType.Nested)
-    private List<PostGood> postGoods;
-    @NotNull
-    @Field(type = FieldType.Nested)
-    private List<WishListPost> wishListPosts;
-
-    @PrePersist
-    public void PrePersist() {
-        this.goodNumber = 0;
-        this.reviewNumber = 0;
-        this.status = PostStatus.ACTIVE;
-        this.createdTime = LocalDateTime.now();
-        this.updatedTime = LocalDateTime.now();
-        this.cards = new ArrayList<>();
-        this.postHashtags = new ArrayList<>();
-        this.reviews = new ArrayList<>();
-    }
-
-    @PreUpdate
-    public void PreUpdate() {
-        this.updatedTime = LocalDateTime.now();
-    }
-}
\ No newline at end of file
+    //해쉬태그 검색은 DB처럼 대소문자 구분 없이
+    @Setter
+    @Field(type = FieldType.Keyword, normalizer = "lowercase_normalizer")
+    private List<String> hashtags;
+}
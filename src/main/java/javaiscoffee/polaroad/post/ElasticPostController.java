@@ -1,8 +1,11 @@
 package javaiscoffee.polaroad.post;
 
+import javaiscoffee.polaroad.response.ResponseMessages;
+import javaiscoffee.polaroad.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -18,9 +21,11 @@ public class ElasticPostController {
         this.postService = postService;
     }
 
-    @PostMapping
-    public ResponseEntity<ElasticPost> savePost(ElasticPost post) {
-        return ResponseEntity.ok(postService.savePost(post));
+    //관리자가 엘라스틱서치 전체 재색인 시작
+    @PostMapping("/api/admin/elastic/reindex")
+    public ResponseEntity<String> reindex(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        postService.reindex(userDetails.getMemberId());
+        return ResponseEntity.ok(ResponseMessages.SUCCESS.getMessage());
     }
 
     @GetMapping
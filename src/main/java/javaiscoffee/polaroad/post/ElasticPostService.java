@@ -1,6 +1,12 @@
 package javaiscoffee.polaroad.post;
 
+import javaiscoffee.polaroad.exception.BadRequestException;
+import javaiscoffee.polaroad.exception.ForbiddenException;
 import javaiscoffee.polaroad.exception.NotFoundException;
+import javaiscoffee.polaroad.member.Member;
+import javaiscoffee.polaroad.member.MemberRepository;
+import javaiscoffee.polaroad.member.MemberRole;
+import javaiscoffee.polaroad.post.elastic.ElasticPostReindexJob;
 import javaiscoffee.polaroad.response.ResponseMessages;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
@@ -10,24 +16,23 @@ import org.springframework.stereotype.Service;
 @Profile("prod2")
 public class ElasticPostService {
     private final ElasticPostRepository elasticPostRepository;
+    private final ElasticPostReindexJob elasticPostReindexJob;
+    private final MemberRepository memberRepository;
 
     @Autowired
-    public ElasticPostService(ElasticPostRepository elasticPostRepository) {
+    public ElasticPostService(ElasticPostRepository elasticPostRepository, ElasticPostReindexJob elasticPostReindexJob, MemberRepository memberRepository) {
         this.elasticPostRepository = elasticPostRepository;
+        this.elasticPostReindexJob = elasticPostReindexJob;
+        this.memberRepository = memberRepository;
     }
 
-    public ElasticPost savePost(ElasticPost post) {
-        ElasticPost testPost = ElasticPost.builder()
-                .title("테스트 1")
-                .routePoint("테스트 좌표")
-                .goodNumber(0)
-                .reviewNumber(0)
-                .thumbnailIndex(0)
-                .concept(PostConcept.FOOD)
-                .region(PostRegion.BUSAN)
-                .status(PostStatus.ACTIVE)
-                .build();
-        return elasticPostRepository.save(testPost);
+    /**
+     * 관리자가 전체 재색인 시작, 이미 재색인 중이면 BadRequest
+     */
+    public void reindex(Long memberId) {
+        Member admin = memberRepository.findById(memberId).orElseThrow(() -> new NotFoundException(ResponseMessages.NOT_FOUND.getMessage()));
+        if (!admin.getRole().equals(MemberRole.ADMIN)) throw new ForbiddenException(ResponseMessages.FORBIDDEN.getMessage());
+        if (!elasticPostReindexJob.startReindex()) throw new BadRequestException(ResponseMessages.BAD_REQUEST.getMessage());
     }
 
     public ElasticPost findPost(Long postId) {
@@ -42,7 +42,9 @@ import java.util.List;
                                 @ColumnResult(name = "good_number", type = Integer.class),
                                 @ColumnResult(name = "concept", type = PostConcept.class),
                                 @ColumnResult(name = "region", type = PostRegion.class),
-                                @ColumnResult(name = "updated_time", type = LocalDateTime.class)
+                                @ColumnResult(name = "updated_time", type = LocalDateTime.class),
+                                @ColumnResult(name = "preview_images", type = String.class),
+                                @ColumnResult(name = "view_number", type = Long.class)
                         }
                 )
         }
@@ -61,6 +63,8 @@ public class Post {
     private String routePoint;  //경로 좌표 저장
     @NotNull @Setter
     private int goodNumber;     //하트 개수
+    @NotNull
+    private long viewNumber;    //조회 수 (레디스에 모은 조회 수를 주기적으로 반영)
     @NotNull @Setter
     private int reviewNumber;   //리뷰 개수
     @NotNull @Setter
@@ -78,6 +82,9 @@ public class Post {
     private LocalDateTime createdTime;
     @Setter
     private LocalDateTime updatedTime;
+    @Setter
+    @Column(length = 3002)
+    private String previewImages;   //목록 미리보기 이미지 (최대 3개, 줄바꿈으로 구분)
 
     @Setter
     @NotNull @OneToMany(mappedBy = "post")
@@ -95,6 +102,7 @@ public class Post {
     @PrePersist
     public void PrePersist() {
         this.goodNumber = 0;
+        this.viewNumber = 0;
         this.reviewNumber = 0;
         this.status = PostStatus.ACTIVE;
         this.createdTime = LocalDateTime.now();
@@ -0,0 +1,55 @@
+package javaiscoffee.polaroad.post;
+
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostOutboxConsumer;
+import javaiscoffee.polaroad.redis.RedisService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 포스트 변경 이벤트로 레디스 pc: 캐시 갱신
+ * 작성, 수정된 포스트는 DB에서 다시 읽어서 캐싱하고, 삭제되거나 상태가 바뀐 포스트는 캐시에서 삭제한다.
+ * 추천 수가 바뀐 포스트는 인기 포스트이거나 이미 캐싱되어 있을 때만 다시 캐싱한다.
+ */
+@Component
+public class PostCachingOutboxConsumer implements PostOutboxConsumer {
+    private final PostRepository postRepository;
+    private final RedisService redisService;
+
+    @Autowired
+    public PostCachingOutboxConsumer(PostRepository postRepository, RedisService redisService) {
+        this.postRepository = postRepository;
+        this.redisService = redisService;
+    }
+
+    @Override
+    public void consume(PostChangeEvent event) {
+        Long postId = event.getPostId();
+        switch (event.getType()) {
+            case DELETED, STATUS_CHANGED -> redisService.evictCachingPost(postId);
+            case SAVED, EDITED -> recache(postId);
+            case GOOD_CHANGED -> {
+                long start = System.nanoTime();
+                PostInfoCachingDto cachingDto = postRepository.getPostCachingDtoById(postId);
+                if (cachingDto != null && (cachingDto.getGoodNumber() >= 10 || redisService.hasCachingPost(postId))) {
+                    redisService.saveCachingPostInfo(cachingDto, postId, computeMillis(start));
+                }
+            }
+        }
+    }
+
+    private void recache(Long postId) {
+        long start = System.nanoTime();
+        PostInfoCachingDto cachingDto = postRepository.getPostCachingDtoById(postId);
+        if (cachingDto == null) {
+            redisService.evictCachingPost(postId);
+            return;
+        }
+        redisService.saveCachingPostInfo(cachingDto, postId, computeMillis(start));
+    }
+
+    //DB 조회 시간, 미리 갱신 판단에 사용하므로 0이 되지 않도록 최소 1ms
+    private static long computeMillis(long startNanos) {
+        return Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
@@ -8,6 +8,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import javaiscoffee.polaroad.post.card.CardListResponseDto;
 import javaiscoffee.polaroad.post.card.CardSaveDto;
 import javaiscoffee.polaroad.post.card.CardService;
+import javaiscoffee.polaroad.post.suggest.PostSuggestDto;
+import javaiscoffee.polaroad.post.suggest.PostSuggestIndex;
 import javaiscoffee.polaroad.response.ResponseMessages;
 import javaiscoffee.polaroad.security.CustomUserDetails;
 import javaiscoffee.polaroad.wrapper.RequestWrapperDto;
@@ -33,6 +35,7 @@ public class PostController {
     private final PostService postService;
     private final CardService cardService;
     private final KoreanTextGenerator koreanTextGenerator;
+    private final PostSuggestIndex postSuggestIndex;
     private static final Random random = new Random();
 
     @Operation(summary = "포스트 생성", description = "포스트 생성하는 API")
@@ -97,11 +100,12 @@ public class PostController {
     }
 
     @Operation(summary = "포스트 검색", description = "키워드, 해쉬태그 검색하는 API")
-    @Parameter(name = "page", description = "1부터 시작합니다. 몇 번째 페이지를 출력할 것인지",required = true, example = "1")
+    @Parameter(name = "page", description = "1부터 시작합니다. 몇 번째 페이지를 출력할 것인지 \n cursor를 넘겨주면 무시됩니다.", example = "1")
     @Parameter(name = "pageSize", description = "한 페이지에 몇 개의 결과를 표시할 것인지 정하는 수치", required = true, example = "8")
-    @Parameter(name = "searchType", description = "검색 방식을 나타냅니다. \n - KEYWORD = 키워드검색 \n - HASHTAG = 해쉬태그검색", example = "KEYWORD")
+    @Parameter(name = "cursor", description = "이전 응답의 nextCursor \n 넘겨주면 page 대신 커서 다음 위치부터 조회합니다. 정렬 방식이 같아야 합니다.", example = "UjoxMjM")
+    @Parameter(name = "searchType", description = "검색 방식을 나타냅니다. \n - KEYWORD = 키워드검색 \n - HASHTAG = 해쉬태그검색 \n - FULLTEXT = 전문검색 (검색어와 관련도 높은 순서로 정렬, 정렬 방식과 커서는 무시하고 page로 조회)", example = "KEYWORD")
     @Parameter(name = "keyword", description = "검색할 키워드나 해쉬태그 \n null값이면 나머지 조건으로 검색", example = "자바")
-    @Parameter(name = "sortBy", description = "검색 결과를 정렬할 방식 \n - GOOD = 하트순 \n - RECENT = 최신순",  required = true, example = "RECENT")
+    @Parameter(name = "sortBy", description = "검색 결과를 정렬할 방식 \n - GOOD = 하트순 \n - RECENT = 최신순 \n - VIEW = 조회순 \n - TRENDING = 급상승순 (커서 없이 page로만 조회)",  required = true, example = "RECENT")
     @Parameter(name = "concept", description = "게시글 카테고리 \n null값이면 나머지 조건으로 검색 \n- FOOD 식도락\n" +
             "- NATURE 자연\n" +
             "- CITY 도시관광\n" +
@@ -121,22 +125,24 @@ public class PostController {
             @ApiResponse(responseCode = "200", description = "리스트 조회에 성공한 경우")
     })
     @GetMapping("/list")
-    public ResponseEntity<PostListResponseDto> getPostList(@RequestParam(name = "page") int page,
+    public ResponseEntity<PostListResponseDto> getPostList(@RequestParam(name = "page", required = false, defaultValue = "1") int page,
                                                          @RequestParam(name = "pageSize") int pageSize,
+                                                         @RequestParam(name = "cursor", required = false) String cursor,
                                                          @RequestParam(name = "searchType") PostSearchType searchType,
                                                          @RequestParam(name = "keyword",required = false) String keyword,
                                                          @RequestParam(name = "sortBy") PostListSort sortBy,
                                                          @RequestParam(name = "concept", required = false) PostConcept concept,
                                                          @RequestParam(name = "region", required = false) PostRegion region) {
-        return postService.getPostListByIndexMatch(page,pageSize,searchType,keyword,sortBy,concept,region,PostStatus.ACTIVE);
+        return postService.getPostListByIndexMatch(page,pageSize,cursor,searchType,keyword,sortBy,concept,region,PostStatus.ACTIVE);
     }
 
     @Operation(summary = "포스트 검색", description = "키워드, 해쉬태그 검색하는 API")
-    @Parameter(name = "page", description = "1부터 시작합니다. 몇 번째 페이지를 출력할 것인지",required = true, example = "1")
+    @Parameter(name = "page", description = "1부터 시작합니다. 몇 번째 페이지를 출력할 것인지 \n cursor를 넘겨주면 무시됩니다.", example = "1")
     @Parameter(name = "pageSize", description = "한 페이지에 몇 개의 결과를 표시할 것인지 정하는 수치", required = true, example = "8")
-    @Parameter(name = "searchType", description = "검색 방식을 나타냅니다. \n - KEYWORD = 키워드검색 \n - HASHTAG = 해쉬태그검색", example = "KEYWORD")
+    @Parameter(name = "cursor", description = "이전 응답의 nextCursor \n 넘겨주면 page 대신 커서 다음 위치부터 조회합니다. 정렬 방식이 같아야 합니다.", example = "UjoxMjM")
+    @Parameter(name = "searchType", description = "검색 방식을 나타냅니다. \n - KEYWORD = 키워드검색 \n - HASHTAG = 해쉬태그검색 \n - FULLTEXT = 전문검색 (검색어와 관련도 높은 순서로 정렬, 정렬 방식과 커서는 무시하고 page로 조회)", example = "KEYWORD")
     @Parameter(name = "keyword", description = "검색할 키워드나 해쉬태그 \n null값이면 나머지 조건으로 검색", example = "자바")
-    @Parameter(name = "sortBy", description = "검색 결과를 정렬할 방식 \n - GOOD = 하트순 \n - RECENT = 최신순",  required = true, example = "RECENT")
+    @Parameter(name = "sortBy", description = "검색 결과를 정렬할 방식 \n - GOOD = 하트순 \n - RECENT = 최신순 \n - VIEW = 조회순 \n - TRENDING = 급상승순 (커서 없이 page로만 조회)",  required = true, example = "RECENT")
     @Parameter(name = "concept", description = "게시글 카테고리 \n null값이면 나머지 조건으로 검색 \n- FOOD 식도락\n" +
             "- NATURE 자연\n" +
             "- CITY 도시관광\n" +
@@ -156,14 +162,27 @@ public class PostController {
             @ApiResponse(responseCode = "200", description = "리스트 조회에 성공한 경우")
     })
     @GetMapping("/list-like")
-    public ResponseEntity<PostListResponseDto> getPostListByIndexMatch(@RequestParam(name = "page") int page,
+    public ResponseEntity<PostListResponseDto> getPostListByIndexMatch(@RequestParam(name = "page", required = false, defaultValue = "1") int page,
                                                            @RequestParam(name = "pageSize") int pageSize,
+                                                           @RequestParam(name = "cursor", required = false) String cursor,
                                                            @RequestParam(name = "searchType") PostSearchType searchType,
                                                            @RequestParam(name = "keyword",required = false) String keyword,
                                                            @RequestParam(name = "sortBy") PostListSort sortBy,
                                                            @RequestParam(name = "concept", required = false) PostConcept concept,
                                                            @RequestParam(name = "region", required = false) PostRegion region) {
-        return postService.getPostList(page,pageSize,searchType,keyword,sortBy,concept,region,PostStatus.ACTIVE);
+        return postService.getPostList(page,pageSize,cursor,searchType,keyword,sortBy,concept,region,PostStatus.ACTIVE);
+    }
+
+    @Operation(summary = "검색어 자동완성", description = "입력 중인 글자로 시작하는 해쉬태그, 포스트 제목을 많이 사용된 순서로 조회하는 API")
+    @Parameter(name = "keyword", description = "입력 중인 검색어 \n 초성만 입력해도 검색됩니다. (ㅅㅇ → 서울)", required = true, example = "서우")
+    @Parameter(name = "size", description = "조회할 검색어 개수, 최대 10개", example = "10")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "자동완성 조회에 성공한 경우")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<PostSuggestDto>> getPostSuggestions(@RequestParam(name = "keyword") String keyword,
+                                                                   @RequestParam(name = "size", required = false, defaultValue = "10") int size) {
+        return ResponseEntity.ok(postSuggestIndex.suggest(keyword, size));
     }
 
     @Operation(summary = "포스트 내용 조회", description = "포스트 내용 조회 페이지에서 사용하는 API")
@@ -190,6 +209,17 @@ public class PostController {
         return ResponseEntity.ok(null);
     }
 
+    @Operation(summary = "포스트 추천 여부 조회", description = "목록에 있는 포스트 중에서 사용자가 추천한 포스트 ID 목록을 조회하는 API \n ## 최대 100개까지 조회 가능")
+    @Parameter(name = "postIds", description = "추천 여부를 확인할 포스트 ID 목록", required = true, example = "1,2,3")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "추천 여부 조회에 성공했을 경우"),
+            @ApiResponse(responseCode = "400", description = "포스트 ID가 100개를 넘는 경우")
+    })
+    @GetMapping("/good/check")
+    public ResponseEntity<List<Long>> getGoodPostIds(@RequestParam(name = "postIds") List<Long> postIds, @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(postService.getGoodPostIds(userDetails.getMemberId(), postIds));
+    }
+
     @Operation(summary = "마이페이지 카드 조회", description = "마이페이지에서 사용자가 업로드한 삭제되지 않은 카드들만 조회")
     @Parameter(name = "page", description = "현재 페이지 숫자 1부터 시작 1페이지이면 1을 주입", required = true, example = "1")
     @Parameter(name = "pageSize",description = "페이지 크기, 한 페이지에 표시할 카드 개수", required = true, example = "8")
@@ -223,6 +253,7 @@ public class PostController {
     @Operation(summary = "팔로잉하고 있는 멤버들의 포스트 조회", description = "현재 멤버가 팔로잉하고 있는 멤버들이 올린 포스트 목록 조회")
     @Parameter(name = "page", description = "현재 페이지 숫자 1부터 시작 1페이지이면 1을 주입", required = true, example = "1")
     @Parameter(name = "pageSize",description = "페이지 크기, 한 페이지에 표시할 카드 개수", required = true, example = "8")
+    @Parameter(name = "cursor", description = "이전 응답의 nextCursor \n 넘겨주면 page 대신 커서 다음 위치부터 조회합니다.", example = "UjoxMjM")
     @Parameter(name = "concept", description = "게시글 카테고리", example = "FOOD")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "목록 조회에 성공했을 경우"),
@@ -230,17 +261,18 @@ public class PostController {
     })
     @GetMapping("/following")
     public ResponseEntity<PostListResponseDto> getFollowingMemberPosts(@AuthenticationPrincipal CustomUserDetails userDetails,
-                                                                       @RequestParam(name = "page") int page,
+                                                                       @RequestParam(name = "page", required = false, defaultValue = "1") int page,
                                                                        @RequestParam(name = "pageSize") int pageSize,
+                                                                       @RequestParam(name = "cursor", required = false) String cursor,
                                                                        @RequestParam(name = "concept", required = false) PostConcept concept) {
         Long memberId = userDetails.getMemberId();
-        return postService.getFollowingMemberPosts(memberId,concept,page,pageSize,PostStatus.ACTIVE);
+        return postService.getFollowingMemberPosts(memberId,concept,page,pageSize,cursor,PostStatus.ACTIVE);
     }
 
     @Operation(summary = "시간별 조회수 랭킹으로 포스트 목록 조회", description = "1일,7일,30일 구간별 총 조회수 랭킹으로 포스트 목록을 조회하는 API")
     @Parameter(name = "page", description = "현재 페이지 숫자 1부터 시작 1페이지이면 1을 주입", required = true, example = "1")
     @Parameter(name = "pageSize",description = "페이지 크기, 한 페이지에 표시할 카드 개수", required = true, example = "8")
-    @Parameter(name = "range", description = "랭킹 기간 범위 ex) 일간,주간,월간", required = true, example = "DAILY")
+    @Parameter(name = "range", description = "랭킹 기간 범위 ex) 일간,주간,월간, TRENDING이면 급상승순", required = true, example = "DAILY")
     @GetMapping("/view-rangking")
     public ResponseEntity<PostListResponseDto> getPostViewRangkingList(@RequestParam(name = "page") int page,
                                                                        @RequestParam(name = "pageSize") int pageSize,
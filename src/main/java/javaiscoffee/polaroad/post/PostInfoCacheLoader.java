@@ -0,0 +1,136 @@
+package javaiscoffee.polaroad.post;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import javaiscoffee.polaroad.redis.PostCachingEntry;
+import javaiscoffee.polaroad.redis.RedisService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포스트 내용 캐싱 조회
+ * 1. 같은 포스트의 캐시가 비어있을 때 파드마다 하나의 요청만 DB에서 조회하고 나머지 요청은 그 결과를 기다린다.
+ * 2. 캐시가 만료되기 전에 확률적으로 미리 갱신한다. (XFetch)
+ *    만료 시각에 가까울수록, DB 조회가 오래 걸리는 포스트일수록 갱신될 확률이 높아서
+ *    인기 포스트는 만료되기 전에 한 요청이 백그라운드에서 갱신하고 나머지는 기존 캐시로 응답한다.
+ */
+@Slf4j
+@Component
+public class PostInfoCacheLoader {
+    //값이 클수록 더 일찍 갱신
+    private final static double EARLY_REFRESH_BETA = 1.0;
+    private final static String METRIC_NAME = "post.cache.load";
+
+    private final PostRepository postRepository;
+    private final RedisService redisService;
+    private final Executor postDetailExecutor;
+    //포스트별로 진행 중인 DB 조회
+    private final ConcurrentMap<Long, CompletableFuture<PostInfoCachingDto>> loadingPosts = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+    private final Counter earlyRefreshCounter;
+    private final Timer loadTimer;
+
+    @Autowired
+    public PostInfoCacheLoader(PostRepository postRepository, RedisService redisService, @Qualifier("postDetailExecutor") Executor postDetailExecutor, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.redisService = redisService;
+        this.postDetailExecutor = postDetailExecutor;
+        this.hitCounter = meterRegistry.counter(METRIC_NAME, "result", "hit");
+        this.missCounter = meterRegistry.counter(METRIC_NAME, "result", "miss");
+        this.coalescedCounter = meterRegistry.counter(METRIC_NAME, "result", "coalesced");
+        this.earlyRefreshCounter = meterRegistry.counter(METRIC_NAME, "result", "early_refresh");
+        this.loadTimer = meterRegistry.timer("post.cache.load.db");
+    }
+
+    /**
+     * 포스트 캐싱 정보 조회, 포스트가 없으면 null
+     */
+    public PostInfoCachingDto load(Long postId) {
+        PostCachingEntry cachingEntry = redisService.getCachingPostEntry(postId);
+        if (cachingEntry != null) {
+            hitCounter.increment();
+            if (shouldRefreshEarly(cachingEntry)) {
+                refreshAsync(postId);
+            }
+            return cachingEntry.getPostDto();
+        }
+        missCounter.increment();
+
+        CompletableFuture<PostInfoCachingDto> newLoading = new CompletableFuture<>();
+        CompletableFuture<PostInfoCachingDto> loading = loadingPosts.putIfAbsent(postId, newLoading);
+        //다른 요청이 이미 조회 중이면 결과 기다리기
+        if (loading != null) {
+            coalescedCounter.increment();
+            return join(loading);
+        }
+        loadAndCache(postId, newLoading);
+        return join(newLoading);
+    }
+
+    //다른 요청이 갱신 중이면 건너뛰고, 갱신하는 동안 요청들은 기존 캐시로 응답
+    private void refreshAsync(Long postId) {
+        CompletableFuture<PostInfoCachingDto> newLoading = new CompletableFuture<>();
+        if (loadingPosts.putIfAbsent(postId, newLoading) != null) return;
+        earlyRefreshCounter.increment();
+        try {
+            postDetailExecutor.execute(() -> loadAndCache(postId, newLoading));
+        } catch (RuntimeException e) {
+            loadingPosts.remove(postId, newLoading);
+            newLoading.completeExceptionally(e);
+        }
+    }
+
+    private void loadAndCache(Long postId, CompletableFuture<PostInfoCachingDto> loading) {
+        try {
+            //DB 조회 중에 포스트가 수정, 삭제되면 세대 번호가 바뀌므로 조회한 데이터는 캐싱하지 않고 이번 응답에만 사용
+            String generation = redisService.getCachingPostGeneration(postId);
+            long start = System.nanoTime();
+            PostInfoCachingDto postDto = postRepository.getPostCachingDtoById(postId);
+            long computeNanos = System.nanoTime() - start;
+            loadTimer.record(computeNanos, TimeUnit.NANOSECONDS);
+            if (postDto != null) {
+                redisService.saveCachingPostInfoIfUnchanged(postDto, postId, Math.max(1, computeNanos / 1_000_000), generation);
+            }
+            loading.complete(postDto);
+        } catch (RuntimeException e) {
+            log.error("포스트 캐싱 정보 조회 실패 = {}", postId, e);
+            loading.completeExceptionally(e);
+        } finally {
+            loadingPosts.remove(postId, loading);
+        }
+    }
+
+    /**
+     * XFetch : now - computeMillis * beta * ln(random) >= expireAt 이면 미리 갱신
+     * 메타데이터가 없는 캐시는 만료될 때까지 그대로 사용
+     */
+    private boolean shouldRefreshEarly(PostCachingEntry cachingEntry) {
+        if (cachingEntry.getComputeMillis() <= 0 || cachingEntry.getExpireAtMillis() <= 0) return false;
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();   // (0, 1]
+        double earlyMillis = -cachingEntry.getComputeMillis() * EARLY_REFRESH_BETA * Math.log(random);
+        return System.currentTimeMillis() + earlyMillis >= cachingEntry.getExpireAtMillis();
+    }
+
+    private static PostInfoCachingDto join(CompletableFuture<PostInfoCachingDto> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw e;
+        }
+    }
+}
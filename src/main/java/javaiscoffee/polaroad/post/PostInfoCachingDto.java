@@ -23,6 +23,8 @@ public class PostInfoCachingDto {
     private String routePoint;
     @Schema(description = "포스트 추천 수", example = "7")
     private int goodNumber;
+    @Schema(description = "포스트 조회 수", example = "1234")
+    private long viewNumber;
     @Schema(description = "썸네일 번호", example = "1")
     private int thumbnailIndex;
     @Schema(description = "포스트 카테고리", example = "FOOD")
@@ -36,4 +38,16 @@ public class PostInfoCachingDto {
     @Schema(description = "포스트 해쉬태그")
     private List<PostHashtagInfoDto> postHashtags;
 
+    // getPostCachingDtoById 메서드에서 사용하는 생성자
+    public PostInfoCachingDto(String title, Long memberId, String routePoint, int goodNumber, long viewNumber, int thumbnailIndex, PostConcept concept, PostRegion region, LocalDateTime updatedTime) {
+        this.title = title;
+        this.memberId = memberId;
+        this.routePoint = routePoint;
+        this.goodNumber = goodNumber;
+        this.viewNumber = viewNumber;
+        this.thumbnailIndex = thumbnailIndex;
+        this.concept = concept;
+        this.region = region;
+        this.updatedTime = updatedTime;
+    }
 }
@@ -1,5 +1,6 @@
 package javaiscoffee.polaroad.post;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import javaiscoffee.polaroad.post.card.CardInfoDto;
 import javaiscoffee.polaroad.post.hashtag.PostHashtagInfoDto;
@@ -27,6 +28,8 @@ public class PostInfoDto {
     private String routePoint;
     @Schema(description = "포스트 추천 수", example = "7")
     private int goodNumber;
+    @Schema(description = "포스트 조회 수", example = "1234")
+    private long viewNumber;
     @Schema(description = "썸네일 번호", example = "1")
     private int thumbnailIndex;
     @Schema(description = "포스트 카테고리", example = "FOOD")
@@ -39,19 +42,32 @@ public class PostInfoDto {
     private List<CardInfoDto> cards;
     @Schema(description = "포스트 해쉬태그")
     private List<PostHashtagInfoDto> postHashtags;
+    @Schema(description = "포스트 순 조회자 수 (추정값)", example = "123")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long uniqueViewerCount;
+    @Schema(description = "이번 주(월요일부터) 포스트 순 조회자 수 (추정값)", example = "45")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long weeklyUniqueViewerCount;
+    @Schema(description = "이번 달 포스트 순 조회자 수 (추정값)", example = "98")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long monthlyUniqueViewerCount;
 
     // getPostInfoById 메서드에서 사용하는 생성자
-    public PostInfoDto(String title, boolean isMemberGood, PostMemberInfoDto memberInfo, String routePoint, int goodNumber, int thumbnailIndex, PostConcept concept, PostRegion region, LocalDateTime updatedTime) {
+    public PostInfoDto(String title, boolean isMemberGood, PostMemberInfoDto memberInfo, String routePoint, int goodNumber, long viewNumber, int thumbnailIndex, PostConcept concept, PostRegion region, LocalDateTime updatedTime) {
         this.title = title;
         this.isMemberGood = isMemberGood;
         this.memberInfo = memberInfo;
         this.routePoint = routePoint;
         this.goodNumber = goodNumber;
+        this.viewNumber = viewNumber;
         this.thumbnailIndex = thumbnailIndex;
         this.concept = concept;
         this.region = region;
         this.updatedTime = updatedTime;
         this.cards = null;
         this.postHashtags = null;
+        this.uniqueViewerCount = null;
+        this.weeklyUniqueViewerCount = null;
+        this.monthlyUniqueViewerCount = null;
     }
 }
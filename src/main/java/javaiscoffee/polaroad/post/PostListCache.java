@@ -0,0 +1,169 @@
+package javaiscoffee.polaroad.post;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import javaiscoffee.polaroad.post.index.PostBitmapIndex;
+import javaiscoffee.polaroad.post.index.PostIndexDto;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.redis.PostChangeSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 탐색, 검색 목록 페이지 결과 로컬 캐시
+ * 검색 조건을 정규화한 값과 (컨셉, 지역) 칸의 세대(generation)를 key로 사용한다.
+ * 포스트가 바뀌면 그 포스트가 나올 수 있는 칸((컨셉|전체) x (지역|전체))의 세대만 올려서
+ * 이전 세대로 저장된 페이지는 더 이상 조회되지 않고 30초 안에 만료된다.
+ * 세대는 조회 전에 읽으므로 DB 조회 중에 변경이 생겨도 오래된 결과가 새 세대로 저장되지 않는다.
+ *
+ * 포스트가 다른 컨셉, 지역으로 옮겨가거나 삭제된 경우는 이전 칸을 알 수 없으므로
+ * 그 포스트가 들어있는 캐시 페이지를 직접 지운다.
+ */
+@Slf4j
+@Component
+public class PostListCache implements PostChangeSubscriber {
+    private final static int MAXIMUM_SIZE = 5_000;
+    private final static long EXPIRE_SECONDS = 30;
+    private final static String METRIC_NAME = "post.list.cache";
+    private final static String ALL = "ALL";
+
+    private final PostRepository postRepository;
+    private final MeterRegistry meterRegistry;
+    private final Cache<PostListCacheKey, CachedPage> cache = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .build();
+    //(컨셉, 지역) 칸별 세대
+    private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<>();
+    //모든 칸에 공통으로 붙는 세대, 변경 포스트를 조회하지 못했을 때 전체 무효화에 사용
+    private final AtomicLong epoch = new AtomicLong();
+    //아직 세대에 반영하지 않은 변경 포스트
+    private final Set<Long> changedPostIds = ConcurrentHashMap.newKeySet();
+    //검색 형태별 적중, 실패 카운터
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PostListCache(PostRepository postRepository, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 캐시된 목록 페이지를 조회하고 없으면 loader로 조회해서 저장
+     * @param source 같은 조건이라도 조회 방식이 다른 API를 구분하기 위한 값
+     */
+    public PostListResponseDto get(String source, int page, int pageSize, String cursor, PostSearchType searchType, String searchKeyword, PostListSort sortBy,
+                                   PostConcept concept, PostRegion region, PostStatus status, Supplier<PostListResponseDto> loader) {
+        String keyword = normalizeKeyword(searchKeyword);
+        boolean hasCursor = cursor != null && !cursor.isBlank();
+        PostListCacheKey key = new PostListCacheKey(
+                source,
+                //검색어가 없으면 검색 방식과 상관없이 같은 탐색 결과
+                keyword == null ? null : searchType,
+                keyword,
+                sortBy,
+                concept,
+                region,
+                status,
+                //커서가 있으면 page는 무시
+                hasCursor ? 0 : page,
+                pageSize,
+                hasCursor ? cursor : null,
+                epoch.get(),
+                generations.getOrDefault(cell(concept == null ? ALL : concept.name(), region == null ? ALL : region.name()), 0L));
+
+        String shape = shape(keyword == null ? null : searchType, concept, region, hasCursor);
+        CachedPage cached = cache.getIfPresent(key);
+        if (cached != null) {
+            counter(shape, "hit").increment();
+            return cached.posts();
+        }
+        counter(shape, "miss").increment();
+        PostListResponseDto posts = loader.get();
+        Set<Long> postIds = new HashSet<>();
+        posts.getPosts().forEach(post -> postIds.add(post.getPostId()));
+        cache.put(key, new CachedPage(posts, postIds));
+        return posts;
+    }
+
+    @Override
+    public void onPostChanged(PostChangeEvent event) {
+        changedPostIds.add(event.getPostId());
+    }
+
+    /**
+     * 1초마다 변경된 포스트의 현재 컨셉, 지역 칸 세대를 올리고 변경된 포스트가 들어있는 페이지 삭제
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void applyChangedPosts() {
+        if (changedPostIds.isEmpty()) return;
+        List<Long> postIds = new ArrayList<>(changedPostIds);
+        changedPostIds.removeAll(postIds);
+
+        Set<String> cells = new HashSet<>();
+        try {
+            for (PostIndexDto post : postRepository.findPostIndexDtosByPostIdIn(postIds)) {
+                List<String> concepts = new ArrayList<>(List.of(ALL));
+                if (post.getConcept() != null) concepts.add(post.getConcept().name());
+                if (post.getGoodNumber() >= PostBitmapIndex.HOT_GOOD_NUMBER) concepts.add(PostConcept.HOT.name());
+                List<String> regions = new ArrayList<>(List.of(ALL));
+                if (post.getRegion() != null) regions.add(post.getRegion().name());
+                concepts.forEach(concept -> regions.forEach(region -> cells.add(cell(concept, region))));
+            }
+        } catch (RuntimeException e) {
+            //조회에 실패하면 공통 세대를 올려서 모든 페이지 무효화
+            log.error("목록 캐시 무효화 대상 조회 실패 = {}", postIds, e);
+            epoch.incrementAndGet();
+            cache.invalidateAll();
+            return;
+        }
+        cells.forEach(cell -> generations.merge(cell, 1L, Long::sum));
+
+        Set<Long> changed = new HashSet<>(postIds);
+        cache.asMap().entrySet().removeIf(entry -> !Collections.disjoint(entry.getValue().postIds(), changed));
+    }
+
+    private static String normalizeKeyword(String searchKeyword) {
+        if (searchKeyword == null) return null;
+        //DB, 색인 검색 모두 대소문자를 구분하지 않음
+        return searchKeyword.toLowerCase(Locale.ROOT);
+    }
+
+    private static String cell(String concept, String region) {
+        return concept + ":" + region;
+    }
+
+    /**
+     * 지표 태그 값, 검색 방식(탐색이면 explore), 필터 종류, 페이징 방식으로 구분
+     */
+    private static String shape(PostSearchType searchType, PostConcept concept, PostRegion region, boolean hasCursor) {
+        String type = searchType == null ? "explore" : searchType.name().toLowerCase(Locale.ROOT);
+        String filter = concept != null && region != null ? "concept_region" : concept != null ? "concept" : region != null ? "region" : "none";
+        return type + "," + filter + "," + (hasCursor ? "cursor" : "page");
+    }
+
+    private Counter counter(String shape, String result) {
+        return counters.computeIfAbsent(shape + "," + result, key -> {
+            String[] tags = key.split(",");
+            return meterRegistry.counter(METRIC_NAME, "type", tags[0], "filter", tags[1], "paging", tags[2], "result", tags[3]);
+        });
+    }
+
+    private record PostListCacheKey(String source, PostSearchType searchType, String keyword, PostListSort sortBy, PostConcept concept, PostRegion region,
+                                    PostStatus status, int page, int pageSize, String cursor, long epoch, long generation) {
+    }
+
+    private record CachedPage(PostListResponseDto posts, Set<Long> postIds) {
+    }
+}
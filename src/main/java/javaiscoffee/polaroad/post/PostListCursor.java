@@ -0,0 +1,96 @@
+package javaiscoffee.polaroad.post;
+
+import javaiscoffee.polaroad.exception.BadRequestException;
+import javaiscoffee.polaroad.response.ResponseMessages;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 포스트 목록 커서(키셋) 페이징 위치
+ * 최신순은 (postId), 인기순은 (goodNumber, postId), 조회순은 (viewNumber, postId)로 마지막으로 조회한 포스트 위치를 기억해서
+ * 다음 페이지는 offset 없이 그 위치 다음부터 조회한다.
+ * 클라이언트에는 내부 형식을 드러내지 않도록 base64로 인코딩한 문자열을 전달한다.
+ */
+@Getter
+public class PostListCursor {
+    private final static String RECENT_PREFIX = "R";
+    private final static String GOOD_PREFIX = "G";
+    private final static String VIEW_PREFIX = "V";
+    private final static String SEPARATOR = ":";
+
+    private final PostListSort sortBy;
+    private final int goodNumber;
+    private final long viewNumber;
+    private final long postId;
+
+    private PostListCursor(PostListSort sortBy, int goodNumber, long viewNumber, long postId) {
+        this.sortBy = sortBy;
+        this.goodNumber = goodNumber;
+        this.viewNumber = viewNumber;
+        this.postId = postId;
+    }
+
+    /**
+     * 조회한 마지막 포스트로 다음 페이지 커서 생성
+     */
+    public static PostListCursor of(PostListRepositoryDto lastPost, PostListSort sortBy) {
+        return new PostListCursor(sortBy, lastPost.getGoodNumber(), lastPost.getViewNumber(), lastPost.getPostId());
+    }
+
+    /**
+     * 최신순 다음 페이지 커서 생성
+     */
+    public static PostListCursor recent(long lastPostId) {
+        return new PostListCursor(PostListSort.RECENT, 0, 0, lastPostId);
+    }
+
+    /**
+     * 인기순 다음 페이지 커서 생성
+     */
+    public static PostListCursor good(int goodNumber, long lastPostId) {
+        return new PostListCursor(PostListSort.GOOD, goodNumber, 0, lastPostId);
+    }
+
+    /**
+     * 조회순 다음 페이지 커서 생성
+     */
+    public static PostListCursor view(long viewNumber, long lastPostId) {
+        return new PostListCursor(PostListSort.VIEW, 0, viewNumber, lastPostId);
+    }
+
+    /**
+     * 커서 문자열 해석, 커서가 없으면 null 반환
+     * 형식이 잘못되었거나 정렬 방식이 다르면 에러
+     */
+    public static PostListCursor decode(String cursor, PostListSort sortBy) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR);
+            if (sortBy.equals(PostListSort.RECENT) && values.length == 2 && values[0].equals(RECENT_PREFIX)) {
+                return new PostListCursor(sortBy, 0, 0, Long.parseLong(values[1]));
+            }
+            if (sortBy.equals(PostListSort.GOOD) && values.length == 3 && values[0].equals(GOOD_PREFIX)) {
+                return new PostListCursor(sortBy, Integer.parseInt(values[1]), 0, Long.parseLong(values[2]));
+            }
+            if (sortBy.equals(PostListSort.VIEW) && values.length == 3 && values[0].equals(VIEW_PREFIX)) {
+                return new PostListCursor(sortBy, 0, Long.parseLong(values[1]), Long.parseLong(values[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(ResponseMessages.BAD_REQUEST.getMessage());
+        }
+        throw new BadRequestException(ResponseMessages.BAD_REQUEST.getMessage());
+    }
+
+    public String encode() {
+        String value = switch (sortBy) {
+            case RECENT -> RECENT_PREFIX + SEPARATOR + postId;
+            case GOOD -> GOOD_PREFIX + SEPARATOR + goodNumber + SEPARATOR + postId;
+            case VIEW -> VIEW_PREFIX + SEPARATOR + viewNumber + SEPARATOR + postId;
+            //급상승순은 점수가 계속 바뀌어서 page로만 조회
+            case TRENDING -> throw new IllegalStateException("커서를 사용하지 않는 정렬 = " + sortBy);
+        };
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
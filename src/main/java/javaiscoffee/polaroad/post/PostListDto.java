@@ -1,5 +1,6 @@
 package javaiscoffee.polaroad.post;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -32,4 +33,25 @@ public class PostListDto {
     private List<String> images;
     @Schema(description = "포스트 업데이트 날짜", example = "2024-04-04T12:12:12")
     private LocalDateTime updatedTime;
+    @Schema(description = "포스트 조회 수", example = "1234")
+    private long viewNumber;
+    @Schema(description = "랭킹 기간 동안 조회 수 (일간 순 조회자 수의 합이라 멤버당 하루 한 번씩 셈, 기간 순 조회자 수가 아님, 추정값), 조회수 랭킹에서만 포함", example = "123")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long rankingViewCount;
+
+    public PostListDto(String title, Long postId, String nickname, int goodNumber, PostConcept concept, PostRegion region, List<String> images, LocalDateTime updatedTime) {
+        this.title = title;
+        this.postId = postId;
+        this.nickname = nickname;
+        this.goodNumber = goodNumber;
+        this.concept = concept;
+        this.region = region;
+        this.images = images;
+        this.updatedTime = updatedTime;
+    }
+
+    public PostListDto(String title, Long postId, String nickname, int goodNumber, PostConcept concept, PostRegion region, List<String> images, LocalDateTime updatedTime, long viewNumber) {
+        this(title, postId, nickname, goodNumber, concept, region, images, updatedTime);
+        this.viewNumber = viewNumber;
+    }
 }
@@ -0,0 +1,22 @@
+package javaiscoffee.polaroad.post;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 검색 결과의 컨셉, 지역별 포스트 수
+ * 컨셉 개수는 선택한 지역 조건만, 지역 개수는 선택한 컨셉 조건만 적용해서 다른 항목을 선택했을 때의 개수를 보여준다.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostListFacetsDto {
+    @Schema(description = "컨셉별 포스트 수", example = "{\"FOOD\": 12, \"NATURE\": 3}")
+    private Map<PostConcept, Long> concepts;
+    @Schema(description = "지역별 포스트 수", example = "{\"SEOUL\": 10, \"BUSAN\": 5}")
+    private Map<PostRegion, Long> regions;
+}
@@ -30,6 +30,10 @@ public class PostListRepositoryDto {
     private List<CardListRepositoryDto> cards;
     @Schema(description = "포스트 업데이트 날짜", example = "2024-04-04T12:12:12")
     private LocalDateTime updatedTime;
+    @Schema(description = "포스트 목록 미리보기 이미지, 줄바꿈으로 구분")
+    private String previewImages;
+    @Schema(description = "포스트 조회 수", example = "1234")
+    private long viewNumber;
 
     public PostListRepositoryDto(String title, Long postId, String nickname, int thumbnailIndex, int goodNumber, PostConcept concept, PostRegion region, LocalDateTime updatedTime) {
         this.title = title;
@@ -42,4 +46,14 @@ public class PostListRepositoryDto {
         this.cards = null;
         this.updatedTime = updatedTime;
     }
+
+    public PostListRepositoryDto(String title, Long postId, String nickname, int thumbnailIndex, int goodNumber, PostConcept concept, PostRegion region, LocalDateTime updatedTime, String previewImages) {
+        this(title, postId, nickname, thumbnailIndex, goodNumber, concept, region, updatedTime);
+        this.previewImages = previewImages;
+    }
+
+    public PostListRepositoryDto(String title, Long postId, String nickname, int thumbnailIndex, int goodNumber, PostConcept concept, PostRegion region, LocalDateTime updatedTime, String previewImages, long viewNumber) {
+        this(title, postId, nickname, thumbnailIndex, goodNumber, concept, region, updatedTime, previewImages);
+        this.viewNumber = viewNumber;
+    }
 }
@@ -1,5 +1,6 @@
 package javaiscoffee.polaroad.post;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,4 +16,20 @@ public class PostListResponseDto {
     private List<PostListDto> posts;
     @Schema(description = "총 페이지", example = "1")
     private boolean hasNext;
+    @Schema(description = "다음 페이지 커서, 다음 페이지 조회할 때 cursor로 넘겨주면 됩니다. 다음 페이지가 없으면 null", example = "UjoxMjM")
+    private String nextCursor;
+    @Schema(description = "컨셉, 지역별 포스트 수, 엘라스틱서치로 검색한 경우에만 포함")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PostListFacetsDto facets;
+
+    public PostListResponseDto(List<PostListDto> posts, boolean hasNext, String nextCursor) {
+        this.posts = posts;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public PostListResponseDto(List<PostListDto> posts, boolean hasNext) {
+        this.posts = posts;
+        this.hasNext = hasNext;
+    }
 }
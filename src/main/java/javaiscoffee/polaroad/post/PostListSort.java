@@ -1,5 +1,5 @@
 package javaiscoffee.polaroad.post;
 
 public enum PostListSort {
-    GOOD, RECENT;
+    GOOD, RECENT, VIEW, TRENDING;
 }
@@ -0,0 +1,71 @@
+package javaiscoffee.polaroad.post;
+
+import javaiscoffee.polaroad.post.card.Card;
+import javaiscoffee.polaroad.post.card.CardListRepositoryDto;
+import javaiscoffee.polaroad.post.card.CardStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 포스트 목록에 표시할 미리보기 이미지
+ * 썸네일 이미지를 제일 앞에 두고 카드 순서대로 중복되지 않는 이미지를 최대 2개 더 붙인다.
+ * 포스트를 저장, 수정할 때 posts.preview_images에 줄바꿈으로 이어서 저장해두고
+ * 목록 조회에서는 카드를 다시 조회하지 않고 그대로 나눠서 사용한다.
+ */
+public final class PostPreviewImages {
+    public final static int MAX_IMAGES = 3;
+    private final static String SEPARATOR = "\n";
+
+    private PostPreviewImages() {
+    }
+
+    /**
+     * 카드 순서대로 정렬된 이미지 목록에서 미리보기 이미지 선택
+     */
+    public static List<String> select(List<String> imagesInCardOrder, int thumbnailIndex) {
+        List<String> images = new ArrayList<>(MAX_IMAGES);
+        if (imagesInCardOrder == null || imagesInCardOrder.isEmpty()) return images;
+        if (thumbnailIndex >= 0 && thumbnailIndex < imagesInCardOrder.size()) {
+            images.add(imagesInCardOrder.get(thumbnailIndex));
+        }
+        for (String image : imagesInCardOrder) {
+            if (images.size() >= MAX_IMAGES) break;
+            if (!images.contains(image)) images.add(image);
+        }
+        return images;
+    }
+
+    /**
+     * 포스트의 삭제되지 않은 카드로 저장할 미리보기 이미지 문자열 생성
+     */
+    public static String fromCards(List<Card> cards, int thumbnailIndex) {
+        List<String> imagesInCardOrder = cards.stream()
+                .filter(card -> card.getStatus() == null || card.getStatus().equals(CardStatus.ACTIVE))
+                .sorted(Comparator.comparingInt(Card::getCardIndex))
+                .map(Card::getImage)
+                .toList();
+        return String.join(SEPARATOR, select(imagesInCardOrder, thumbnailIndex));
+    }
+
+    /**
+     * 목록 조회 결과의 미리보기 이미지
+     * 미리보기 이미지가 저장되기 전에 작성된 포스트는 조회한 카드 이미지로 생성
+     */
+    public static List<String> of(PostListRepositoryDto post) {
+        if (post.getPreviewImages() != null) return split(post.getPreviewImages());
+        if (post.getCards() == null) return new ArrayList<>();
+        List<String> imagesInCardOrder = post.getCards().stream()
+                .sorted(Comparator.comparingInt(CardListRepositoryDto::getCardIndex))
+                .map(CardListRepositoryDto::getImage)
+                .toList();
+        return select(imagesInCardOrder, post.getThumbnailIndex());
+    }
+
+    public static List<String> split(String previewImages) {
+        if (previewImages == null || previewImages.isEmpty()) return new ArrayList<>();
+        return new ArrayList<>(Arrays.asList(previewImages.split(SEPARATOR)));
+    }
+}
@@ -0,0 +1,82 @@
+package javaiscoffee.polaroad.post;
+
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.post.card.Card;
+import javaiscoffee.polaroad.post.card.CardRepository;
+import javaiscoffee.polaroad.post.card.CardStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * preview_images 컬럼이 추가되기 전에 작성된 포스트의 미리보기 이미지 채우기
+ * 배치 작업 리스로 전체 파드 중 한 곳에서만 포스트 ID 순서대로 배치 단위로 처리하고 더 이상 채울 포스트가 없으면 멈춘다.
+ * 채운 포스트는 preview_images가 null이 아니게 되므로 리스가 다른 파드로 넘어가도 처음부터 다시 조회하면 남은 포스트만 조회된다.
+ */
+@Slf4j
+@Component
+public class PostPreviewImagesBackfill {
+    private final static String BACKFILL_JOB = "post-preview-images-backfill";
+    private final static Duration BACKFILL_LEASE_TIMEOUT = Duration.ofSeconds(60);
+    private final PostRepository postRepository;
+    private final CardRepository cardRepository;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean finished = false;
+
+    @Autowired
+    public PostPreviewImagesBackfill(PostRepository postRepository, CardRepository cardRepository, BatchJobCoordinator batchJobCoordinator, TransactionTemplate transactionTemplate) {
+        this.postRepository = postRepository;
+        this.cardRepository = cardRepository;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(initialDelay = 30000, fixedDelay = 10000)
+    public void backfillPreviewImages() {
+        if (finished) return;
+        batchJobCoordinator.run(BACKFILL_JOB, BACKFILL_LEASE_TIMEOUT, Duration.ZERO, lease -> {
+            long lastPostId = 0;
+            long filled = 0;
+            //리스를 잃었으면 남은 포스트는 리스를 획득한 파드가 이어서 채움
+            while (lease.renew()) {
+                long fromPostId = lastPostId;
+                List<Long> postIds = transactionTemplate.execute(status -> backfillBatch(fromPostId));
+                if (postIds == null || postIds.isEmpty()) {
+                    finished = true;
+                    log.info("포스트 미리보기 이미지 채우기 완료");
+                    break;
+                }
+                filled += postIds.size();
+                lastPostId = postIds.get(postIds.size() - 1);
+            }
+            return filled;
+        });
+    }
+
+    /**
+     * 포스트 ID 다음부터 미리보기 이미지가 없는 포스트를 한 배치 채우고 채운 포스트 ID 반환
+     */
+    private List<Long> backfillBatch(long lastPostId) {
+        List<Post> posts = postRepository.findTop200ByPreviewImagesIsNullAndPostIdGreaterThanOrderByPostIdAsc(lastPostId);
+        if (posts.isEmpty()) return Collections.emptyList();
+        List<Long> postIds = posts.stream().map(Post::getPostId).toList();
+        Map<Long, List<Card>> cardsMap = cardRepository.findCardsByPostPostIdInAndStatus(postIds, CardStatus.ACTIVE).stream()
+                .collect(Collectors.groupingBy(card -> card.getPost().getPostId()));
+        //엔티티 변경 감지를 사용하면 updatedTime이 바뀌므로 update 쿼리로 직접 저장
+        for (Post post : posts) {
+            String previewImages = PostPreviewImages.fromCards(cardsMap.getOrDefault(post.getPostId(), Collections.emptyList()), post.getThumbnailIndex());
+            postRepository.updatePostPreviewImages(post.getPostId(), previewImages);
+        }
+        log.info("포스트 미리보기 이미지 채우기 = {}개, 마지막 포스트 ID = {}", posts.size(), postIds.get(postIds.size() - 1));
+        return postIds;
+    }
+}
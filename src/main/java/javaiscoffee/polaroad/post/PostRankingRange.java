@@ -1,5 +1,7 @@
 package javaiscoffee.polaroad.post;
 
 public enum PostRankingRange {
-    DAILY,WEEKLY,MONTHLY;
+    DAILY,WEEKLY,MONTHLY,
+    //기간 조회 수 대신 급상승 점수(PostTrending) 순위
+    TRENDING;
 }
@@ -0,0 +1,150 @@
+package javaiscoffee.polaroad.post;
+
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import javaiscoffee.polaroad.redis.PostChangeSubscriber;
+import javaiscoffee.polaroad.redis.RedisService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 조회수 랭킹 앞부분 목록 스냅샷
+ * 1분마다 기간별 랭킹 상위 post.ranking.snapshot-size개 포스트를 목록 응답 형태로 만들어두고,
+ * 그 안에 들어가는 페이지는 레디스, DB 조회 없이 스냅샷을 잘라서 응답한다.
+ * 스냅샷보다 뒤 페이지이거나 스냅샷이 없으면 null을 반환하고 랭킹을 직접 조회한다.
+ *
+ * 랭킹은 PostViewRanking이 매 분 0초에 합치므로 합친 뒤인 10초에 갱신한다.
+ * 스냅샷에 들어있는 포스트가 수정, 삭제되면 그 기간 스냅샷을 버리고 다음 갱신까지 직접 조회한다.
+ *
+ * 만들고 있는 스냅샷에 들어갈 포스트가 그 사이에 바뀌면 바뀌기 전에 읽은 데이터가 담길 수 있으므로,
+ * 기간별 변경 횟수를 랭킹을 읽은 뒤에 읽어두고 다 만든 뒤에도 그대로일 때만 스냅샷을 교체한다.
+ */
+@Slf4j
+@Component
+public class PostRankingSnapshot implements PostChangeSubscriber {
+    private final RedisService redisService;
+    private final PostRepository postRepository;
+    private final int snapshotSize;
+    private final ConcurrentMap<PostRankingRange, Snapshot> snapshots = new ConcurrentHashMap<>();
+    //기간별로 스냅샷이나 만들고 있는 스냅샷에 들어있는 포스트가 바뀐 횟수
+    private final Map<PostRankingRange, AtomicLong> changeCounts = new EnumMap<>(PostRankingRange.class);
+    //기간별로 만들고 있는 스냅샷의 포스트 ID
+    private final ConcurrentMap<PostRankingRange, Set<Long>> buildingPostIds = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PostRankingSnapshot(RedisService redisService, PostRepository postRepository, @Value("${post.ranking.snapshot-size:200}") int snapshotSize) {
+        this.redisService = redisService;
+        this.postRepository = postRepository;
+        this.snapshotSize = snapshotSize;
+        for (PostRankingRange range : PostRankingRange.values()) changeCounts.put(range, new AtomicLong());
+    }
+
+    /**
+     * 스냅샷에서 랭킹 페이지 조회, 스냅샷 범위를 벗어나면 null
+     */
+    public PostListResponseDto get(int page, int pageSize, PostRankingRange range) {
+        Snapshot snapshot = snapshots.get(range);
+        if (snapshot == null || page < 1 || pageSize < 1) return null;
+        //페이지는 숨겨진 포스트를 뺀 개수가 아니라 랭킹 순위로 나눔 (직접 조회와 같은 기준)
+        int from = (page - 1) * pageSize;
+        int to = from + pageSize;
+        List<Long> rankedPostIds = snapshot.rankedPostIds();
+        //랭킹 전체가 스냅샷에 들어있지 않으면 마지막 페이지가 잘릴 수 있으므로 스냅샷 안에 끝나는 페이지만 응답
+        if (to > rankedPostIds.size() && !snapshot.complete()) return null;
+        List<PostListDto> posts = new ArrayList<>();
+        for (int rank = from; rank < Math.min(to, rankedPostIds.size()); rank++) {
+            PostListDto post = snapshot.posts().get(rankedPostIds.get(rank));
+            if (post != null) posts.add(post);
+        }
+        return new PostListResponseDto(posts, to < rankedPostIds.size() || !snapshot.complete());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(cron = "10 * * * * *")
+    public void refresh() {
+        for (PostRankingRange range : PostRankingRange.values()) {
+            try {
+                Snapshot built = build(range);
+                //만드는 중에 들어있는 포스트가 바뀌었으면 버리고, 바뀐 포스트가 빠진 기존 스냅샷을 다음 갱신까지 유지
+                snapshots.compute(range, (key, current) -> {
+                    if (changeCounts.get(key).get() == built.changeCount()) return built;
+                    log.info("만드는 중에 포스트가 바뀐 조회수 랭킹 스냅샷 버림 = {}", key);
+                    return current;
+                });
+            } catch (RuntimeException e) {
+                //이전 스냅샷은 1분 더 오래된 채로 유지하는 대신 버리고 직접 조회
+                snapshots.remove(range);
+                log.error("조회수 랭킹 스냅샷 생성 실패 = {}", range, e);
+            } finally {
+                buildingPostIds.remove(range);
+            }
+        }
+    }
+
+    @Override
+    public void onPostChanged(PostChangeEvent event) {
+        //추천 수 변경은 다음 갱신까지 기다림
+        if (event.getType().equals(PostChangeType.GOOD_CHANGED)) return;
+        Long postId = event.getPostId();
+        for (PostRankingRange range : PostRankingRange.values()) {
+            Set<Long> building = buildingPostIds.get(range);
+            Snapshot snapshot = snapshots.get(range);
+            boolean inBuilding = building != null && building.contains(postId);
+            if (!inBuilding && (snapshot == null || !snapshot.rankedPostIds().contains(postId))) continue;
+            //교체와 엇갈리지 않도록 변경 횟수를 먼저 올리고 같은 key 잠금 안에서 지움
+            changeCounts.get(range).incrementAndGet();
+            snapshots.computeIfPresent(range, (key, current) -> current.rankedPostIds().contains(postId) ? null : current);
+        }
+    }
+
+    private Snapshot build(PostRankingRange range) {
+        Map<Long, Long> rankingViewCounts = new LinkedHashMap<>();
+        List<ZSetOperations.TypedTuple<String>> ranking = redisService.getViewRankingList(1, snapshotSize, range);
+        ranking.forEach(tuple -> rankingViewCounts.put(Long.valueOf(tuple.getValue()), rankingViewCount(range, tuple)));
+        long total = redisService.getViewRankingSize(range);
+
+        //삭제, 숨김 처리된 포스트는 빠진 채로 조회되므로 랭킹 순위는 rankedPostIds로 따로 유지
+        List<Long> rankedPostIds = new ArrayList<>(rankingViewCounts.keySet());
+        //포스트를 DB에서 읽기 전에 등록해서 그 뒤에 바뀐 포스트는 변경 횟수에 반영되도록 함
+        buildingPostIds.put(range, Set.copyOf(rankedPostIds));
+        long changeCount = changeCounts.get(range).get();
+        Map<Long, PostListDto> posts = new HashMap<>();
+        postRepository.getPostListByIds(rankedPostIds, snapshotSize, PostStatus.ACTIVE).getPosts().forEach(post -> {
+            post.setRankingViewCount(rankingViewCounts.get(post.getPostId()));
+            posts.put(post.getPostId(), post);
+        });
+        return new Snapshot(List.copyOf(rankedPostIds), Map.copyOf(posts), ranking.size() >= total, changeCount);
+    }
+
+    /**
+     * 랭킹 점수를 기간 조회 수로 변환, 급상승 랭킹 점수는 조회 수가 아니므로 null
+     */
+    static Long rankingViewCount(PostRankingRange range, ZSetOperations.TypedTuple<String> tuple) {
+        if (range.equals(PostRankingRange.TRENDING)) return null;
+        return tuple.getScore() == null ? 0 : tuple.getScore().longValue();
+    }
+
+    /**
+     * @param rankedPostIds 스냅샷이 덮는 랭킹 순위의 포스트 ID, 숨겨진 포스트도 순위를 차지
+     * @param posts 응답할 수 있는 포스트, 숨겨진 포스트는 없음
+     * @param complete 랭킹 전체가 스냅샷에 들어있는지 여부
+     * @param changeCount 포스트를 읽기 전의 기간 변경 횟수
+     */
+    private record Snapshot(List<Long> rankedPostIds, Map<Long, PostListDto> posts, boolean complete, long changeCount) {
+    }
+}
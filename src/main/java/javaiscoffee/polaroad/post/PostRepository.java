@@ -1,5 +1,8 @@
 package javaiscoffee.polaroad.post;
 
+import javaiscoffee.polaroad.post.index.PostIndexDto;
+import javaiscoffee.polaroad.post.search.PostSearchDocumentDto;
+import javaiscoffee.polaroad.post.suggest.PostSuggestEntryDto;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,12 +18,37 @@ import java.util.Optional;
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long>, QueryPostRepository {
 
-    @Query(value = "select p.title, p.post_id, m.nickname, p.thumbnail_index, p.good_number, p.concept, p.region, p.updated_time, c.card_index, c.image " +
-            "from posts p inner join member m on p.member_id = m.member_id left join cards c on p.post_id = c.post_id " +
-            "where p.post_id in :PostList", nativeQuery = true)
-    List<Object[]> getPostsWithCardsByPostId(@Param("PostList") List<Long> postList);
     Slice<Post> findPostsByMemberMemberIdAndStatusOrderByCreatedTimeDesc(Long memberId, PostStatus status, Pageable pageable);
 
+    //미리보기 이미지가 저장되지 않은 포스트 배치 조회
+    List<Post> findTop200ByPreviewImagesIsNullAndPostIdGreaterThanOrderByPostIdAsc(Long postId);
+
+    //비트맵 색인을 ID 순서대로 나눠서 생성할 때 사용
+    @Query("select new javaiscoffee.polaroad.post.index.PostIndexDto(p.postId, p.concept, p.region, p.status, p.goodNumber) from Post p where p.postId > :postId order by p.postId asc")
+    List<PostIndexDto> findPostIndexDtosAfter(@Param("postId") Long postId, Pageable pageable);
+
+    //변경된 포스트만 비트맵 색인에 다시 반영할 때 사용
+    @Query("select new javaiscoffee.polaroad.post.index.PostIndexDto(p.postId, p.concept, p.region, p.status, p.goodNumber) from Post p where p.postId in :postIds")
+    List<PostIndexDto> findPostIndexDtosByPostIdIn(@Param("postIds") List<Long> postIds);
+
+    //검색 색인을 ID 순서대로 나눠서 생성할 때 사용
+    @Query("select new javaiscoffee.polaroad.post.search.PostSearchDocumentDto(p.postId, p.title, m.nickname, p.concept, p.region, p.status, p.goodNumber) from Post p join p.member m where p.postId > :postId order by p.postId asc")
+    List<PostSearchDocumentDto> findPostSearchDocumentsAfter(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("select new javaiscoffee.polaroad.post.search.PostSearchDocumentDto(p.postId, p.title, m.nickname, p.concept, p.region, p.status, p.goodNumber) from Post p join p.member m where p.postId in :postIds")
+    List<PostSearchDocumentDto> findPostSearchDocumentsByPostIdIn(@Param("postIds") List<Long> postIds);
+
+    //엘라스틱서치 전체 재색인 때 ID 순서대로 나눠서 조회
+    @Query("select p from Post p join fetch p.member where p.postId > :postId order by p.postId asc")
+    List<Post> findPostsWithMemberAfter(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("select p from Post p join fetch p.member where p.postId in :postIds")
+    List<Post> findPostsWithMemberByPostIdIn(@Param("postIds") List<Long> postIds);
+
+    //자동완성 색인에 넣을 추천 수 상위 포스트 제목
+    @Query("select new javaiscoffee.polaroad.post.suggest.PostSuggestEntryDto(p.title, p.goodNumber) from Post p where p.status = :status order by p.goodNumber desc")
+    List<PostSuggestEntryDto> findPostSuggestTitles(@Param("status") PostStatus status, Pageable pageable);
+
     //배치 처리로 좋아요 변동 업데이트
     @Modifying
     @Transactional
@@ -38,4 +66,9 @@ public interface PostRepository extends JpaRepository<Post, Long>, QueryPostRepo
     @Transactional
     @Query("update Post p set p.status = :status where p.postId = :postId")
     void updatePostStatus(@Param("postId") Long postId, @Param("status") PostStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("update Post p set p.previewImages = :previewImages where p.postId = :postId")
+    void updatePostPreviewImages(@Param("postId") Long postId, @Param("previewImages") String previewImages);
 }
@@ -1,5 +1,5 @@
 package javaiscoffee.polaroad.post;
 
 public enum PostSearchType {
-    KEYWORD, HASHTAG;
+    KEYWORD, HASHTAG, FULLTEXT;
 }
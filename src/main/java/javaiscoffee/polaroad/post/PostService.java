@@ -1,6 +1,5 @@
 package javaiscoffee.polaroad.post;
 
-import jakarta.persistence.EntityManager;
 import javaiscoffee.polaroad.exception.BadRequestException;
 import javaiscoffee.polaroad.exception.ForbiddenException;
 import javaiscoffee.polaroad.exception.NotFoundException;
@@ -9,28 +8,40 @@ import javaiscoffee.polaroad.member.MemberRepository;
 import javaiscoffee.polaroad.member.MemberSimpleInfoDto;
 import javaiscoffee.polaroad.member.MemberStatus;
 import javaiscoffee.polaroad.post.card.*;
-import javaiscoffee.polaroad.post.good.PostGood;
+import javaiscoffee.polaroad.post.elastic.ElasticPostSearchResult;
+import javaiscoffee.polaroad.post.elastic.ElasticPostSearchService;
 import javaiscoffee.polaroad.post.good.PostGoodBatchUpdator;
-import javaiscoffee.polaroad.post.good.PostGoodId;
-import javaiscoffee.polaroad.post.good.PostGoodRepository;
+import javaiscoffee.polaroad.post.good.PostGoodCache;
 import javaiscoffee.polaroad.post.hashtag.HashtagService;
 import javaiscoffee.polaroad.post.hashtag.PostHashtag;
 import javaiscoffee.polaroad.post.hashtag.PostHashtagInfoDto;
+import javaiscoffee.polaroad.post.index.PostBitmapIndex;
+import javaiscoffee.polaroad.post.outbox.PostChangeOutbox;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import javaiscoffee.polaroad.post.search.PostSearchIndex;
+import javaiscoffee.polaroad.redis.PostTrending;
+import javaiscoffee.polaroad.redis.PostUniqueViewerCounts;
 import javaiscoffee.polaroad.redis.RedisService;
 import javaiscoffee.polaroad.response.ResponseMessages;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toList;
@@ -43,25 +54,46 @@ import static java.util.stream.Collectors.toList;
 @Service
 @Transactional(readOnly = true)
 public class PostService {
+    //급상승순 목록에서 조건으로 거를 급상승 점수 상위 포스트 수
+    private final static int TRENDING_CANDIDATES = 1000;
+    //목록 추천 여부 한 번에 조회할 수 있는 최대 포스트 수
+    private final static int MAX_GOOD_CHECK_SIZE = 100;
     private final PostRepository postRepository;
     private final MemberRepository memberRepository;
     private final HashtagService hashtagService;
     private final CardService cardService;
-    private final PostGoodRepository postGoodRepository;
     private final RedisService redisService;
     private final PostGoodBatchUpdator postGoodBatchUpdator;
-    private final EntityManager entityManager;
+    private final PostGoodCache postGoodCache;
+    private final Executor postDetailExecutor;
+    private final PostInfoCacheLoader postInfoCacheLoader;
+    private final PostBitmapIndex postBitmapIndex;
+    private final PostSearchIndex postSearchIndex;
+    private final PostChangeOutbox postChangeOutbox;
+    private final PostListCache postListCache;
+    private final PostRankingSnapshot postRankingSnapshot;
+    private final PostTrending postTrending;
+    //prod2 프로필에서만 등록됨
+    private final ObjectProvider<ElasticPostSearchService> elasticPostSearchService;
 
     @Autowired
-    public PostService(PostRepository postRepository, MemberRepository memberRepository, HashtagService hashtagService, CardService cardService, PostGoodRepository postGoodRepository, RedisService redisService, PostGoodBatchUpdator postGoodBatchUpdator, EntityManager entityManager) {
+    public PostService(PostRepository postRepository, MemberRepository memberRepository, HashtagService hashtagService, CardService cardService, RedisService redisService, PostGoodBatchUpdator postGoodBatchUpdator, PostGoodCache postGoodCache, @Qualifier("postDetailExecutor") Executor postDetailExecutor, PostInfoCacheLoader postInfoCacheLoader, PostBitmapIndex postBitmapIndex, PostSearchIndex postSearchIndex, PostChangeOutbox postChangeOutbox, PostListCache postListCache, PostRankingSnapshot postRankingSnapshot, PostTrending postTrending, ObjectProvider<ElasticPostSearchService> elasticPostSearchService) {
         this.postRepository = postRepository;
         this.memberRepository = memberRepository;
         this.hashtagService = hashtagService;
         this.cardService = cardService;
-        this.postGoodRepository = postGoodRepository;
         this.redisService = redisService;
         this.postGoodBatchUpdator = postGoodBatchUpdator;
-        this.entityManager = entityManager;
+        this.postGoodCache = postGoodCache;
+        this.postDetailExecutor = postDetailExecutor;
+        this.postInfoCacheLoader = postInfoCacheLoader;
+        this.postBitmapIndex = postBitmapIndex;
+        this.postSearchIndex = postSearchIndex;
+        this.postChangeOutbox = postChangeOutbox;
+        this.postListCache = postListCache;
+        this.postRankingSnapshot = postRankingSnapshot;
+        this.postTrending = postTrending;
+        this.elasticPostSearchService = elasticPostSearchService;
     }
 
     /**
@@ -101,12 +133,14 @@ public class PostService {
             cardsToSave.add(newCard);
         }
         savedPost.setCards(cardService.saveAllCards(cardsToSave));
+        savedPost.setPreviewImages(PostPreviewImages.fromCards(savedPost.getCards(), savedPost.getThumbnailIndex()));
         //멤버 포스트 개수 1개 증가
         member.setPostNumber(member.getPostNumber() + 1);
 
         log.info("저장된 post = {}",post);
 
-        redisService.saveCachingPostInfo(toPostInfoCachingDto(savedPost), savedPost.getPostId());
+        //캐싱, 색인 반영은 커밋 이후 아웃박스 릴레이가 처리
+        postChangeOutbox.append(savedPost.getPostId(), PostChangeType.SAVED);
         return savedPost.getPostId();
     }
     /**
@@ -145,10 +179,11 @@ public class PostService {
             cardsToSave.add(newCard);
         }
         post.setCards(cardService.saveAllCards(cardsToSave));
+        post.setPreviewImages(PostPreviewImages.fromCards(post.getCards(), post.getThumbnailIndex()));
         //멤버 포스트 개수 1개 증가
         member.setPostNumber(member.getPostNumber() + 1);
 
-        redisService.saveCachingPostInfo(toPostInfoCachingDto(savedPost), savedPost.getPostId());
+        postChangeOutbox.append(savedPost.getPostId(), PostChangeType.SAVED);
     }
     /**
      * 포스트 수정
@@ -186,9 +221,10 @@ public class PostService {
             updateCard.setCardIndex(index++);
         }
         oldPost.setCards(cardService.editCards(postSaveDto.getCards(), oldPost, member));
+        oldPost.setPreviewImages(PostPreviewImages.fromCards(oldPost.getCards(), oldPost.getThumbnailIndex()));
 
         log.info("수정된 post = {}",oldPost);
-        redisService.updateCachingPost(toPostInfoCachingDto(oldPost), postId);
+        postChangeOutbox.append(postId, PostChangeType.EDITED);
         return ResponseEntity.ok(oldPost);
     }
     /**
@@ -208,87 +244,217 @@ public class PostService {
         postRepository.updatePostStatus(postId,PostStatus.DELETED);
         //멤버 포스트 개수 1개 감소
         memberRepository.addMemberPostNumber(memberId, -1);
+        //캐시, 색인 갱신을 위해 변경 사항 기록
+        postChangeOutbox.append(postId, PostChangeType.DELETED);
         return ResponseEntity.ok(ResponseMessages.SUCCESS.getMessage());
     }
 
     /**
      * 탐색페이지나 검색페이지에서 게시글을 목록으로 조회
      */
-    public ResponseEntity<PostListResponseDto> getPostList (int page, int pageSize,PostSearchType searchType, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+    public ResponseEntity<PostListResponseDto> getPostList (int page, int pageSize, String cursor, PostSearchType searchType, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+        return ResponseEntity.ok(postListCache.get("list-like", page, pageSize, cursor, searchType, searchKeyword, sortBy, concept, region, status,
+                () -> findPostList(page, pageSize, cursor, searchType, searchKeyword, sortBy, concept, region, status)));
+    }
+
+    private PostListResponseDto findPostList (int page, int pageSize, String cursor, PostSearchType searchType, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+        //전문 검색일 경우 검색 색인에서 관련도 순서로 조회, 색인이 준비되지 않았으면 키워드 검색으로 넘김
+        if(searchType.equals(PostSearchType.FULLTEXT) && searchKeyword != null && !searchKeyword.isEmpty()) {
+            PostListResponseDto searchedPosts = searchPostBySearchIndex(page, pageSize, searchKeyword, concept, region, status);
+            if(searchedPosts != null) return searchedPosts;
+        }
+        //급상승순은 급상승 점수 상위 포스트 중에서 조건에 맞는 포스트만 조회
+        if(sortBy.equals(PostListSort.TRENDING)) {
+            return searchPostByTrending(page, pageSize, searchType, searchKeyword, concept, region, status);
+        }
+        PostListCursor postListCursor = PostListCursor.decode(cursor, sortBy);
+        //prod2 프로필에서는 키워드, 해쉬태그 검색을 엘라스틱서치로 처리, 요청이 실패하면 DB 검색으로 넘김
+        if(searchKeyword != null && !searchKeyword.isEmpty()) {
+            PostListResponseDto elasticPosts = searchPostByElastic(page, pageSize, postListCursor, searchType, searchKeyword, sortBy, concept, region, status);
+            if(elasticPosts != null) return elasticPosts;
+        }
         //해쉬태그 검색일 경우
         //검색어가 없으면 키워드 검색으로 넘김
         if(searchType.equals(PostSearchType.HASHTAG) && searchKeyword != null) {
             Long hashtagId = hashtagService.getHashtagIdByName(searchKeyword);
-            if(hashtagId == null) return ResponseEntity.ok(new PostListResponseDto(new ArrayList<>(),false));
-            return ResponseEntity.ok(postRepository.searchPostByHashtag(page, pageSize, hashtagId, sortBy, concept, region, status));
+            if(hashtagId == null) return new PostListResponseDto(new ArrayList<>(),false);
+            PostListResponseDto indexedPosts = searchPostByBitmapIndex(page, pageSize, postListCursor, hashtagId, sortBy, concept, region, status);
+            if(indexedPosts != null) return indexedPosts;
+            return postRepository.searchPostByHashtag(page, pageSize, postListCursor, hashtagId, sortBy, concept, region, status);
+        }
+        //검색어 없이 탐색하는 경우 비트맵 색인 사용
+        if(searchKeyword == null || searchKeyword.isEmpty()) {
+            PostListResponseDto indexedPosts = searchPostByBitmapIndex(page, pageSize, postListCursor, null, sortBy, concept, region, status);
+            if(indexedPosts != null) return indexedPosts;
         }
         //키워드 검색일 경우
-        PostListResponseDto posts = postRepository.searchPostByKeyword(page, pageSize, searchKeyword, sortBy, concept, region, status);
-        return ResponseEntity.ok(posts);
+        PostListResponseDto posts = postRepository.searchPostByKeyword(page, pageSize, postListCursor, searchKeyword, sortBy, concept, region, status);
+        return posts;
     }
 
     /**
      * 탐색페이지나 검색페이지에서 게시글을 목록으로 조회할 때 인덱스 매칭 사용
      */
-    public ResponseEntity<PostListResponseDto> getPostListByIndexMatch (int page, int pageSize,PostSearchType searchType, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+    public ResponseEntity<PostListResponseDto> getPostListByIndexMatch (int page, int pageSize, String cursor, PostSearchType searchType, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+        return ResponseEntity.ok(postListCache.get("list", page, pageSize, cursor, searchType, searchKeyword, sortBy, concept, region, status,
+                () -> findPostListByIndexMatch(page, pageSize, cursor, searchType, searchKeyword, sortBy, concept, region, status)));
+    }
+
+    private PostListResponseDto findPostListByIndexMatch (int page, int pageSize, String cursor, PostSearchType searchType, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+        //전문 검색일 경우 검색 색인에서 관련도 순서로 조회, 색인이 준비되지 않았으면 키워드 검색으로 넘김
+        if(searchType.equals(PostSearchType.FULLTEXT) && searchKeyword != null && !searchKeyword.isEmpty()) {
+            PostListResponseDto searchedPosts = searchPostBySearchIndex(page, pageSize, searchKeyword, concept, region, status);
+            if(searchedPosts != null) return searchedPosts;
+        }
+        //급상승순은 급상승 점수 상위 포스트 중에서 조건에 맞는 포스트만 조회
+        if(sortBy.equals(PostListSort.TRENDING)) {
+            return searchPostByTrending(page, pageSize, searchType, searchKeyword, concept, region, status);
+        }
+        PostListCursor postListCursor = PostListCursor.decode(cursor, sortBy);
+        //prod2 프로필에서는 키워드, 해쉬태그 검색을 엘라스틱서치로 처리, 요청이 실패하면 DB 검색으로 넘김
+        if(searchKeyword != null && !searchKeyword.isEmpty()) {
+            PostListResponseDto elasticPosts = searchPostByElastic(page, pageSize, postListCursor, searchType, searchKeyword, sortBy, concept, region, status);
+            if(elasticPosts != null) return elasticPosts;
+        }
         //해쉬태그 검색일 경우
         //검색어가 없으면 키워드 검색으로 넘김
         if(searchType.equals(PostSearchType.HASHTAG) && searchKeyword != null) {
             Long hashtagId = hashtagService.getHashtagIdByName(searchKeyword);
-            if(hashtagId == null) return ResponseEntity.ok(new PostListResponseDto(new ArrayList<>(),false));
-            return ResponseEntity.ok(postRepository.searchPostByHashtag(page, pageSize, hashtagId, sortBy, concept, region, status));
+            if(hashtagId == null) return new PostListResponseDto(new ArrayList<>(),false);
+            PostListResponseDto indexedPosts = searchPostByBitmapIndex(page, pageSize, postListCursor, hashtagId, sortBy, concept, region, status);
+            if(indexedPosts != null) return indexedPosts;
+            return postRepository.searchPostByHashtag(page, pageSize, postListCursor, hashtagId, sortBy, concept, region, status);
+        }
+        //검색어 없이 탐색하는 경우 비트맵 색인 사용
+        if(searchKeyword == null || searchKeyword.isEmpty()) {
+            PostListResponseDto indexedPosts = searchPostByBitmapIndex(page, pageSize, postListCursor, null, sortBy, concept, region, status);
+            if(indexedPosts != null) return indexedPosts;
         }
         //키워드 검색일 경우
-        PostListResponseDto posts = postRepository.searchPostByKeywordIndexMatch(page, pageSize, searchKeyword, sortBy, concept, region, status);
-        return ResponseEntity.ok(posts);
+        PostListResponseDto posts = postRepository.searchPostByKeywordIndexMatch(page, pageSize, postListCursor, searchKeyword, sortBy, concept, region, status);
+        return posts;
+    }
+
+    /**
+     * 최신순 목록은 비트맵 색인에서 조건에 맞는 한 페이지 포스트 ID만 골라서 ID로 조회
+     * 인기순, 조회순이거나 색인이 준비되지 않았으면 null을 반환하고 DB 조회 사용
+     */
+    private PostListResponseDto searchPostByBitmapIndex(int page, int pageSize, PostListCursor cursor, Long hashtagId, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+        if(!sortBy.equals(PostListSort.RECENT)) return null;
+        int offset = cursor != null ? 0 : (page - 1) * pageSize;
+        List<Long> postIds = postBitmapIndex.search(hashtagId, concept, region, status, cursor, offset, pageSize);
+        if(postIds == null) return null;
+        PostListResponseDto posts = postRepository.getPostListByIds(postIds, pageSize, status);
+        //제외된 포스트가 있어도 다음 페이지가 어긋나지 않도록 색인 기준 마지막 ID로 커서 생성
+        if(posts.isHasNext()) {
+            posts.setNextCursor(PostListCursor.recent(postIds.get(pageSize - 1)).encode());
+        }
+        return posts;
+    }
+
+    /**
+     * 검색 색인에서 BM25 점수 순서로 한 페이지 포스트 ID를 골라서 ID로 조회
+     * 점수 순서는 커서로 이어갈 수 없어서 page로만 조회하고, 색인이 준비되지 않았으면 null
+     */
+    private PostListResponseDto searchPostBySearchIndex(int page, int pageSize, String searchKeyword, PostConcept concept, PostRegion region, PostStatus status) {
+        List<Long> postIds = postSearchIndex.search(searchKeyword, concept, region, status, (page - 1) * pageSize, pageSize);
+        if(postIds == null) return null;
+        return postRepository.getPostListByIds(postIds, pageSize, status);
+    }
+
+    /**
+     * 급상승 점수 상위 TRENDING_CANDIDATES개 포스트를 점수 순서대로 가져와서 조건에 맞는 포스트만 남기고 한 페이지를 ID로 조회
+     * 검색어가 없으면 비트맵 색인으로 거르고, 검색어가 있거나 색인이 준비되지 않았으면 DB에서 거름
+     * 점수가 계속 바뀌어서 커서로 이어갈 수 없으므로 page로만 조회
+     */
+    private PostListResponseDto searchPostByTrending(int page, int pageSize, PostSearchType searchType, String searchKeyword, PostConcept concept, PostRegion region, PostStatus status) {
+        Long hashtagId = null;
+        String keyword = null;
+        if(searchKeyword != null && !searchKeyword.isEmpty()) {
+            if(searchType.equals(PostSearchType.HASHTAG)) {
+                hashtagId = hashtagService.getHashtagIdByName(searchKeyword);
+                if(hashtagId == null) return new PostListResponseDto(new ArrayList<>(),false);
+            } else {
+                keyword = searchKeyword;
+            }
+        }
+        List<Long> candidates = postTrending.getTopPostIds(TRENDING_CANDIDATES);
+        List<Long> postIds = keyword == null ? postBitmapIndex.filter(candidates, hashtagId, concept, region, status) : null;
+        if(postIds == null) postIds = postRepository.filterPostIds(candidates, keyword, hashtagId, concept, region, status);
+
+        int offset = (page - 1) * pageSize;
+        if(offset >= postIds.size()) return new PostListResponseDto(new ArrayList<>(),false);
+        return postRepository.getPostListByIds(postIds.subList(offset, Math.min(offset + pageSize + 1, postIds.size())), pageSize, status);
+    }
+
+    /**
+     * 엘라스틱서치에서 한 페이지 포스트 ID와 컨셉, 지역별 개수를 한 번에 조회하고 ID로 조회
+     * 엘라스틱서치를 사용하지 않는 프로필이거나 요청이 실패하면 null
+     * 조회 수는 자주 바뀌어서 문서에 넣지 않으므로 조회순이면 null
+     */
+    private PostListResponseDto searchPostByElastic(int page, int pageSize, PostListCursor cursor, PostSearchType searchType, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+        if(sortBy.equals(PostListSort.VIEW)) return null;
+        ElasticPostSearchService searchService = elasticPostSearchService.getIfAvailable();
+        if(searchService == null) return null;
+        ElasticPostSearchResult result = searchService.search(searchType, searchKeyword, sortBy, concept, region, status, cursor, page, pageSize);
+        if(result == null) return null;
+        PostListResponseDto posts = postRepository.getPostListByIds(result.getPostIds(), pageSize, status);
+        //제외된 포스트가 있어도 다음 페이지가 어긋나지 않도록 엘라스틱서치 기준 마지막 문서로 커서 생성
+        if(posts.isHasNext()) posts.setNextCursor(result.getNextCursor());
+        posts.setFacets(result.getFacets());
+        return posts;
     }
 
     /**
      * 팔로잉하고 있는 멤버의 게시글을 목록으로 조회
      */
-    public ResponseEntity<PostListResponseDto> getFollowingMemberPosts (Long memberId, PostConcept concept,int page, int pageSize, PostStatus status) {
+    public ResponseEntity<PostListResponseDto> getFollowingMemberPosts (Long memberId, PostConcept concept,int page, int pageSize, String cursor, PostStatus status) {
+        PostListCursor postListCursor = PostListCursor.decode(cursor, PostListSort.RECENT);
         MemberSimpleInfoDto memberInfo = memberRepository.getMemberSimpleInfo(memberId).orElseThrow(() -> new NotFoundException(ResponseMessages.NOT_FOUND.getMessage()));
         if(!memberInfo.getStatus().equals(MemberStatus.ACTIVE)) throw new NotFoundException(ResponseMessages.NOT_FOUND.getMessage());
-        return ResponseEntity.ok(postRepository.getFollowingMembersPostByMember(memberInfo.getMemberId(), concept, page, pageSize, status));
+        return ResponseEntity.ok(postRepository.getFollowingMembersPostByMember(memberInfo.getMemberId(), concept, page, pageSize, postListCursor, status));
     }
 
     /**
      * 포스트 내용 조회
+     * 서로 의존하지 않는 조회들은 postDetailExecutor에서 동시에 실행해서
+     * 응답 시간이 조회 시간의 합이 아니라 가장 느린 조회 하나에 맞춰지도록 한다.
+     * 각 조회가 각자 커넥션을 사용하므로 요청 스레드는 트랜잭션을 잡지 않는다.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ResponseEntity<PostInfoDto> getPostInfoById(Long postId, Long memberId) {
-        PostSimpleInfoDto simplePostInfo = postRepository.getPostSimpleInfo(postId).orElseThrow(() -> new NotFoundException(ResponseMessages.POST_NOT_FOUND.getMessage()));
-        MemberSimpleInfoDto simpleMemberInfo = memberRepository.getMemberSimpleInfo(memberId).orElseThrow(() -> new NotFoundException(ResponseMessages.NOT_FOUND.getMessage()));
+        CompletableFuture<Optional<PostSimpleInfoDto>> postInfoFuture = supplyAsync(() -> postRepository.getPostSimpleInfo(postId));
+        CompletableFuture<Optional<MemberSimpleInfoDto>> memberInfoFuture = supplyAsync(() -> memberRepository.getMemberSimpleInfo(memberId));
+        //캐시가 비어있으면 같은 포스트에 대한 DB 조회는 한 번만 실행하고 결과를 캐싱
+        CompletableFuture<PostInfoCachingDto> cachingPostInfoFuture = supplyAsync(() -> postInfoCacheLoader.load(postId));
+        CompletableFuture<Boolean> memberGoodFuture = supplyAsync(() -> postGoodCache.isGood(memberId, postId));
+        //순 조회자 수는 조회에 실패해도 응답에서만 빠지도록 처리
+        CompletableFuture<PostUniqueViewerCounts> uniqueViewerFuture = supplyAsync(() -> redisService.getUniqueViewerCounts(postId))
+                .exceptionally(e -> {
+                    log.error("포스트 순 조회자 수 조회 실패 = {}", postId, e);
+                    return null;
+                });
+        //작성자 정보는 포스트 간단 정보가 조회되는 즉시 이어서 조회
+        CompletableFuture<PostMemberInfoDto> postMemberInfoFuture = postInfoFuture.thenApplyAsync(postInfo -> postInfo
+                .map(info -> memberRepository.getPostMemberInfoByMemberId(info.getMemberId()))
+                .orElse(null), postDetailExecutor);
+
+        PostSimpleInfoDto simplePostInfo = join(postInfoFuture).orElseThrow(() -> new NotFoundException(ResponseMessages.POST_NOT_FOUND.getMessage()));
+        MemberSimpleInfoDto simpleMemberInfo = join(memberInfoFuture).orElseThrow(() -> new NotFoundException(ResponseMessages.NOT_FOUND.getMessage()));
         //포스트나 멤버가 조회 가능한 상태가 아니면 에러
         if(!simplePostInfo.getStatus().equals(PostStatus.ACTIVE)) throw new NotFoundException(ResponseMessages.POST_NOT_FOUND.getMessage());
         if(!simpleMemberInfo.getStatus().equals(MemberStatus.ACTIVE)) throw new NotFoundException(ResponseMessages.MEMBER_NOT_FOUND.getMessage());
 
-        //캐싱된 정보가 있으면 캐싱 정보 전달
-        PostInfoCachingDto cachingPostInfo = redisService.getCachingPostInfo(postId);
-        if(cachingPostInfo != null) {
-            log.info("캐싱된 포스트 정보 전달 = {}",postId);
-            PostGoodId postGoodId = new PostGoodId(memberId, postId);
-            boolean isMemberGood = postGoodRepository.existsById(postGoodId);
-            PostMemberInfoDto postMemberInfo = memberRepository.getPostMemberInfoByMemberId(simplePostInfo.getMemberId());
-
-            redisService.addPostView(postId, memberId);
-            return ResponseEntity.ok(new PostInfoDto(
-                    cachingPostInfo.getTitle(),
-                    isMemberGood,
-                    postMemberInfo,
-                    cachingPostInfo.getRoutePoint(),
-                    cachingPostInfo.getGoodNumber(),
-                    cachingPostInfo.getThumbnailIndex(),
-                    cachingPostInfo.getConcept(),
-                    cachingPostInfo.getRegion(),
-                    cachingPostInfo.getUpdatedTime(),
-                    cachingPostInfo.getCards(),
-                    cachingPostInfo.getPostHashtags()));
-
+        PostInfoCachingDto cachingPostInfo = join(cachingPostInfoFuture);
+        if(cachingPostInfo == null) throw new NotFoundException(ResponseMessages.POST_NOT_FOUND.getMessage());
+        PostInfoDto postInfoDto = toPostInfoDto(cachingPostInfo, join(memberGoodFuture), join(postMemberInfoFuture), join(uniqueViewerFuture));
 
-        }
-
-        PostInfoDto postInfoDto = postRepository.getPostInfoById(postId, memberId);
-        redisService.addPostView(postId, memberId);
+        //조회 수 기록은 응답을 기다리게 하지 않도록 비동기로 처리
+        CompletableFuture.runAsync(() -> redisService.addPostView(postId, memberId), postDetailExecutor)
+                .exceptionally(e -> {
+                    log.error("포스트 조회 수 기록 실패 = {}", postId, e);
+                    return null;
+                });
         return ResponseEntity.ok(postInfoDto);
     }
 
@@ -306,117 +472,84 @@ public class PostService {
 
     /**
      * 조회수 랭킹으로 조회
+     * 스냅샷에 들어있는 앞 페이지는 스냅샷으로 응답하고, 뒤 페이지는 랭킹과 포스트를 직접 조회
      */
     public ResponseEntity<PostListResponseDto> getPostRankingList(int page, int pageSize, PostRankingRange range) {
-        //랭킹 순위 리스트 조회
-        List<String> list = redisService.getViewRankingList(page, pageSize, range);
-        List<Long> rankingList = list.stream().map(Long::valueOf).toList();
+        PostListResponseDto snapshotPosts = postRankingSnapshot.get(page, pageSize, range);
+        if(snapshotPosts != null) return ResponseEntity.ok(snapshotPosts);
+        //랭킹 순위 리스트와 기간 조회 수 조회
+        Map<Long, Long> rankingViewCounts = new LinkedHashMap<>();
+        redisService.getViewRankingList(page, pageSize, range).forEach(tuple ->
+                rankingViewCounts.put(Long.valueOf(tuple.getValue()), PostRankingSnapshot.rankingViewCount(range, tuple)));
+        List<Long> rankingList = new ArrayList<>(rankingViewCounts.keySet());
         //랭킹 최대 페이지 구하기
         int maxPage = redisService.getViewRankingMaxPageSize(pageSize, range);
-        //포스트 목록 구해서 정렬하기
-        List<PostListRepositoryDto> postListDtos = getRankingPostListRepositoryDtoList(rankingList);
-        //반환값으로 매핑
-        return ResponseEntity.ok(getPostListResponseDto(postListDtos, page < maxPage));
+        //랭킹 순서대로 포스트 조회, 삭제, 숨김 처리된 포스트는 스냅샷과 같이 빠지고 페이지는 랭킹 순위로 나눔
+        PostListResponseDto posts = postRepository.getPostListByIds(rankingList, pageSize, PostStatus.ACTIVE);
+        posts.setHasNext(page < maxPage);
+        posts.getPosts().forEach(post -> post.setRankingViewCount(rankingViewCounts.get(post.getPostId())));
+        return ResponseEntity.ok(posts);
     }
 
 
     /**
      * 포스트 추천 토글
+     * 추천 여부 확인과 토글은 레디스에서 처리하고, DB goods 테이블에는 PostGoodWriter가 모아서 반영
      */
-    @Transactional
     public void postGoodToggle(Long memberId, Long postId) {
-        PostGoodId postGoodId = new PostGoodId(memberId, postId);
-
         MemberSimpleInfoDto memberInfo = memberRepository.getMemberSimpleInfo(memberId).orElseThrow(() -> new NotFoundException("멤버를 찾을 수 없습니다."));
         PostSimpleInfoDto postInfo = postRepository.getPostSimpleInfo(postId).orElseThrow(() -> new NotFoundException("포스트를 찾을 수 없습니다."));
-        // Member와 Post의 참조(프록시)만 로드
-        Member memberRef = entityManager.getReference(Member.class, memberId);
-        Post postRef = entityManager.getReference(Post.class, postId);
 
         if(!memberInfo.getStatus().equals(MemberStatus.ACTIVE) || !postInfo.getStatus().equals(PostStatus.ACTIVE)) throw new NotFoundException(ResponseMessages.NOT_FOUND.getMessage());
         if(postInfo.getMemberId().equals(memberId)) throw new BadRequestException(ResponseMessages.GOOD_FAILED.getMessage());
 
-        boolean postGoodExists = postGoodRepository.existsById(postGoodId);
-        //추천 삭제
-        if(postGoodExists) {
-            postGoodRepository.deleteById(postGoodId);
-            postGoodBatchUpdator.decreasePostGoodCount(postId);
-        }
-        //추천 생성
-        else {
-            postGoodRepository.save(new PostGood(postGoodId,memberRef,postRef));
-            postGoodBatchUpdator.increasePostGoodCount(postId);
-        }
+        boolean good = postGoodCache.toggle(memberId, postId);
+        postGoodBatchUpdator.onPostGoodToggled(memberId, postId, good);
     }
 
-    //랭킹 리스트에 해당하는 포스트 정보 리스트로 조회 후 PostListRepositoryDto로 매핑
-    private List<PostListRepositoryDto> getRankingPostListRepositoryDtoList(List<Long> rankingList) {
-        List<PostListRepositoryDto> postListDtos = new ArrayList<>();
-        List<Object[]> queryResults = postRepository.getPostsWithCardsByPostId(rankingList);
-        //이미 앞에서 나온 포스트 정보인지 확인
-        Map<Long, PostListRepositoryDto> postDtoMap = new HashMap<>();
-
-        for (Object[] result : queryResults) {
-            Long postId = (Long) result[1];
-            PostListRepositoryDto postDto = postDtoMap.get(postId);
-            //새로운 포스트
-            if (postDto == null) {
-                postDto = new PostListRepositoryDto(
-                        (String) result[0], // title
-                        postId, // postId
-                        (String) result[2], // nickname
-                        (Integer) result[3], // thumbnailIndex
-                        (Integer) result[4], // goodNumber
-                        PostConcept.valueOf((String) result[5]), // concept
-                        PostRegion.valueOf((String) result[6]), // region
-                        new ArrayList<>(), // cards
-                        ((Timestamp) result[7]).toLocalDateTime() // updatedTime
-                );
-                postDtoMap.put(postId, postDto);
-                postListDtos.add(postDto);
-            }
-            //카드 정보 주입
-            if (result[8] != null) { // cardIndex
-                CardListRepositoryDto cardDto = new CardListRepositoryDto(
-                        postId,
-                        (Integer) result[8], // cardIndex
-                        (String) result[9] // image
-                );
-                postDto.getCards().add(cardDto);
-            }
+    /**
+     * 목록에 있는 포스트 중에서 멤버가 추천한 포스트 ID 조회
+     */
+    public List<Long> getGoodPostIds(Long memberId, List<Long> postIds) {
+        if(postIds.size() > MAX_GOOD_CHECK_SIZE) throw new BadRequestException("추천 여부는 최대 " + MAX_GOOD_CHECK_SIZE + "개까지 조회할 수 있습니다.");
+        Set<Long> goodPostIds = postGoodCache.findGoodPostIds(memberId, postIds);
+        return postIds.stream().distinct().filter(goodPostIds::contains).toList();
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, postDetailExecutor);
+    }
+
+    //비동기 조회에서 발생한 예외를 원래 예외로 꺼내서 던지기
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw e;
         }
-        return postListDtos;
     }
 
     /**
-     * post 객체를 캐싱 객체로 매핑
+     * 캐싱 객체와 멤버별 정보를 포스트 내용 조회 ResponseDto로 변환
      */
-    private PostInfoCachingDto toPostInfoCachingDto(Post post) {
-        return new PostInfoCachingDto(
-                post.getTitle(),
-                post.getMember().getMemberId(),
-                post.getRoutePoint(),
-                post.getGoodNumber(),
-                post.getThumbnailIndex(),
-                post.getConcept(),
-                post.getRegion(),
-                post.getUpdatedTime(),
-                post.getCards().stream()
-                        .map(card -> new CardInfoDto(
-                                card.getCardId(),
-                                card.getCardIndex(),
-                                card.getLatitude(),
-                                card.getLongitude(),
-                                card.getLocation(),
-                                card.getImage(),
-                                card.getContent()))
-                        .toList(),
-                post.getPostHashtags().stream()
-                        .map(postHashtag -> new PostHashtagInfoDto(
-                                postHashtag.getHashtag().getHashtagId(),
-                                postHashtag.getHashtag().getName()))
-                        .toList()
-        );
+    private static PostInfoDto toPostInfoDto(PostInfoCachingDto cachingPostInfo, boolean isMemberGood, PostMemberInfoDto postMemberInfo, PostUniqueViewerCounts uniqueViewerCounts) {
+        return new PostInfoDto(
+                cachingPostInfo.getTitle(),
+                isMemberGood,
+                postMemberInfo,
+                cachingPostInfo.getRoutePoint(),
+                cachingPostInfo.getGoodNumber(),
+                cachingPostInfo.getViewNumber(),
+                cachingPostInfo.getThumbnailIndex(),
+                cachingPostInfo.getConcept(),
+                cachingPostInfo.getRegion(),
+                cachingPostInfo.getUpdatedTime(),
+                cachingPostInfo.getCards(),
+                cachingPostInfo.getPostHashtags(),
+                uniqueViewerCounts == null ? null : uniqueViewerCounts.total(),
+                uniqueViewerCounts == null ? null : uniqueViewerCounts.weekly(),
+                uniqueViewerCounts == null ? null : uniqueViewerCounts.monthly());
     }
 
     /**
@@ -436,23 +569,24 @@ public class PostService {
         PostMemberInfoDto memberDto = toPostMemberInfoDto(post.getMember());
 
         //멤버가 추천했는지 확인
-        Optional<PostGood> isMemberGood = Optional.empty();
-        if(memberId != null) {
-            isMemberGood = postGoodRepository.findById(new PostGoodId(memberId, post.getPostId()));
-        }
+        boolean isMemberGood = memberId != null && postGoodCache.isGood(memberId, post.getPostId());
 
         return new PostInfoDto(
                 post.getTitle(),
-                isMemberGood.isPresent(),
+                isMemberGood,
                 memberDto,
                 post.getRoutePoint(),
                 post.getGoodNumber(),
+                post.getViewNumber(),
                 post.getThumbnailIndex(),
                 post.getConcept(),
                 post.getRegion(),
                 post.getUpdatedTime(),
                 cardDtos,
-                hashtagDtos
+                hashtagDtos,
+                null,
+                null,
+                null
         );
     }
 
@@ -501,30 +635,10 @@ public class PostService {
         return postMemberInfoDto;
     }
 
-    //포스트 리스트를 DTO로 변환하고 카드 이미지에서 썸네일을 제일 앞으로 설정
+    //포스트 리스트를 DTO로 변환, 미리보기 이미지가 없는 포스트는 카드 이미지로 생성
     private static PostListResponseDto toPostListResponseDto(List<Post> posts, boolean hasNext) {
         return new PostListResponseDto(posts.stream().map(p -> {
-            List<String> images = p.getCards().stream()
-                    .sorted(Comparator.comparingInt(Card::getCardIndex))
-                    .map(Card::getImage)
-                    .distinct()
-                    .limit(3)
-                    .collect(Collectors.toList());
-
-            // 썸네일 이미지가 없으면 맨 앞에 추가
-            String thumbnailImage = p.getCards().get(p.getThumbnailIndex()).getImage();
-            if (!images.contains(thumbnailImage)) {
-                images.add(0, thumbnailImage); // 맨 앞에 썸네일 이미지 추가
-                if (images.size() > 3) {
-                    images = images.subList(0, 3); // 최대 3개 이미지 유지
-                }
-            }
-            //썸네일 이미지가 있으면 맨 앞으로 옮기기
-            else {
-                images.remove(thumbnailImage);
-                images.add(0, thumbnailImage);
-            }
-
+            String previewImages = p.getPreviewImages() != null ? p.getPreviewImages() : PostPreviewImages.fromCards(p.getCards(), p.getThumbnailIndex());
             return new PostListDto(
                     p.getTitle(),
                     p.getPostId(),
@@ -532,45 +646,9 @@ public class PostService {
                     p.getGoodNumber(),
                     p.getConcept(),
                     p.getRegion(),
-                    images,
-                    p.getUpdatedTime()
-            );
-        }).collect(Collectors.toList()), hasNext);
-    }
-
-    //포스트 리스트를 DTO로 변환하고 카드 이미지에서 썸네일을 제일 앞으로 설정
-    private PostListResponseDto getPostListResponseDto(List<PostListRepositoryDto> posts, boolean hasNext) {
-        return new PostListResponseDto(posts.stream().map(p -> {
-            List<String> images = p.getCards().stream()
-                    .sorted(Comparator.comparingInt(CardListRepositoryDto::getCardIndex))
-                    .map(CardListRepositoryDto::getImage)
-                    .distinct()
-                    .limit(3)
-                    .collect(Collectors.toList());
-
-            // 썸네일 이미지가 없으면 맨 앞에 추가
-            String thumbnailImage = p.getCards().get(p.getThumbnailIndex()).getImage();
-            if (!images.contains(thumbnailImage)) {
-                images.add(0, thumbnailImage); // 맨 앞에 썸네일 이미지 추가
-                if (images.size() > 3) {
-                    images = images.subList(0, 3); // 최대 3개 이미지 유지
-                }
-            }
-            //썸네일 이미지가 있으면 맨 앞으로 옮기기
-            else {
-                images.remove(thumbnailImage);
-                images.add(0, thumbnailImage);
-            }
-
-            return new PostListDto(
-                    p.getTitle(),
-                    p.getPostId(),
-                    p.getNickname(),
-                    p.getGoodNumber(),
-                    p.getConcept(),
-                    p.getRegion(),
-                    images,
-                    p.getUpdatedTime()
+                    PostPreviewImages.split(previewImages),
+                    p.getUpdatedTime(),
+                    p.getViewNumber()
             );
         }).collect(Collectors.toList()), hasNext);
     }
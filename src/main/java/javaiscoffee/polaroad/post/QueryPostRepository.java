@@ -8,14 +8,21 @@ public interface QueryPostRepository {
     //테스트용 메서드
     List<Post> findPostByEmail(String email);
 
-    PostListResponseDto searchPostByKeyword(int page, int pageSize, String searchWords, PostListSort order, PostConcept concept, PostRegion region, PostStatus status);
-    PostListResponseDto searchPostByKeywordIndexMatch(int page, int pageSize, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status);
+    //cursor가 있으면 page 대신 커서 다음 위치부터 조회
+    PostListResponseDto searchPostByKeyword(int page, int pageSize, PostListCursor cursor, String searchWords, PostListSort order, PostConcept concept, PostRegion region, PostStatus status);
+    PostListResponseDto searchPostByKeywordIndexMatch(int page, int pageSize, PostListCursor cursor, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status);
 
-    PostListResponseDto searchPostByHashtag(int page, int pageSize, Long hashtagId, PostListSort order, PostConcept concept, PostRegion region, PostStatus status);
+    PostListResponseDto searchPostByHashtag(int page, int pageSize, PostListCursor cursor, Long hashtagId, PostListSort order, PostConcept concept, PostRegion region, PostStatus status);
+
+    //색인에서 조회한 포스트 ID 순서대로 포스트 목록 조회, postIds가 pageSize보다 많으면 다음 페이지 있음
+    PostListResponseDto getPostListByIds(List<Long> postIds, int pageSize, PostStatus status);
+
+    //입력한 포스트 ID 중 검색 조건에 맞는 ID만 입력 순서대로 조회
+    List<Long> filterPostIds(List<Long> postIds, String searchKeyword, Long hashtagId, PostConcept concept, PostRegion region, PostStatus status);
 
     PostInfoDto getPostInfoById(Long postId, Long memberId);
 
     PostInfoCachingDto getPostCachingDtoById(Long postId);
 
-    PostListResponseDto getFollowingMembersPostByMember(Long memberId,PostConcept concept,int page, int pageSize, PostStatus status);
+    PostListResponseDto getFollowingMembersPostByMember(Long memberId,PostConcept concept,int page, int pageSize, PostListCursor cursor, PostStatus status);
 }
@@ -3,6 +3,7 @@ package javaiscoffee.polaroad.post;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.ConstructorExpression;
 import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.ListExpression;
@@ -51,7 +52,7 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
      * todo : 검색어 기반 조회 쿼리 최적화 방법 찾기
      */
     @Override
-    public PostListResponseDto searchPostByKeyword(int page, int pageSize, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+    public PostListResponseDto searchPostByKeyword(int page, int pageSize, PostListCursor cursor, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
         BooleanBuilder builder = new BooleanBuilder();
         //지역, 컨셉, 상태 조건 추가
         addBuilderCondition(concept, region, status, builder, post);
@@ -63,6 +64,8 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
             searchBuilder.or(post.member.nickname.containsIgnoreCase(searchKeyword)); // 멤버 닉네임에 검색어가 포함되는 경우
             builder.and(searchBuilder); // 검색어 조건 추가
         };
+        //커서 다음 위치 조건 추가
+        addCursorCondition(cursor, sortBy, builder);
 
         // 1. 포스트 목록 조회 pageSize보다 1개 더 조회해서 hasNext 판별
         JPAQuery<PostListRepositoryDto> query = queryFactory
@@ -72,23 +75,16 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
                 .leftJoin(post.member, member)
                 .where(builder)
                 .groupBy(post.postId)
-                .offset(getOffset(page, pageSize))
-                .limit(pageSize + 1);
-        //최신순 정렬
-        if (sortBy.equals(PostListSort.RECENT)) {
-            query.orderBy(post.postId.desc());
-        }
-        //인기순 정렬
-        else {
-            query.orderBy(post.goodNumber.desc(),post.postId.desc());
-        }
+                .offset(getOffset(page, pageSize, cursor))
+                .limit(pageSize + 1)
+                .orderBy(getOrderSpecifiers(sortBy));
 
         List<PostListRepositoryDto> posts = query.fetch();
         // hasNext 판별하고 true면 1개 추가 조회한 컨텐트 삭제
         boolean hasNext = hasNextPage(posts, pageSize);
 
-        // 2. 포스트들의 카드 정보 조회
-        List<Long> postIds = getPostIds(posts);
+        // 2. 미리보기 이미지가 저장되지 않은 포스트들만 카드 정보 조회
+        List<Long> postIds = getPostIdsWithoutPreviewImages(posts);
         // 카드들을 맵으로 변경
         Map<Long, List<CardListRepositoryDto>> cardsMap = getPostCardsMap(card, postIds);
 
@@ -96,13 +92,13 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         setCardInfoToPostDto(posts, cardsMap);
 
         // 포스트를 DTO로 변환하고 카드 이미지 처리
-        return getPostListResponseDto(posts, hasNext);
+        return getPostListResponseDto(posts, hasNext, sortBy);
     }
 
     @Override
-    public PostListResponseDto searchPostByKeywordIndexMatch(int page, int pageSize, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+    public PostListResponseDto searchPostByKeywordIndexMatch(int page, int pageSize, PostListCursor cursor, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
         // 기본 쿼리 설정
-        String sql = "SELECT DISTINCT p.title, p.post_id, m.nickname, p.thumbnail_index, p.good_number, p.concept, p.region, p.updated_time " +
+        String sql = "SELECT DISTINCT p.title, p.post_id, m.nickname, p.thumbnail_index, p.good_number, p.concept, p.region, p.updated_time, p.preview_images, p.view_number " +
                 "FROM posts p JOIN member m ON p.member_id = m.member_id LEFT JOIN cards c ON p.post_id = c.post_id " +
                 "WHERE p.status = :status ";
 
@@ -119,10 +115,22 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         if (searchKeyword != null && !searchKeyword.isEmpty()) {
             sql += "AND (MATCH(p.title) AGAINST(:keyword IN BOOLEAN MODE) OR MATCH(c.content) AGAINST(:keyword IN BOOLEAN MODE) OR MATCH(m.nickname) AGAINST(:keyword IN BOOLEAN MODE)) ";
         }
+        //커서 다음 위치 조건 추가
+        if(cursor != null && sortBy.equals(PostListSort.RECENT)) {
+            sql += "AND p.post_id < :cursorPostId ";
+        }
+        else if(cursor != null && sortBy.equals(PostListSort.VIEW)) {
+            sql += "AND (p.view_number < :cursorViewNumber OR (p.view_number = :cursorViewNumber AND p.post_id < :cursorPostId)) ";
+        }
+        else if(cursor != null) {
+            sql += "AND (p.good_number < :cursorGoodNumber OR (p.good_number = :cursorGoodNumber AND p.post_id < :cursorPostId)) ";
+        }
         sql += "GROUP BY p.post_id ";
         // 정렬 설정
         if(sortBy.equals(PostListSort.RECENT)) {
             sql += "ORDER BY p.post_id DESC ";
+        } else if(sortBy.equals(PostListSort.VIEW)) {
+            sql += "ORDER BY p.view_number DESC, p.post_id DESC ";
         } else {
             sql += "ORDER BY p.good_number DESC, p.post_id DESC ";
         }
@@ -133,7 +141,12 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         Query query = em.createNativeQuery(sql,"PostListRepositoryDtoMapping");
         query.setParameter("status", status.toString());
         query.setParameter("pageSize", pageSize + 1);
-        query.setParameter("page", getOffset(page, pageSize));
+        query.setParameter("page", getOffset(page, pageSize, cursor));
+        if (cursor != null) {
+            query.setParameter("cursorPostId", cursor.getPostId());
+            if (sortBy.equals(PostListSort.GOOD)) query.setParameter("cursorGoodNumber", cursor.getGoodNumber());
+            if (sortBy.equals(PostListSort.VIEW)) query.setParameter("cursorViewNumber", cursor.getViewNumber());
+        }
 
         if(concept != null && !concept.equals(PostConcept.HOT)) {
             query.setParameter("concept", concept.toString());
@@ -155,8 +168,8 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         // hasNext 판별하고 true면 1개 추가 조회한 컨텐트 삭제
         boolean hasNext = hasNextPage(posts, pageSize);
 
-        // 2. 포스트들의 카드 정보 조회
-        List<Long> postIds = getPostIds(posts);
+        // 2. 미리보기 이미지가 저장되지 않은 포스트들만 카드 정보 조회
+        List<Long> postIds = getPostIdsWithoutPreviewImages(posts);
         // 카드들을 맵으로 변경
         Map<Long, List<CardListRepositoryDto>> cardsMap = getPostCardsMap(card, postIds);
 
@@ -164,14 +177,14 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         setCardInfoToPostDto(posts, cardsMap);
 
         // 포스트를 DTO로 변환하고 카드 이미지 처리
-        return getPostListResponseDto(posts, hasNext);
+        return getPostListResponseDto(posts, hasNext, sortBy);
     }
 
     /**
      * 해쉬 태그로 포스트 목록 조회
      */
     @Override
-    public PostListResponseDto searchPostByHashtag(int page, int pageSize, Long hashtagId, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
+    public PostListResponseDto searchPostByHashtag(int page, int pageSize, PostListCursor cursor, Long hashtagId, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status) {
         QPostHashtag postHashtag = QPostHashtag.postHashtag;
 
         BooleanBuilder builder = new BooleanBuilder();
@@ -181,6 +194,8 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         if(hashtagId != null) {
             builder.and(postHashtag.hashtag.hashtagId.eq(hashtagId));
         }
+        //커서 다음 위치 조건 추가
+        addCursorCondition(cursor, sortBy, builder);
 
         JPAQuery<PostListRepositoryDto> query = queryFactory
                 .select(getPostListRepositoryDtoConstructor(post, member))
@@ -190,24 +205,16 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
                 .leftJoin(post.postHashtags, postHashtag)
                 .where(builder)
                 .groupBy(post.postId)
-                .offset(getOffset(page, pageSize))
-                .limit(pageSize + 1);
-
-        //최신순 정렬
-        if (sortBy.equals(PostListSort.RECENT)) {
-            query.orderBy(post.postId.desc());
-        }
-        //인기순 정렬
-        else {
-            query.orderBy(post.goodNumber.desc(),post.postId.desc());
-        }
+                .offset(getOffset(page, pageSize, cursor))
+                .limit(pageSize + 1)
+                .orderBy(getOrderSpecifiers(sortBy));
 
         List<PostListRepositoryDto> posts = query.fetch();
         // hasNext 판별하고 true면 1개 추가 조회한 컨텐트 삭제
         boolean hasNext = hasNextPage(posts, pageSize);
 
-        // 2. 포스트들의 카드 정보 조회
-        List<Long> postIds = getPostIds(posts);
+        // 2. 미리보기 이미지가 저장되지 않은 포스트들만 카드 정보 조회
+        List<Long> postIds = getPostIdsWithoutPreviewImages(posts);
 
         Map<Long, List<CardListRepositoryDto>> cardsMap = getPostCardsMap(card, postIds);
 
@@ -215,13 +222,75 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         setCardInfoToPostDto(posts, cardsMap);
 
         // 포스트를 DTO로 변환하고 카드 이미지 처리
+        return getPostListResponseDto(posts, hasNext, sortBy);
+    }
+
+
+    /**
+     * 포스트 ID 목록으로 포스트 목록 조회
+     * 조건 필터링과 정렬은 색인에서 끝났으므로 한 페이지 포스트만 ID로 조회하고 입력 ID 순서대로 정렬
+     * 색인에 반영되기 전에 상태가 바뀐 포스트는 제외
+     */
+    @Override
+    public PostListResponseDto getPostListByIds(List<Long> postIds, int pageSize, PostStatus status) {
+        if(postIds.isEmpty()) return new PostListResponseDto(new ArrayList<>(), false);
+        boolean hasNext = postIds.size() > pageSize;
+        List<Long> pagePostIds = hasNext ? postIds.subList(0, pageSize) : postIds;
+
+        Map<Long, Integer> orders = new HashMap<>();
+        for (int i = 0; i < pagePostIds.size(); i++) orders.put(pagePostIds.get(i), i);
+        List<PostListRepositoryDto> posts = queryFactory
+                .select(getPostListRepositoryDtoConstructor(post, member))
+                .from(post)
+                .join(post.member, member)
+                .where(post.postId.in(pagePostIds), post.status.eq(status))
+                .fetch();
+        posts.sort(Comparator.comparing(p -> orders.get(p.getPostId())));
+
+        // 미리보기 이미지가 저장되지 않은 포스트들만 카드 정보 조회
+        Map<Long, List<CardListRepositoryDto>> cardsMap = getPostCardsMap(card, getPostIdsWithoutPreviewImages(posts));
+        setCardInfoToPostDto(posts, cardsMap);
+
         return getPostListResponseDto(posts, hasNext);
     }
 
+    /**
+     * 포스트 ID 후보 중 검색 조건에 맞는 ID만 조회
+     * 정렬은 후보를 고른 곳(급상승 점수 등)에서 끝났으므로 입력 ID 순서를 유지
+     */
+    @Override
+    public List<Long> filterPostIds(List<Long> postIds, String searchKeyword, Long hashtagId, PostConcept concept, PostRegion region, PostStatus status) {
+        if(postIds.isEmpty()) return new ArrayList<>();
+        QPostHashtag postHashtag = QPostHashtag.postHashtag;
+
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(post.postId.in(postIds));
+        //지역, 컨셉, 상태 조건 추가
+        addBuilderCondition(concept, region, status, builder, post);
+        JPAQuery<Long> query = queryFactory
+                .select(post.postId)
+                .from(post);
+        //검색어 조건 추가
+        if(searchKeyword != null && !searchKeyword.isEmpty()) {
+            BooleanBuilder searchBuilder = new BooleanBuilder();
+            searchBuilder.or(post.title.containsIgnoreCase(searchKeyword));
+            searchBuilder.or(card.content.containsIgnoreCase(searchKeyword));
+            searchBuilder.or(post.member.nickname.containsIgnoreCase(searchKeyword));
+            builder.and(searchBuilder);
+            query.leftJoin(post.cards, card).leftJoin(post.member, member);
+        }
+        // 해쉬태그 검색 조건 추가
+        if(hashtagId != null) {
+            builder.and(postHashtag.hashtag.hashtagId.eq(hashtagId));
+            query.leftJoin(post.postHashtags, postHashtag);
+        }
+        Set<Long> matched = new HashSet<>(query.where(builder).groupBy(post.postId).fetch());
+        return postIds.stream().filter(matched::contains).collect(Collectors.toList());
+    }
 
     //팔로잉하고 있는 멤버 포스트 목록 조회
     @Override
-    public PostListResponseDto getFollowingMembersPostByMember(Long memberId, PostConcept concept, int page, int pageSize, PostStatus status) {
+    public PostListResponseDto getFollowingMembersPostByMember(Long memberId, PostConcept concept, int page, int pageSize, PostListCursor cursor, PostStatus status) {
         QFollow follow = QFollow.follow;
 
         List<Long> followingMemberIds = queryFactory
@@ -236,21 +305,23 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         if(concept != null) {
             booleanBuilder.and(post.concept.eq(concept));
         }
+        //커서 다음 위치 조건 추가
+        addCursorCondition(cursor, PostListSort.RECENT, booleanBuilder);
 
         // 팔로잉하는 멤버의 포스트를 조회
         List<PostListRepositoryDto> posts = queryFactory
                 .select(getPostListRepositoryDtoConstructor(post, post.member))
                 .from(post)
                 .where(booleanBuilder)
-                .offset(getOffset(page, pageSize))
+                .offset(getOffset(page, pageSize, cursor))
                 .limit(pageSize + 1)
-                .orderBy(post.postId.desc())
+                .orderBy(getOrderSpecifiers(PostListSort.RECENT))
                 .fetch();
         // hasNext 판별하고 true면 1개 추가 조회한 컨텐트 삭제
         boolean hasNext = hasNextPage(posts, pageSize);
 
-        // 2. 포스트들의 카드 정보 조회
-        List<Long> postIds = getPostIds(posts);
+        // 2. 미리보기 이미지가 저장되지 않은 포스트들만 카드 정보 조회
+        List<Long> postIds = getPostIdsWithoutPreviewImages(posts);
 
         Map<Long, List<CardListRepositoryDto>> cardsMap = getPostCardsMap(card, postIds);
 
@@ -258,7 +329,7 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         setCardInfoToPostDto(posts, cardsMap);
 
         // 포스트를 DTO로 변환하고 카드 이미지 처리
-        return getPostListResponseDto(posts, hasNext);
+        return getPostListResponseDto(posts, hasNext, PostListSort.RECENT);
     }
 
     @Override
@@ -281,6 +352,7 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
                         Projections.constructor(PostMemberInfoDto.class, post.member.memberId, post.member.name, post.member.nickname, post.member.profileImage),
                         post.routePoint,
                         post.goodNumber,
+                        post.viewNumber,
                         post.thumbnailIndex,
                         post.concept,
                         post.region,
@@ -329,14 +401,17 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
                         post.member.memberId,
                         post.routePoint,
                         post.goodNumber,
+                        post.viewNumber,
                         post.thumbnailIndex,
                         post.concept,
                         post.region,
                         post.updatedTime))
                 .from(post)
                 .leftJoin(post.member, member)
-                .where(post.postId.eq(postId))
+                //삭제되거나 비공개인 포스트는 캐싱하지 않음
+                .where(post.postId.eq(postId).and(post.status.eq(PostStatus.ACTIVE)))
                 .fetchOne();
+        if(postInfoDto == null) return null;
         List<CardInfoDto> postCards = queryFactory.select(Projections.constructor(
                         CardInfoDto.class,
                         card.cardId,
@@ -383,6 +458,36 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         builder.and(post.status.eq(status));
     }
 
+    //커서가 있으면 정렬 기준상 커서 다음에 오는 포스트만 조회
+    private static void addCursorCondition(PostListCursor cursor, PostListSort sortBy, BooleanBuilder builder) {
+        if(cursor == null) return;
+        if(sortBy.equals(PostListSort.RECENT)) {
+            builder.and(post.postId.lt(cursor.getPostId()));
+            return;
+        }
+        if(sortBy.equals(PostListSort.VIEW)) {
+            builder.and(post.viewNumber.lt(cursor.getViewNumber())
+                    .or(post.viewNumber.eq(cursor.getViewNumber()).and(post.postId.lt(cursor.getPostId()))));
+            return;
+        }
+        builder.and(post.goodNumber.lt(cursor.getGoodNumber())
+                .or(post.goodNumber.eq(cursor.getGoodNumber()).and(post.postId.lt(cursor.getPostId()))));
+    }
+
+    //커서 조건과 같은 순서로 정렬해야 커서 페이징이 어긋나지 않음
+    private static OrderSpecifier<?>[] getOrderSpecifiers(PostListSort sortBy) {
+        //최신순 정렬
+        if(sortBy.equals(PostListSort.RECENT)) {
+            return new OrderSpecifier<?>[]{post.postId.desc()};
+        }
+        //조회순 정렬
+        if(sortBy.equals(PostListSort.VIEW)) {
+            return new OrderSpecifier<?>[]{post.viewNumber.desc(), post.postId.desc()};
+        }
+        //인기순 정렬
+        return new OrderSpecifier<?>[]{post.goodNumber.desc(), post.postId.desc()};
+    }
+
     private static ConstructorExpression<PostListRepositoryDto> getPostListRepositoryDtoConstructor(QPost post, QMember member) {
         return Projections.constructor(
                 PostListRepositoryDto.class,
@@ -393,7 +498,9 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
                 post.goodNumber,
                 post.concept,
                 post.region,
-                post.updatedTime
+                post.updatedTime,
+                post.previewImages,
+                post.viewNumber
         );
     }
     private static void setCardInfoToPostDto(List<PostListRepositoryDto> posts, Map<Long, List<CardListRepositoryDto>> cardsMap) {
@@ -402,14 +509,16 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
             p.setCards(cardsForPost);
         });
     }
-    //조회에 해당하는 포스트 ID 리스트 반환
-    private static List<Long> getPostIds(List<PostListRepositoryDto> posts) {
+    //미리보기 이미지가 없어서 카드 정보가 필요한 포스트 ID 리스트 반환
+    private static List<Long> getPostIdsWithoutPreviewImages(List<PostListRepositoryDto> posts) {
         return posts.stream()
+                .filter(p -> p.getPreviewImages() == null)
                 .map(PostListRepositoryDto::getPostId)
                 .collect(Collectors.toList());
     }
     // 포스트의 카드 리스트를 카드 맵으로 바꾸기
     private Map<Long, List<CardListRepositoryDto>> getPostCardsMap(QCard card, List<Long> postIds) {
+        if(postIds.isEmpty()) return Collections.emptyMap();
         return queryFactory
                 .select(Projections.constructor(CardListRepositoryDto.class,
                         card.post.postId,
@@ -423,45 +532,30 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
                 .collect(Collectors.groupingBy(CardListRepositoryDto::getPostId));
     }
 
-    //포스트 리스트를 DTO로 변환하고 카드 이미지에서 썸네일을 제일 앞으로 설정
+    //포스트 리스트를 DTO로 변환하고 다음 페이지가 있으면 마지막 포스트로 다음 커서 생성
+    private PostListResponseDto getPostListResponseDto(List<PostListRepositoryDto> posts, boolean hasNext, PostListSort sortBy) {
+        PostListResponseDto responseDto = getPostListResponseDto(posts, hasNext);
+        if(hasNext && !posts.isEmpty()) {
+            responseDto.setNextCursor(PostListCursor.of(posts.get(posts.size() - 1), sortBy).encode());
+        }
+        return responseDto;
+    }
+
+    //포스트 리스트를 DTO로 변환, 미리보기 이미지가 없는 포스트는 카드 이미지로 생성
     private PostListResponseDto getPostListResponseDto(List<PostListRepositoryDto> posts, boolean hasNext) {
-        return new PostListResponseDto(posts.stream().map(p -> {
-            List<String> images = p.getCards().stream()
-                    .sorted(Comparator.comparingInt(CardListRepositoryDto::getCardIndex))
-                    .map(CardListRepositoryDto::getImage)
-                    .distinct()
-                    .limit(3)
-                    .collect(Collectors.toList());
-
-            // 썸네일 이미지가 없으면 맨 앞에 추가
-            String thumbnailImage = null;
-            if(p.getCards() != null && !p.getCards().isEmpty()) {
-                thumbnailImage = p.getCards().get(p.getThumbnailIndex()).getImage();
-            }
-            if (thumbnailImage != null && !images.contains(thumbnailImage)) {
-                images.add(0, thumbnailImage); // 맨 앞에 썸네일 이미지 추가
-                if (images.size() > 3) {
-                    images = images.subList(0, 3); // 최대 3개 이미지 유지
-                }
-            }
-            //썸네일 이미지가 있으면 맨 앞으로 옮기기
-            else if (thumbnailImage != null){
-                images.remove(thumbnailImage);
-                images.add(0, thumbnailImage);
-            }
-
-            return new PostListDto(
-                    p.getTitle(),
-                    p.getPostId(),
-                    p.getNickname(),
-                    p.getGoodNumber(),
-                    p.getConcept(),
-                    p.getRegion(),
-                    images,
-                    p.getUpdatedTime()
-            );
-        }).collect(Collectors.toList()), hasNext);
+        return new PostListResponseDto(posts.stream().map(p -> new PostListDto(
+                p.getTitle(),
+                p.getPostId(),
+                p.getNickname(),
+                p.getGoodNumber(),
+                p.getConcept(),
+                p.getRegion(),
+                PostPreviewImages.of(p),
+                p.getUpdatedTime(),
+                p.getViewNumber()
+        )).collect(Collectors.toList()), hasNext);
     }
+
     // 1개 추가 조회한 포스트가 존재하면 true 처리 및 추가 조회한 포스트 삭제
     private boolean hasNextPage(List<PostListRepositoryDto> list, int pageSize) {
         if (list.size() > pageSize) {
@@ -471,7 +565,9 @@ public class QueryPostRepositoryImpl implements QueryPostRepository{
         return false;
     }
 
-    private int getOffset(int page, int pageSize) {
+    //커서 페이징이면 커서 조건으로 위치를 정하므로 offset 사용 안함
+    private int getOffset(int page, int pageSize, PostListCursor cursor) {
+        if(cursor != null) return 0;
         return (page - 1) * pageSize;
     }
 }
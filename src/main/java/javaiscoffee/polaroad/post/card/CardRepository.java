@@ -3,6 +3,8 @@ package javaiscoffee.polaroad.post.card;
 import javaiscoffee.polaroad.post.Post;
 import javaiscoffee.polaroad.post.PostStatus;
 import javaiscoffee.polaroad.post.PostThumbnailDto;
+import javaiscoffee.polaroad.post.elastic.ElasticCardDto;
+import javaiscoffee.polaroad.post.search.PostSearchContentDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -17,6 +19,16 @@ import java.util.List;
 public interface CardRepository extends JpaRepository<Card, Long>, QueryCardRepository {
     //포스트의 카드 조회
     List<Card> findCardsByPostAndStatusOrderByCardIndexAsc(Post post, CardStatus status);
+    //여러 포스트의 카드 조회
+    List<Card> findCardsByPostPostIdInAndStatus(List<Long> postIds, CardStatus status);
+
+    //검색 색인에 넣을 카드 내용 조회
+    @Query("select new javaiscoffee.polaroad.post.search.PostSearchContentDto(c.post.postId, c.content) from Card c where c.post.postId in :postIds and c.status = :status order by c.cardIndex asc")
+    List<PostSearchContentDto> findPostSearchContentsByPostIdIn(@Param("postIds") List<Long> postIds, @Param("status") CardStatus status);
+
+    //엘라스틱서치 문서에 넣을 카드 조회
+    @Query("select new javaiscoffee.polaroad.post.elastic.ElasticCardDto(c.post.postId, c.cardId, c.cardIndex, c.location, c.content, c.image, c.latitude, c.longitude) from Card c where c.post.postId in :postIds and c.status = :status order by c.cardIndex asc")
+    List<ElasticCardDto> findElasticCardsByPostIdIn(@Param("postIds") List<Long> postIds, @Param("status") CardStatus status);
 
     //마이페이지에서 자기가 업로드한 카도 조회
     @Query("select new javaiscoffee.polaroad.post.card.CardListDto(c.cardId, c.location, c.image) from Card c where  c.member.memberId = :memberId and" +
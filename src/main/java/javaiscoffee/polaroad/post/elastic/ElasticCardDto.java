@@ -0,0 +1,25 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import javaiscoffee.polaroad.post.ElasticCard;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 엘라스틱서치 문서에 넣을 카드, 포스트별로 묶기 위해 포스트 ID를 함께 조회
+ */
+@Data
+@AllArgsConstructor
+public class ElasticCardDto {
+    private Long postId;
+    private Long cardId;
+    private int cardIndex;
+    private String location;
+    private String content;
+    private String image;
+    private double latitude;
+    private double longitude;
+
+    public ElasticCard toElasticCard() {
+        return new ElasticCard(cardId, cardIndex, location, content, image, latitude, longitude);
+    }
+}
@@ -0,0 +1,14 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 엘라스틱서치 문서에 넣을 포스트의 해쉬태그 이름
+ */
+@Data
+@AllArgsConstructor
+public class ElasticHashtagDto {
+    private Long postId;
+    private String name;
+}
@@ -0,0 +1,81 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import javaiscoffee.polaroad.post.ElasticCard;
+import javaiscoffee.polaroad.post.ElasticPost;
+import javaiscoffee.polaroad.post.Post;
+import javaiscoffee.polaroad.post.PostRepository;
+import javaiscoffee.polaroad.post.card.CardRepository;
+import javaiscoffee.polaroad.post.card.CardStatus;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * MySQL에서 포스트, 카드, 해쉬태그를 읽어서 엘라스틱서치 문서로 변환
+ * 포스트 한 묶음마다 카드, 해쉬태그를 IN 조회 한 번씩으로 가져와서 포스트 수만큼 쿼리가 늘어나지 않게 한다.
+ */
+@Component
+@Profile("prod2")
+public class ElasticPostDocumentLoader {
+    private final PostRepository postRepository;
+    private final CardRepository cardRepository;
+    private final PostHashtagRepository postHashtagRepository;
+
+    @Autowired
+    public ElasticPostDocumentLoader(PostRepository postRepository, CardRepository cardRepository, PostHashtagRepository postHashtagRepository) {
+        this.postRepository = postRepository;
+        this.cardRepository = cardRepository;
+        this.postHashtagRepository = postHashtagRepository;
+    }
+
+    /**
+     * lastPostId 이후 포스트를 ID 오름차순으로 size개 조회
+     */
+    @Transactional(readOnly = true)
+    public List<ElasticPost> loadAfter(long lastPostId, int size) {
+        return toDocuments(postRepository.findPostsWithMemberAfter(lastPostId, PageRequest.of(0, size)));
+    }
+
+    /**
+     * 변경된 포스트 조회, DB에 없는 포스트는 결과에서 빠진다.
+     */
+    @Transactional(readOnly = true)
+    public List<ElasticPost> loadByPostIds(List<Long> postIds) {
+        return toDocuments(postRepository.findPostsWithMemberByPostIdIn(postIds));
+    }
+
+    private List<ElasticPost> toDocuments(List<Post> posts) {
+        if (posts.isEmpty()) return new ArrayList<>();
+        List<Long> postIds = posts.stream().map(Post::getPostId).toList();
+        Map<Long, List<ElasticCard>> cards = cardRepository.findElasticCardsByPostIdIn(postIds, CardStatus.ACTIVE).stream()
+                .collect(Collectors.groupingBy(ElasticCardDto::getPostId, Collectors.mapping(ElasticCardDto::toElasticCard, Collectors.toList())));
+        Map<Long, List<String>> hashtags = postHashtagRepository.findElasticHashtagsByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(ElasticHashtagDto::getPostId, Collectors.mapping(ElasticHashtagDto::getName, Collectors.toList())));
+
+        return posts.stream()
+                .map(post -> ElasticPost.builder()
+                        .postId(post.getPostId())
+                        .title(post.getTitle())
+                        .memberId(post.getMember().getMemberId())
+                        .nickname(post.getMember().getNickname())
+                        .concept(post.getConcept())
+                        .region(post.getRegion())
+                        .status(post.getStatus())
+                        .routePoint(post.getRoutePoint())
+                        .goodNumber(post.getGoodNumber())
+                        .reviewNumber(post.getReviewNumber())
+                        .thumbnailIndex(post.getThumbnailIndex())
+                        .createdTime(post.getCreatedTime())
+                        .updatedTime(post.getUpdatedTime())
+                        .cards(cards.getOrDefault(post.getPostId(), new ArrayList<>()))
+                        .hashtags(hashtags.getOrDefault(post.getPostId(), new ArrayList<>()))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,150 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.post.ElasticPost;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostOutboxConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 포스트 변경 사항을 엘라스틱서치에 증분 색인
+ * 아웃박스 릴레이에서 전달받은 포스트 ID를 레디스 대기 해시(elastic:post:pending)에 기록해두고,
+ * bulk-size개가 모이거나 flush-interval-ms마다 한 번의 bulk 요청으로 색인한다.
+ * 문서는 전달받은 시점이 아니라 bulk 요청 직전에 DB에서 다시 읽으므로 같은 포스트가 여러 번 바뀌어도 한 번만 색인한다.
+ *
+ * 대기 해시에 기록한 뒤에 아웃박스가 삭제되므로 파드가 종료되거나 색인에 실패해도 변경이 유실되지 않는다.
+ * 해시 값은 포스트가 바뀔 때마다 1씩 커지고, 색인한 뒤에는 색인 전에 읽은 값과 같은 포스트만 지워서
+ * 색인하는 동안 다시 바뀐 포스트는 다음 색인 때 한 번 더 색인한다.
+ * 대기 해시는 배치 작업 리스로 전체 파드 중 한 곳에서만 색인한다.
+ *
+ * 전체 재색인 중이면 별칭이 가리키는 기존 인덱스와 새로 만드는 인덱스 둘 다에 쓴다.
+ * 재색인은 이미 있는 문서를 덮어쓰지 않으므로(create) 재색인 중에 바뀐 포스트가 예전 내용으로 되돌아가지 않는다.
+ */
+@Slf4j
+@Component
+@Profile("prod2")
+public class ElasticPostIndexer implements PostOutboxConsumer {
+    //전체 재색인 중인 새 인덱스 이름, 재색인을 실행하는 파드와 릴레이를 실행하는 파드가 다를 수 있어서 레디스에 저장
+    public final static String REINDEX_TARGET_KEY = "elastic:post:reindex-target";
+    //색인 대기 포스트 ID, 값은 변경 횟수
+    final static String PENDING_KEY = "elastic:post:pending";
+    private final static String INDEX_JOB = "elastic-post-index";
+    private final static Duration INDEX_LEASE_TIMEOUT = Duration.ofSeconds(30);
+    private final static RedisScript<Long> REMOVE_INDEXED_POSTS_SCRIPT = RedisScript.of(new ClassPathResource("redis/remove-indexed-elastic-posts.lua"), Long.class);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticPostDocumentLoader documentLoader;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final int bulkSize;
+
+    @Autowired
+    public ElasticPostIndexer(ElasticsearchOperations elasticsearchOperations, ElasticPostDocumentLoader documentLoader, RedisTemplate<String, String> redisTemplate,
+                              BatchJobCoordinator batchJobCoordinator, @Value("${elastic.post.bulk-size:500}") int bulkSize) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.documentLoader = documentLoader;
+        this.redisTemplate = redisTemplate;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.bulkSize = bulkSize;
+    }
+
+    /**
+     * 대기 해시에 기록한 뒤 반환, 기록에 실패하면 예외가 릴레이로 전달되어 아웃박스가 남고 다시 전달된다.
+     */
+    @Override
+    public void consume(PostChangeEvent event) {
+        redisTemplate.opsForHash().increment(PENDING_KEY, event.getPostId().toString(), 1);
+        Long pendingSize = redisTemplate.opsForHash().size(PENDING_KEY);
+        if (pendingSize != null && pendingSize >= bulkSize) flush();
+    }
+
+    /**
+     * 대기 해시의 포스트를 bulkSize개씩 색인
+     * 실패하면 대기 해시에 그대로 남아서 다음 주기에 재시도
+     */
+    @Scheduled(fixedDelayString = "${elastic.post.flush-interval-ms:1000}")
+    public void flush() {
+        batchJobCoordinator.run(INDEX_JOB, INDEX_LEASE_TIMEOUT, Duration.ZERO, lease -> {
+            long indexed = 0;
+            while (lease.renew()) {
+                Map<String, String> pending = redisTemplate.<String, String>opsForHash().randomEntries(PENDING_KEY, bulkSize);
+                if (pending == null || pending.isEmpty()) break;
+                indexPosts(pending.keySet().stream().map(Long::valueOf).toList());
+                removeIndexed(pending);
+                indexed += pending.size();
+                if (pending.size() < bulkSize) break;
+            }
+            return indexed;
+        });
+    }
+
+    /**
+     * 색인 전에 읽은 변경 횟수와 같은 포스트만 대기 해시에서 삭제
+     */
+    private void removeIndexed(Map<String, String> indexed) {
+        List<String> args = new ArrayList<>(indexed.size() * 2);
+        indexed.forEach((postId, changes) -> {
+            args.add(postId);
+            args.add(changes);
+        });
+        redisTemplate.execute(REMOVE_INDEXED_POSTS_SCRIPT, List.of(PENDING_KEY), args.toArray());
+    }
+
+    private void indexPosts(List<Long> postIds) {
+        List<IndexCoordinates> targets = new ArrayList<>();
+        //아직 별칭이 없으면 별칭 이름으로 인덱스가 자동 생성되지 않도록 쓰지 않고, 첫 전체 재색인에 맡긴다.
+        if (elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticPost.INDEX_ALIAS)).exists()) {
+            targets.add(IndexCoordinates.of(ElasticPost.INDEX_ALIAS));
+        }
+        String reindexTarget = redisTemplate.opsForValue().get(REINDEX_TARGET_KEY);
+        if (reindexTarget != null) targets.add(IndexCoordinates.of(reindexTarget));
+        if (targets.isEmpty()) return;
+
+        List<ElasticPost> documents = documentLoader.loadByPostIds(postIds);
+        Set<Long> deletedPostIds = new HashSet<>(postIds);
+        documents.forEach(document -> deletedPostIds.remove(document.getPostId()));
+        for (IndexCoordinates target : targets) {
+            if (!documents.isEmpty()) bulkIndex(documents, target, IndexQuery.OpType.INDEX);
+            //DB에서 사라진 포스트는 문서 삭제
+            deletedPostIds.forEach(postId -> elasticsearchOperations.delete(String.valueOf(postId), target));
+        }
+        log.debug("엘라스틱서치 증분 색인 = {}건", postIds.size());
+    }
+
+    /**
+     * 문서를 한 번의 bulk 요청으로 색인
+     * CREATE는 이미 있는 문서를 건너뛰므로 문서가 있어서 실패(409)한 경우는 무시한다.
+     */
+    void bulkIndex(List<ElasticPost> documents, IndexCoordinates target, IndexQuery.OpType opType) {
+        List<IndexQuery> queries = documents.stream()
+                .map(document -> new IndexQueryBuilder()
+                        .withId(String.valueOf(document.getPostId()))
+                        .withObject(document)
+                        .withOpType(opType)
+                        .build())
+                .toList();
+        try {
+            elasticsearchOperations.bulkIndex(queries, target);
+        } catch (BulkFailureException e) {
+            boolean onlyConflicts = opType == IndexQuery.OpType.CREATE && e.getFailedDocuments().values().stream()
+                    .allMatch(failure -> Objects.equals(failure.status(), 409));
+            if (!onlyConflicts) throw e;
+        }
+    }
+}
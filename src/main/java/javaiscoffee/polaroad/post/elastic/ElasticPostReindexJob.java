@@ -0,0 +1,192 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.batch.BatchLease;
+import javaiscoffee.polaroad.post.ElasticPost;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 엘라스틱서치 포스트 전체 재색인
+ * 1. posts-{시각} 이름으로 새 인덱스를 만들고
+ * 2. MySQL에서 포스트 ID 순서대로 chunk-size개씩 읽어서 parallelism개 스레드로 동시에 bulk 요청을 보낸 뒤
+ * 3. posts 별칭을 새 인덱스로 한 번에 교체하고 이전 인덱스를 삭제한다.
+ * 검색은 항상 별칭으로 하므로 재색인 중에도 이전 인덱스로 검색할 수 있다.
+ *
+ * DB 읽기는 한 스레드에서 순서대로 하고, 읽는 속도가 색인보다 빠르면 bulk 요청 대기 수를 제한해서 메모리 사용량을 묶어둔다.
+ * 재색인 전용 스레드(elasticReindexExecutor)에서 실행하고, 배치 작업 리스로 전체 파드 중 한 곳에서만 실행하고, chunk마다 리스를 연장하다가 리스를 잃으면 새 인덱스를 버리고 중단한다.
+ */
+@Slf4j
+@Component
+@Profile("prod2")
+public class ElasticPostReindexJob {
+    private final static String REINDEX_JOB = "elastic-post-reindex";
+    private final static Duration REINDEX_LEASE_TIMEOUT = Duration.ofHours(2);
+    private final static DateTimeFormatter INDEX_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticPostDocumentLoader documentLoader;
+    private final ElasticPostIndexer elasticPostIndexer;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final Executor elasticReindexExecutor;
+    private final int chunkSize;
+    private final int parallelism;
+
+    @Autowired
+    public ElasticPostReindexJob(ElasticsearchOperations elasticsearchOperations, ElasticPostDocumentLoader documentLoader, ElasticPostIndexer elasticPostIndexer,
+                                 RedisTemplate<String, String> redisTemplate, BatchJobCoordinator batchJobCoordinator, @Qualifier("elasticReindexExecutor") Executor elasticReindexExecutor,
+                                 @Value("${elastic.post.reindex-chunk-size:1000}") int chunkSize,
+                                 @Value("${elastic.post.reindex-parallelism:4}") int parallelism) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.documentLoader = documentLoader;
+        this.elasticPostIndexer = elasticPostIndexer;
+        this.redisTemplate = redisTemplate;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.elasticReindexExecutor = elasticReindexExecutor;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * 별칭이 없으면(처음 배포) 시작할 때 전체 재색인
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfAbsent() {
+        if (elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticPost.INDEX_ALIAS)).exists()) return;
+        startReindex();
+    }
+
+    /**
+     * 다른 곳에서 재색인 중이 아니면 백그라운드로 전체 재색인 시작
+     * @return 이미 재색인 중이면 false
+     */
+    public boolean startReindex() {
+        BatchLease lease = batchJobCoordinator.tryAcquire(REINDEX_JOB, REINDEX_LEASE_TIMEOUT, Duration.ZERO);
+        if (lease == null) return false;
+        try {
+            elasticReindexExecutor.execute(() -> batchJobCoordinator.execute(lease, this::reindex));
+        } catch (TaskRejectedException e) {
+            //종료 중이면 실행하지 않고 리스 반납
+            batchJobCoordinator.release(lease, false);
+            return false;
+        }
+        return true;
+    }
+
+    private long reindex(BatchLease lease) {
+        long start = System.currentTimeMillis();
+        String indexName = ElasticPost.INDEX_ALIAS + "-" + LocalDateTime.now().format(INDEX_SUFFIX_FORMAT);
+        IndexCoordinates target = IndexCoordinates.of(indexName);
+        IndexOperations indexOps = elasticsearchOperations.indexOps(target);
+        indexOps.create(indexOps.createSettings(ElasticPost.class), indexOps.createMapping(ElasticPost.class));
+        //재색인 중에 바뀐 포스트는 증분 색인이 새 인덱스에도 쓴다.
+        redisTemplate.opsForValue().set(ElasticPostIndexer.REINDEX_TARGET_KEY, indexName, REINDEX_LEASE_TIMEOUT);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            long indexed = bulkIndexAll(target, executor, lease);
+            indexOps.refresh();
+            swapAlias(indexName);
+            log.info("엘라스틱서치 전체 재색인 완료 = {} {}건 {}ms", indexName, indexed, System.currentTimeMillis() - start);
+            return indexed;
+        } catch (RuntimeException e) {
+            indexOps.delete();
+            throw e;
+        } finally {
+            executor.shutdownNow();
+            redisTemplate.delete(ElasticPostIndexer.REINDEX_TARGET_KEY);
+        }
+    }
+
+    /**
+     * 포스트 ID 순서대로 chunkSize개씩 읽어서 bulk 요청
+     * 동시에 진행 중인 bulk 요청은 parallelism * 2개까지만 허용
+     */
+    private long bulkIndexAll(IndexCoordinates target, ExecutorService executor, BatchLease lease) {
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicLong indexed = new AtomicLong();
+        long lastPostId = 0;
+        List<ElasticPost> documents;
+        try {
+            do {
+                if (!lease.renew()) throw new IllegalStateException("엘라스틱서치 재색인 리스를 잃어서 중단");
+                documents = documentLoader.loadAfter(lastPostId, chunkSize);
+                if (documents.isEmpty()) break;
+                lastPostId = documents.get(documents.size() - 1).getPostId();
+
+                inFlight.acquire();
+                List<ElasticPost> chunk = documents;
+                executor.execute(() -> {
+                    try {
+                        elasticPostIndexer.bulkIndex(chunk, target, IndexQuery.OpType.CREATE);
+                        indexed.addAndGet(chunk.size());
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } while (documents.size() == chunkSize && failure.get() == null);
+
+            //남은 bulk 요청이 모두 끝날 때까지 대기
+            inFlight.acquire(parallelism * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("엘라스틱서치 재색인 중단", e);
+        }
+        if (failure.get() != null) throw failure.get();
+        return indexed.get();
+    }
+
+    /**
+     * 별칭을 새 인덱스로 교체하고 이전 인덱스 삭제
+     * 예전에 별칭 이름으로 자동 생성된 인덱스가 있으면 같은 요청에서 삭제해야 별칭을 만들 수 있다.
+     */
+    private void swapAlias(String indexName) {
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(ElasticPost.INDEX_ALIAS));
+        Set<String> oldIndices = getAliasedIndices(aliasOps);
+        boolean concreteIndex = oldIndices.isEmpty() && aliasOps.exists();
+
+        List<AliasAction> actions = new ArrayList<>();
+        actions.add(new AliasAction.Add(AliasActionParameters.builder().withIndices(indexName).withAliases(ElasticPost.INDEX_ALIAS).build()));
+        oldIndices.forEach(oldIndex -> actions.add(new AliasAction.Remove(AliasActionParameters.builder().withIndices(oldIndex).withAliases(ElasticPost.INDEX_ALIAS).build())));
+        if (concreteIndex) actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(ElasticPost.INDEX_ALIAS).build()));
+        aliasOps.alias(new AliasActions(actions.toArray(new AliasAction[0])));
+
+        oldIndices.forEach(oldIndex -> elasticsearchOperations.indexOps(IndexCoordinates.of(oldIndex)).delete());
+    }
+
+    private Set<String> getAliasedIndices(IndexOperations aliasOps) {
+        try {
+            return new HashSet<>(aliasOps.getAliases(ElasticPost.INDEX_ALIAS).keySet());
+        } catch (RuntimeException e) {
+            //별칭이 없으면 404
+            return new HashSet<>();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import javaiscoffee.polaroad.post.PostListFacetsDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 엘라스틱서치 검색 결과
+ * postIds는 다음 페이지 판별을 위해 pageSize보다 1개 더 들어있을 수 있다.
+ */
+@Data
+@AllArgsConstructor
+public class ElasticPostSearchResult {
+    private List<Long> postIds;
+    //다음 페이지가 없으면 null
+    private String nextCursor;
+    private PostListFacetsDto facets;
+}
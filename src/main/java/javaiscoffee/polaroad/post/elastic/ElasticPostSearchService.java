@@ -0,0 +1,148 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import javaiscoffee.polaroad.post.*;
+import javaiscoffee.polaroad.post.index.PostBitmapIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 탐색 페이지 키워드, 해쉬태그 검색을 엘라스틱서치로 처리
+ * 정렬은 MySQL 검색과 같이 최신순(postId) 또는 인기순(goodNumber, postId)이고,
+ * 커서가 있으면 search_after로 이어서 조회해서 페이지가 깊어져도 앞 문서를 건너뛰는 비용이 없다.
+ *
+ * 컨셉, 지역 조건은 post_filter로 걸어서 같은 요청의 집계에는 영향을 주지 않고,
+ * 컨셉 집계에는 지역 조건만, 지역 집계에는 컨셉 조건만 적용해서 화면의 필터별 개수를 한 번에 계산한다.
+ */
+@Slf4j
+@Service
+@Profile("prod2")
+public class ElasticPostSearchService {
+    private final static String CONCEPT_FACET = "concepts";
+    private final static String REGION_FACET = "regions";
+    private final static String TERMS = "terms";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    public ElasticPostSearchService(ElasticsearchOperations elasticsearchOperations) {
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    /**
+     * 조건에 맞는 포스트 ID를 한 페이지 + 1개 조회
+     * 엘라스틱서치 요청이 실패하면 null을 반환하고 DB 검색 사용
+     * @param cursor null이면 page로 조회
+     */
+    public ElasticPostSearchResult search(PostSearchType searchType, String searchKeyword, PostListSort sortBy, PostConcept concept, PostRegion region, PostStatus status,
+                                          PostListCursor cursor, int page, int pageSize) {
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(Query.of(q -> q.bool(b -> b
+                        .filter(term("status", status.name()))
+                        .must(searchQuery(searchType, searchKeyword)))))
+                .withSort(sortBy.equals(PostListSort.GOOD)
+                        ? Sort.by(Sort.Order.desc("goodNumber"), Sort.Order.desc("postId"))
+                        : Sort.by(Sort.Order.desc("postId")))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"postId", "goodNumber"}, null))
+                .withTrackTotalHits(false)
+                .withAggregation(CONCEPT_FACET, facet("concept", regionFilter(region), PostConcept.values().length))
+                .withAggregation(REGION_FACET, facet("region", conceptFilter(concept), PostRegion.values().length));
+        List<Query> filters = new ArrayList<>();
+        if (concept != null) filters.add(conceptFilter(concept));
+        if (region != null) filters.add(regionFilter(region));
+        if (!filters.isEmpty()) builder.withFilter(Query.of(q -> q.bool(b -> b.filter(filters))));
+        //from은 페이지 위치로 정하고, 다음 페이지 판별을 위해 size만 1개 늘림
+        builder.withPageable(PageRequest.of(cursor != null ? 0 : page - 1, pageSize)).withMaxResults(pageSize + 1);
+        if (cursor != null) {
+            builder.withSearchAfter(sortBy.equals(PostListSort.GOOD) ? List.<Object>of(cursor.getGoodNumber(), cursor.getPostId()) : List.<Object>of(cursor.getPostId()));
+        }
+
+        SearchHits<ElasticPost> hits;
+        try {
+            hits = elasticsearchOperations.search(builder.build(), ElasticPost.class);
+        } catch (RuntimeException e) {
+            log.error("엘라스틱서치 포스트 검색 실패 = {}", searchKeyword, e);
+            return null;
+        }
+
+        List<ElasticPost> posts = hits.getSearchHits().stream().map(SearchHit::getContent).toList();
+        List<Long> postIds = posts.stream().map(ElasticPost::getPostId).toList();
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            ElasticPost last = posts.get(pageSize - 1);
+            nextCursor = (sortBy.equals(PostListSort.GOOD)
+                    ? PostListCursor.good(last.getGoodNumber(), last.getPostId())
+                    : PostListCursor.recent(last.getPostId())).encode();
+        }
+        return new ElasticPostSearchResult(postIds, nextCursor, toFacets((ElasticsearchAggregations) hits.getAggregations()));
+    }
+
+    /**
+     * 해쉬태그 검색은 해쉬태그 이름이 정확히 같은 포스트, 키워드 검색은 제목과 카드 내용, 장소를 nori로 분석해서 검색
+     */
+    private static Query searchQuery(PostSearchType searchType, String searchKeyword) {
+        if (searchType.equals(PostSearchType.HASHTAG)) return term("hashtags", searchKeyword);
+        return Query.of(q -> q.bool(b -> b
+                .should(s -> s.match(m -> m.field("title").query(searchKeyword).boost(3.0f)))
+                .should(s -> s.nested(n -> n
+                        .path("cards")
+                        .query(nq -> nq.multiMatch(m -> m.query(searchKeyword).fields("cards.content", "cards.location")))))
+                .minimumShouldMatch("1")));
+    }
+
+    private static Query conceptFilter(PostConcept concept) {
+        if (concept == null) return Query.of(q -> q.matchAll(m -> m));
+        //인기 게시글은 컨셉이 아니라 추천 수로 판단
+        if (concept.equals(PostConcept.HOT)) {
+            return Query.of(q -> q.range(r -> r.field("goodNumber").gte(JsonData.of(PostBitmapIndex.HOT_GOOD_NUMBER))));
+        }
+        return term("concept", concept.name());
+    }
+
+    private static Query regionFilter(PostRegion region) {
+        if (region == null) return Query.of(q -> q.matchAll(m -> m));
+        return term("region", region.name());
+    }
+
+    private static Query term(String field, String value) {
+        return Query.of(q -> q.term(t -> t.field(field).value(value)));
+    }
+
+    private static Aggregation facet(String field, Query filter, int size) {
+        return Aggregation.of(a -> a
+                .filter(filter)
+                .aggregations(TERMS, Aggregation.of(t -> t.terms(terms -> terms.field(field).size(size)))));
+    }
+
+    private static PostListFacetsDto toFacets(ElasticsearchAggregations aggregations) {
+        if (aggregations == null) return null;
+        Map<PostConcept, Long> concepts = new EnumMap<>(PostConcept.class);
+        toCounts(aggregations, CONCEPT_FACET).forEach((key, count) -> concepts.put(PostConcept.valueOf(key), count));
+        Map<PostRegion, Long> regions = new EnumMap<>(PostRegion.class);
+        toCounts(aggregations, REGION_FACET).forEach((key, count) -> regions.put(PostRegion.valueOf(key), count));
+        return new PostListFacetsDto(concepts, regions);
+    }
+
+    private static Map<String, Long> toCounts(ElasticsearchAggregations aggregations, String name) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Aggregate terms = aggregations.get(name).aggregation().getAggregate().filter().aggregations().get(TERMS);
+        terms.sterms().buckets().array().forEach(bucket -> counts.put(bucket.key().stringValue(), bucket.docCount()));
+        return counts;
+    }
+}
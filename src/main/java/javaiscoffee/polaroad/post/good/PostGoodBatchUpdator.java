@@ -1,99 +1,183 @@
 package javaiscoffee.polaroad.post.good;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import javaiscoffee.polaroad.exception.NotFoundException;
-import javaiscoffee.polaroad.post.PostInfoCachingDto;
+import javaiscoffee.polaroad.batch.BatchFencing;
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.batch.BatchLease;
 import javaiscoffee.polaroad.post.PostRepository;
-import javaiscoffee.polaroad.redis.RedisService;
+import javaiscoffee.polaroad.post.outbox.PostChangeOutbox;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import javaiscoffee.polaroad.redis.PostTrending;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.*;
-import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 레디스 pgb 해시에 모아둔 포스트별 추천 변동을 DB 추천 수에 반영
+ * 5분마다, 또는 이 파드에서 받은 추천 변동이 post.good.flush-threshold개 이상 쌓이면 반영한다.
+ * 배치 작업 리스로 전체 파드 중 한 곳에서만 반영하고, 5분 주기 반영은 다른 파드가 최근에 반영했으면 건너뛴다.
+ *
+ * PostViewBatchUpdator와 같이 pgb를 반영 중 key(pgb:flushing)로 이름을 바꿔서 가져가므로 반영하는 동안 들어온 추천은 새 pgb에 쌓인다.
+ * 500개씩 JDBC 배치 UPDATE와 아웃박스 기록을 트랜잭션 하나로 실행하고, 커밋한 포스트만 반영 중 key에서 지운다.
+ * 실패하거나 리스를 잃거나 파드가 종료되면 남은 포스트는 반영 중 key에 그대로 남아서 다음 반영 때 먼저 반영한다.
+ * 리스가 만료된 뒤에도 실행 중인 이전 파드가 같이 더하지 않도록 트랜잭션마다 펜싱 토큰을 검사한다.
+ * 커밋 직후 key에서 지우기 전에 종료된 묶음은 PostViewBatchUpdator와 같이 배치 ID(pgb:flushing:batch)로 batch_fence에 기록해두고 다시 더하지 않는다.
+ * 반영 후 바뀐 추천 수는 쿼리 한 번으로 다시 읽어서 음수가 된 포스트를 0으로 보정한다.
+ */
 @Slf4j
 @Component
 public class PostGoodBatchUpdator {
     private final RedisTemplate<String, String> redisTemplate;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final BatchFencing batchFencing;
     private final PostRepository postRepository;
-    private final RedisService redisService;
-    private final ObjectMapper objectMapper;
-    private final static String POST_GOOD_BATCH_PREFIX = "pgb:";
-    private final static String POST_CACHING_PREFIX = "pc:";
+    private final PostChangeOutbox postChangeOutbox;
+    private final PostTrending postTrending;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushThreshold;
+    //마지막 반영 이후 이 파드에서 받은 추천 변동 수
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    public final static String PENDING_KEY = "pgb";
+    private final static String FLUSHING_KEY = "pgb:flushing";
+    private final static String FLUSHING_BATCH_KEY = "pgb:flushing:batch";
+    private final static int BATCH_SIZE = 500;
+    private final static String FLUSH_JOB = "post-good-batch";
+    private final static Duration FLUSH_LEASE_TIMEOUT = Duration.ofSeconds(60);
+    private final static Duration FLUSH_MIN_INTERVAL = Duration.ofMinutes(2);
+    private final static String UPDATE_GOOD_NUMBER_SQL = "update posts set good_number = good_number + ? where post_id = ?";
+    private final static String RESET_NEGATIVE_GOOD_NUMBER_SQL = "update posts set good_number = 0 where post_id = ? and good_number < 0";
+
     @Autowired
-    public PostGoodBatchUpdator(RedisTemplate<String, String> redisTemplate, PostRepository postRepository, RedisService redisService, ObjectMapper objectMapper) {
+    public PostGoodBatchUpdator(RedisTemplate<String, String> redisTemplate, BatchJobCoordinator batchJobCoordinator, BatchFencing batchFencing, PostRepository postRepository, PostChangeOutbox postChangeOutbox, PostTrending postTrending,
+                                JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, @Value("${post.good.flush-threshold:1000}") int flushThreshold) {
         this.redisTemplate = redisTemplate;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.batchFencing = batchFencing;
         this.postRepository = postRepository;
-        this.redisService = redisService;
-        this.objectMapper = objectMapper;
+        this.postChangeOutbox = postChangeOutbox;
+        this.postTrending = postTrending;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushThreshold = flushThreshold;
     }
 
     /**
      * 5분마다 저장되어 있던 추천 변동 사항 db에 적용
      */
-
     @Scheduled(fixedRate = 300000)
-//    @Scheduled(fixedRate = 30000)
     public void updatePostGoodsBatch() {
-        String batchPattern = POST_GOOD_BATCH_PREFIX+"*";
-        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
-        ScanOptions scanOptions = ScanOptions.scanOptions().match(batchPattern).build();
-
-        ConvertingCursor<byte[], String> cursor = redisTemplate.executeWithStickyConnection(redisConnection ->
-                new ConvertingCursor<>(redisConnection.scan(scanOptions), keySerializer::deserialize));
+        flush(FLUSH_MIN_INTERVAL);
+    }
 
-        if(cursor==null) return;
-        log.info("좋아요 배치 작업 시작");
+    /**
+     * 추천 변동이 많이 쌓였으면 5분을 기다리지 않고 반영
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void updatePostGoodsBatchIfThresholdReached() {
+        if (pendingCount.get() >= flushThreshold) flush(Duration.ZERO);
+    }
 
-        while (cursor.hasNext()) {
-            String key = Objects.requireNonNull(cursor.next());
-            Long postId = extractPostIdFromKey(Objects.requireNonNull(key));
-            int goodNumber = Integer.parseInt(Objects.requireNonNull(redisTemplate.opsForValue().get(key)));
+    private void flush(Duration minInterval) {
+        batchJobCoordinator.run(FLUSH_JOB, FLUSH_LEASE_TIMEOUT, minInterval, lease -> {
+            pendingCount.set(0);
+            //지난 반영에서 처리하지 못한 key가 있으면 그것부터 반영
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(FLUSHING_KEY))) {
+                //이전 반영 중 key의 배치 ID가 새 반영 중 key에 이어지지 않도록 먼저 지움
+                redisTemplate.delete(FLUSHING_BATCH_KEY);
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(PENDING_KEY))) return 0;
+                redisTemplate.rename(PENDING_KEY, FLUSHING_KEY);
+            }
+            String batchId = flushingBatchId();
+            Map<Object, Object> goods = redisTemplate.opsForHash().entries(FLUSHING_KEY);
+            //포스트 ID 순서로 잠그도록 정렬
+            Map<Long, Integer> changes = new TreeMap<>();
+            goods.forEach((postId, goodNumber) -> changes.put(Long.parseLong((String) postId), Integer.parseInt((String) goodNumber)));
+            List<Long> postIds = new ArrayList<>(changes.keySet());
+            log.info("좋아요 배치 작업 시작 = {}개", postIds.size());
 
-            postRepository.updatePostGoodNumber(goodNumber, postId);
-            int updatedGoodNumber = postRepository.getPostGoodNumber(postId);
-            if(updatedGoodNumber >= 10) {
-                String cachingKey = POST_CACHING_PREFIX + postId;
-                log.info("캐싱이 되어 있는지 확인 = {}",redisTemplate.hasKey(cachingKey));
-                //레디스에 저장이 안되어 있는 경우 캐싱시간 1시간
-                if(Boolean.FALSE.equals(redisTemplate.hasKey(cachingKey))) {
-                    PostInfoCachingDto cachingDto = postRepository.getPostCachingDtoById(postId);
-                    redisService.saveCachingPostInfo(cachingDto, postId);
-                }
-                //레디스에 저장되어 있는 경우 캐싱 시간 연장
-                else {
-                    redisTemplate.expire(cachingKey, 60, TimeUnit.MINUTES);
+            long applied = 0;
+            for (int from = 0; from < postIds.size(); from += BATCH_SIZE) {
+                //리스를 잃었으면 다른 파드가 같은 반영 중 key를 이어서 반영하므로 중단
+                if (!lease.renew()) break;
+                List<Long> chunk = postIds.subList(from, Math.min(from + BATCH_SIZE, postIds.size()));
+                Map<Long, Integer> chunkChanges = new TreeMap<>();
+                //추천하고 다시 취소해서 변동이 0인 포스트는 DB에 쓰지 않고 반영 중 key에서만 지움
+                chunk.forEach(postId -> {
+                    if (changes.get(postId) != 0) chunkChanges.put(postId, changes.get(postId));
+                });
+                boolean chunkApplied = !chunkChanges.isEmpty() && apply(lease, batchId + ":" + chunk.get(0), chunkChanges);
+                redisTemplate.opsForHash().delete(FLUSHING_KEY, chunk.stream().map(String::valueOf).toArray());
+                if (!chunkApplied) continue;
+                applied += chunkChanges.size();
+                try {
+                    resetNegativeGoodNumbers(new ArrayList<>(chunkChanges.keySet()));
+                } catch (RuntimeException e) {
+                    log.error("추천 수 음수 보정 실패", e);
                 }
             }
+            return applied;
+        });
+    }
 
-            redisTemplate.delete(key);
-            log.debug("좋아요 변경 postId = {} goodNumber={}",postId,goodNumber);
+    /**
+     * 추천 수 변경과 아웃박스 기록을 한 트랜잭션으로 반영
+     * @return 이미 커밋한 묶음이라 건너뛰었으면 false
+     */
+    private boolean apply(BatchLease lease, String chunkId, Map<Long, Integer> changes) {
+        List<Long> postIds = new ArrayList<>(changes.keySet());
+        List<Object[]> updates = new ArrayList<>(changes.size());
+        //포스트 ID 순서로 잠그도록 정렬된 순서로 반영
+        changes.forEach((postId, goodNumber) -> updates.add(new Object[]{goodNumber, postId}));
+        Boolean applied = transactionTemplate.execute(status -> {
+            if (!batchFencing.checkBatch(lease, chunkId)) return false;
+            jdbcTemplate.batchUpdate(UPDATE_GOOD_NUMBER_SQL, updates);
+            //캐시 재캐싱, 인기 포스트 색인 갱신은 아웃박스 릴레이에서 처리
+            postChangeOutbox.appendAll(postIds, PostChangeType.GOOD_CHANGED);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(applied)) {
+            log.info("이미 반영한 좋아요 묶음 건너뜀 = {}", chunkId);
+            return false;
         }
+        log.debug("좋아요 변경 = {}", changes);
+        return true;
     }
 
-    public void increasePostGoodCount(Long postId) {
-        String postGoodCountKey = POST_GOOD_BATCH_PREFIX + postId;
-        redisTemplate.opsForValue().increment(postGoodCountKey);
-        if (Boolean.FALSE.equals(redisTemplate.hasKey(postGoodCountKey))) {
-            redisTemplate.expire(postGoodCountKey, 15, TimeUnit.MINUTES);
-        }
+    //반영 중 key의 배치 ID, 이전 파드가 붙인 ID가 있으면 그대로 사용
+    private String flushingBatchId() {
+        redisTemplate.opsForValue().setIfAbsent(FLUSHING_BATCH_KEY, UUID.randomUUID().toString());
+        return redisTemplate.opsForValue().get(FLUSHING_BATCH_KEY);
     }
 
-    public void decreasePostGoodCount(Long postId) {
-        String postGoodCountKey = POST_GOOD_BATCH_PREFIX + postId;
-        redisTemplate.opsForValue().decrement(postGoodCountKey);
-        if (Boolean.FALSE.equals(redisTemplate.hasKey(postGoodCountKey))) {
-            redisTemplate.expire(postGoodCountKey, 15, TimeUnit.MINUTES);
+    /**
+     * 반영한 포스트의 추천 수를 한 번에 다시 읽어서 음수가 된 포스트는 0으로 보정
+     */
+    private void resetNegativeGoodNumbers(List<Long> postIds) {
+        List<Object[]> negatives = postRepository.findPostIndexDtosByPostIdIn(postIds).stream()
+                .filter(post -> post.getGoodNumber() < 0)
+                .map(post -> new Object[]{post.getPostId()})
+                .toList();
+        if (!negatives.isEmpty()) {
+            log.warn("추천 수가 음수가 된 포스트 0으로 보정 = {}개", negatives.size());
+            jdbcTemplate.batchUpdate(RESET_NEGATIVE_GOOD_NUMBER_SQL, negatives);
         }
     }
 
-    private Long extractPostIdFromKey(String key) {
-        return Long.parseLong(key.substring(POST_GOOD_BATCH_PREFIX.length()));
+    /**
+     * 추천 토글 이후 급상승 점수 반영, 멤버의 처음 추천만 더하고 추천 취소는 빼지 않음
+     * 추천 수 변동은 토글 스크립트가 pgb 해시에 같이 더한다. 반영할 때까지 남아있어야 하므로 만료 시간을 두지 않음 (만료되면 추천 변동이 유실됨)
+     */
+    public void onPostGoodToggled(Long memberId, Long postId, boolean good) {
+        if (good) postTrending.addGood(memberId, postId);
+        pendingCount.incrementAndGet();
     }
 }
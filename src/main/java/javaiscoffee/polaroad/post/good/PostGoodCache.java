@@ -0,0 +1,108 @@
+package javaiscoffee.polaroad.post.good;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 멤버가 추천한 포스트 ID를 레디스 set(mg:{memberId})에 캐싱
+ * 포스트 상세, 목록에서 추천 여부를 DB 조회 없이 SMISMEMBER 한 번으로 확인한다.
+ *
+ * set에는 포스트 ID와 함께 센티널(0)을 넣어둬서 추천한 포스트가 없는 멤버도 캐싱되어 있는지 구분하고,
+ * 센티널이 없으면 DB에서 멤버의 추천 포스트를 모두 불러와서 채운다.
+ *
+ * 추천 토글은 이 set을 기준으로 레디스에서 먼저 처리하고, DB에는 PostGoodWriter가 나중에 반영한다.
+ * 토글할 때마다 만료 시간(1일)을 늘리므로 DB에 반영되지 않은 추천이 있는 동안 set이 만료되지 않는다.
+ *
+ * set이 없을 때 DB만 보고 채우면 아직 DB에 반영되지 않은 토글이 빠지므로, 멤버별 최근 토글 해시(mgt:{memberId})에
+ * 포스트별 마지막 추천 상태를 같이 기록해두고 set을 채울 때 DB 추천 위에 덮어쓴다.
+ * 반영 중에 DB를 읽은 경우도 덮어쓸 수 있도록 DB에 반영된 뒤에도 지우지 않고 set과 같은 만료 시간으로 둔다.
+ */
+@Component
+public class PostGoodCache {
+    private final static String MEMBER_GOOD_PREFIX = "mg:";
+    private final static String MEMBER_GOOD_TOGGLE_PREFIX = "mgt:";
+    private final static String SENTINEL = "0";
+    private final static Duration MEMBER_GOOD_TIMEOUT = Duration.ofDays(1);
+    private final static RedisScript<Long> WARM_MEMBER_GOOD_SCRIPT = RedisScript.of(new ClassPathResource("redis/warm-member-good.lua"), Long.class);
+    private final static RedisScript<Long> TOGGLE_POST_GOOD_SCRIPT = RedisScript.of(new ClassPathResource("redis/toggle-post-good.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final PostGoodRepository postGoodRepository;
+
+    @Autowired
+    public PostGoodCache(RedisTemplate<String, String> redisTemplate, PostGoodRepository postGoodRepository) {
+        this.redisTemplate = redisTemplate;
+        this.postGoodRepository = postGoodRepository;
+    }
+
+    /**
+     * 멤버가 포스트를 추천했는지 확인
+     */
+    public boolean isGood(Long memberId, Long postId) {
+        return !findGoodPostIds(memberId, List.of(postId)).isEmpty();
+    }
+
+    /**
+     * 포스트 ID 중에서 멤버가 추천한 포스트 ID만 조회
+     */
+    public Set<Long> findGoodPostIds(Long memberId, Collection<Long> postIds) {
+        Set<Long> goodPostIds = new HashSet<>();
+        if (memberId == null || postIds.isEmpty()) return goodPostIds;
+        String key = MEMBER_GOOD_PREFIX + memberId;
+        List<Long> distinctPostIds = new ArrayList<>(new LinkedHashSet<>(postIds));
+
+        Object[] members = new Object[distinctPostIds.size() + 1];
+        members[0] = SENTINEL;
+        for (int i = 0; i < distinctPostIds.size(); i++) members[i + 1] = distinctPostIds.get(i).toString();
+        Map<Object, Boolean> results = redisTemplate.opsForSet().isMember(key, members);
+
+        if (results == null || !Boolean.TRUE.equals(results.get(SENTINEL))) {
+            warm(memberId);
+            results = redisTemplate.opsForSet().isMember(key, members);
+            if (results == null) return goodPostIds;
+        }
+        for (Long postId : distinctPostIds) {
+            if (Boolean.TRUE.equals(results.get(postId.toString()))) goodPostIds.add(postId);
+        }
+        return goodPostIds;
+    }
+
+    /**
+     * 추천 토글, 추천했으면 true 추천 취소했으면 false
+     * DB 반영 대기 해시(pgp)에 마지막 상태를 기록하고 포스트 추천 수 변동(pgb)도 같이 더한다.
+     */
+    public boolean toggle(Long memberId, Long postId) {
+        Long good = executeToggle(memberId, postId);
+        if (good == null || good < 0) {
+            warm(memberId);
+            good = executeToggle(memberId, postId);
+        }
+        if (good == null || good < 0) throw new IllegalStateException("멤버 추천 캐시를 불러오지 못했습니다. memberId = " + memberId);
+        return good == 1;
+    }
+
+    private Long executeToggle(Long memberId, Long postId) {
+        return redisTemplate.execute(TOGGLE_POST_GOOD_SCRIPT,
+                List.of(MEMBER_GOOD_PREFIX + memberId, PostGoodWriter.PENDING_KEY, PostGoodBatchUpdator.PENDING_KEY, MEMBER_GOOD_TOGGLE_PREFIX + memberId),
+                postId.toString(), memberId.toString(), String.valueOf(MEMBER_GOOD_TIMEOUT.toSeconds()), SENTINEL);
+    }
+
+    /**
+     * DB에서 멤버가 추천한 포스트를 모두 불러와서 set 캐싱, 다른 요청이 먼저 캐싱했으면 그대로 둔다.
+     * DB에 아직 반영되지 않았을 수 있는 최근 토글은 스크립트 안에서 DB 추천 위에 덮어쓴다.
+     */
+    private void warm(Long memberId) {
+        List<Long> memberGoodPostIds = postGoodRepository.findPostIdsByMemberId(memberId);
+        List<String> args = new ArrayList<>(memberGoodPostIds.size() + 2);
+        args.add(String.valueOf(MEMBER_GOOD_TIMEOUT.toSeconds()));
+        args.add(SENTINEL);
+        memberGoodPostIds.forEach(postId -> args.add(postId.toString()));
+        redisTemplate.execute(WARM_MEMBER_GOOD_SCRIPT, List.of(MEMBER_GOOD_PREFIX + memberId, MEMBER_GOOD_TOGGLE_PREFIX + memberId), args.toArray());
+    }
+}
@@ -1,6 +1,14 @@
 package javaiscoffee.polaroad.post.good;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface PostGoodRepository extends JpaRepository<PostGood, PostGoodId> {
+
+    //멤버 추천 캐시를 채울 때 사용
+    @Query("select pg.postGoodId.postId from PostGood pg where pg.postGoodId.memberId = :memberId")
+    List<Long> findPostIdsByMemberId(@Param("memberId") Long memberId);
 }
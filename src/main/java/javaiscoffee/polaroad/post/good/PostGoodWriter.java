@@ -0,0 +1,111 @@
+package javaiscoffee.polaroad.post.good;
+
+import javaiscoffee.polaroad.batch.BatchFencing;
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.batch.BatchLease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 레디스에서 먼저 처리한 추천 토글을 DB goods 테이블에 반영
+ * 토글 스크립트가 pgp 해시에 (멤버 ID:포스트 ID)별 마지막 추천 상태를 기록하면 1초마다 한 번에 가져가서
+ * 추천은 INSERT, 추천 취소는 DELETE로 반영한다. 여러 번 토글해도 마지막 상태만 한 번 반영된다.
+ *
+ * PostViewBatchUpdator와 같이 pgp를 반영 중 key(pgp:flushing)로 이름을 바꿔서 가져가고,
+ * 500개씩 트랜잭션 하나로 반영한 뒤 커밋한 항목만 반영 중 key에서 지운다.
+ * INSERT는 이미 있으면 건너뛰고 DELETE는 없으면 아무것도 하지 않으므로 실패 후 다시 반영해도 결과가 같다.
+ * 리스가 만료된 뒤에도 실행 중인 이전 파드가 오래된 상태를 덮어쓰지 않도록 트랜잭션마다 펜싱 토큰을 검사한다.
+ */
+@Slf4j
+@Component
+public class PostGoodWriter {
+    public final static String PENDING_KEY = "pgp";
+    private final static String FLUSHING_KEY = "pgp:flushing";
+    private final static String WRITE_JOB = "post-good-write";
+    private final static Duration WRITE_LEASE_TIMEOUT = Duration.ofSeconds(50);
+    private final static int BATCH_SIZE = 500;
+    private final static String INSERT_GOOD_SQL = "insert into goods (member_id, post_id, created_time) select ?, ?, ? from dual " +
+            "where not exists (select 1 from goods where member_id = ? and post_id = ?)";
+    private final static String DELETE_GOOD_SQL = "delete from goods where member_id = ? and post_id = ?";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final BatchFencing batchFencing;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PostGoodWriter(RedisTemplate<String, String> redisTemplate, BatchJobCoordinator batchJobCoordinator, BatchFencing batchFencing, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.batchFencing = batchFencing;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 1초마다 쌓인 추천 토글 db에 적용
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void writePostGoods() {
+        batchJobCoordinator.run(WRITE_JOB, WRITE_LEASE_TIMEOUT, Duration.ZERO, lease -> {
+            //지난 주기에 반영하지 못한 key가 있으면 그것부터 반영
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(FLUSHING_KEY))) {
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(PENDING_KEY))) return 0;
+                redisTemplate.rename(PENDING_KEY, FLUSHING_KEY);
+            }
+            Map<Object, Object> goods = redisTemplate.opsForHash().entries(FLUSHING_KEY);
+            //같은 순서로 잠그도록 (멤버 ID, 포스트 ID) 순서로 반영
+            List<PendingGood> pendingGoods = new ArrayList<>(goods.size());
+            goods.forEach((field, good) -> pendingGoods.add(PendingGood.of((String) field, "1".equals(good))));
+            pendingGoods.sort(Comparator.comparingLong(PendingGood::memberId).thenComparingLong(PendingGood::postId));
+
+            log.info("추천 토글 반영 시작 = {}개", pendingGoods.size());
+            long written = 0;
+            for (int from = 0; from < pendingGoods.size(); from += BATCH_SIZE) {
+                //리스를 잃었으면 다른 파드가 같은 반영 중 key를 이어서 반영하므로 중단
+                if (!lease.renew()) break;
+                List<PendingGood> chunk = pendingGoods.subList(from, Math.min(from + BATCH_SIZE, pendingGoods.size()));
+                write(lease, chunk);
+                written += chunk.size();
+            }
+            return written;
+        });
+    }
+
+    private void write(BatchLease lease, List<PendingGood> chunk) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (PendingGood pendingGood : chunk) {
+            if (pendingGood.good()) inserts.add(new Object[]{pendingGood.memberId(), pendingGood.postId(), now, pendingGood.memberId(), pendingGood.postId()});
+            else deletes.add(new Object[]{pendingGood.memberId(), pendingGood.postId()});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            batchFencing.check(lease);
+            if (!deletes.isEmpty()) jdbcTemplate.batchUpdate(DELETE_GOOD_SQL, deletes);
+            if (!inserts.isEmpty()) jdbcTemplate.batchUpdate(INSERT_GOOD_SQL, inserts);
+        });
+        redisTemplate.opsForHash().delete(FLUSHING_KEY, chunk.stream().map(PendingGood::field).toArray());
+    }
+
+    private record PendingGood(long memberId, long postId, boolean good) {
+        private static PendingGood of(String field, boolean good) {
+            int separator = field.indexOf(':');
+            return new PendingGood(Long.parseLong(field.substring(0, separator)), Long.parseLong(field.substring(separator + 1)), good);
+        }
+
+        private String field() {
+            return memberId + ":" + postId;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package javaiscoffee.polaroad.post.hashtag;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 해쉬태그 이름 <-> ID 사전
+ * 시작할 때 전체 해쉬태그를 불러오고, 이후에는 새로 생성된 해쉬태그만 추가한다.
+ * 조회는 불변 스냅샷을 읽기만 하므로 잠금이 없고, 추가할 때는 스냅샷을 복사해서 교체한다.
+ * 사전을 불러온 뒤에는 사전에 없는 이름은 DB에 없는 해쉬태그로 보고 조회하지 않는다.
+ *
+ * 다른 파드에서 생성된 해쉬태그는 레디스 pub/sub으로 전달받고,
+ * 메시지가 유실되는 경우를 대비해서 1분마다 마지막 ID 이후 해쉬태그를 다시 불러온다.
+ * ID는 생성 순서대로 커밋되지 않아서 마지막 ID보다 작은 ID가 늦게 커밋될 수 있으므로, 10분마다 전체 해쉬태그를 다시 불러와서 빠진 해쉬태그를 채운다.
+ * 이름은 MySQL 비교 규칙처럼 대소문자를 구분하지 않는다.
+ */
+@Slf4j
+@Component
+public class HashtagDictionary implements MessageListener {
+    public final static String HASHTAG_CREATED_CHANNEL = "hashtag:created";
+
+    private final static int LOAD_BATCH_SIZE = 10000;
+
+    private final HashtagRepository hashtagRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Object snapshotLock = new Object();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    //전체 해쉬태그를 한 번이라도 불러왔는지 여부
+    private volatile boolean loaded = false;
+    //DB에서 순서대로 불러온 마지막 해쉬태그 ID, pub/sub으로 받은 ID와 별개로 관리
+    private long lastLoadedHashtagId = 0;
+
+    @Autowired
+    public HashtagDictionary(HashtagRepository hashtagRepository, RedisTemplate<String, String> redisTemplate) {
+        this.hashtagRepository = hashtagRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 해쉬태그 이름으로 ID 조회, 없는 해쉬태그면 null
+     * 사전을 불러오기 전에는 DB에서 조회
+     */
+    public Long findId(String name) {
+        if (name == null) return null;
+        if (!loaded) return hashtagRepository.findByName(name).map(Hashtag::getHashtagId).orElse(null);
+        return snapshot.idsByName.get(normalize(name));
+    }
+
+    public String findName(Long hashtagId) {
+        return snapshot.namesById.get(hashtagId);
+    }
+
+    /**
+     * 여러 해쉬태그 이름을 한 번에 ID로 변환
+     * 반환값에는 존재하는 해쉬태그만 입력한 이름 그대로 key로 들어간다.
+     */
+    public Map<String, Long> resolve(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (!loaded) {
+            Map<String, String> namesByNormalized = new HashMap<>();
+            names.forEach(name -> namesByNormalized.putIfAbsent(normalize(name), name));
+            hashtagRepository.findHashtagByNameIn(new ArrayList<>(names)).forEach(hashtag -> {
+                String name = namesByNormalized.get(normalize(hashtag.getName()));
+                if (name != null) ids.putIfAbsent(name, hashtag.getHashtagId());
+            });
+            return ids;
+        }
+        Snapshot current = snapshot;
+        for (String name : names) {
+            Long id = current.idsByName.get(normalize(name));
+            if (id != null) ids.put(name, id);
+        }
+        return ids;
+    }
+
+    /**
+     * 새로 생성된 해쉬태그 등록
+     * 트랜잭션 안에서 호출되면 커밋된 이후에 등록하고 다른 파드에 전파한다.
+     */
+    public void register(Collection<Hashtag> hashtags) {
+        if (hashtags.isEmpty()) return;
+        List<Hashtag> created = new ArrayList<>(hashtags);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registerAndPublish(created);
+                }
+            });
+            return;
+        }
+        registerAndPublish(created);
+    }
+
+    private void registerAndPublish(List<Hashtag> hashtags) {
+        add(hashtags);
+        try {
+            hashtags.forEach(hashtag -> redisTemplate.convertAndSend(HASHTAG_CREATED_CHANNEL, hashtag.getHashtagId() + ":" + hashtag.getName()));
+        } catch (Exception e) {
+            log.error("해쉬태그 생성 전파 실패", e);
+        }
+    }
+
+    /**
+     * 다른 파드에서 생성된 해쉬태그 수신
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            add(List.of(new Hashtag(Long.parseLong(body.substring(0, separator)), body.substring(separator + 1))));
+        } catch (RuntimeException e) {
+            log.error("잘못된 해쉬태그 생성 메시지 = {}", body);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        try {
+            refresh();
+            log.info("해쉬태그 사전 불러오기 완료 = {}개", snapshot.namesById.size());
+        } catch (RuntimeException e) {
+            //불러오지 못하면 DB 조회를 계속 사용하고 다음 갱신 때 다시 시도
+            log.error("해쉬태그 사전 불러오기 실패", e);
+        }
+    }
+
+    /**
+     * 마지막으로 불러온 ID 이후에 생성된 해쉬태그를 ID 순서대로 나눠서 추가
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public synchronized void refresh() {
+        loadAfter(lastLoadedHashtagId);
+        loaded = true;
+    }
+
+    /**
+     * 전체 해쉬태그를 다시 불러와서 사전에 빠진 해쉬태그 추가
+     * 마지막 ID를 불러온 뒤에 커밋된 더 작은 ID는 pub/sub 메시지가 유실되면 refresh로는 불러오지 못하기 때문
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public synchronized void reloadAll() {
+        int added = loadAfter(0);
+        if (added > 0) log.warn("해쉬태그 사전에 빠진 해쉬태그 추가 = {}개", added);
+        loaded = true;
+    }
+
+    //hashtagId 이후 해쉬태그를 ID 순서대로 나눠서 추가하고 새로 추가한 개수 반환
+    private int loadAfter(long hashtagId) {
+        int added = 0;
+        List<Hashtag> hashtags;
+        do {
+            hashtags = hashtagRepository.findTop10000ByHashtagIdGreaterThanOrderByHashtagIdAsc(hashtagId);
+            if (hashtags.isEmpty()) break;
+            added += add(hashtags);
+            hashtagId = hashtags.get(hashtags.size() - 1).getHashtagId();
+            lastLoadedHashtagId = Math.max(lastLoadedHashtagId, hashtagId);
+        } while (hashtags.size() == LOAD_BATCH_SIZE);
+        return added;
+    }
+
+    //스냅샷을 복사해서 새 해쉬태그를 추가한 뒤 교체하고 추가한 개수 반환
+    private int add(List<Hashtag> hashtags) {
+        synchronized (snapshotLock) {
+            Snapshot current = snapshot;
+            List<Hashtag> newHashtags = hashtags.stream()
+                    .filter(hashtag -> hashtag.getHashtagId() != null && !current.namesById.containsKey(hashtag.getHashtagId()))
+                    .toList();
+            if (newHashtags.isEmpty()) return 0;
+
+            Map<String, Long> idsByName = new HashMap<>(current.idsByName);
+            Map<Long, String> namesById = new HashMap<>(current.namesById);
+            for (Hashtag hashtag : newHashtags) {
+                //같은 이름이 여러 개면 먼저 생성된 해쉬태그 사용
+                idsByName.merge(normalize(hashtag.getName()), hashtag.getHashtagId(), Math::min);
+                namesById.put(hashtag.getHashtagId(), hashtag.getName());
+            }
+            snapshot = new Snapshot(Collections.unmodifiableMap(idsByName), Collections.unmodifiableMap(namesById));
+            return newHashtags.size();
+        }
+    }
+
+    static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<String, Long> idsByName, Map<Long, String> namesById) {
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+    }
+}
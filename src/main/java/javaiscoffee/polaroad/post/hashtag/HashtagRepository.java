@@ -11,4 +11,7 @@ public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
     Optional<Hashtag> findByName(String name);
 
     List<Hashtag> findHashtagByNameIn(List<String> tagNames);
+
+    //해쉬태그 사전을 ID 순서대로 나눠서 불러올 때 사용
+    List<Hashtag> findTop10000ByHashtagIdGreaterThanOrderByHashtagIdAsc(Long hashtagId);
 }
@@ -7,8 +7,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * 포스트 생성, 수정할 때 사용되는 서비스
@@ -18,11 +16,13 @@ import java.util.stream.Collectors;
 public class HashtagService {
     private final HashtagRepository hashtagRepository;  //해쉬태그 정보만 저장
     private final PostHashtagRepository postHashtagRepository;  //포스트의 해쉬태그 정보 저장
+    private final HashtagDictionary hashtagDictionary;  //해쉬태그 이름 <-> ID 사전
 
     @Autowired
-    public HashtagService(HashtagRepository hashtagRepository, PostHashtagRepository postHashtagRepository) {
+    public HashtagService(HashtagRepository hashtagRepository, PostHashtagRepository postHashtagRepository, HashtagDictionary hashtagDictionary) {
         this.hashtagRepository = hashtagRepository;
         this.postHashtagRepository = postHashtagRepository;
+        this.hashtagDictionary = hashtagDictionary;
     }
 
     /**
@@ -55,68 +55,101 @@ public class HashtagService {
     }
 
     public List<PostHashtag> savePostHashtags(List<String> tagNames, Post post) {
-        // 데이터베이스에서 기존에 존재하는 모든 해시태그 조회
-        List<Hashtag> existingHashtags = hashtagRepository.findHashtagByNameIn(tagNames);
-        Map<String, Hashtag> existingTagsMap = existingHashtags.stream()
-                .collect(Collectors.toMap(Hashtag::getName, Function.identity()));
-
         List<PostHashtag> newPostHashtags = new ArrayList<>();
-        List<Hashtag> newHashtags = new ArrayList<>();
-
-        for (String tagName : tagNames) {
-            // Map에서 해시태그를 가져오거나 새로 생성
-            Hashtag hashtag = existingTagsMap.computeIfAbsent(tagName, name -> {
-                Hashtag newHashtag = new Hashtag(name);
-                newHashtags.add(newHashtag);
-                return newHashtag;
-            });
-
-            // 새 PostHashtag 객체 생성
-            PostHashtag postHashtag = new PostHashtag(new PostHashtagId(hashtag.getHashtagId(), post.getPostId()), hashtag, post);
-            newPostHashtags.add(postHashtag);
-        }
-
-        // 새로운 해시태그를 데이터베이스에 일괄 저장
-        if (!newHashtags.isEmpty()) {
-            hashtagRepository.saveAll(newHashtags);
-        }
+        findOrCreateHashtags(tagNames).forEach((hashtagId, name) -> newPostHashtags.add(toPostHashtag(hashtagId, name, post)));
 
         // 새로운 PostHashtag 객체들을 데이터베이스에 일괄 저장
-        return postHashtagRepository.saveAll(newPostHashtags);
+        postHashtagRepository.saveAll(newPostHashtags);
+        return newPostHashtags;
     }
 
     /**
      * 포스트 수정할 때 해쉬태그 수정하는 메서드
      */
     public List<PostHashtag> editPostHashtags(List<String> updatedHashtags, Post post) {
-        List<PostHashtag> oldPostHashtag = postHashtagRepository.findByPost_PostId(post.getPostId());
+        List<PostHashtag> oldPostHashtags = postHashtagRepository.findByPost_PostId(post.getPostId());
+        Map<Long, String> updatedTags = findOrCreateHashtags(updatedHashtags);
 
-        //기존 해쉬태그와 수정된 해쉬태그 리스트 비교해서 추가해야 할 해쉬태그만 골라내기
-        Set<String> updatedTagNames = new HashSet<>(updatedHashtags);
+        //기존 해쉬태그와 수정된 해쉬태그를 ID로 비교해서 삭제할 해쉬태그 골라내기
+        Set<Long> remainHashtagIds = new HashSet<>();
         List<PostHashtag> toRemove = new ArrayList<>();
-        oldPostHashtag.forEach(tag -> {
-            if (!updatedTagNames.contains(tag.getHashtag().getName())) {
-                toRemove.add(tag);
+        oldPostHashtags.forEach(tag -> {
+            Long hashtagId = tag.getPostHashtagId().getHashtagId();
+            if (updatedTags.containsKey(hashtagId)) {
+                remainHashtagIds.add(hashtagId);
             } else {
-                updatedHashtags.remove(tag.getHashtag().getName());
+                toRemove.add(tag);
             }
         });
-        oldPostHashtag.removeAll(toRemove);
         postHashtagRepository.deleteAll(toRemove);
 
         //새로 추가해야 할 해쉬태그 추가
-        updatedHashtags.forEach(tagName -> {
-            Hashtag hashtag = hashtagRepository.findByName(tagName)
-                    .orElseGet(() -> hashtagRepository.save(new Hashtag(tagName)));
-            PostHashtag postHashtag = new PostHashtag(new PostHashtagId(hashtag.getHashtagId(), post.getPostId()), hashtag, post);
-            oldPostHashtag.add(postHashtagRepository.save(postHashtag));
+        List<PostHashtag> postHashtags = new ArrayList<>();
+        List<PostHashtag> toSave = new ArrayList<>();
+        updatedTags.forEach((hashtagId, name) -> {
+            PostHashtag postHashtag = toPostHashtag(hashtagId, name, post);
+            postHashtags.add(postHashtag);
+            if (!remainHashtagIds.contains(hashtagId)) toSave.add(postHashtag);
         });
-        return oldPostHashtag;
+        postHashtagRepository.saveAll(toSave);
+        return postHashtags;
+    }
+
+    /**
+     * 해쉬태그 이름들을 ID로 변환하고 없는 해쉬태그는 생성
+     * 반환값은 입력 순서대로 해쉬태그 ID -> 이름, 대소문자만 다른 이름은 하나로 합쳐진다.
+     */
+    private Map<Long, String> findOrCreateHashtags(List<String> tagNames) {
+        Map<String, Long> hashtagIds = new HashMap<>(hashtagDictionary.resolve(tagNames));
+        List<String> unknownNames = tagNames.stream()
+                .filter(name -> !hashtagIds.containsKey(name))
+                .distinct()
+                .toList();
+
+        if (!unknownNames.isEmpty()) {
+            //다른 파드에서 방금 생성해서 사전에 아직 없을 수 있으니 DB에서 한 번 더 확인
+            Map<String, Long> foundIds = new HashMap<>();
+            List<Hashtag> foundHashtags = hashtagRepository.findHashtagByNameIn(unknownNames);
+            foundHashtags.forEach(hashtag -> foundIds.putIfAbsent(HashtagDictionary.normalize(hashtag.getName()), hashtag.getHashtagId()));
+
+            Map<String, Hashtag> newHashtags = new LinkedHashMap<>();
+            for (String name : unknownNames) {
+                Long foundId = foundIds.get(HashtagDictionary.normalize(name));
+                if (foundId != null) {
+                    hashtagIds.put(name, foundId);
+                } else {
+                    newHashtags.computeIfAbsent(HashtagDictionary.normalize(name), key -> new Hashtag(name));
+                }
+            }
+
+            // 새로운 해시태그를 데이터베이스에 일괄 저장
+            if (!newHashtags.isEmpty()) {
+                hashtagRepository.saveAll(newHashtags.values());
+                unknownNames.forEach(name -> {
+                    Hashtag newHashtag = newHashtags.get(HashtagDictionary.normalize(name));
+                    if (newHashtag != null) hashtagIds.put(name, newHashtag.getHashtagId());
+                });
+            }
+            List<Hashtag> registerHashtags = new ArrayList<>(foundHashtags);
+            registerHashtags.addAll(newHashtags.values());
+            hashtagDictionary.register(registerHashtags);
+        }
+
+        Map<Long, String> hashtags = new LinkedHashMap<>();
+        for (String name : tagNames) {
+            Long hashtagId = hashtagIds.get(name);
+            String savedName = hashtagDictionary.findName(hashtagId);
+            hashtags.putIfAbsent(hashtagId, savedName != null ? savedName : name);
+        }
+        return hashtags;
+    }
+
+    //해쉬태그 엔티티를 다시 조회하지 않도록 ID와 이름만 채운 해쉬태그로 생성
+    private PostHashtag toPostHashtag(Long hashtagId, String name, Post post) {
+        return new PostHashtag(new PostHashtagId(hashtagId, post.getPostId()), new Hashtag(hashtagId, name), post);
     }
 
     public Long getHashtagIdByName(String tagName) {
-        Hashtag hashtag = hashtagRepository.findByName(tagName).orElse(null);
-        if(hashtag==null) return null;
-        return hashtag.getHashtagId();
+        return hashtagDictionary.findId(tagName);
     }
 }
@@ -1,6 +1,11 @@
 package javaiscoffee.polaroad.post.hashtag;
 
+import javaiscoffee.polaroad.post.PostStatus;
+import javaiscoffee.polaroad.post.elastic.ElasticHashtagDto;
+import javaiscoffee.polaroad.post.suggest.PostSuggestEntryDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -8,4 +13,19 @@ import java.util.List;
 @Repository
 public interface PostHashtagRepository extends JpaRepository<PostHashtag, PostHashtagId> {
     List<PostHashtag> findByPost_PostId(Long postId);
+
+    //비트맵 색인 생성에 필요한 포스트 ID, 해쉬태그 ID만 조회
+    @Query("select ph.postHashtagId from PostHashtag ph where ph.postHashtagId.postId between :fromPostId and :toPostId")
+    List<PostHashtagId> findPostHashtagIdsByPostIdBetween(@Param("fromPostId") Long fromPostId, @Param("toPostId") Long toPostId);
+
+    @Query("select ph.postHashtagId from PostHashtag ph where ph.postHashtagId.postId in :postIds")
+    List<PostHashtagId> findPostHashtagIdsByPostIdIn(@Param("postIds") List<Long> postIds);
+
+    //엘라스틱서치 문서에 넣을 해쉬태그 이름 조회
+    @Query("select new javaiscoffee.polaroad.post.elastic.ElasticHashtagDto(ph.postHashtagId.postId, h.name) from PostHashtag ph join ph.hashtag h where ph.postHashtagId.postId in :postIds")
+    List<ElasticHashtagDto> findElasticHashtagsByPostIdIn(@Param("postIds") List<Long> postIds);
+
+    //자동완성 색인에 넣을 해쉬태그별 사용 포스트 수
+    @Query("select new javaiscoffee.polaroad.post.suggest.PostSuggestEntryDto(h.name, count(ph)) from PostHashtag ph join ph.hashtag h join ph.post p where p.status = :status group by h.hashtagId, h.name")
+    List<PostSuggestEntryDto> findPostSuggestHashtags(@Param("status") PostStatus status);
 }
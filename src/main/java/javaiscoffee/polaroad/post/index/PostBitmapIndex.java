@@ -0,0 +1,230 @@
+package javaiscoffee.polaroad.post.index;
+
+import javaiscoffee.polaroad.post.*;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagId;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagRepository;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.redis.PostChangeSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 포스트 목록 필터링용 비트맵 색인
+ * 해쉬태그, 컨셉, 지역, 상태별로 포스트 ID를 압축 비트맵(RoaringBitmap)으로 가지고 있고
+ * 인기 포스트(추천 10개 이상)도 별도 비트맵으로 관리한다.
+ * 필터 조건은 비트맵 AND 연산으로 처리하고 포스트 ID 내림차순(최신순)으로 한 페이지 ID만 골라낸다.
+ *
+ * 시작할 때 DB에서 전체 색인을 만들고, 이후에는 PostChangeBroadcaster로 전달받은 변경 포스트만 1초마다 다시 반영한다.
+ * 색인이 준비되기 전이거나 ID가 int 범위를 넘으면 search는 null을 반환하고 DB 조회를 사용한다.
+ */
+@Slf4j
+@Component
+public class PostBitmapIndex implements PostChangeSubscriber {
+    public final static int HOT_GOOD_NUMBER = 10;
+    private final static int LOAD_BATCH_SIZE = 5000;
+
+    private final PostRepository postRepository;
+    private final PostHashtagRepository postHashtagRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    //아직 색인에 반영하지 않은 변경 포스트
+    private final Set<Long> changedPostIds = ConcurrentHashMap.newKeySet();
+    private Bitmaps bitmaps = new Bitmaps();
+    private volatile boolean ready = false;
+
+    @Autowired
+    public PostBitmapIndex(PostRepository postRepository, PostHashtagRepository postHashtagRepository) {
+        this.postRepository = postRepository;
+        this.postHashtagRepository = postHashtagRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 조건에 맞는 포스트 ID를 최신순으로 조회
+     * 다음 페이지 판별을 위해 limit보다 1개 더 조회하고, 색인이 준비되지 않았으면 null
+     * 커서 페이징이면 offset은 0
+     * @param hashtagId null이면 해쉬태그 조건 없음
+     * @param concept HOT이면 인기 포스트
+     */
+    public List<Long> search(Long hashtagId, PostConcept concept, PostRegion region, PostStatus status, PostListCursor cursor, int offset, int limit) {
+        if (!ready) return null;
+        RoaringBitmap matched = match(hashtagId, concept, region, status);
+
+        //커서가 있으면 커서 포스트 ID 이상은 제외
+        if (cursor != null) matched.remove(Math.min(cursor.getPostId(), 1L << 32), 1L << 32);
+        List<Long> postIds = new ArrayList<>(limit + 1);
+        IntIterator iterator = matched.getReverseIntIterator();
+        int skipped = 0;
+        while (iterator.hasNext() && postIds.size() <= limit) {
+            int postId = iterator.next();
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            postIds.add((long) postId);
+        }
+        return postIds;
+    }
+
+    /**
+     * 입력한 포스트 ID 중 조건에 맞는 ID만 입력 순서대로 조회, 색인이 준비되지 않았으면 null
+     * 색인 순서가 아닌 다른 순서(급상승 점수 등)로 정렬된 후보를 거를 때 사용
+     */
+    public List<Long> filter(List<Long> postIds, Long hashtagId, PostConcept concept, PostRegion region, PostStatus status) {
+        if (!ready) return null;
+        RoaringBitmap matched = match(hashtagId, concept, region, status);
+        return postIds.stream()
+                .filter(postId -> postId <= Integer.MAX_VALUE && matched.contains(postId.intValue()))
+                .toList();
+    }
+
+    //조건 비트맵을 AND 연산한 복사본, 조건 중 하나라도 비어있으면 빈 비트맵
+    private RoaringBitmap match(Long hashtagId, PostConcept concept, PostRegion region, PostStatus status) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> conditions = new ArrayList<>();
+            conditions.add(bitmaps.statuses.get(status));
+            if (hashtagId != null) conditions.add(bitmaps.hashtags.get(hashtagId));
+            if (concept != null) conditions.add(concept.equals(PostConcept.HOT) ? bitmaps.hot : bitmaps.concepts.get(concept));
+            if (region != null) conditions.add(bitmaps.regions.get(region));
+            if (conditions.stream().anyMatch(bitmap -> bitmap == null || bitmap.isEmpty())) return new RoaringBitmap();
+            return conditions.size() == 1 ? conditions.get(0).clone() : FastAggregation.and(conditions.iterator());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 변경된 포스트는 모아두었다가 한 번에 DB에서 다시 조회해서 반영
+     * 요청 스레드나 pub/sub 수신 스레드에서 DB 조회를 하지 않기 위함
+     */
+    @Override
+    public void onPostChanged(PostChangeEvent event) {
+        changedPostIds.add(event.getPostId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        try {
+            long start = System.currentTimeMillis();
+            Bitmaps loaded = new Bitmaps();
+            List<PostIndexDto> posts;
+            long lastPostId = 0;
+            do {
+                posts = postRepository.findPostIndexDtosAfter(lastPostId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                if (posts.isEmpty()) break;
+                long fromPostId = posts.get(0).getPostId();
+                lastPostId = posts.get(posts.size() - 1).getPostId();
+                posts.forEach(loaded::add);
+                postHashtagRepository.findPostHashtagIdsByPostIdBetween(fromPostId, lastPostId).forEach(loaded::add);
+            } while (posts.size() == LOAD_BATCH_SIZE);
+            loaded.runOptimize();
+
+            lock.writeLock().lock();
+            try {
+                bitmaps = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("포스트 비트맵 색인 생성 완료 = {}개 {}ms", loaded.statuses.values().stream().mapToLong(RoaringBitmap::getLongCardinality).sum(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            //int 범위를 넘는 ID가 있거나 조회에 실패하면 색인 없이 DB 조회 사용
+            log.error("포스트 비트맵 색인 생성 실패", e);
+        }
+    }
+
+    /**
+     * 1초마다 변경된 포스트를 색인에 다시 반영
+     * 기존 색인에서 포스트를 모두 지운 뒤 DB에 있는 현재 상태로 다시 추가한다.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void applyChangedPosts() {
+        if (!ready || changedPostIds.isEmpty()) return;
+        List<Long> postIds = new ArrayList<>(changedPostIds);
+        changedPostIds.removeAll(postIds);
+        try {
+            List<PostIndexDto> posts = postRepository.findPostIndexDtosByPostIdIn(postIds);
+            List<PostHashtagId> postHashtags = postHashtagRepository.findPostHashtagIdsByPostIdIn(postIds);
+            RoaringBitmap changed = new RoaringBitmap();
+            postIds.forEach(postId -> changed.add(toIndexId(postId)));
+
+            lock.writeLock().lock();
+            try {
+                bitmaps.remove(changed);
+                posts.forEach(bitmaps::add);
+                postHashtags.forEach(bitmaps::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (ArithmeticException e) {
+            log.error("int 범위를 넘는 포스트 ID -> 비트맵 색인 사용 중지", e);
+            ready = false;
+        } catch (RuntimeException e) {
+            log.error("포스트 비트맵 색인 갱신 실패 = {}", postIds, e);
+            changedPostIds.addAll(postIds);
+        }
+    }
+
+    private static int toIndexId(Long postId) {
+        return Math.toIntExact(postId);
+    }
+
+    //조건별 비트맵 묶음, 전체 생성할 때는 새로 만들어서 교체
+    private static class Bitmaps {
+        private final Map<Long, RoaringBitmap> hashtags = new HashMap<>();
+        private final Map<PostConcept, RoaringBitmap> concepts = new EnumMap<>(PostConcept.class);
+        private final Map<PostRegion, RoaringBitmap> regions = new EnumMap<>(PostRegion.class);
+        private final Map<PostStatus, RoaringBitmap> statuses = new EnumMap<>(PostStatus.class);
+        private final RoaringBitmap hot = new RoaringBitmap();
+
+        private void add(PostIndexDto post) {
+            int postId = toIndexId(post.getPostId());
+            if (post.getConcept() != null) concepts.computeIfAbsent(post.getConcept(), key -> new RoaringBitmap()).add(postId);
+            if (post.getRegion() != null) regions.computeIfAbsent(post.getRegion(), key -> new RoaringBitmap()).add(postId);
+            if (post.getStatus() != null) statuses.computeIfAbsent(post.getStatus(), key -> new RoaringBitmap()).add(postId);
+            if (post.getGoodNumber() >= HOT_GOOD_NUMBER) hot.add(postId);
+        }
+
+        private void add(PostHashtagId postHashtagId) {
+            hashtags.computeIfAbsent(postHashtagId.getHashtagId(), key -> new RoaringBitmap()).add(toIndexId(postHashtagId.getPostId()));
+        }
+
+        //포스트의 이전 해쉬태그는 알 수 없으므로 겹치는 해쉬태그 비트맵에서 모두 제거
+        private void remove(RoaringBitmap postIds) {
+            concepts.values().forEach(bitmap -> bitmap.andNot(postIds));
+            regions.values().forEach(bitmap -> bitmap.andNot(postIds));
+            statuses.values().forEach(bitmap -> bitmap.andNot(postIds));
+            hot.andNot(postIds);
+            Iterator<RoaringBitmap> iterator = hashtags.values().iterator();
+            while (iterator.hasNext()) {
+                RoaringBitmap bitmap = iterator.next();
+                if (!RoaringBitmap.intersects(bitmap, postIds)) continue;
+                bitmap.andNot(postIds);
+                if (bitmap.isEmpty()) iterator.remove();
+            }
+        }
+
+        private void runOptimize() {
+            hashtags.values().forEach(RoaringBitmap::runOptimize);
+            concepts.values().forEach(RoaringBitmap::runOptimize);
+            regions.values().forEach(RoaringBitmap::runOptimize);
+            statuses.values().forEach(RoaringBitmap::runOptimize);
+            hot.runOptimize();
+        }
+    }
+}
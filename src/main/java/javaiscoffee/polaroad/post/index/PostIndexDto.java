@@ -0,0 +1,20 @@
+package javaiscoffee.polaroad.post.index;
+
+import javaiscoffee.polaroad.post.PostConcept;
+import javaiscoffee.polaroad.post.PostRegion;
+import javaiscoffee.polaroad.post.PostStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 포스트 비트맵 색인에 필요한 포스트 정보
+ */
+@Data
+@AllArgsConstructor
+public class PostIndexDto {
+    private Long postId;
+    private PostConcept concept;
+    private PostRegion region;
+    private PostStatus status;
+    private int goodNumber;
+}
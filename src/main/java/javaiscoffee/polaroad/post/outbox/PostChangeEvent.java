@@ -0,0 +1,15 @@
+package javaiscoffee.polaroad.post.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 포스트 변경 이벤트
+ * 구독자는 이벤트 내용 대신 DB의 현재 상태를 다시 읽어서 반영하므로 같은 이벤트가 여러 번 전달되어도 된다.
+ */
+@Data
+@AllArgsConstructor
+public class PostChangeEvent {
+    private Long postId;
+    private PostChangeType type;
+}
@@ -0,0 +1,32 @@
+package javaiscoffee.polaroad.post.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 포스트 변경 사항을 아웃박스에 기록
+ * 포스트를 변경하는 트랜잭션에 참여해서 포스트 변경이 커밋될 때만 함께 저장된다.
+ * 레디스 캐시 갱신, 색인 갱신은 커밋 이후 PostOutboxRelay가 처리한다.
+ */
+@Component
+public class PostChangeOutbox {
+    private final PostOutboxRepository postOutboxRepository;
+
+    @Autowired
+    public PostChangeOutbox(PostOutboxRepository postOutboxRepository) {
+        this.postOutboxRepository = postOutboxRepository;
+    }
+
+    @Transactional
+    public void append(Long postId, PostChangeType type) {
+        postOutboxRepository.save(new PostOutbox(postId, type));
+    }
+
+    @Transactional
+    public void appendAll(List<Long> postIds, PostChangeType type) {
+        postOutboxRepository.saveAll(postIds.stream().map(postId -> new PostOutbox(postId, type)).toList());
+    }
+}
@@ -0,0 +1,23 @@
+package javaiscoffee.polaroad.post.outbox;
+
+/**
+ * 포스트 변경 종류
+ * 릴레이가 같은 포스트의 이벤트를 하나로 합칠 때 우선순위가 높은 종류를 남긴다.
+ * 삭제, 상태 변경 > 작성, 수정 > 추천 수 변경 순서이고, 추천 수 변경만 보고 삭제된 포스트를 다시 캐싱하지 않도록 한다.
+ */
+public enum PostChangeType {
+    SAVED(1), EDITED(1), DELETED(2), STATUS_CHANGED(2), GOOD_CHANGED(0);
+
+    private final int mergePriority;
+
+    PostChangeType(int mergePriority) {
+        this.mergePriority = mergePriority;
+    }
+
+    /**
+     * 같은 포스트의 이벤트 두 개를 합친 종류, 우선순위가 같으면 나중 이벤트
+     */
+    public static PostChangeType merge(PostChangeType earlier, PostChangeType later) {
+        return earlier.mergePriority > later.mergePriority ? earlier : later;
+    }
+}
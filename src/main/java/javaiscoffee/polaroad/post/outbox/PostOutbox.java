@@ -0,0 +1,50 @@
+package javaiscoffee.polaroad.post.outbox;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 포스트 변경 아웃박스
+ * 포스트를 변경하는 트랜잭션 안에서 함께 저장하고, PostOutboxRelay가 순서대로 읽어서 변경 이벤트를 전달한 뒤 삭제한다.
+ * 전달에 실패하면 시도 횟수를 늘리고 retryTime까지 기다렸다가 다시 전달하며, 최대 횟수를 넘기면 삭제하지 않고 보류한다.
+ */
+@Entity
+@Table(name = "post_outbox")
+@Getter
+@NoArgsConstructor
+@ToString
+public class PostOutbox {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long outboxId;
+    @NotNull
+    private Long postId;
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private PostChangeType type;
+    @NotNull
+    private LocalDateTime createdTime;
+    //전달 실패 횟수
+    private int attempts;
+    //다음 전달 시도 시각, 실패한 적 없으면 null
+    private LocalDateTime retryTime;
+
+    public PostOutbox(Long postId, PostChangeType type) {
+        this.postId = postId;
+        this.type = type;
+    }
+
+    public void recordFailure(LocalDateTime retryTime) {
+        this.attempts++;
+        this.retryTime = retryTime;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.createdTime = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,10 @@
+package javaiscoffee.polaroad.post.outbox;
+
+/**
+ * 아웃박스 이벤트를 전체 파드 중 한 곳에서 한 번만 처리하는 소비자
+ * 레디스처럼 파드들이 공유하는 저장소를 갱신할 때 사용하고,
+ * 파드마다 가지고 있는 로컬 데이터는 PostChangeSubscriber로 갱신한다.
+ */
+public interface PostOutboxConsumer {
+    void consume(PostChangeEvent event);
+}
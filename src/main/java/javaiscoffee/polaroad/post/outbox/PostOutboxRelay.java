@@ -0,0 +1,110 @@
+package javaiscoffee.polaroad.post.outbox;
+
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.redis.PostChangeBroadcaster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 포스트 변경 아웃박스 릴레이
+ * 아웃박스를 오래된 순서대로 배치로 읽어서
+ * 1. 전체 파드 중 한 곳에서만 실행해야 하는 소비자(레디스 캐시 등)를 실행하고
+ * 2. PostChangeBroadcaster로 모든 파드의 구독자(로컬 캐시, 색인 등)에 전달한 뒤
+ * 3. 전달한 아웃박스를 삭제한다.
+ * 삭제 전에 실패하면 다음 실행에서 다시 전달하므로 최소 한 번 전달된다.
+ * 배치 작업 리스로 한 번에 한 파드만 실행해서 같은 포스트의 이벤트는 순서대로 전달된다.
+ *
+ * 이벤트 하나가 실패해도 나머지 이벤트는 전달하고, 실패한 포스트의 아웃박스만 시도 횟수를 늘려서 점점 길게 기다렸다가 다시 전달한다.
+ * MAX_ATTEMPTS번 실패한 아웃박스는 삭제하지 않고 보류해서 아웃박스 앞부분이 막히지 않게 한다.
+ * 보류된 아웃박스는 원인을 해결한 뒤 attempts를 0으로 되돌리면 다시 전달된다.
+ */
+@Slf4j
+@Component
+public class PostOutboxRelay {
+    private final static String RELAY_JOB = "post-outbox-relay";
+    private final static Duration RELAY_LEASE_TIMEOUT = Duration.ofSeconds(30);
+    private final static int BATCH_SIZE = 100;
+    //한 번 실행할 때 처리할 최대 배치 수
+    private final static int MAX_BATCHES = 10;
+    //이 횟수만큼 실패하면 보류, 재시도 간격은 2초부터 2배씩 늘어나서 모두 실패하면 약 35분
+    final static int MAX_ATTEMPTS = 10;
+
+    private final PostOutboxRepository postOutboxRepository;
+    private final PostChangeBroadcaster postChangeBroadcaster;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final ObjectProvider<PostOutboxConsumer> consumers;
+
+    @Autowired
+    public PostOutboxRelay(PostOutboxRepository postOutboxRepository, PostChangeBroadcaster postChangeBroadcaster, BatchJobCoordinator batchJobCoordinator, ObjectProvider<PostOutboxConsumer> consumers) {
+        this.postOutboxRepository = postOutboxRepository;
+        this.postChangeBroadcaster = postChangeBroadcaster;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.consumers = consumers;
+    }
+
+    @Scheduled(fixedDelay = 500)
+    public void relay() {
+        batchJobCoordinator.run(RELAY_JOB, RELAY_LEASE_TIMEOUT, Duration.ZERO, lease -> {
+            long relayed = 0;
+            for (int batch = 0; batch < MAX_BATCHES; batch++) {
+                //리스를 잃었으면 다른 파드와 같은 아웃박스를 동시에 전달하지 않도록 중단
+                if (batch > 0 && !lease.renew()) break;
+                List<PostOutbox> outboxes = postOutboxRepository.findRelayTargets(MAX_ATTEMPTS, LocalDateTime.now(), PageRequest.of(0, BATCH_SIZE));
+                if (outboxes.isEmpty()) break;
+                relayed += relayBatch(outboxes);
+                if (outboxes.size() < BATCH_SIZE) break;
+            }
+            return relayed;
+        });
+    }
+
+    /**
+     * 구독자는 DB의 현재 상태를 다시 읽으므로 같은 배치 안에서 같은 포스트의 이벤트는 하나로 합친다.
+     * 삭제, 상태 변경 뒤에 추천 수 변경이 와도 삭제로 전달되도록 우선순위가 높은 종류를 남긴다.
+     */
+    private int relayBatch(List<PostOutbox> outboxes) {
+        Map<Long, List<PostOutbox>> outboxesByPost = new LinkedHashMap<>();
+        Map<Long, PostChangeType> types = new HashMap<>();
+        outboxes.forEach(outbox -> {
+            outboxesByPost.computeIfAbsent(outbox.getPostId(), postId -> new ArrayList<>()).add(outbox);
+            types.merge(outbox.getPostId(), outbox.getType(), PostChangeType::merge);
+        });
+
+        List<Long> relayedOutboxIds = new ArrayList<>();
+        List<PostOutbox> failedOutboxes = new ArrayList<>();
+        int relayed = 0;
+        for (Map.Entry<Long, List<PostOutbox>> entry : outboxesByPost.entrySet()) {
+            PostChangeEvent event = new PostChangeEvent(entry.getKey(), types.get(entry.getKey()));
+            try {
+                consumers.orderedStream().forEach(consumer -> consumer.consume(event));
+                postChangeBroadcaster.publish(event);
+                entry.getValue().forEach(outbox -> relayedOutboxIds.add(outbox.getOutboxId()));
+                relayed++;
+            } catch (RuntimeException e) {
+                log.error("포스트 변경 이벤트 전달 실패 = {}", event, e);
+                failedOutboxes.addAll(entry.getValue());
+            }
+        }
+        if (!relayedOutboxIds.isEmpty()) postOutboxRepository.deleteAllByIdInBatch(relayedOutboxIds);
+        if (!failedOutboxes.isEmpty()) recordFailures(failedOutboxes);
+        log.debug("포스트 변경 이벤트 전달 = {}건, 실패 = {}건", relayed, outboxesByPost.size() - relayed);
+        return relayed;
+    }
+
+    private void recordFailures(List<PostOutbox> failedOutboxes) {
+        LocalDateTime now = LocalDateTime.now();
+        for (PostOutbox outbox : failedOutboxes) {
+            outbox.recordFailure(now.plusSeconds(1L << Math.min(outbox.getAttempts() + 1, 20)));
+            if (outbox.getAttempts() >= MAX_ATTEMPTS) log.error("전달에 계속 실패한 포스트 변경 이벤트 보류 = {}", outbox);
+        }
+        postOutboxRepository.saveAll(failedOutboxes);
+    }
+}
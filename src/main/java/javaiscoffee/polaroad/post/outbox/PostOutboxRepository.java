@@ -0,0 +1,17 @@
+package javaiscoffee.polaroad.post.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PostOutboxRepository extends JpaRepository<PostOutbox, Long> {
+    //재시도를 기다리는 변경 사항과 보류된 변경 사항은 빼고 오래된 변경 사항부터 배치 조회
+    @Query("select o from PostOutbox o where o.attempts < :maxAttempts and (o.retryTime is null or o.retryTime <= :now) order by o.outboxId asc")
+    List<PostOutbox> findRelayTargets(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now, Pageable pageable);
+}
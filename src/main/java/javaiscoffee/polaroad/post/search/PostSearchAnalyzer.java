@@ -0,0 +1,45 @@
+package javaiscoffee.polaroad.post.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.cjk.CJKBigramFilter;
+import org.apache.lucene.analysis.cjk.CJKWidthFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+/**
+ * 포스트 검색용 한국어 bigram 분석기
+ * 한글은 띄어쓰기 없이 붙여 쓰는 경우가 많아서 형태소 대신 두 글자씩 잘라서 색인한다. (수제비맛집 -> 수제, 제비, 비맛, 맛집)
+ * 색인할 때는 한 글자 검색도 찾을 수 있도록 한 글자 토큰도 함께 저장하고,
+ * 검색할 때는 두 글자 토큰만 사용해서 모든 토큰이 포함된 포스트만 찾는다.
+ */
+public class PostSearchAnalyzer extends Analyzer {
+    private final boolean outputUnigrams;
+
+    private PostSearchAnalyzer(boolean outputUnigrams) {
+        this.outputUnigrams = outputUnigrams;
+    }
+
+    public static PostSearchAnalyzer forIndex() {
+        return new PostSearchAnalyzer(true);
+    }
+
+    public static PostSearchAnalyzer forQuery() {
+        return new PostSearchAnalyzer(false);
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer source = new StandardTokenizer();
+        TokenStream result = new CJKWidthFilter(source);
+        result = new LowerCaseFilter(result);
+        result = new CJKBigramFilter(result, CJKBigramFilter.HANGUL | CJKBigramFilter.HAN | CJKBigramFilter.HIRAGANA | CJKBigramFilter.KATAKANA, outputUnigrams);
+        return new TokenStreamComponents(source, result);
+    }
+
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new LowerCaseFilter(new CJKWidthFilter(in));
+    }
+}
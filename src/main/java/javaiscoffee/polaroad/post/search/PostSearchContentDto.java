@@ -0,0 +1,14 @@
+package javaiscoffee.polaroad.post.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 포스트 검색 색인에 넣을 카드 내용
+ */
+@Data
+@AllArgsConstructor
+public class PostSearchContentDto {
+    private Long postId;
+    private String content;
+}
@@ -0,0 +1,34 @@
+package javaiscoffee.polaroad.post.search;
+
+import javaiscoffee.polaroad.post.PostConcept;
+import javaiscoffee.polaroad.post.PostRegion;
+import javaiscoffee.polaroad.post.PostStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 포스트 검색 색인 문서
+ * 카드 내용은 포스트 조회 후 따로 조회해서 합친다.
+ */
+@Data
+@NoArgsConstructor
+public class PostSearchDocumentDto {
+    private Long postId;
+    private String title;
+    private String nickname;
+    private PostConcept concept;
+    private PostRegion region;
+    private PostStatus status;
+    private int goodNumber;
+    private String content;
+
+    public PostSearchDocumentDto(Long postId, String title, String nickname, PostConcept concept, PostRegion region, PostStatus status, int goodNumber) {
+        this.postId = postId;
+        this.title = title;
+        this.nickname = nickname;
+        this.concept = concept;
+        this.region = region;
+        this.status = status;
+        this.goodNumber = goodNumber;
+    }
+}
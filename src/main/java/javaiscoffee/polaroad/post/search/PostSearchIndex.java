@@ -0,0 +1,261 @@
+package javaiscoffee.polaroad.post.search;
+
+import jakarta.annotation.PreDestroy;
+import javaiscoffee.polaroad.post.*;
+import javaiscoffee.polaroad.post.card.CardRepository;
+import javaiscoffee.polaroad.post.card.CardStatus;
+import javaiscoffee.polaroad.post.index.PostBitmapIndex;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.redis.PostChangeSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 파드 로컬 디스크에 저장하는 포스트 전문 검색 색인 (Lucene)
+ * 제목, 카드 내용, 닉네임을 한국어 bigram으로 색인하고 BM25 점수로 정렬한다.
+ * 컨셉, 지역, 상태, 인기 포스트 조건은 점수에 영향을 주지 않는 필터로 처리한다.
+ *
+ * 시작할 때 디스크에 남아있는 색인으로 바로 검색하면서 DB에서 전체 색인을 다시 만들고,
+ * 이후에는 PostChangeBroadcaster로 전달받은 변경 포스트만 1초마다 다시 색인한다.
+ */
+@Slf4j
+@Component
+public class PostSearchIndex implements PostChangeSubscriber {
+    private final static int LOAD_BATCH_SIZE = 1000;
+    //너무 깊은 페이지는 점수 계산 비용이 커서 제한
+    public final static int MAX_SEARCH_RESULTS = 1000;
+
+    private final static String ID = "id";
+    private final static String POST_ID = "postId";
+    private final static String TITLE = "title";
+    private final static String CONTENT = "content";
+    private final static String NICKNAME = "nickname";
+    private final static String CONCEPT = "concept";
+    private final static String REGION = "region";
+    private final static String STATUS = "status";
+    private final static String GOOD_NUMBER = "goodNumber";
+    //필드별 가중치, 제목 > 닉네임 > 카드 내용
+    private final static Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 3.0f, NICKNAME, 2.0f, CONTENT, 1.0f);
+
+    private final PostRepository postRepository;
+    private final CardRepository cardRepository;
+    private final Path indexPath;
+    private final QueryBuilder queryBuilder = new QueryBuilder(PostSearchAnalyzer.forQuery());
+    //아직 색인에 반영하지 않은 변경 포스트
+    private final Set<Long> changedPostIds = ConcurrentHashMap.newKeySet();
+    private Directory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private volatile boolean ready = false;
+    private volatile boolean rebuilding = false;
+
+    @Autowired
+    public PostSearchIndex(PostRepository postRepository, CardRepository cardRepository,
+                           @Value("${post.search.index-path:${java.io.tmpdir}/polaroad/post-search-index}") String indexPath) {
+        this.postRepository = postRepository;
+        this.cardRepository = cardRepository;
+        this.indexPath = Path.of(indexPath);
+    }
+
+    /**
+     * 검색어와 조건에 맞는 포스트 ID를 BM25 점수 순서로 조회
+     * 다음 페이지 판별을 위해 limit보다 1개 더 조회하고, 색인이 준비되지 않았으면 null
+     * @param concept HOT이면 인기 포스트
+     */
+    public List<Long> search(String keyword, PostConcept concept, PostRegion region, PostStatus status, int offset, int limit) {
+        if (!ready) return null;
+        Query query = buildQuery(keyword, concept, region, status);
+        if (query == null) return new ArrayList<>();
+        int hits = Math.min(offset + limit + 1, MAX_SEARCH_RESULTS);
+        if (offset >= hits) return new ArrayList<>();
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                //점수가 같으면 최신 포스트 먼저
+                TopDocs topDocs = searcher.search(query, hits, new Sort(SortField.FIELD_SCORE, new SortField(POST_ID, SortField.Type.LONG, true)));
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> postIds = new ArrayList<>(limit + 1);
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    postIds.add(storedFields.document(topDocs.scoreDocs[i].doc).getField(POST_ID).numericValue().longValue());
+                }
+                return postIds;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            log.error("포스트 검색 실패 = {}", keyword, e);
+            return null;
+        }
+    }
+
+    //검색어는 필드 중 하나에 모든 토큰이 포함되어야 하고 나머지 조건은 필터로 추가
+    private Query buildQuery(String keyword, PostConcept concept, PostRegion region, PostStatus status) {
+        BooleanQuery.Builder keywordQuery = new BooleanQuery.Builder();
+        boolean hasToken = false;
+        for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+            Query fieldQuery = queryBuilder.createBooleanQuery(field.getKey(), keyword, BooleanClause.Occur.MUST);
+            if (fieldQuery == null) continue;
+            keywordQuery.add(new BoostQuery(fieldQuery, field.getValue()), BooleanClause.Occur.SHOULD);
+            hasToken = true;
+        }
+        if (!hasToken) return null;
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(keywordQuery.build(), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(STATUS, status.name())), BooleanClause.Occur.FILTER);
+        if (concept != null && concept.equals(PostConcept.HOT)) {
+            query.add(IntPoint.newRangeQuery(GOOD_NUMBER, PostBitmapIndex.HOT_GOOD_NUMBER, Integer.MAX_VALUE), BooleanClause.Occur.FILTER);
+        } else if (concept != null) {
+            query.add(new TermQuery(new Term(CONCEPT, concept.name())), BooleanClause.Occur.FILTER);
+        }
+        if (region != null) {
+            query.add(new TermQuery(new Term(REGION, region.name())), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    /**
+     * 변경된 포스트는 모아두었다가 한 번에 다시 색인
+     */
+    @Override
+    public void onPostChanged(PostChangeEvent event) {
+        changedPostIds.add(event.getPostId());
+    }
+
+    /**
+     * 디스크에 있는 색인을 열고 DB에서 전체 색인 다시 생성
+     * 다시 만드는 동안에는 기존 색인으로 검색하고 끝나면 한 번에 교체된다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void open() {
+        rebuilding = true;
+        try {
+            directory = FSDirectory.open(indexPath);
+            indexWriter = new IndexWriter(directory, new IndexWriterConfig(PostSearchAnalyzer.forIndex())
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            searcherManager = new SearcherManager(indexWriter, null);
+            //이전에 만든 색인이 있으면 다시 만드는 동안 사용
+            ready = indexWriter.getDocStats().numDocs > 0;
+            rebuild();
+        } catch (IOException | RuntimeException e) {
+            //중간에 실패한 색인이 검색에 반영되지 않도록 사용 중지
+            ready = false;
+            log.error("포스트 검색 색인 생성 실패", e);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    private void rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        indexWriter.deleteAll();
+        List<PostSearchDocumentDto> posts;
+        long lastPostId = 0;
+        int count = 0;
+        do {
+            posts = postRepository.findPostSearchDocumentsAfter(lastPostId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            if (posts.isEmpty()) break;
+            lastPostId = posts.get(posts.size() - 1).getPostId();
+            setContents(posts);
+            for (PostSearchDocumentDto post : posts) {
+                indexWriter.addDocument(toDocument(post));
+            }
+            count += posts.size();
+        } while (posts.size() == LOAD_BATCH_SIZE);
+        indexWriter.commit();
+        searcherManager.maybeRefreshBlocking();
+        ready = true;
+        log.info("포스트 검색 색인 생성 완료 = {}개 {}ms", count, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 1초마다 변경된 포스트를 다시 색인하고 검색에 반영
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void applyChangedPosts() {
+        if (!ready || rebuilding || changedPostIds.isEmpty()) return;
+        List<Long> postIds = new ArrayList<>(changedPostIds);
+        changedPostIds.removeAll(postIds);
+        try {
+            List<PostSearchDocumentDto> posts = postRepository.findPostSearchDocumentsByPostIdIn(postIds);
+            setContents(posts);
+            for (PostSearchDocumentDto post : posts) {
+                indexWriter.updateDocument(new Term(ID, post.getPostId().toString()), toDocument(post));
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            log.error("포스트 검색 색인 갱신 실패 = {}", postIds, e);
+            changedPostIds.addAll(postIds);
+        }
+    }
+
+    /**
+     * 1분마다 변경 사항을 디스크에 저장
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void commit() {
+        if (!ready || rebuilding || !indexWriter.hasUncommittedChanges()) return;
+        try {
+            indexWriter.commit();
+        } catch (IOException e) {
+            log.error("포스트 검색 색인 저장 실패", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        ready = false;
+        if (searcherManager != null) searcherManager.close();
+        if (indexWriter != null) indexWriter.close();
+        if (directory != null) directory.close();
+    }
+
+    //포스트들의 삭제되지 않은 카드 내용을 카드 순서대로 합쳐서 설정
+    private void setContents(List<PostSearchDocumentDto> posts) {
+        if (posts.isEmpty()) return;
+        List<Long> postIds = posts.stream().map(PostSearchDocumentDto::getPostId).toList();
+        Map<Long, String> contents = cardRepository.findPostSearchContentsByPostIdIn(postIds, CardStatus.ACTIVE).stream()
+                .filter(content -> content.getContent() != null)
+                .collect(Collectors.groupingBy(PostSearchContentDto::getPostId,
+                        Collectors.mapping(PostSearchContentDto::getContent, Collectors.joining("\n"))));
+        posts.forEach(post -> post.setContent(contents.get(post.getPostId())));
+    }
+
+    private static Document toDocument(PostSearchDocumentDto post) {
+        Document document = new Document();
+        //문서 교체용 키, 정렬용 값, 결과 조회용 값
+        document.add(new StringField(ID, post.getPostId().toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(POST_ID, post.getPostId()));
+        document.add(new StoredField(POST_ID, post.getPostId()));
+        if (post.getTitle() != null) document.add(new TextField(TITLE, post.getTitle(), Field.Store.NO));
+        if (post.getContent() != null) document.add(new TextField(CONTENT, post.getContent(), Field.Store.NO));
+        if (post.getNickname() != null) document.add(new TextField(NICKNAME, post.getNickname(), Field.Store.NO));
+        if (post.getConcept() != null) document.add(new StringField(CONCEPT, post.getConcept().name(), Field.Store.NO));
+        if (post.getRegion() != null) document.add(new StringField(REGION, post.getRegion().name(), Field.Store.NO));
+        if (post.getStatus() != null) document.add(new StringField(STATUS, post.getStatus().name(), Field.Store.NO));
+        document.add(new IntPoint(GOOD_NUMBER, post.getGoodNumber()));
+        return document;
+    }
+}
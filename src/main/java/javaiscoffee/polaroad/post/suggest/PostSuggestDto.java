@@ -0,0 +1,19 @@
+package javaiscoffee.polaroad.post.suggest;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 자동완성 검색어 응답
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSuggestDto {
+    @Schema(description = "자동완성 검색어", example = "서울맛집")
+    private String text;
+    @Schema(description = "검색어 종류, HASHTAG면 해쉬태그 검색, TITLE이면 키워드 검색으로 사용", example = "HASHTAG")
+    private PostSuggestType type;
+}
@@ -0,0 +1,23 @@
+package javaiscoffee.polaroad.post.suggest;
+
+import lombok.Data;
+
+/**
+ * 자동완성 색인에 넣을 검색어와 사용 횟수
+ * 해쉬태그는 사용한 포스트 수, 제목은 포스트 추천 수
+ */
+@Data
+public class PostSuggestEntryDto {
+    private String text;
+    private long weight;
+
+    public PostSuggestEntryDto(String text, Long weight) {
+        this.text = text;
+        this.weight = weight == null ? 0 : weight;
+    }
+
+    public PostSuggestEntryDto(String text, int weight) {
+        this.text = text;
+        this.weight = weight;
+    }
+}
@@ -0,0 +1,235 @@
+package javaiscoffee.polaroad.post.suggest;
+
+import javaiscoffee.polaroad.post.PostRepository;
+import javaiscoffee.polaroad.post.PostStatus;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 해쉬태그, 포스트 제목 자동완성 색인
+ * 검색어를 사용 횟수가 많은 순서로 번호를 매기고, 정렬된 key 배열에서 접두어 범위를 찾은 뒤 번호가 작은 순서로 size개를 고른다.
+ * 1~2글자 접두어는 범위가 넓어서 접두어별 상위 검색어를 미리 계산해둔다.
+ *
+ * key는 소문자로 바꾸고 공백을 뺀 문자열이고, 초성 key는 한글 음절을 초성으로 바꾼 문자열이다.
+ * 입력이 모두 초성(ㅅㅇ)이면 초성 key로 찾고,
+ * 마지막 글자가 받침 없는 음절(서우)이면 받침이 붙은 음절(서울)까지, 마지막 글자가 초성(서ㅇ)이면 그 초성의 모든 음절까지 찾는다.
+ *
+ * 10분마다 DB에서 새 색인을 만들어서 교체하고, 조회는 불변 스냅샷만 읽으므로 잠금이나 DB 조회가 없다.
+ */
+@Slf4j
+@Component
+public class PostSuggestIndex {
+    public final static int MAX_SIZE = 10;
+    //미리 계산하는 접두어 최대 길이
+    private final static int PRECOMPUTED_PREFIX_LENGTH = 2;
+    //추천 수 상위 포스트 제목만 색인
+    private final static int MAX_TITLES = 50_000;
+    private final static char[] CHOSUNG = {'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'};
+    private final static char HANGUL_BEGIN = '가';
+    private final static char HANGUL_END = '힣';
+    private final static int JONGSUNG_COUNT = 28;
+    private final static int CHOSUNG_SYLLABLE_COUNT = 21 * JONGSUNG_COUNT;
+
+    private final PostRepository postRepository;
+    private final PostHashtagRepository postHashtagRepository;
+    private volatile Snapshot snapshot = Snapshot.build(new ArrayList<>());
+
+    @Autowired
+    public PostSuggestIndex(PostRepository postRepository, PostHashtagRepository postHashtagRepository) {
+        this.postRepository = postRepository;
+        this.postHashtagRepository = postHashtagRepository;
+    }
+
+    /**
+     * 입력한 글자로 시작하는 해쉬태그, 제목을 사용 횟수가 많은 순서로 조회
+     */
+    public List<PostSuggestDto> suggest(String keyword, int size) {
+        String query = normalize(keyword == null ? "" : keyword);
+        int limit = Math.max(0, Math.min(size, MAX_SIZE));
+        if (query.isEmpty() || limit == 0) return new ArrayList<>();
+
+        Snapshot current = snapshot;
+        TreeSet<Integer> ids = new TreeSet<>();
+        if (query.chars().allMatch(c -> isChosung((char) c))) {
+            current.chosungIndex.search(query, query, limit, ids);
+        } else {
+            //마지막 글자가 완성될 수 있는 음절 범위
+            String base = query.substring(0, query.length() - 1);
+            char last = query.charAt(query.length() - 1);
+            char from = last;
+            char to = last;
+            if (isSyllable(last) && (last - HANGUL_BEGIN) % JONGSUNG_COUNT == 0) {
+                to = (char) (last + JONGSUNG_COUNT - 1);
+            } else if (isChosung(last) && !base.isEmpty()) {
+                from = (char) (HANGUL_BEGIN + Arrays.binarySearch(CHOSUNG, last) * CHOSUNG_SYLLABLE_COUNT);
+                to = (char) (from + CHOSUNG_SYLLABLE_COUNT - 1);
+            }
+            current.textIndex.search(base + from, base + to, limit, ids);
+        }
+        List<PostSuggestDto> suggestions = new ArrayList<>(ids.size());
+        ids.forEach(id -> suggestions.add(new PostSuggestDto(current.entries[id].text(), current.entries[id].type())));
+        return suggestions;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("자동완성 색인 생성 실패", e);
+        }
+    }
+
+    /**
+     * 해쉬태그 사용 횟수, 포스트 제목을 다시 불러와서 색인 교체
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Entry> entries = new ArrayList<>();
+        postHashtagRepository.findPostSuggestHashtags(PostStatus.ACTIVE)
+                .forEach(hashtag -> entries.add(new Entry(hashtag.getText(), PostSuggestType.HASHTAG, hashtag.getWeight())));
+        //같은 제목은 하나로 합치고 포스트마다 1 + 추천 수를 더함
+        Map<String, Long> titles = new HashMap<>();
+        postRepository.findPostSuggestTitles(PostStatus.ACTIVE, PageRequest.of(0, MAX_TITLES))
+                .forEach(title -> titles.merge(title.getText(), title.getWeight() + 1, Long::sum));
+        titles.forEach((title, weight) -> entries.add(new Entry(title, PostSuggestType.TITLE, weight)));
+
+        Snapshot built = Snapshot.build(entries);
+        snapshot = built;
+        log.info("자동완성 색인 생성 완료 = {}개 {}ms", built.entries.length, System.currentTimeMillis() - start);
+    }
+
+    static String normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        text.codePoints()
+                .filter(c -> !Character.isWhitespace(c))
+                .forEach(c -> builder.appendCodePoint(Character.toLowerCase(c)));
+        return builder.toString();
+    }
+
+    static String toChosung(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            builder.append(isSyllable(c) ? CHOSUNG[(c - HANGUL_BEGIN) / CHOSUNG_SYLLABLE_COUNT] : c);
+        }
+        return builder.toString();
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= HANGUL_BEGIN && c <= HANGUL_END;
+    }
+
+    private static boolean isChosung(char c) {
+        return Arrays.binarySearch(CHOSUNG, c) >= 0;
+    }
+
+    private record Entry(String text, PostSuggestType type, long weight) {
+    }
+
+    private static class Snapshot {
+        //사용 횟수 내림차순, 배열 번호가 순위
+        private final Entry[] entries;
+        private final PrefixIndex textIndex;
+        private final PrefixIndex chosungIndex;
+
+        private Snapshot(Entry[] entries) {
+            this.entries = entries;
+            this.textIndex = new PrefixIndex(entries, entry -> normalize(entry.text()));
+            this.chosungIndex = new PrefixIndex(entries, entry -> toChosung(normalize(entry.text())));
+        }
+
+        private static Snapshot build(List<Entry> entries) {
+            return new Snapshot(entries.stream()
+                    .filter(entry -> entry.text() != null && !entry.text().isBlank())
+                    .sorted(Comparator.comparingLong(Entry::weight).reversed().thenComparing(Entry::text))
+                    .toArray(Entry[]::new));
+        }
+    }
+
+    /**
+     * key 오름차순으로 정렬한 (key, 검색어 번호) 배열과 짧은 접두어별 상위 검색어 번호
+     */
+    private static class PrefixIndex {
+        private final String[] keys;
+        private final int[] ids;
+        private final Map<String, int[]> topIdsByPrefix = new HashMap<>();
+
+        private PrefixIndex(Entry[] entries, Function<Entry, String> keyFunction) {
+            String[] entryKeys = new String[entries.length];
+            List<Integer> order = new ArrayList<>(entries.length);
+            for (int id = 0; id < entries.length; id++) {
+                entryKeys[id] = keyFunction.apply(entries[id]);
+                if (!entryKeys[id].isEmpty()) order.add(id);
+            }
+            order.sort(Comparator.<Integer, String>comparing(id -> entryKeys[id]).thenComparing(id -> id));
+            this.keys = new String[order.size()];
+            this.ids = new int[order.size()];
+            for (int i = 0; i < order.size(); i++) {
+                keys[i] = entryKeys[order.get(i)];
+                ids[i] = order.get(i);
+            }
+
+            //번호 순서(사용 횟수 순서)대로 넣으므로 앞에서부터 MAX_SIZE개가 접두어별 상위 검색어
+            Map<String, List<Integer>> topIds = new HashMap<>();
+            for (int id = 0; id < entries.length; id++) {
+                String key = entryKeys[id];
+                for (int length = 1; length <= Math.min(PRECOMPUTED_PREFIX_LENGTH, key.length()); length++) {
+                    List<Integer> prefixIds = topIds.computeIfAbsent(key.substring(0, length), prefix -> new ArrayList<>());
+                    if (prefixIds.size() < MAX_SIZE) prefixIds.add(id);
+                }
+            }
+            topIds.forEach((prefix, prefixIds) -> topIdsByPrefix.put(prefix, prefixIds.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        /**
+         * from ~ to 사이 접두어로 시작하는 검색어 번호를 ids에 넣고 작은 순서로 size개만 남김
+         * from, to는 마지막 글자만 다른 같은 길이의 접두어
+         */
+        private void search(String from, String to, int size, TreeSet<Integer> ids) {
+            if (from.length() <= PRECOMPUTED_PREFIX_LENGTH) {
+                //짧은 접두어는 마지막 글자마다 미리 계산한 상위 검색어를 합침
+                String base = from.substring(0, from.length() - 1);
+                for (char c = from.charAt(from.length() - 1); c <= to.charAt(to.length() - 1); c++) {
+                    int[] topIds = topIdsByPrefix.get(base + c);
+                    if (topIds != null) add(ids, topIds.length, i -> topIds[i], size);
+                }
+                return;
+            }
+            int begin = lowerBound(from);
+            int end = lowerBound(to + Character.MAX_VALUE);
+            add(ids, end - begin, i -> this.ids[begin + i], size);
+        }
+
+        private static void add(TreeSet<Integer> ids, int count, IntUnaryOperator idAt, int size) {
+            for (int i = 0; i < count; i++) {
+                int id = idAt.applyAsInt(i);
+                //번호가 가장 큰 것보다 크면 넣을 필요 없음
+                if (ids.size() >= size && id > ids.last()) continue;
+                ids.add(id);
+                if (ids.size() > size) ids.pollLast();
+            }
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+    }
+}
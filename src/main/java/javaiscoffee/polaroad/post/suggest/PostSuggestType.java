@@ -0,0 +1,5 @@
+package javaiscoffee.polaroad.post.suggest;
+
+public enum PostSuggestType {
+    HASHTAG, TITLE;
+}
@@ -0,0 +1,359 @@
+package javaiscoffee.polaroad.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javaiscoffee.polaroad.post.PostConcept;
+import javaiscoffee.polaroad.post.PostInfoCachingDto;
+import javaiscoffee.polaroad.post.PostRegion;
+import javaiscoffee.polaroad.post.card.CardInfoDto;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagInfoDto;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 레디스 pc: 캐시에 저장하는 포스트 캐싱 Dto의 바이너리 직렬화
+ *
+ * 형식 : [버전 1바이트][플래그 1바이트][생성 소요 시간(ms) varint][만료 시각(epoch ms) varint][본문]
+ * 소요 시간과 만료 시각은 만료 전에 미리 갱신할지 판단할 때 사용하고, 모르면 0으로 저장한다. (버전 1에는 없음)
+ * 본문이 COMPRESS_THRESHOLD 이상이면 LZ4로 압축하고 플래그에 표시한 뒤 [원본 길이 varint][압축 본문]으로 저장한다.
+ * 숫자는 varint, 문자열은 [길이+1 varint][UTF-8] (0이면 null), 컨셉과 지역은 아래 고정 사전의 번호로 저장한다.
+ * 배포 중에는 기존 JSON 문자열 캐시가 남아있으므로 첫 바이트가 '{'이면 JSON으로 읽는다.
+ * 조회 수는 본문 끝에 추가했으므로 남은 바이트가 있을 때만 읽고, 이전 형식은 0으로 읽는다. (이전 버전 서버는 남은 바이트를 무시)
+ */
+@Component
+public class PostCachingCodec {
+    public final static byte VERSION = 2;
+    private final static byte VERSION_WITHOUT_METADATA = 1;
+    private final static byte FLAG_LZ4 = 1;
+    private final static byte JSON_START = '{';
+    private final static int COMPRESS_THRESHOLD = 512;
+
+    /**
+     * 컨셉, 지역 사전
+     * 저장된 값은 이 배열의 순서로 해석되므로 기존 값의 순서를 바꾸거나 지우면 안 되고 새 값은 끝에만 추가한다.
+     * enum 선언 순서(ordinal)에 의존하지 않기 위해 따로 관리한다.
+     */
+    private final static PostConcept[] CONCEPTS = {
+            PostConcept.FOOD, PostConcept.NATURE, PostConcept.CITY, PostConcept.PHOTO,
+            PostConcept.HOT, PostConcept.WALK, PostConcept.CAR, PostConcept.TRAIN
+    };
+    private final static PostRegion[] REGIONS = {
+            PostRegion.SEOUL, PostRegion.INCHEON, PostRegion.BUSAN, PostRegion.DAEGU,
+            PostRegion.GWANGJU, PostRegion.DAEJEON, PostRegion.ULSAN, PostRegion.GYEONGGIDO,
+            PostRegion.GANGWONDO, PostRegion.CHUNGCHEONGNAMDO, PostRegion.CHUNGCHEONGBUKDO,
+            PostRegion.JEOLLANAMDO, PostRegion.JEOLLABUKDO,
+            PostRegion.GYEONGSANGNAMDO, PostRegion.GYEONGSANGBUKDO,
+            PostRegion.JEJUDO
+    };
+    private final static Map<PostConcept, Integer> CONCEPT_CODES = toCodes(CONCEPTS, PostConcept.class);
+    private final static Map<PostRegion, Integer> REGION_CODES = toCodes(REGIONS, PostRegion.class);
+
+    private final ObjectMapper objectMapper;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    @Autowired
+    public PostCachingCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] encode(PostInfoCachingDto postDto) {
+        return encode(postDto, 0, 0);
+    }
+
+    public byte[] encode(PostInfoCachingDto postDto, long computeMillis, long expireAtMillis) {
+        Writer writer = new Writer();
+        writer.writeString(postDto.getTitle());
+        writer.writeNullableId(postDto.getMemberId());
+        writer.writeString(postDto.getRoutePoint());
+        writer.writeSignedVarint(postDto.getGoodNumber());
+        writer.writeSignedVarint(postDto.getThumbnailIndex());
+        writer.writeCode(postDto.getConcept() == null ? null : CONCEPT_CODES.get(postDto.getConcept()));
+        writer.writeCode(postDto.getRegion() == null ? null : REGION_CODES.get(postDto.getRegion()));
+        writer.writeDateTime(postDto.getUpdatedTime());
+
+        List<CardInfoDto> cards = postDto.getCards();
+        writer.writeSize(cards);
+        if (cards != null) {
+            for (CardInfoDto card : cards) {
+                writer.writeNullableId(card.getCardId());
+                writer.writeSignedVarint(card.getCardIndex());
+                writer.writeDouble(card.getLatitude());
+                writer.writeDouble(card.getLongitude());
+                writer.writeString(card.getLocation());
+                writer.writeString(card.getImage());
+                writer.writeString(card.getContent());
+            }
+        }
+        List<PostHashtagInfoDto> hashtags = postDto.getPostHashtags();
+        writer.writeSize(hashtags);
+        if (hashtags != null) {
+            for (PostHashtagInfoDto hashtag : hashtags) {
+                writer.writeNullableId(hashtag.getHashtagId());
+                writer.writeString(hashtag.getTagName());
+            }
+        }
+        writer.writeVarint(postDto.getViewNumber());
+        return frame(writer.toByteArray(), computeMillis, expireAtMillis);
+    }
+
+    public PostInfoCachingDto decode(byte[] bytes) {
+        return decodeEntry(bytes).getPostDto();
+    }
+
+    /**
+     * 캐싱 데이터와 메타데이터 함께 해석
+     */
+    public PostCachingEntry decodeEntry(byte[] bytes) {
+        if (bytes == null || bytes.length < 2) throw new IllegalArgumentException("잘못된 포스트 캐싱 데이터");
+        if (bytes[0] == JSON_START) return new PostCachingEntry(decodeJson(bytes), 0, 0);
+        if (bytes[0] == VERSION_WITHOUT_METADATA) {
+            return new PostCachingEntry(decodeBody(unframe(bytes, new Reader(bytes, 2))), 0, 0);
+        }
+        if (bytes[0] != VERSION) throw new IllegalArgumentException("지원하지 않는 포스트 캐싱 버전 = " + bytes[0]);
+        Reader header = new Reader(bytes, 2);
+        long computeMillis = header.readVarint();
+        long expireAtMillis = header.readVarint();
+        return new PostCachingEntry(decodeBody(unframe(bytes, header)), computeMillis, expireAtMillis);
+    }
+
+    private PostInfoCachingDto decodeBody(byte[] body) {
+        Reader reader = new Reader(body);
+        PostInfoCachingDto postDto = new PostInfoCachingDto();
+        postDto.setTitle(reader.readString());
+        postDto.setMemberId(reader.readNullableId());
+        postDto.setRoutePoint(reader.readString());
+        postDto.setGoodNumber((int) reader.readSignedVarint());
+        postDto.setThumbnailIndex((int) reader.readSignedVarint());
+        Integer conceptCode = reader.readCode();
+        postDto.setConcept(conceptCode == null ? null : CONCEPTS[conceptCode]);
+        Integer regionCode = reader.readCode();
+        postDto.setRegion(regionCode == null ? null : REGIONS[regionCode]);
+        postDto.setUpdatedTime(reader.readDateTime());
+
+        int cardSize = reader.readSize();
+        if (cardSize >= 0) {
+            List<CardInfoDto> cards = new ArrayList<>(cardSize);
+            for (int i = 0; i < cardSize; i++) {
+                cards.add(new CardInfoDto(
+                        reader.readNullableId(),
+                        (int) reader.readSignedVarint(),
+                        reader.readDouble(),
+                        reader.readDouble(),
+                        reader.readString(),
+                        reader.readString(),
+                        reader.readString()));
+            }
+            postDto.setCards(cards);
+        }
+        int hashtagSize = reader.readSize();
+        if (hashtagSize >= 0) {
+            List<PostHashtagInfoDto> hashtags = new ArrayList<>(hashtagSize);
+            for (int i = 0; i < hashtagSize; i++) {
+                hashtags.add(new PostHashtagInfoDto(reader.readNullableId(), reader.readString()));
+            }
+            postDto.setPostHashtags(hashtags);
+        }
+        if (reader.hasRemaining()) postDto.setViewNumber(reader.readVarint());
+        return postDto;
+    }
+
+    //본문이 충분히 크고 압축 효과가 있을 때만 LZ4 압축
+    private byte[] frame(byte[] body, long computeMillis, long expireAtMillis) {
+        Writer framed = new Writer();
+        framed.out.write(VERSION);
+        if (body.length >= COMPRESS_THRESHOLD) {
+            byte[] compressed = new byte[compressor.maxCompressedLength(body.length)];
+            int compressedLength = compressor.compress(body, 0, body.length, compressed, 0, compressed.length);
+            //원본 길이 varint는 최대 5바이트
+            if (compressedLength + 5 < body.length) {
+                framed.out.write(FLAG_LZ4);
+                framed.writeVarint(computeMillis);
+                framed.writeVarint(expireAtMillis);
+                framed.writeVarint(body.length);
+                framed.out.write(compressed, 0, compressedLength);
+                return framed.toByteArray();
+            }
+        }
+        framed.out.write(0);
+        framed.writeVarint(computeMillis);
+        framed.writeVarint(expireAtMillis);
+        framed.out.write(body, 0, body.length);
+        return framed.toByteArray();
+    }
+
+    //헤더를 읽은 다음 위치부터 본문 꺼내기
+    private byte[] unframe(byte[] bytes, Reader header) {
+        if ((bytes[1] & FLAG_LZ4) == 0) return Arrays.copyOfRange(bytes, header.position, bytes.length);
+        int originalLength = (int) header.readVarint();
+        byte[] body = new byte[originalLength];
+        decompressor.decompress(bytes, header.position, body, 0, originalLength);
+        return body;
+    }
+
+    private PostInfoCachingDto decodeJson(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, PostInfoCachingDto.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON -> cachingDto 변환 오류", e);
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> toCodes(E[] dictionary, Class<E> type) {
+        Map<E, Integer> codes = new EnumMap<>(type);
+        for (int i = 0; i < dictionary.length; i++) {
+            codes.put(dictionary[i], i);
+        }
+        if (codes.size() != type.getEnumConstants().length) {
+            throw new IllegalStateException(type.getSimpleName() + " 값이 PostCachingCodec 사전에 등록되지 않았습니다.");
+        }
+        return codes;
+    }
+
+    private static class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        //null을 0으로 표현하기 위해 1을 더해서 저장
+        void writeNullableId(Long id) {
+            writeVarint(id == null ? 0 : id + 1);
+        }
+
+        void writeCode(Integer code) {
+            writeVarint(code == null ? 0 : code + 1);
+        }
+
+        void writeSize(List<?> list) {
+            writeVarint(list == null ? 0 : list.size() + 1);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1L);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+        }
+
+        //epoch 초와 나노초로 저장, null이면 나노초 자리에 0을 저장
+        void writeDateTime(LocalDateTime time) {
+            if (time == null) {
+                writeVarint(0);
+                return;
+            }
+            writeVarint(time.getNano() + 1L);
+            writeSignedVarint(time.toEpochSecond(ZoneOffset.UTC));
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    private static class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this(bytes, 0);
+        }
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= bytes.length) throw new IllegalArgumentException("잘못된 포스트 캐싱 데이터");
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("잘못된 포스트 캐싱 데이터");
+        }
+
+        boolean hasRemaining() {
+            return position < bytes.length;
+        }
+
+        long readSignedVarint() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        Long readNullableId() {
+            long value = readVarint();
+            return value == 0 ? null : value - 1;
+        }
+
+        Integer readCode() {
+            long value = readVarint();
+            return value == 0 ? null : (int) value - 1;
+        }
+
+        //null이면 -1
+        int readSize() {
+            return (int) readVarint() - 1;
+        }
+
+        String readString() {
+            long length = readVarint();
+            if (length == 0) return null;
+            int size = (int) length - 1;
+            if (position + size > bytes.length) throw new IllegalArgumentException("잘못된 포스트 캐싱 데이터");
+            String value = new String(bytes, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        double readDouble() {
+            if (position + 8 > bytes.length) throw new IllegalArgumentException("잘못된 포스트 캐싱 데이터");
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (bytes[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        LocalDateTime readDateTime() {
+            long nano = readVarint();
+            if (nano == 0) return null;
+            return LocalDateTime.ofEpochSecond(readSignedVarint(), (int) nano - 1, ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.post.PostInfoCachingDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 레디스에 캐싱된 포스트와 미리 갱신 판단에 필요한 메타데이터
+ * 메타데이터를 모르는 경우(이전 버전 데이터)에는 0
+ */
+@Getter
+@AllArgsConstructor
+public class PostCachingEntry {
+    private final PostInfoCachingDto postDto;
+    //DB에서 캐싱 데이터를 만드는 데 걸린 시간
+    private final long computeMillis;
+    //레디스 키 만료 시각
+    private final long expireAtMillis;
+}
@@ -0,0 +1,89 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * 포스트 변경 사항을 레디스 pub/sub으로 모든 파드에 전파
+ * 메시지 형식은 "발행한 파드 ID:포스트 ID:변경 종류"이고 자기 자신이 발행한 메시지는 무시한다.
+ */
+@Slf4j
+@Component
+public class PostChangeBroadcaster implements MessageListener {
+    public final static String POST_CHANGE_CHANNEL = "post:changed";
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RedisTemplate<String, String> redisTemplate;
+    //구독자가 RedisService 등에 의존할 수 있어서 순환 참조를 피하기 위해 사용할 때 조회
+    private final ObjectProvider<PostChangeSubscriber> subscribers;
+
+    @Autowired
+    public PostChangeBroadcaster(RedisTemplate<String, String> redisTemplate, ObjectProvider<PostChangeSubscriber> subscribers) {
+        this.redisTemplate = redisTemplate;
+        this.subscribers = subscribers;
+    }
+
+    /**
+     * 포스트 변경 알림
+     * 트랜잭션 안에서 호출되면 커밋된 이후에 전파해서 다른 파드가 커밋 전 데이터를 다시 읽지 않도록 한다.
+     */
+    public void publish(PostChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(event);
+                }
+            });
+            return;
+        }
+        broadcast(event);
+    }
+
+    private void broadcast(PostChangeEvent event) {
+        notifySubscribers(event);
+        try {
+            redisTemplate.convertAndSend(POST_CHANGE_CHANNEL, instanceId + ":" + event.getPostId() + ":" + event.getType());
+        } catch (Exception e) {
+            log.error("포스트 변경 전파 실패 = {}", event, e);
+        }
+    }
+
+    /**
+     * 다른 파드에서 발행한 포스트 변경 메시지 수신
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] values = body.split(":");
+        if (values.length != 3) return;
+        //자신이 발행한 메시지는 이미 처리했으므로 무시
+        if (values[0].equals(instanceId)) return;
+        try {
+            notifySubscribers(new PostChangeEvent(Long.parseLong(values[1]), PostChangeType.valueOf(values[2])));
+        } catch (IllegalArgumentException e) {
+            log.error("잘못된 포스트 변경 메시지 = {}", body);
+        }
+    }
+
+    private void notifySubscribers(PostChangeEvent event) {
+        subscribers.orderedStream().forEach(subscriber -> {
+            try {
+                subscriber.onPostChanged(event);
+            } catch (Exception e) {
+                log.error("포스트 변경 구독자 처리 실패 = {}", event, e);
+            }
+        });
+    }
+}
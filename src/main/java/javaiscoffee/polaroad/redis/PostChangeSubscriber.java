@@ -0,0 +1,11 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+
+/**
+ * 포스트가 변경되었을 때 파드마다 가지고 있는 로컬 데이터를 갱신하기 위한 구독자
+ * PostChangeBroadcaster가 현재 파드와 다른 파드 모두에 변경 사항을 전달한다.
+ */
+public interface PostChangeSubscriber {
+    void onPostChanged(PostChangeEvent event);
+}
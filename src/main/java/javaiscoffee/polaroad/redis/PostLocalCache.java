@@ -0,0 +1,104 @@
+package javaiscoffee.polaroad.redis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 레디스 pc: 캐시 앞에 두는 파드별 로컬 캐시(L1)
+ * 같은 인기 포스트를 조회할 때 레디스 조회와 JSON 변환 없이 힙에서 바로 응답한다.
+ * 다른 파드의 변경 사항은 PostChangeBroadcaster를 통해 무효화되고,
+ * 메시지가 유실되더라도 5분이 지나면 만료된다.
+ *
+ * 미리 갱신 판단에 필요한 메타데이터도 함께 보관하고, 레디스 키 만료 시각이 5분보다 가까우면 그때 같이 만료된다.
+ *
+ * 레디스에서 읽어서 채우는 사이에 무효화 메시지가 먼저 처리되면 지난 데이터가 다시 들어가므로,
+ * 포스트별 무효화 횟수를 레디스 조회 전에 읽어두고 그대로일 때만 채운다. (putIfNotInvalidated)
+ */
+@Component
+public class PostLocalCache implements PostChangeSubscriber {
+    private final static int MAXIMUM_SIZE = 10_000;
+    private final static long EXPIRE_MINUTES = 5;
+    //포스트 ID를 나눠서 무효화 횟수를 세는 칸 수, 같은 칸의 다른 포스트가 무효화되면 채우기를 한 번 건너뛸 뿐이다.
+    private final static int INVALIDATION_STRIPES = 1024;
+
+    //Caffeine은 W-TinyLFU 정책으로 자주 조회되는 포스트를 우선 유지
+    private final Cache<Long, PostCachingEntry> cache = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfter(new Expiry<Long, PostCachingEntry>() {
+                @Override
+                public long expireAfterCreate(Long postId, PostCachingEntry entry, long currentTime) {
+                    return expireNanos(entry);
+                }
+
+                @Override
+                public long expireAfterUpdate(Long postId, PostCachingEntry entry, long currentTime, long currentDuration) {
+                    return expireNanos(entry);
+                }
+
+                @Override
+                public long expireAfterRead(Long postId, PostCachingEntry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    public PostCachingEntry get(Long postId) {
+        return cache.getIfPresent(postId);
+    }
+
+    public void put(Long postId, PostCachingEntry entry) {
+        cache.put(postId, entry);
+    }
+
+    /**
+     * 레디스에서 읽어서 채우기 전에 읽어두는 무효화 횟수
+     */
+    public long invalidationStamp(Long postId) {
+        return invalidations.get(stripe(postId));
+    }
+
+    /**
+     * stamp를 읽은 뒤로 무효화되지 않았을 때만 채움
+     * 같은 key의 무효화와 compute는 차례로 실행되므로, 무효화 횟수를 올린 뒤 지우는 evict와 엇갈려도 지난 데이터가 남지 않는다.
+     * @return 채웠으면 true
+     */
+    public boolean putIfNotInvalidated(Long postId, PostCachingEntry entry, long stamp) {
+        boolean[] put = new boolean[1];
+        cache.asMap().compute(postId, (key, current) -> {
+            if (invalidations.get(stripe(key)) != stamp) return current;
+            put[0] = true;
+            return entry;
+        });
+        return put[0];
+    }
+
+    public void evict(Long postId) {
+        //채우는 중인 요청이 알 수 있도록 지우기 전에 무효화 횟수부터 올림
+        invalidations.incrementAndGet(stripe(postId));
+        cache.invalidate(postId);
+    }
+
+    @Override
+    public void onPostChanged(PostChangeEvent event) {
+        evict(event.getPostId());
+    }
+
+    private static int stripe(Long postId) {
+        return Math.floorMod(Long.hashCode(postId), INVALIDATION_STRIPES);
+    }
+
+    //5분과 레디스 키 만료까지 남은 시간 중 짧은 쪽, 만료 시각을 모르면 5분
+    private static long expireNanos(PostCachingEntry entry) {
+        long expireNanos = TimeUnit.MINUTES.toNanos(EXPIRE_MINUTES);
+        if (entry.getExpireAtMillis() <= 0) return expireNanos;
+        long remainingMillis = entry.getExpireAtMillis() - System.currentTimeMillis();
+        return Math.max(0, Math.min(expireNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+    }
+}
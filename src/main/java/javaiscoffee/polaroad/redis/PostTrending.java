@@ -0,0 +1,103 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 포스트 급상승 점수
+ * 조회와 추천이 생길 때마다 점수를 더하고, 오래된 조회와 추천일수록 반감기마다 절반씩 덜 반영한다.
+ * 모든 점수를 주기적으로 줄이는 대신 기준 시각(ptr:epoch)부터 반감기마다 2배씩 커지는 가중치를 곱해서 더하므로
+ * 더할 때는 ZINCRBY 한 번이면 되고, 점수 순서는 감쇠를 적용한 순서와 같다.
+ *
+ * 가중치가 계속 커지지 않도록 매시간 기준 시각이 하루 넘게 지났으면 현재 시각으로 옮기면서 모든 점수에 같은 비율을 곱하고,
+ * 새 조회 한 번의 점수보다 1% 이상 작아진 포스트는 삭제한다.
+ */
+@Slf4j
+@Component
+public class PostTrending {
+    public final static String TRENDING_KEY = "ptr";
+    public final static String EPOCH_KEY = "ptr:epoch";
+    //포스트를 추천한 적 있는 멤버 HyperLogLog, 멤버마다 처음 추천만 점수에 반영하는 데 사용
+    private final static String GOOD_MEMBERS_PREFIX = "ptr:likers:";
+    private final static Duration GOOD_MEMBERS_TIMEOUT = Duration.ofDays(30);
+    private final static RedisScript<Long> ADD_POST_TRENDING_SCRIPT = RedisScript.of(new ClassPathResource("redis/add-post-trending.lua"), Long.class);
+    private final static RedisScript<Long> REBASE_POST_TRENDING_SCRIPT = RedisScript.of(new ClassPathResource("redis/rebase-post-trending.lua"), Long.class);
+    private final static String REBASE_JOB = "post-trending-rebase";
+    private final static Duration REBASE_LEASE_TIMEOUT = Duration.ofSeconds(50);
+    private final static Duration REBASE_MIN_INTERVAL = Duration.ofMinutes(30);
+    private final static Duration REBASE_INTERVAL = Duration.ofDays(1);
+    private final static double MIN_SCORE = 0.01;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final long halfLifeSeconds;
+    private final double viewWeight;
+    private final double goodWeight;
+
+    @Autowired
+    public PostTrending(RedisTemplate<String, String> redisTemplate, BatchJobCoordinator batchJobCoordinator,
+                       @Value("${post.trending.half-life-hours:24}") long halfLifeHours,
+                       @Value("${post.trending.view-weight:1}") double viewWeight,
+                       @Value("${post.trending.good-weight:5}") double goodWeight) {
+        this.redisTemplate = redisTemplate;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.halfLifeSeconds = Duration.ofHours(halfLifeHours).toSeconds();
+        this.viewWeight = viewWeight;
+        this.goodWeight = goodWeight;
+    }
+
+    public long getHalfLifeSeconds() {
+        return halfLifeSeconds;
+    }
+
+    public double getViewWeight() {
+        return viewWeight;
+    }
+
+    /**
+     * 멤버가 포스트를 처음 추천했을 때만 추천 1번 점수만큼 더함
+     * 추천 취소는 반영하지 않음. 현재 가중치로 빼면 예전에 더한 점수보다 많이 빠져서 추천, 취소를 반복하는 것만으로 다른 포스트 점수를 깎을 수 있음
+     * 대신 추천, 취소를 반복해서 점수를 계속 올리지 못하도록 포스트별 추천 멤버 HyperLogLog에 처음 들어가는 멤버만 반영한다.
+     * HyperLogLog는 이미 들어있는 멤버를 다시 넣으면 항상 0을 반환하고, 드물게 처음 추천인데 0을 반환해서 점수가 빠질 수는 있다.
+     */
+    public void addGood(Long memberId, Long postId) {
+        String goodMembersKey = GOOD_MEMBERS_PREFIX + postId;
+        Long added = redisTemplate.opsForHyperLogLog().add(goodMembersKey, memberId.toString());
+        if (added == null || added == 0) return;
+        redisTemplate.expire(goodMembersKey, GOOD_MEMBERS_TIMEOUT);
+        redisTemplate.execute(ADD_POST_TRENDING_SCRIPT, List.of(TRENDING_KEY, EPOCH_KEY),
+                String.valueOf(System.currentTimeMillis() / 1000), String.valueOf(halfLifeSeconds), postId.toString(), String.valueOf(goodWeight));
+    }
+
+    /**
+     * 급상승 점수 상위 포스트 ID 조회
+     */
+    public List<Long> getTopPostIds(int size) {
+        Set<String> postIds = redisTemplate.opsForZSet().reverseRange(TRENDING_KEY, 0, size - 1);
+        if (postIds == null) return new ArrayList<>();
+        return postIds.stream().map(Long::valueOf).toList();
+    }
+
+    @Scheduled(cron = "0 30 * * * *")
+    public void rebase() {
+        batchJobCoordinator.run(REBASE_JOB, REBASE_LEASE_TIMEOUT, REBASE_MIN_INTERVAL, lease -> {
+            long now = System.currentTimeMillis() / 1000;
+            String epoch = redisTemplate.opsForValue().get(EPOCH_KEY);
+            if (epoch != null && now - Long.parseLong(epoch) < REBASE_INTERVAL.toSeconds()) return 0;
+            redisTemplate.execute(REBASE_POST_TRENDING_SCRIPT, List.of(TRENDING_KEY, EPOCH_KEY),
+                    String.valueOf(now), String.valueOf(halfLifeSeconds), String.valueOf(MIN_SCORE * viewWeight));
+            log.info("급상승 점수 기준 시각 변경 = {} -> {}", epoch, now);
+            return 1;
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package javaiscoffee.polaroad.redis;
+
+/**
+ * 포스트 순 조회자 수(추정값)
+ * @param total 전체 기간
+ * @param weekly 이번 주(월요일부터)
+ * @param monthly 이번 달
+ */
+public record PostUniqueViewerCounts(long total, long weekly, long monthly) {
+}
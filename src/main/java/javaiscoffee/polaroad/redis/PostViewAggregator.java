@@ -0,0 +1,203 @@
+package javaiscoffee.polaroad.redis;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 파드별 포스트 조회 모아서 쓰기(write-behind)
+ * 조회한 멤버를 포스트별로 모아뒀다가 300ms마다 레디스 스크립트로 한 번에 반영한다.
+ * 멤버는 포스트별 HyperLogLog(전체 uv:, 일간 uvd:, 주간 uvw:, 월간 uvm:)에 넣고, 일간 순 조회자가 늘어난 만큼 현재 시간 버킷(pvh:) 조회 수를 올린다.
+ * 주간, 월간 순 조회자는 일간 순 조회자의 합이 아니라 기간 동안 조회한 멤버 수이고, 기간이 끝나면 만료된다.
+ * HyperLogLog는 같은 멤버를 여러 번 넣어도 한 번만 세므로 멤버별 조회 기록 없이 멤버당 하루 한 번만 조회 수에 반영되고,
+ * key 하나는 순 조회자가 많아도 12KB를 넘지 않는다. 개수는 0.81% 정도 오차가 있는 추정값이다.
+ * 시간 버킷은 PostViewRanking에서 기간별 랭킹으로 합치고, 같은 수만큼 쌓은 DB 반영 대기 조회 수는 PostViewBatchUpdator에서 포스트 조회 수에 더한다.
+ * 급상승 점수(PostTrending)도 같은 스크립트에서 함께 올린다.
+ *
+ * 같은 파드에서 이미 모은 (날짜, 멤버, 포스트) 조회는 로컬에서 걸러서 레디스로 보내지 않는다.
+ * 파드가 비정상 종료되면 마지막 주기에 모은 조회만 유실되고, 정상 종료 때는 남은 조회를 반영한다.
+ */
+@Slf4j
+@Component
+public class PostViewAggregator {
+    private final static String UNIQUE_VIEWER_PREFIX = "uv:";
+    private final static String UNIQUE_VIEWER_DAILY_PREFIX = "uvd:";
+    private final static String UNIQUE_VIEWER_WEEKLY_PREFIX = "uvw:";
+    private final static String UNIQUE_VIEWER_MONTHLY_PREFIX = "uvm:";
+    private final static RedisScript<Long> ADD_POST_VIEWERS_SCRIPT = RedisScript.of(new ClassPathResource("redis/add-post-viewers.lua"), Long.class);
+    private final static int SEEN_VIEW_MAXIMUM_SIZE = 100_000;
+    //스크립트 한 번에 반영할 최대 포스트 수, 포스트 하나에 한 번에 넣을 최대 멤버 수
+    private final static int POSTS_PER_SCRIPT = 200;
+    private final static int MEMBERS_PER_POST = 500;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final PostTrending postTrending;
+    //반영 전 포스트별 조회 멤버, 반영할 때마다 새 맵으로 교체
+    private final AtomicReference<ConcurrentHashMap<Long, Set<String>>> viewers = new AtomicReference<>(new ConcurrentHashMap<>());
+    //직전에 교체한 맵, 교체 직전에 맵을 가져간 스레드가 늦게 넣은 멤버를 다음 반영 때 가져감
+    private ConcurrentHashMap<Long, Set<String>> retiredViewers = new ConcurrentHashMap<>();
+    //이 파드에서 모은 (날짜, 멤버, 포스트) 조회, 날짜가 key에 들어있어서 자정이 지나면 적중하지 않음
+    private final Cache<SeenView, Boolean> seenViews = Caffeine.newBuilder()
+            .maximumSize(SEEN_VIEW_MAXIMUM_SIZE)
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+    private volatile PostViewKeys postViewKeys;
+
+    @Autowired
+    public PostViewAggregator(RedisTemplate<String, String> redisTemplate, PostTrending postTrending) {
+        this.redisTemplate = redisTemplate;
+        this.postTrending = postTrending;
+    }
+
+    /**
+     * 포스트 전체 기간 순 조회자 key
+     */
+    public static String uniqueViewerKey(Long postId) {
+        return UNIQUE_VIEWER_PREFIX + postId;
+    }
+
+    /**
+     * day가 속한 주(월요일부터)의 포스트 순 조회자 key
+     */
+    public static String weeklyUniqueViewerKey(LocalDate day, Long postId) {
+        return UNIQUE_VIEWER_WEEKLY_PREFIX + day.with(DayOfWeek.MONDAY) + ":" + postId;
+    }
+
+    /**
+     * day가 속한 달의 포스트 순 조회자 key
+     */
+    public static String monthlyUniqueViewerKey(LocalDate day, Long postId) {
+        return UNIQUE_VIEWER_MONTHLY_PREFIX + YearMonth.from(day) + ":" + postId;
+    }
+
+    /**
+     * 포스트 조회 멤버 추가
+     */
+    public void addPostView(Long postId, Long memberId) {
+        PostViewKeys keys = getPostViewKeys(System.currentTimeMillis() / 1000);
+        if (seenViews.asMap().putIfAbsent(new SeenView(keys.day(), memberId, postId), Boolean.TRUE) != null) return;
+        viewers.get().computeIfAbsent(postId, id -> ConcurrentHashMap.newKeySet()).add(memberId.toString());
+    }
+
+    /**
+     * 모아둔 조회 멤버를 포스트별 HyperLogLog와 시간 버킷 조회 수에 반영
+     * 실패하면 다시 모아두고 다음 주기에 재시도
+     */
+    @Scheduled(fixedDelayString = "${post.view.flush-interval-ms:300}")
+    public synchronized void flush() {
+        ConcurrentHashMap<Long, Set<String>> drained = viewers.getAndSet(new ConcurrentHashMap<>());
+        Map<Long, Set<String>> pending = new HashMap<>();
+        drain(retiredViewers, pending);
+        drain(drained, pending);
+        retiredViewers = drained;
+        if (pending.isEmpty()) return;
+
+        PostViewKeys keys = getPostViewKeys(System.currentTimeMillis() / 1000);
+        //멤버가 많은 포스트는 여러 번에 나눠서 넣음
+        List<Map.Entry<Long, List<String>>> entries = new ArrayList<>();
+        pending.forEach((postId, members) -> {
+            List<String> memberList = new ArrayList<>(members);
+            for (int from = 0; from < memberList.size(); from += MEMBERS_PER_POST) {
+                entries.add(Map.entry(postId, memberList.subList(from, Math.min(from + MEMBERS_PER_POST, memberList.size()))));
+            }
+        });
+        for (int from = 0; from < entries.size(); from += POSTS_PER_SCRIPT) {
+            List<Map.Entry<Long, List<String>>> chunk = entries.subList(from, Math.min(from + POSTS_PER_SCRIPT, entries.size()));
+            try {
+                addPostViewers(keys, chunk);
+            } catch (RuntimeException e) {
+                //HyperLogLog는 같은 멤버를 다시 넣어도 개수가 늘지 않으므로 남은 조회를 전부 다시 넣으면 됨
+                log.error("포스트 조회 반영 실패 = {}건", entries.size() - from, e);
+                ConcurrentHashMap<Long, Set<String>> current = viewers.get();
+                entries.subList(from, entries.size()).forEach(entry ->
+                        current.computeIfAbsent(entry.getKey(), id -> ConcurrentHashMap.newKeySet()).addAll(entry.getValue()));
+                return;
+            }
+        }
+    }
+
+    private void addPostViewers(PostViewKeys keys, List<Map.Entry<Long, List<String>>> entries) {
+        List<String> scriptKeys = new ArrayList<>(entries.size() * 4 + 4);
+        List<String> args = new ArrayList<>();
+        scriptKeys.add(keys.hourBucketKey());
+        scriptKeys.add(PostViewBatchUpdator.PENDING_KEY);
+        scriptKeys.add(PostTrending.TRENDING_KEY);
+        scriptKeys.add(PostTrending.EPOCH_KEY);
+        args.add(String.valueOf(keys.dailyExpireAt()));
+        args.add(String.valueOf(keys.hourBucketExpireAt()));
+        args.add(String.valueOf(System.currentTimeMillis() / 1000));
+        args.add(String.valueOf(postTrending.getHalfLifeSeconds()));
+        args.add(String.valueOf(postTrending.getViewWeight()));
+        args.add(String.valueOf(keys.weeklyExpireAt()));
+        args.add(String.valueOf(keys.monthlyExpireAt()));
+        entries.forEach(entry -> {
+            scriptKeys.add(uniqueViewerKey(entry.getKey()));
+            scriptKeys.add(UNIQUE_VIEWER_DAILY_PREFIX + keys.day() + ":" + entry.getKey());
+            scriptKeys.add(weeklyUniqueViewerKey(keys.day(), entry.getKey()));
+            scriptKeys.add(monthlyUniqueViewerKey(keys.day(), entry.getKey()));
+            args.add(entry.getKey().toString());
+            args.add(String.valueOf(entry.getValue().size()));
+            args.addAll(entry.getValue());
+        });
+        redisTemplate.execute(ADD_POST_VIEWERS_SCRIPT, scriptKeys, args.toArray());
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    //원본에서 꺼낸 멤버는 지워서 늦게 들어온 멤버만 다음 반영 때 남도록 함
+    private static void drain(Map<Long, Set<String>> source, Map<Long, Set<String>> pending) {
+        source.forEach((postId, members) -> {
+            Iterator<String> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                pending.computeIfAbsent(postId, id -> new HashSet<>()).add(iterator.next());
+                iterator.remove();
+            }
+        });
+    }
+
+    /**
+     * 현재 시간에 사용할 key와 만료 시각
+     * 시간이 바뀔 때만 다시 계산한다.
+     */
+    private PostViewKeys getPostViewKeys(long nowSeconds) {
+        PostViewKeys keys = postViewKeys;
+        if (keys != null && nowSeconds < keys.hourEnd()) return keys;
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime hour = Instant.ofEpochSecond(nowSeconds).atZone(zone).toLocalDateTime().truncatedTo(ChronoUnit.HOURS);
+        LocalDate today = hour.toLocalDate();
+        keys = new PostViewKeys(
+                today,
+                PostViewRanking.hourBucketKey(hour),
+                today.plusDays(1).atStartOfDay(zone).toEpochSecond(),
+                today.with(DayOfWeek.MONDAY).plusWeeks(1).atStartOfDay(zone).toEpochSecond(),
+                YearMonth.from(today).plusMonths(1).atDay(1).atStartOfDay(zone).toEpochSecond(),
+                hour.plus(PostViewRanking.HOUR_BUCKET_RETENTION).atZone(zone).toEpochSecond(),
+                hour.plusHours(1).atZone(zone).toEpochSecond());
+        postViewKeys = keys;
+        return keys;
+    }
+
+    private record PostViewKeys(LocalDate day, String hourBucketKey, long dailyExpireAt, long weeklyExpireAt, long monthlyExpireAt, long hourBucketExpireAt, long hourEnd) {
+    }
+
+    private record SeenView(LocalDate day, Long memberId, Long postId) {
+    }
+}
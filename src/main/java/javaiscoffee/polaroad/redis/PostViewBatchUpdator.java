@@ -0,0 +1,102 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.batch.BatchFencing;
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 레디스에 모은 조회 수를 DB 포스트 조회 수(view_number)에 반영
+ * 조회 스크립트가 시간 버킷과 같은 수만큼 pvp 해시에 포스트별로 쌓아두면 1분마다 한 번에 가져가서 더한다.
+ * 조회마다 DB에 쓰지 않고, 레디스가 비워져도 반영이 끝난 조회 수는 남는다.
+ *
+ * pvp를 반영 중 key(pvp:flushing)로 이름을 바꿔서 가져가므로 반영하는 동안 들어온 조회는 새 pvp에 쌓인다.
+ * 500개씩 JDBC 배치 UPDATE를 트랜잭션 하나로 실행하고, 커밋한 포스트만 반영 중 key에서 지운다.
+ * 실패하거나 리스를 잃으면 남은 포스트는 반영 중 key에 그대로 남아서 다음 주기에 먼저 반영한다.
+ * 리스가 만료된 뒤에도 실행 중인 이전 파드가 같이 더하지 않도록 트랜잭션마다 펜싱 토큰을 검사한다.
+ *
+ * 커밋 직후 key에서 지우기 전에 종료되면 그 500개가 반영 중 key에 남으므로, 반영 중 key마다 배치 ID(pvp:flushing:batch)를 붙이고
+ * 500개 묶음마다 (배치 ID:첫 포스트 ID)를 같은 트랜잭션에서 batch_fence에 기록한다.
+ * 커밋한 묶음은 지운 뒤에 다음 묶음을 만들기 때문에 복구할 때 남은 포스트의 첫 500개는 커밋 직후 멈춘 묶음과 같고, 기록이 같으면 더하지 않고 지우기만 한다.
+ */
+@Slf4j
+@Component
+public class PostViewBatchUpdator {
+    public final static String PENDING_KEY = "pvp";
+    private final static String FLUSHING_KEY = "pvp:flushing";
+    private final static String FLUSHING_BATCH_KEY = "pvp:flushing:batch";
+    private final static String UPDATE_JOB = "post-view-batch";
+    private final static Duration UPDATE_LEASE_TIMEOUT = Duration.ofSeconds(50);
+    private final static Duration UPDATE_MIN_INTERVAL = Duration.ofSeconds(30);
+    private final static int BATCH_SIZE = 500;
+    private final static String UPDATE_VIEW_NUMBER_SQL = "update posts set view_number = view_number + ? where post_id = ?";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final BatchFencing batchFencing;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PostViewBatchUpdator(RedisTemplate<String, String> redisTemplate, BatchJobCoordinator batchJobCoordinator, BatchFencing batchFencing, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.batchFencing = batchFencing;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 1분마다 쌓인 조회 수 db에 적용
+     */
+    @Scheduled(fixedRate = 60000)
+    public void updatePostViewsBatch() {
+        batchJobCoordinator.run(UPDATE_JOB, UPDATE_LEASE_TIMEOUT, UPDATE_MIN_INTERVAL, lease -> {
+            //지난 주기에 반영하지 못한 key가 있으면 그것부터 반영
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(FLUSHING_KEY))) {
+                //이전 반영 중 key의 배치 ID가 새 반영 중 key에 이어지지 않도록 먼저 지움
+                redisTemplate.delete(FLUSHING_BATCH_KEY);
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(PENDING_KEY))) return 0;
+                redisTemplate.rename(PENDING_KEY, FLUSHING_KEY);
+            }
+            String batchId = flushingBatchId();
+            Map<Object, Object> views = redisTemplate.opsForHash().entries(FLUSHING_KEY);
+            //같은 순서로 잠그도록 포스트 ID 순서로 반영
+            List<Object[]> updates = new ArrayList<>(views.size());
+            views.forEach((postId, count) -> updates.add(new Object[]{Long.parseLong((String) count), Long.parseLong((String) postId)}));
+            updates.sort(Comparator.comparingLong(update -> (Long) update[1]));
+
+            log.info("조회 수 배치 작업 시작 = {}개", updates.size());
+            long updated = 0;
+            for (int from = 0; from < updates.size(); from += BATCH_SIZE) {
+                //리스를 잃었으면 다른 파드가 같은 반영 중 key를 이어서 반영하므로 중단
+                if (!lease.renew()) break;
+                List<Object[]> chunk = updates.subList(from, Math.min(from + BATCH_SIZE, updates.size()));
+                String chunkId = batchId + ":" + chunk.get(0)[1];
+                Boolean applied = transactionTemplate.execute(status -> {
+                    if (!batchFencing.checkBatch(lease, chunkId)) return false;
+                    jdbcTemplate.batchUpdate(UPDATE_VIEW_NUMBER_SQL, chunk);
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(applied)) log.info("이미 반영한 조회 수 묶음 건너뜀 = {}", chunkId);
+                redisTemplate.opsForHash().delete(FLUSHING_KEY, chunk.stream().map(update -> update[1].toString()).toArray());
+                updated += chunk.size();
+            }
+            return updated;
+        });
+    }
+
+    //반영 중 key의 배치 ID, 이전 파드가 붙인 ID가 있으면 그대로 사용
+    private String flushingBatchId() {
+        redisTemplate.opsForValue().setIfAbsent(FLUSHING_BATCH_KEY, UUID.randomUUID().toString());
+        return redisTemplate.opsForValue().get(FLUSHING_BATCH_KEY);
+    }
+}
@@ -0,0 +1,113 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.post.PostRankingRange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 최근 24시간, 7일, 30일 조회수 랭킹
+ * 조회 수는 시간 단위 버킷(pvh:)에 쌓고, 1분마다 기간에 해당하는 버킷을 ZUNIONSTORE로 합쳐서 랭킹 key(pvr:)에 저장한다.
+ * 랭킹 조회는 합쳐둔 key만 읽으므로 요청마다 합치는 비용이 없고, 자정이나 월요일에 랭킹이 비지 않는다.
+ *
+ * post.ranking.hourly-decay를 1보다 작게 설정하면 한 시간 지날 때마다 그만큼 곱한 가중치로 합쳐서 최근 조회에 더 큰 점수를 준다.
+ * 7일, 30일 랭킹은 버킷이 많아서 5분, 10분마다 합친다.
+ * 급상승 랭킹은 합치지 않고 PostTrending 점수 key를 그대로 읽는다.
+ */
+@Slf4j
+@Component
+public class PostViewRanking {
+    private final static String HOUR_BUCKET_PREFIX = "pvh:";
+    private final static String RANKING_PREFIX = "pvr:";
+    private final static DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private final static String MERGE_JOB = "post-view-ranking";
+    private final static Duration MERGE_LEASE_TIMEOUT = Duration.ofSeconds(50);
+    //파드마다 스케줄이 조금씩 어긋나도 1분에 한 번만 합치도록
+    private final static Duration MERGE_MIN_INTERVAL = Duration.ofSeconds(30);
+    //가장 긴 랭킹 기간보다 하루 더 보관
+    public final static Duration HOUR_BUCKET_RETENTION = Duration.ofDays(31);
+    private final static List<PostRankingRange> MERGED_RANGES = List.of(PostRankingRange.DAILY, PostRankingRange.WEEKLY, PostRankingRange.MONTHLY);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BatchJobCoordinator batchJobCoordinator;
+    private final double hourlyDecay;
+
+    @Autowired
+    public PostViewRanking(RedisTemplate<String, String> redisTemplate, BatchJobCoordinator batchJobCoordinator, @Value("${post.ranking.hourly-decay:1.0}") double hourlyDecay) {
+        this.redisTemplate = redisTemplate;
+        this.batchJobCoordinator = batchJobCoordinator;
+        this.hourlyDecay = hourlyDecay;
+    }
+
+    public static String hourBucketKey(LocalDateTime hour) {
+        return HOUR_BUCKET_PREFIX + hour.format(HOUR_FORMAT);
+    }
+
+    public static String rankingKey(PostRankingRange range) {
+        if (range.equals(PostRankingRange.TRENDING)) return PostTrending.TRENDING_KEY;
+        return RANKING_PREFIX + range.name();
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    public void merge() {
+        batchJobCoordinator.run(MERGE_JOB, MERGE_LEASE_TIMEOUT, MERGE_MIN_INTERVAL, lease -> {
+            LocalDateTime now = LocalDateTime.now();
+            long merged = 0;
+            for (PostRankingRange range : MERGED_RANGES) {
+                //처음 실행하거나 랭킹 key가 사라졌으면 주기와 상관없이 합침
+                if (now.getMinute() % mergeIntervalMinutes(range) == 0 || !Boolean.TRUE.equals(redisTemplate.hasKey(rankingKey(range)))) {
+                    merge(range, now);
+                    merged++;
+                }
+            }
+            return merged;
+        });
+    }
+
+    /**
+     * 현재 시간 버킷부터 기간에 해당하는 시간 버킷을 합쳐서 랭킹 key에 저장
+     */
+    private void merge(PostRankingRange range, LocalDateTime now) {
+        LocalDateTime currentHour = now.truncatedTo(ChronoUnit.HOURS);
+        int hours = rangeHours(range);
+        List<String> bucketKeys = new ArrayList<>(hours);
+        double[] weights = new double[hours];
+        for (int age = 0; age < hours; age++) {
+            bucketKeys.add(hourBucketKey(currentHour.minusHours(age)));
+            weights[age] = Math.pow(hourlyDecay, age);
+        }
+        //ZUNIONSTORE는 결과를 저장할 때 기존 key를 한 번에 교체하므로 합치는 중에도 이전 랭킹을 읽을 수 있음
+        redisTemplate.opsForZSet().unionAndStore(bucketKeys.get(0), bucketKeys.subList(1, hours), rankingKey(range), Aggregate.SUM, Weights.of(weights));
+    }
+
+    private static int rangeHours(PostRankingRange range) {
+        return switch (range) {
+            case DAILY -> 24;
+            case WEEKLY -> 24 * 7;
+            case MONTHLY -> 24 * 30;
+            case TRENDING -> throw new IllegalArgumentException("시간 버킷으로 합치지 않는 랭킹 = " + range);
+        };
+    }
+
+    private static int mergeIntervalMinutes(PostRankingRange range) {
+        return switch (range) {
+            case DAILY -> 1;
+            case WEEKLY -> 5;
+            case MONTHLY -> 10;
+            case TRENDING -> throw new IllegalArgumentException("시간 버킷으로 합치지 않는 랭킹 = " + range);
+        };
+    }
+}
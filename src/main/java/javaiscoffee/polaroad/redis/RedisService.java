@@ -1,17 +1,20 @@
 package javaiscoffee.polaroad.redis;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import javaiscoffee.polaroad.post.PostInfoCachingDto;
 import javaiscoffee.polaroad.post.PostRankingRange;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.time.*;
-import java.time.temporal.TemporalAdjusters;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -22,20 +25,26 @@ import java.util.concurrent.TimeUnit;
 public class RedisService {
 
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
-    private final static String MEMBER_VIEW_PREFIX = "mv:";
-    private final static String POST_VIEW_DAILY_PREFIX = "pvd:";
-    private final static String POST_VIEW_WEEKLY_PREFIX = "pvw:";
-    private final static String POST_VIEW_MONTHLY_PREFIX = "pvm:";
+    private final PostLocalCache postLocalCache;
+    private final PostCachingCodec postCachingCodec;
+    private final PostViewAggregator postViewAggregator;
     private final static String POST_GOOD_DAILY_PREFIX = "pgd:";
     private final static String POST_GOOD_WEEKLY_PREFIX = "pgw:";
     private final static String POST_GOOD_MONTHLY_PREFIX = "pgm:";
     private final static String POST_CACHING_PREFIX = "pc:";
+    private final static String POST_CACHING_GENERATION_PREFIX = "pc:gen:";
+    private final static long POST_CACHING_EXPIRE_MINUTES = 60;
+    //DB 조회 중에 세대 번호가 만료되지 않도록 캐싱 만료 시간보다 길게 유지
+    private final static long POST_CACHING_GENERATION_EXPIRE_MINUTES = 120;
+    private final static RedisScript<Long> SAVE_POST_CACHING_SCRIPT = RedisScript.of(new ClassPathResource("redis/save-post-caching.lua"), Long.class);
+    private final static RedisScript<Long> EVICT_POST_CACHING_SCRIPT = RedisScript.of(new ClassPathResource("redis/evict-post-caching.lua"), Long.class);
 
     @Autowired
-    public RedisService(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper) {
+    public RedisService(RedisTemplate<String, String> redisTemplate, PostLocalCache postLocalCache, PostCachingCodec postCachingCodec, PostViewAggregator postViewAggregator) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.postLocalCache = postLocalCache;
+        this.postCachingCodec = postCachingCodec;
+        this.postViewAggregator = postViewAggregator;
     }
 
     public void setValue(String key, String value) {
@@ -49,133 +58,155 @@ public class RedisService {
     }
 
     /**
-     * 멤버별 포스트 조회 기록 추가 + 포스트 조회 수 1 증가
+     * 포스트 조회 기록 추가
+     * 조회한 멤버는 PostViewAggregator에 모아뒀다가 주기적으로 순 조회자 수에 반영
      */
     public void addPostView(Long postId, Long memberId) {
-        String memberViewKey = MEMBER_VIEW_PREFIX + memberId;
-        // 사용자 조회 기록이 있으면 추가 안함
-        Double score = redisTemplate.opsForZSet().score(memberViewKey, postId.toString());
-        if(score != null) return;
-        //개인 조회 기록 생성
-        addPersonalPostView(postId, memberId);
-        //포스트 조회 기록 생성
-        addPostViewCounts(postId);
-    }
-
-    //개인별 조회 기록 생성
-    private void addPersonalPostView(Long postId, Long memberId) {
-        String memberViewKey = MEMBER_VIEW_PREFIX + memberId;
-        long timestamp = System.currentTimeMillis() / 1000;  // 초 단위 시간
-
-        // 사용자별 게시글 조회 기록 추가 + 기록은 자정까지 유지
-        redisTemplate.opsForZSet().add(memberViewKey, postId.toString(), timestamp);
-        redisTemplate.expire(memberViewKey, Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay()).getSeconds(), TimeUnit.SECONDS);
-    }
-
-    //포스트별 조회 기록 생성
-    private void addPostViewCounts(Long postId) {
-        // 날짜별 키 설정
-        String dailyKey = POST_VIEW_DAILY_PREFIX + LocalDate.now();
-        String weeklyKey = POST_VIEW_WEEKLY_PREFIX + LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-        String monthlyKey = POST_VIEW_MONTHLY_PREFIX + YearMonth.now();
-
-        // 포스트 조회 기록 증가
-        Double isNewDaily = redisTemplate.opsForZSet().incrementScore(dailyKey, postId.toString(), 1);
-        Double isNewWeekly = redisTemplate.opsForZSet().incrementScore(weeklyKey, postId.toString(), 1);
-        Double isNewMonthly = redisTemplate.opsForZSet().incrementScore(monthlyKey, postId.toString(), 1);
-
-        // 각 기간별 조회기록이 새로 생성되었다면 유효 기간 설정
-        if (isNewDaily != null && isNewDaily.equals(1d)) {
-            redisTemplate.expire(dailyKey, Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay()).getSeconds(), TimeUnit.SECONDS);
-        }
-        if (isNewWeekly != null && isNewWeekly.equals(1d)) {
-            redisTemplate.expire(weeklyKey, Duration.between(LocalDateTime.now(), LocalDate.now().with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)).atStartOfDay()).getSeconds(), TimeUnit.SECONDS);
-        }
-        if (isNewMonthly != null && isNewMonthly.equals(1d)) {
-            redisTemplate.expire(monthlyKey, Duration.between(LocalDateTime.now(), LocalDate.now().plusMonths(1).withDayOfMonth(1).atStartOfDay()).getSeconds(), TimeUnit.SECONDS);
-        }
+        postViewAggregator.addPostView(postId, memberId);
+    }
+
+    /**
+     * 포스트 전체 기간, 이번 주, 이번 달 순 조회자 수(추정값) 조회
+     */
+    public PostUniqueViewerCounts getUniqueViewerCounts(Long postId) {
+        LocalDate today = LocalDate.now();
+        List<String> keys = List.of(PostViewAggregator.uniqueViewerKey(postId),
+                PostViewAggregator.weeklyUniqueViewerKey(today, postId),
+                PostViewAggregator.monthlyUniqueViewerKey(today, postId));
+        List<Object> counts = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            keys.forEach(key -> connection.hyperLogLogCommands().pfCount(toBytes(key)));
+            return null;
+        });
+        return new PostUniqueViewerCounts(toCount(counts.get(0)), toCount(counts.get(1)), toCount(counts.get(2)));
+    }
+
+    private static long toCount(Object count) {
+        return count == null ? 0 : ((Number) count).longValue();
     }
 
     /**
      * 포스트 캐싱 Dto 레디스에 저장
+     * DB에서 캐싱 데이터를 만드는 데 걸린 시간과 만료 시각을 함께 저장해서 만료 전에 미리 갱신할 수 있도록 한다.
+     * 포스트 변경 이벤트로 다시 캐싱할 때 사용하므로 세대 번호를 올려서 그 전에 조회를 시작한 요청이 덮어쓰지 못하게 한다.
      */
-    public void saveCachingPostInfo(PostInfoCachingDto postDto,Long postId) {
+    public void saveCachingPostInfo(PostInfoCachingDto postDto, Long postId, long computeMillis) {
         log.info("게시글 캐싱 저장 = {}",postId);
-        String cachingKey = POST_CACHING_PREFIX + postId;
-        try {
-            String json = objectMapper.writeValueAsString(postDto); // 객체를 JSON 문자열로 변환
-            redisTemplate.opsForValue().set(cachingKey, json);
-            redisTemplate.expire(cachingKey, 60, TimeUnit.MINUTES);
-        } catch (JsonProcessingException e) {
-            log.error("JSON 변환 오류 -> 캐싱 처리 실패 = {}", postId);
-        }
+        saveCachingPostEntry(postDto, postId, computeMillis, "");
+    }
+
+    /**
+     * 캐시가 비어있어서 DB에서 읽은 포스트 캐싱 Dto 레디스에 저장
+     * DB 조회 전에 읽은 세대 번호가 그대로일 때만 저장하고, 그 사이에 포스트가 바뀌었으면 저장하지 않는다.
+     * @return 저장했으면 true
+     */
+    public boolean saveCachingPostInfoIfUnchanged(PostInfoCachingDto postDto, Long postId, long computeMillis, String generation) {
+        boolean saved = saveCachingPostEntry(postDto, postId, computeMillis, generation);
+        if (!saved) log.info("조회 중에 포스트가 바뀌어서 캐싱하지 않음 = {}", postId);
+        return saved;
+    }
+
+    /**
+     * 포스트 캐싱 세대 번호 조회
+     * 포스트가 바뀌거나 캐시가 삭제될 때마다 올라가므로 DB 조회 전에 읽어두고 저장할 때 비교한다.
+     */
+    public String getCachingPostGeneration(Long postId) {
+        String generation = redisTemplate.opsForValue().get(POST_CACHING_GENERATION_PREFIX + postId);
+        return generation == null ? "0" : generation;
+    }
+
+    //캐싱 데이터는 바이너리이므로 문자열 직렬화를 거치지 않고 바로 스크립트 인자로 전달
+    private boolean saveCachingPostEntry(PostInfoCachingDto postDto, Long postId, long computeMillis, String generation) {
+        long expireAtMillis = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(POST_CACHING_EXPIRE_MINUTES);
+        byte[] cachingBytes = postCachingCodec.encode(postDto, computeMillis, expireAtMillis);
+        Long saved = redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands().eval(
+                toBytes(SAVE_POST_CACHING_SCRIPT.getScriptAsString()), ReturnType.INTEGER, 2,
+                toBytes(POST_CACHING_PREFIX + postId),
+                toBytes(POST_CACHING_GENERATION_PREFIX + postId),
+                cachingBytes,
+                toBytes(String.valueOf(TimeUnit.MINUTES.toMillis(POST_CACHING_EXPIRE_MINUTES))),
+                toBytes(String.valueOf(TimeUnit.MINUTES.toMillis(POST_CACHING_GENERATION_EXPIRE_MINUTES))),
+                toBytes(generation)));
+        if (saved == null || saved == 0) return false;
+        //미리 갱신한 경우 이 파드의 로컬 캐시가 이전 만료 시각으로 계속 갱신을 시도하지 않도록 교체
+        postLocalCache.put(postId, new PostCachingEntry(postDto, computeMillis, expireAtMillis));
+        return true;
+    }
+
+    public boolean hasCachingPost(Long postId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(POST_CACHING_PREFIX + postId));
     }
 
     /**
      * 캐싱되어 있는 포스트 조회
+     * 로컬 캐시 -> 레디스 순서로 조회
      */
     public PostInfoCachingDto getCachingPostInfo(Long postId) {
+        PostCachingEntry cachingEntry = getCachingPostEntry(postId);
+        return cachingEntry == null ? null : cachingEntry.getPostDto();
+    }
+
+    /**
+     * 캐싱되어 있는 포스트를 메타데이터와 함께 조회
+     * 로컬 캐시 -> 레디스 순서로 조회하고 로컬 캐시에도 메타데이터를 함께 보관
+     */
+    public PostCachingEntry getCachingPostEntry(Long postId) {
+        PostCachingEntry localCachingEntry = postLocalCache.get(postId);
+        if (localCachingEntry != null) return localCachingEntry;
+
+        //레디스 조회 중에 무효화되면 조회한 데이터는 로컬 캐시에 넣지 않음
+        long invalidationStamp = postLocalCache.invalidationStamp(postId);
         String postKey = POST_CACHING_PREFIX + postId;
-        String json = redisTemplate.opsForValue().get(postKey);
-        log.info("캐싱된 json = {}",json);
-        if (json == null) return null;
+        byte[] cachingBytes = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(toBytes(postKey)));
+        log.debug("캐싱된 포스트 조회 = {}",postKey);
+        if (cachingBytes == null) return null;
         try {
-            return objectMapper.readValue(json, PostInfoCachingDto.class);
-        } catch (JsonProcessingException e) {
-            log.error("JSON -> cachingDto 변환 오류 -> 캐싱 조회 실패 = {}", e);
+            PostCachingEntry cachingEntry = postCachingCodec.decodeEntry(cachingBytes);
+            postLocalCache.putIfNotInvalidated(postId, cachingEntry, invalidationStamp);
+            return cachingEntry;
+        } catch (RuntimeException e) {
+            log.error("캐싱 데이터 -> cachingDto 변환 오류 -> 캐싱 조회 실패 = {}", postId, e);
             return null;
         }
     }
 
+    private static byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
-     * 캐싱되어 있는 포스트 업데이트
+     * 캐싱되어 있는 포스트 삭제
+     * 포스트가 삭제되거나 상태가 바뀌었을 때 사용
+     * 세대 번호를 올려서 삭제 전에 DB 조회를 시작한 요청이 다시 캐싱하지 못하게 한다.
      */
-    public void updateCachingPost(PostInfoCachingDto postDto, Long postId) {
-        log.info("게시글 캐싱 업데이트 = {}",postId);
-        String postKey = POST_CACHING_PREFIX + postId;
-        try {
-            String json = objectMapper.writeValueAsString(postDto); // 객체를 JSON 문자열로 변환
-            redisTemplate.opsForValue().set(postKey, json);
-        } catch (JsonProcessingException e) {
-            log.error("JSON 변환 오류 -> 캐싱 처리 실패 = {}", postId);
-        }
+    public void evictCachingPost(Long postId) {
+        log.info("게시글 캐싱 삭제 = {}",postId);
+        redisTemplate.execute(EVICT_POST_CACHING_SCRIPT,
+                List.of(POST_CACHING_PREFIX + postId, POST_CACHING_GENERATION_PREFIX + postId),
+                String.valueOf(TimeUnit.MINUTES.toMillis(POST_CACHING_GENERATION_EXPIRE_MINUTES)));
     }
 
     /**
-     * 일일 조회 수 상위 게시물 조회
+     * 최근 24시간, 7일, 30일 조회 수 상위 게시물과 조회 수 조회
+     * PostViewRanking에서 1분마다 합쳐둔 랭킹을 읽음
      */
-    public List<String> getViewRankingList(int page, int pageSize, PostRankingRange range) {
-        String key;
-        if(range.equals(PostRankingRange.DAILY)) {
-            key = POST_VIEW_DAILY_PREFIX + LocalDate.now();
-        }
-        else if(range.equals(PostRankingRange.WEEKLY)) {
-            key = POST_VIEW_WEEKLY_PREFIX + LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-        }
-        else {
-            key = POST_VIEW_MONTHLY_PREFIX + YearMonth.now();
-        }
+    public List<ZSetOperations.TypedTuple<String>> getViewRankingList(int page, int pageSize, PostRankingRange range) {
         long start = (long) (page - 1) * pageSize;
         // 조회수 상위 포스트 조회
-        Set<String> results = redisTemplate.opsForZSet().reverseRange(key, start, start + pageSize);
+        Set<ZSetOperations.TypedTuple<String>> results = redisTemplate.opsForZSet().reverseRangeWithScores(PostViewRanking.rankingKey(range), start, start + pageSize - 1);
         if(results == null) return new ArrayList<>();
         return results.stream().toList();
     }
 
     public int getViewRankingMaxPageSize(int pageSize, PostRankingRange range) {
-        String key;
-        if(range.equals(PostRankingRange.DAILY)) {
-            key = POST_VIEW_DAILY_PREFIX + LocalDate.now();
-        }
-        else if(range.equals(PostRankingRange.WEEKLY)) {
-            key = POST_VIEW_WEEKLY_PREFIX + LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-        }
-        else {
-            key = POST_VIEW_MONTHLY_PREFIX + YearMonth.now();
-        }
-        Long total = redisTemplate.opsForZSet().size(key);
-        if(total == null) return 0;
-        return (int)Math.ceil((double) total / pageSize);
+        return (int)Math.ceil((double) getViewRankingSize(range) / pageSize);
+    }
+
+    /**
+     * 랭킹에 들어있는 포스트 수
+     */
+    public long getViewRankingSize(PostRankingRange range) {
+        Long total = redisTemplate.opsForZSet().size(PostViewRanking.rankingKey(range));
+        return total == null ? 0 : total;
     }
 
     /**
@@ -9,6 +9,8 @@ import javaiscoffee.polaroad.member.MemberRole;
 import javaiscoffee.polaroad.post.Post;
 import javaiscoffee.polaroad.post.PostRepository;
 import javaiscoffee.polaroad.post.PostStatus;
+import javaiscoffee.polaroad.post.outbox.PostChangeOutbox;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
 import javaiscoffee.polaroad.response.ResponseMessages;
 import javaiscoffee.polaroad.review.Review;
 import javaiscoffee.polaroad.review.ReviewRepository;
@@ -34,12 +36,14 @@ public class ReportService {
     private final ReviewRepository reviewRepository;
     private final MemberRepository memberRepository;
     private final ReportRepository reportRepository;
+    private final PostChangeOutbox postChangeOutbox;
     @Autowired
-    public ReportService(PostRepository postRepository, ReviewRepository reviewRepository, MemberRepository memberRepository, ReportRepository reportRepository) {
+    public ReportService(PostRepository postRepository, ReviewRepository reviewRepository, MemberRepository memberRepository, ReportRepository reportRepository, PostChangeOutbox postChangeOutbox) {
         this.postRepository = postRepository;
         this.reviewRepository = reviewRepository;
         this.memberRepository = memberRepository;
         this.reportRepository = reportRepository;
+        this.postChangeOutbox = postChangeOutbox;
     }
 
     //일반 사용자가 포스트나 리뷰 신고
@@ -117,6 +121,8 @@ public class ReportService {
             post.setUpdatedTime(LocalDateTime.now());
             //멤버 포스트 개수 1개 감소
             post.getMember().setPostNumber(post.getMember().getPostNumber() - 1);
+            //캐시, 색인 갱신을 위해 변경 사항 기록
+            postChangeOutbox.append(post.getPostId(), PostChangeType.DELETED);
         }
         else if(report.getTargetType().equals(ReportTargetType.REVIEW)) {
             Review review = reviewRepository.findByReviewId(report.getTargetId());
@@ -0,0 +1,16 @@
+-- 배치 작업 리스 획득, 다른 파드가 리스를 갖고 있거나 마지막 완료 후 최소 간격이 지나지 않았으면 획득하지 않음
+-- 획득하면 펜싱 토큰을 1 증가시켜서 "파드 ID:토큰"을 리스 값으로 저장
+-- KEYS[1] = 리스(lock:{job}), KEYS[2] = 펜싱 토큰(lock:{job}:token), KEYS[3] = 마지막 완료 시각(lock:{job}:last)
+-- ARGV[1] = 파드 ID, ARGV[2] = 리스 시간(ms), ARGV[3] = 최소 실행 간격(ms)
+-- 반환값 = {펜싱 토큰 (획득하지 못했으면 0), 마지막 완료 시각(ms, 없으면 0)}
+
+redis.replicate_commands()
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local last = tonumber(redis.call('GET', KEYS[3]) or '0')
+if redis.call('EXISTS', KEYS[1]) == 1 or now - last < tonumber(ARGV[3]) then
+    return {0, last}
+end
+local token = redis.call('INCR', KEYS[2])
+redis.call('SET', KEYS[1], ARGV[1] .. ':' .. token, 'PX', ARGV[2])
+return {token, last}
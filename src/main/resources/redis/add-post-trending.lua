@@ -0,0 +1,12 @@
+-- 포스트 급상승 점수에 현재 시각 가중치를 곱한 점수를 더함
+-- KEYS[1] = 급상승 점수(ptr), KEYS[2] = 급상승 기준 시각(ptr:epoch)
+-- ARGV[1] = 현재 시각, ARGV[2] = 급상승 반감기(초), ARGV[3] = 포스트 ID, ARGV[4] = 더할 점수 (양수만)
+
+local epoch = redis.call('GET', KEYS[2])
+if not epoch then
+    redis.call('SET', KEYS[2], ARGV[1])
+    epoch = ARGV[1]
+end
+local score = tonumber(ARGV[4]) * 2 ^ ((tonumber(ARGV[1]) - tonumber(epoch)) / tonumber(ARGV[2]))
+redis.call('ZINCRBY', KEYS[1], score, ARGV[3])
+return 1
@@ -0,0 +1,42 @@
+-- 포스트별 조회 멤버를 전체, 일간, 주간, 월간 순 조회자 HyperLogLog에 추가하고, 오늘 처음 조회한 멤버 수만큼 시간 버킷 조회 수, DB 반영 대기 조회 수, 급상승 점수 증가
+-- 파드 여러 곳에서 동시에 반영해도 오늘 처음 조회한 멤버 수가 겹치지 않도록 스크립트 하나로 실행
+-- KEYS[1] = 시간 버킷 조회 수(pvh:), KEYS[2] = DB 반영 대기 조회 수(pvp), KEYS[3] = 급상승 점수(ptr), KEYS[4] = 급상승 기준 시각(ptr:epoch)
+-- 이후 포스트마다 전체 순 조회자(uv:), 일간 순 조회자(uvd:), 주간 순 조회자(uvw:), 월간 순 조회자(uvm:) 4개씩
+-- ARGV[1] = 일간 순 조회자 만료 시각, ARGV[2] = 시간 버킷 만료 시각, ARGV[3] = 현재 시각, ARGV[4] = 급상승 반감기(초), ARGV[5] = 조회 1번 점수
+-- ARGV[6] = 주간 순 조회자 만료 시각, ARGV[7] = 월간 순 조회자 만료 시각
+-- 이후 포스트마다 포스트 ID, 멤버 수, 멤버 ID들
+
+-- 급상승 점수는 기준 시각부터 반감기마다 2배씩 커지는 가중치를 곱해서 더함
+local epoch = redis.call('GET', KEYS[4])
+if not epoch then
+    redis.call('SET', KEYS[4], ARGV[3])
+    epoch = ARGV[3]
+end
+local trendingWeight = tonumber(ARGV[5]) * 2 ^ ((tonumber(ARGV[3]) - tonumber(epoch)) / tonumber(ARGV[4]))
+
+local index = 8
+for i = 1, (#KEYS - 4) / 4 do
+    local postId = ARGV[index]
+    local count = tonumber(ARGV[index + 1])
+    local members = { unpack(ARGV, index + 2, index + 1 + count) }
+    index = index + 2 + count
+
+    local base = 4 * i
+    local dailyKey = KEYS[base + 2]
+    redis.call('PFADD', KEYS[base + 1], unpack(members))
+    redis.call('PFADD', KEYS[base + 3], unpack(members))
+    redis.call('EXPIREAT', KEYS[base + 3], ARGV[6])
+    redis.call('PFADD', KEYS[base + 4], unpack(members))
+    redis.call('EXPIREAT', KEYS[base + 4], ARGV[7])
+    local before = redis.call('PFCOUNT', dailyKey)
+    redis.call('PFADD', dailyKey, unpack(members))
+    redis.call('EXPIREAT', dailyKey, ARGV[1])
+    local added = redis.call('PFCOUNT', dailyKey) - before
+    if added > 0 then
+        redis.call('ZINCRBY', KEYS[1], added, postId)
+        redis.call('HINCRBY', KEYS[2], postId, added)
+        redis.call('ZINCRBY', KEYS[3], added * trendingWeight, postId)
+    end
+end
+redis.call('EXPIREAT', KEYS[1], ARGV[2])
+return 1
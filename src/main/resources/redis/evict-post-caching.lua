@@ -0,0 +1,9 @@
+-- 포스트 캐싱 데이터 삭제
+-- 세대 번호를 함께 올려서 삭제 전에 DB 조회를 시작한 요청이 지난 데이터를 다시 저장하지 않도록 한다.
+-- KEYS[1] = 캐싱 데이터(pc:{postId}), KEYS[2] = 세대 번호(pc:gen:{postId})
+-- ARGV[1] = 세대 번호 만료 시간(ms)
+
+redis.call('DEL', KEYS[1])
+redis.call('INCR', KEYS[2])
+redis.call('PEXPIRE', KEYS[2], ARGV[1])
+return 1
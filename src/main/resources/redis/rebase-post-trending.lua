@@ -0,0 +1,13 @@
+-- 급상승 기준 시각을 옮기고 모든 점수에 옮긴 만큼의 감쇠를 곱함, 너무 작아진 점수는 삭제
+-- 점수 비율은 그대로이므로 순위는 바뀌지 않고, 가중치가 계속 커져서 정밀도를 잃는 것을 막음
+-- KEYS[1] = 급상승 점수(ptr), KEYS[2] = 급상승 기준 시각(ptr:epoch)
+-- ARGV[1] = 새 기준 시각, ARGV[2] = 급상승 반감기(초), ARGV[3] = 남길 최소 점수
+
+local epoch = redis.call('GET', KEYS[2])
+if epoch and redis.call('EXISTS', KEYS[1]) == 1 then
+    local factor = 2 ^ ((tonumber(epoch) - tonumber(ARGV[1])) / tonumber(ARGV[2]))
+    redis.call('ZUNIONSTORE', KEYS[1], 1, KEYS[1], 'WEIGHTS', factor)
+    redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3])
+end
+redis.call('SET', KEYS[2], ARGV[1])
+return 1
@@ -0,0 +1,17 @@
+-- 리스가 아직 내 것이면 삭제하고, 작업을 끝까지 마쳤으면 마지막 완료 시각 기록
+-- KEYS[1] = 리스(lock:{job}), KEYS[2] = 마지막 완료 시각(lock:{job}:last)
+-- ARGV[1] = 리스 값(파드 ID:토큰), ARGV[2] = 1이면 완료
+-- 반환값 = 마지막 완료 시각(ms), 리스가 내 것이 아니었거나 완료하지 않았으면 0
+
+redis.replicate_commands()
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+redis.call('DEL', KEYS[1])
+if ARGV[2] ~= '1' then
+    return 0
+end
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call('SET', KEYS[2], now)
+return now
@@ -0,0 +1,13 @@
+-- 색인한 포스트를 엘라스틱서치 색인 대기 해시에서 삭제
+-- 색인하는 동안 다시 바뀐 포스트(변경 횟수가 달라진 포스트)는 남겨서 다음 색인 때 다시 색인
+-- KEYS[1] = 색인 대기 해시(elastic:post:pending)
+-- ARGV = 포스트 ID, 색인 전에 읽은 변경 횟수 반복
+
+local removed = 0
+for i = 1, #ARGV, 2 do
+    if redis.call('HGET', KEYS[1], ARGV[i]) == ARGV[i + 1] then
+        redis.call('HDEL', KEYS[1], ARGV[i])
+        removed = removed + 1
+    end
+end
+return removed
@@ -0,0 +1,9 @@
+-- 리스가 아직 내 것(같은 파드 ID, 같은 펜싱 토큰)이면 리스 시간을 다시 늘림
+-- KEYS[1] = 리스(lock:{job})
+-- ARGV[1] = 리스 값(파드 ID:토큰), ARGV[2] = 리스 시간(ms)
+
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+return 1
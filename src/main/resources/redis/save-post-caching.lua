@@ -0,0 +1,15 @@
+-- 포스트 캐싱 데이터 저장
+-- 포스트가 바뀌거나 캐시가 삭제될 때마다 세대 번호를 올려서, 바뀌기 전에 DB에서 읽은 데이터가 나중에 저장되지 않도록 한다.
+-- KEYS[1] = 캐싱 데이터(pc:{postId}), KEYS[2] = 세대 번호(pc:gen:{postId})
+-- ARGV[1] = 캐싱 데이터, ARGV[2] = 캐싱 만료 시간(ms), ARGV[3] = 세대 번호 만료 시간(ms)
+-- ARGV[4] = DB 조회 전에 읽은 세대 번호, 비어있으면 변경 이벤트로 다시 캐싱하는 것이므로 세대 번호를 올리고 무조건 저장
+-- 반환 = 저장했으면 1, 그 사이에 세대 번호가 바뀌어서 저장하지 않았으면 0
+
+if ARGV[4] == '' then
+    redis.call('INCR', KEYS[2])
+    redis.call('PEXPIRE', KEYS[2], ARGV[3])
+elseif (redis.call('GET', KEYS[2]) or '0') ~= ARGV[4] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+return 1
@@ -0,0 +1,23 @@
+-- 멤버 추천 포스트 set에서 추천을 토글하고, DB에 쓸 추천 상태와 추천 수 변동을 기록
+-- 같은 멤버, 포스트를 여러 번 토글하면 대기 해시에는 마지막 상태만 남는다.
+-- KEYS[1] = 멤버 추천 포스트(mg:{memberId}), KEYS[2] = DB 반영 대기 추천(pgp), KEYS[3] = 포스트별 추천 수 변동(pgb)
+-- KEYS[4] = 멤버 최근 토글(mgt:{memberId}), set을 다시 채울 때 DB에 반영되지 않은 토글을 덮어쓰는 데 사용
+-- ARGV[1] = 포스트 ID, ARGV[2] = 멤버 ID, ARGV[3] = 만료 시간(초), ARGV[4] = 센티널
+-- 반환값 = 1이면 추천, 0이면 추천 취소, -1이면 set이 캐싱되어 있지 않음
+
+if redis.call('SISMEMBER', KEYS[1], ARGV[4]) == 0 then
+    return -1
+end
+local good = 1
+if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then
+    redis.call('SREM', KEYS[1], ARGV[1])
+    good = 0
+else
+    redis.call('SADD', KEYS[1], ARGV[1])
+end
+redis.call('HSET', KEYS[2], ARGV[2] .. ':' .. ARGV[1], good)
+redis.call('HINCRBY', KEYS[3], ARGV[1], good == 1 and 1 or -1)
+redis.call('HSET', KEYS[4], ARGV[1], good)
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+redis.call('EXPIRE', KEYS[4], ARGV[3])
+return good
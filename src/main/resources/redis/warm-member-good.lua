@@ -0,0 +1,23 @@
+-- DB에서 불러온 멤버 추천 포스트로 set 캐싱, 다른 요청이 먼저 캐싱했으면 덮어쓰지 않음
+-- 먼저 캐싱된 set에는 이미 추천 토글이 반영되어 있을 수 있기 때문
+-- DB에 아직 반영되지 않은 토글이 있을 수 있으므로 최근 토글 상태를 DB 추천 위에 덮어씀
+-- KEYS[1] = 멤버 추천 포스트(mg:{memberId}), KEYS[2] = 멤버 최근 토글(mgt:{memberId})
+-- ARGV[1] = 만료 시간(초), ARGV[2] = 센티널, ARGV[3]부터 = 추천한 포스트 ID (센티널과 함께 추가)
+
+if redis.call('SISMEMBER', KEYS[1], ARGV[2]) == 1 then
+    return 0
+end
+redis.call('DEL', KEYS[1])
+for i = 2, #ARGV, 5000 do
+    redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 4999, #ARGV)))
+end
+local toggles = redis.call('HGETALL', KEYS[2])
+for i = 1, #toggles, 2 do
+    if toggles[i + 1] == '1' then
+        redis.call('SADD', KEYS[1], toggles[i])
+    else
+        redis.call('SREM', KEYS[1], toggles[i])
+    end
+end
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return 1
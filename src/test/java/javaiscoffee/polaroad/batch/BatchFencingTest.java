@@ -0,0 +1,82 @@
+package javaiscoffee.polaroad.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchFencingTest {
+    private final static String JOB = "test-job";
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private BatchJobCoordinator batchJobCoordinator;
+    private BatchFencing batchFencing;
+    private BatchLease lease;
+
+    @BeforeEach
+    void setUp() {
+        batchFencing = new BatchFencing(jdbcTemplate);
+        lease = new BatchLease(JOB, 3L, Duration.ofSeconds(10), "pod:3", batchJobCoordinator);
+    }
+
+    @Test
+    @DisplayName("기록된 토큰이 내 토큰 이하이면 토큰을 올리고 통과")
+    void advanceToken() {
+        when(jdbcTemplate.update(startsWith("update batch_fence"), eq(3L), eq(JOB), eq(3L))).thenReturn(1);
+
+        assertThatCode(() -> batchFencing.check(lease)).doesNotThrowAnyException();
+        verify(jdbcTemplate, never()).update(startsWith("insert"), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("처음 실행하는 작업이면 행을 만들고 다시 토큰을 올림")
+    void insertFenceOnFirstRun() {
+        when(jdbcTemplate.update(startsWith("update batch_fence"), eq(3L), eq(JOB), eq(3L))).thenReturn(0, 1);
+        when(jdbcTemplate.update(startsWith("insert into batch_fence"), eq(JOB), eq(JOB))).thenReturn(1);
+
+        assertThatCode(() -> batchFencing.check(lease)).doesNotThrowAnyException();
+        verify(jdbcTemplate).update(startsWith("insert into batch_fence"), eq(JOB), eq(JOB));
+    }
+
+    @Test
+    @DisplayName("더 큰 토큰이 이미 기록되어 있으면 StaleBatchLeaseException")
+    void rejectStaleToken() {
+        when(jdbcTemplate.update(startsWith("update batch_fence"), eq(3L), eq(JOB), eq(3L))).thenReturn(0);
+        when(jdbcTemplate.update(startsWith("insert into batch_fence"), eq(JOB), eq(JOB))).thenReturn(0);
+
+        assertThatThrownBy(() -> batchFencing.check(lease)).isInstanceOf(StaleBatchLeaseException.class);
+    }
+
+    @Test
+    @DisplayName("처음 반영하는 배치면 배치 ID를 기록하고 true")
+    void recordNewBatch() {
+        when(jdbcTemplate.update(startsWith("update batch_fence set token"), eq(3L), eq(JOB), eq(3L))).thenReturn(1);
+        when(jdbcTemplate.queryForObject(startsWith("select applied_batch"), eq(String.class), eq(JOB))).thenReturn("b1:1");
+        when(jdbcTemplate.update(startsWith("update batch_fence set applied_batch"), eq("b1:501"), eq(JOB))).thenReturn(1);
+
+        assertThat(batchFencing.checkBatch(lease, "b1:501")).isTrue();
+        verify(jdbcTemplate).update(startsWith("update batch_fence set applied_batch"), eq("b1:501"), eq(JOB));
+    }
+
+    @Test
+    @DisplayName("이미 커밋한 배치면 기록하지 않고 false")
+    void skipAppliedBatch() {
+        when(jdbcTemplate.update(startsWith("update batch_fence set token"), eq(3L), eq(JOB), eq(3L))).thenReturn(1);
+        when(jdbcTemplate.queryForObject(startsWith("select applied_batch"), eq(String.class), eq(JOB))).thenReturn("b1:1");
+
+        assertThat(batchFencing.checkBatch(lease, "b1:1")).isFalse();
+        verify(jdbcTemplate, never()).update(startsWith("update batch_fence set applied_batch"), any(Object[].class));
+    }
+}
@@ -0,0 +1,105 @@
+package javaiscoffee.polaroad.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchJobCoordinatorTest {
+    private final static String JOB = "test-job";
+    private final static Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    private BatchJobCoordinator batchJobCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        batchJobCoordinator = new BatchJobCoordinator(redisTemplate, new SimpleMeterRegistry());
+    }
+
+    //획득 스크립트가 {펜싱 토큰, 마지막 완료 시각}을 반환, 반납 스크립트 호출과 인자가 달라서 lenient
+    private void givenAcquireResult(long token) {
+        lenient().when(redisTemplate.execute(argThat((RedisScript<?> script) -> script != null && List.class.equals(script.getResultType())), anyList(), any(Object[].class)))
+                .thenReturn(List.of(token, 0L));
+    }
+
+    @Test
+    @DisplayName("리스를 획득하면 펜싱 토큰이 담긴 리스를 반환")
+    void acquireLease() {
+        givenAcquireResult(3L);
+
+        BatchLease lease = batchJobCoordinator.tryAcquire(JOB, TIMEOUT, Duration.ZERO);
+
+        assertThat(lease).isNotNull();
+        assertThat(lease.getToken()).isEqualTo(3L);
+        assertThat(lease.getValue()).endsWith(":3");
+    }
+
+    @Test
+    @DisplayName("다른 파드가 리스를 갖고 있으면 작업을 실행하지 않음")
+    void notAcquiredWhenHeld() {
+        givenAcquireResult(0L);
+        AtomicInteger runs = new AtomicInteger();
+
+        boolean executed = batchJobCoordinator.run(JOB, TIMEOUT, Duration.ZERO, lease -> runs.incrementAndGet());
+
+        assertThat(executed).isFalse();
+        assertThat(runs.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("펜싱 토큰 검사에 실패한 작업은 중단하고 완료 시각 없이 리스 반납")
+    void staleLeaseReleasedWithoutCompletion() {
+        givenAcquireResult(3L);
+
+        boolean executed = batchJobCoordinator.run(JOB, TIMEOUT, Duration.ZERO, lease -> {
+            throw new StaleBatchLeaseException(lease);
+        });
+
+        assertThat(executed).isTrue();
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("lock:" + JOB, "lock:" + JOB + ":last")), endsWith(":3"), eq("0"));
+    }
+
+    @Test
+    @DisplayName("작업을 마치면 완료 시각을 기록하면서 리스 반납")
+    void completedLeaseRelease() {
+        givenAcquireResult(3L);
+
+        batchJobCoordinator.run(JOB, TIMEOUT, Duration.ZERO, lease -> 1);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("lock:" + JOB, "lock:" + JOB + ":last")), endsWith(":3"), eq("1"));
+    }
+
+    @Test
+    @DisplayName("리스를 잃으면 renew가 false")
+    void renewFailsAfterLeaseLost() {
+        givenAcquireResult(3L);
+        BatchLease lease = batchJobCoordinator.tryAcquire(JOB, TIMEOUT, Duration.ZERO);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("lock:" + JOB)), any(Object[].class))).thenReturn(0L);
+
+        assertThat(lease.renew()).isFalse();
+    }
+
+    @Test
+    @DisplayName("종료 중에는 새 리스를 획득하지 않음")
+    void noAcquireWhileShuttingDown() {
+        batchJobCoordinator.releaseAll();
+
+        assertThat(batchJobCoordinator.tryAcquire(JOB, TIMEOUT, Duration.ZERO)).isNull();
+        verifyNoInteractions(redisTemplate);
+    }
+}
@@ -0,0 +1,85 @@
+package javaiscoffee.polaroad.post;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javaiscoffee.polaroad.post.index.PostIndexDto;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostListCacheTest {
+    @Mock private PostRepository postRepository;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PostListCache postListCache;
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        postListCache = new PostListCache(postRepository, meterRegistry);
+    }
+
+    private PostListResponseDto get(PostConcept concept, PostRegion region) {
+        return postListCache.get("list", 1, 8, null, PostSearchType.KEYWORD, null, PostListSort.RECENT, concept, region, PostStatus.ACTIVE, () -> {
+            loadCount.incrementAndGet();
+            List<PostListDto> posts = new ArrayList<>();
+            posts.add(new PostListDto("제목", 1L, "닉네임", 0, PostConcept.FOOD, PostRegion.SEOUL, List.of(), LocalDateTime.now()));
+            return new PostListResponseDto(posts, false);
+        });
+    }
+
+    @Test
+    @DisplayName("같은 조건이면 두 번째 조회는 캐시에서 응답")
+    void cacheHit() {
+        get(PostConcept.FOOD, null);
+        get(PostConcept.FOOD, null);
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("post.list.cache").tag("result", "hit").tag("filter", "concept").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("변경된 포스트가 나올 수 있는 조건만 다시 조회")
+    void invalidateByGeneration() {
+        get(PostConcept.NATURE, null);
+        get(PostConcept.FOOD, PostRegion.SEOUL);
+        get(PostConcept.FOOD, null);
+        when(postRepository.findPostIndexDtosByPostIdIn(List.of(2L))).thenReturn(List.of(
+                new PostIndexDto(2L, PostConcept.FOOD, PostRegion.BUSAN, PostStatus.ACTIVE, 0)));
+
+        postListCache.onPostChanged(new PostChangeEvent(2L, PostChangeType.SAVED));
+        postListCache.applyChangedPosts();
+        get(PostConcept.NATURE, null);
+        get(PostConcept.FOOD, PostRegion.SEOUL);
+        get(PostConcept.FOOD, null);
+
+        //NATURE, (FOOD, SEOUL)은 캐시 유지, FOOD 전체는 새로 조회
+        assertThat(loadCount.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("캐시된 페이지에 들어있는 포스트가 바뀌면 페이지 삭제")
+    void invalidateByPostId() {
+        get(PostConcept.FOOD, PostRegion.SEOUL);
+        when(postRepository.findPostIndexDtosByPostIdIn(List.of(1L))).thenReturn(List.of(
+                new PostIndexDto(1L, PostConcept.NATURE, PostRegion.SEOUL, PostStatus.ACTIVE, 0)));
+
+        postListCache.onPostChanged(new PostChangeEvent(1L, PostChangeType.EDITED));
+        postListCache.applyChangedPosts();
+        get(PostConcept.FOOD, PostRegion.SEOUL);
+
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+}
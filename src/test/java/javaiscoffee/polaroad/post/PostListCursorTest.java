@@ -0,0 +1,53 @@
+package javaiscoffee.polaroad.post;
+
+import javaiscoffee.polaroad.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostListCursorTest {
+    private final PostListRepositoryDto lastPost = new PostListRepositoryDto("제목", 123L, "닉네임", 0, 17, PostConcept.FOOD, PostRegion.SEOUL, LocalDateTime.now());
+
+    @Test
+    @DisplayName("인기순 커서 인코딩 후 디코딩")
+    void goodCursor() {
+        String cursor = PostListCursor.of(lastPost, PostListSort.GOOD).encode();
+
+        PostListCursor decoded = PostListCursor.decode(cursor, PostListSort.GOOD);
+
+        assertThat(decoded.getGoodNumber()).isEqualTo(17);
+        assertThat(decoded.getPostId()).isEqualTo(123L);
+    }
+
+    @Test
+    @DisplayName("조회순 커서 인코딩 후 디코딩")
+    void viewCursor() {
+        String cursor = PostListCursor.view(4567L, 123L).encode();
+
+        PostListCursor decoded = PostListCursor.decode(cursor, PostListSort.VIEW);
+
+        assertThat(decoded.getViewNumber()).isEqualTo(4567L);
+        assertThat(decoded.getPostId()).isEqualTo(123L);
+        assertThatThrownBy(() -> PostListCursor.decode(cursor, PostListSort.GOOD)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("커서가 없으면 null")
+    void emptyCursor() {
+        assertThat(PostListCursor.decode(null, PostListSort.RECENT)).isNull();
+        assertThat(PostListCursor.decode("", PostListSort.RECENT)).isNull();
+    }
+
+    @Test
+    @DisplayName("정렬 방식이 다르거나 잘못된 커서면 에러")
+    void invalidCursor() {
+        String recentCursor = PostListCursor.of(lastPost, PostListSort.RECENT).encode();
+
+        assertThatThrownBy(() -> PostListCursor.decode(recentCursor, PostListSort.GOOD)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> PostListCursor.decode("잘못된커서", PostListSort.RECENT)).isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,71 @@
+package javaiscoffee.polaroad.post;
+
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import javaiscoffee.polaroad.redis.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostRankingSnapshotTest {
+    @Mock private RedisService redisService;
+    @Mock private PostRepository postRepository;
+    private PostRankingSnapshot postRankingSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        postRankingSnapshot = new PostRankingSnapshot(redisService, postRepository, 200);
+        when(redisService.getViewRankingList(eq(1), eq(200), any(PostRankingRange.class)))
+                .thenReturn(List.of(ZSetOperations.TypedTuple.of("1", 10.0), ZSetOperations.TypedTuple.of("2", 5.0)));
+        when(redisService.getViewRankingSize(any(PostRankingRange.class))).thenReturn(2L);
+    }
+
+    private static PostListResponseDto posts() {
+        List<PostListDto> posts = new ArrayList<>();
+        posts.add(new PostListDto("바다", 1L, "자바커피", 0, PostConcept.CITY, PostRegion.SEOUL, List.of(), LocalDateTime.now()));
+        posts.add(new PostListDto("산", 2L, "자바커피", 0, PostConcept.CITY, PostRegion.SEOUL, List.of(), LocalDateTime.now()));
+        return new PostListResponseDto(posts, false);
+    }
+
+    @Test
+    @DisplayName("스냅샷을 만드는 중에 들어갈 포스트가 수정되면 지난 데이터로 교체하지 않음")
+    void discardSnapshotChangedDuringBuild() {
+        when(postRepository.getPostListByIds(anyList(), eq(200), eq(PostStatus.ACTIVE))).thenAnswer(invocation -> {
+            //DB에서 읽은 뒤 커밋된 수정 이벤트가 스냅샷 교체보다 먼저 도착
+            postRankingSnapshot.onPostChanged(new PostChangeEvent(1L, PostChangeType.EDITED));
+            return posts();
+        });
+
+        postRankingSnapshot.refresh();
+
+        assertThat(postRankingSnapshot.get(1, 10, PostRankingRange.DAILY)).isNull();
+    }
+
+    @Test
+    @DisplayName("스냅샷에 없는 포스트가 수정되면 그대로 교체")
+    void keepSnapshotWhenOtherPostChanged() {
+        when(postRepository.getPostListByIds(anyList(), eq(200), eq(PostStatus.ACTIVE))).thenAnswer(invocation -> {
+            postRankingSnapshot.onPostChanged(new PostChangeEvent(3L, PostChangeType.EDITED));
+            return posts();
+        });
+
+        postRankingSnapshot.refresh();
+
+        PostListResponseDto snapshot = postRankingSnapshot.get(1, 10, PostRankingRange.DAILY);
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getPosts()).extracting(PostListDto::getPostId).containsExactly(1L, 2L);
+    }
+}
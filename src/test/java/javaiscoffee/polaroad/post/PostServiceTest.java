@@ -83,7 +83,7 @@ class PostServiceTest {
     @Transactional
     @DisplayName("포스트 생성 성공")
     void savePostSuccess() {
-        doNothing().when(redisService).saveCachingPostInfo(any(), anyLong());
+        doNothing().when(redisService).saveCachingPostInfo(any(), anyLong(), anyLong());
         memberRepository.save(member1);
         Member findMember = memberRepository.findByEmail(member1.getEmail()).orElseThrow(() -> new BadRequestException(ResponseMessages.SAVE_FAILED.getMessage()));
         postService.savePost(postSaveDto1, findMember.getMemberId());
@@ -175,8 +175,6 @@ class PostServiceTest {
         postSaveDto1.setHashtags(hashtags);
 
         //when
-        doNothing().when(redisService).updateCachingPost(any(), anyLong());
-
         ResponseEntity<Post> editResponse = postService.editPost(postSaveDto1, findMember.getMemberId(), savedPost.getPostId());
         PostInfoDto editedPost = postRepository.getPostInfoById(savedPost.getPostId(),findMember.getMemberId());
 
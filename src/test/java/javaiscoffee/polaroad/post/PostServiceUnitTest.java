@@ -11,14 +11,15 @@ import javaiscoffee.polaroad.member.*;
 import javaiscoffee.polaroad.post.card.Card;
 import javaiscoffee.polaroad.post.card.CardSaveDto;
 import javaiscoffee.polaroad.post.card.CardService;
-import javaiscoffee.polaroad.post.good.PostGood;
 import javaiscoffee.polaroad.post.good.PostGoodBatchUpdator;
-import javaiscoffee.polaroad.post.good.PostGoodId;
+import javaiscoffee.polaroad.post.good.PostGoodCache;
 import javaiscoffee.polaroad.post.good.PostGoodRepository;
 import javaiscoffee.polaroad.post.hashtag.Hashtag;
 import javaiscoffee.polaroad.post.hashtag.HashtagService;
 import javaiscoffee.polaroad.post.hashtag.PostHashtag;
 import javaiscoffee.polaroad.post.hashtag.PostHashtagId;
+import javaiscoffee.polaroad.post.outbox.PostChangeOutbox;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
 import javaiscoffee.polaroad.redis.RedisService;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.api.Assertions;
@@ -58,9 +59,11 @@ class PostServiceUnitTest {
     @Mock private MemberRepository memberRepository;
     @Mock private PostGoodRepository postGoodRepository;
     @Mock private PostGoodBatchUpdator postGoodBatchUpdator;
+    @Mock private PostGoodCache postGoodCache;
     @Mock private CardService cardService;
     @Mock private HashtagService hashtagService;
     @Mock private RedisService redisService;
+    @Mock private PostChangeOutbox postChangeOutbox;
     @Mock EntityManager entityManager;
     private Member testMember1;
     private Member testMember2;
@@ -95,7 +98,7 @@ class PostServiceUnitTest {
         when(postRepository.save(any(Post.class))).thenReturn(testPost);
         when(hashtagService.savePostHashtags(any(List.class),any(Post.class))).thenReturn(new ArrayList<>());
         when(cardService.saveAllCards(any(List.class))).thenReturn(new ArrayList<>());
-//        doNothing().when(redisService).saveCachingPostInfo(any(PostInfoCachingDto.class), any(Long.class));
+//        doNothing().when(redisService).saveCachingPostInfo(any(PostInfoCachingDto.class), any(Long.class), anyLong());
         postService.savePost(postSaveDto, 1L);
     }
 
@@ -129,10 +132,10 @@ class PostServiceUnitTest {
         when(memberRepository.findById(any(Long.class))).thenReturn(Optional.of(testMember1));
         when(hashtagService.editPostHashtags(any(List.class), eq(savedPost))).thenReturn(new ArrayList<>());
         when(cardService.editCards(any(List.class), eq(savedPost), eq(testMember1))).thenReturn(new ArrayList<>());
-        doNothing().when(redisService).updateCachingPost(any(PostInfoCachingDto.class), any(Long.class));
         //then
         ResponseEntity<Post> response = postService.editPost(editPostDto, testMember1.getMemberId(), savedPost.getPostId());
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(postChangeOutbox).append(savedPost.getPostId(), PostChangeType.EDITED);
         assertThat(response.getBody().getTitle()).isEqualTo(editPostDto.getTitle());
         assertThat(response.getBody().getRoutePoint()).isEqualTo(editPostDto.getRoutePoint());
         assertThat(response.getBody().getThumbnailIndex()).isEqualTo(editPostDto.getThumbnailIndex());
@@ -272,20 +275,16 @@ class PostServiceUnitTest {
         //given
         MemberSimpleInfoDto simpleMemberInfoDto = new MemberSimpleInfoDto(1L, MemberStatus.ACTIVE);
         PostSimpleInfoDto simplePostInfoDto = new PostSimpleInfoDto(1L, testMember2.getMemberId(), PostStatus.ACTIVE);
-        PostGoodId postGoodId = new PostGoodId(simpleMemberInfoDto.getMemberId(), simplePostInfoDto.getPostId());
         //when
         when(postRepository.getPostSimpleInfo(any(Long.class))).thenReturn(Optional.of(simplePostInfoDto));
         when(memberRepository.getMemberSimpleInfo(any(Long.class))).thenReturn(Optional.of(simpleMemberInfoDto));
-        when(entityManager.getReference(eq(Member.class), eq(simpleMemberInfoDto.getMemberId()))).thenReturn(testMember1);
-        when(entityManager.getReference(eq(Post.class), eq(simplePostInfoDto.getPostId()))).thenReturn(new Post());
-        when(postGoodRepository.existsById(any(PostGoodId.class))).thenReturn(false);
-        when(postGoodRepository.save(any(PostGood.class))).thenReturn(null);
-        doNothing().when(postGoodBatchUpdator).increasePostGoodCount(any(Long.class));
+        when(postGoodCache.toggle(simpleMemberInfoDto.getMemberId(), simplePostInfoDto.getPostId())).thenReturn(true);
         //then
         postService.postGoodToggle(simpleMemberInfoDto.getMemberId(), simplePostInfoDto.getPostId());
         verify(postRepository).getPostSimpleInfo(simpleMemberInfoDto.getMemberId());
         verify(memberRepository).getMemberSimpleInfo(simplePostInfoDto.getPostId());
-        verify(postGoodRepository).existsById(postGoodId);
+        verify(postGoodBatchUpdator).onPostGoodToggled(simpleMemberInfoDto.getMemberId(), simplePostInfoDto.getPostId(), true);
+        verifyNoInteractions(postGoodRepository);
     }
 
     @Test
@@ -294,19 +293,15 @@ class PostServiceUnitTest {
         //given
         MemberSimpleInfoDto simpleMemberInfoDto = new MemberSimpleInfoDto(1L, MemberStatus.ACTIVE);
         PostSimpleInfoDto simplePostInfoDto = new PostSimpleInfoDto(1L, testMember2.getMemberId(), PostStatus.ACTIVE);
-        PostGoodId postGoodId = new PostGoodId(simpleMemberInfoDto.getMemberId(), simplePostInfoDto.getPostId());
         //when
         when(postRepository.getPostSimpleInfo(any(Long.class))).thenReturn(Optional.of(simplePostInfoDto));
         when(memberRepository.getMemberSimpleInfo(any(Long.class))).thenReturn(Optional.of(simpleMemberInfoDto));
-        when(entityManager.getReference(eq(Member.class), eq(simpleMemberInfoDto.getMemberId()))).thenReturn(testMember1);
-        when(entityManager.getReference(eq(Post.class), eq(simplePostInfoDto.getPostId()))).thenReturn(new Post());
-        when(postGoodRepository.existsById(any(PostGoodId.class))).thenReturn(true);
-        doNothing().when(postGoodRepository).deleteById(any(PostGoodId.class));
-        doNothing().when(postGoodBatchUpdator).decreasePostGoodCount(any(Long.class));
+        when(postGoodCache.toggle(simpleMemberInfoDto.getMemberId(), simplePostInfoDto.getPostId())).thenReturn(false);
         //then
         postService.postGoodToggle(simpleMemberInfoDto.getMemberId(), simplePostInfoDto.getPostId());
         verify(postRepository).getPostSimpleInfo(simpleMemberInfoDto.getMemberId());
         verify(memberRepository).getMemberSimpleInfo(simplePostInfoDto.getPostId());
-        verify(postGoodRepository).existsById(postGoodId);
+        verify(postGoodBatchUpdator).onPostGoodToggled(simpleMemberInfoDto.getMemberId(), simplePostInfoDto.getPostId(), false);
+        verifyNoInteractions(postGoodRepository);
     }
-}
\ No newline at end of file
+}
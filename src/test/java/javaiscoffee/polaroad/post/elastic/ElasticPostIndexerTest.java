@@ -0,0 +1,94 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import javaiscoffee.polaroad.batch.BatchJob;
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.batch.BatchLease;
+import javaiscoffee.polaroad.post.ElasticPost;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ElasticPostIndexerTest {
+    @Mock private ElasticsearchOperations elasticsearchOperations;
+    @Mock private IndexOperations indexOperations;
+    @Mock private ElasticPostDocumentLoader documentLoader;
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private HashOperations<String, String, String> hashOperations;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private BatchJobCoordinator batchJobCoordinator;
+    @Mock private BatchLease lease;
+    private ElasticPostIndexer elasticPostIndexer;
+
+    @BeforeEach
+    void setUp() {
+        elasticPostIndexer = new ElasticPostIndexer(elasticsearchOperations, documentLoader, redisTemplate, batchJobCoordinator, 500);
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashOperations);
+    }
+
+    private void givenPending(Map<String, String> pending) {
+        when(batchJobCoordinator.run(anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<BatchJob>getArgument(3).run(lease);
+            return true;
+        });
+        when(lease.renew()).thenReturn(true);
+        when(hashOperations.randomEntries(ElasticPostIndexer.PENDING_KEY, 500)).thenReturn(pending);
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOperations);
+        when(indexOperations.exists()).thenReturn(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("변경 포스트는 레디스 대기 해시에 기록하고 bulk-size보다 적으면 바로 색인하지 않음")
+    void consumeRecordsPendingPost() {
+        when(hashOperations.size(ElasticPostIndexer.PENDING_KEY)).thenReturn(1L);
+
+        elasticPostIndexer.consume(new PostChangeEvent(1L, PostChangeType.EDITED));
+
+        verify(hashOperations).increment(ElasticPostIndexer.PENDING_KEY, "1", 1);
+        verifyNoInteractions(batchJobCoordinator, elasticsearchOperations);
+    }
+
+    @Test
+    @DisplayName("색인한 뒤 읽었던 변경 횟수와 같은 포스트만 대기 해시에서 삭제")
+    void flushRemovesIndexedPosts() {
+        givenPending(Map.of("1", "2"));
+        when(documentLoader.loadByPostIds(List.of(1L))).thenReturn(List.of(ElasticPost.builder().postId(1L).build()));
+
+        elasticPostIndexer.flush();
+
+        verify(elasticsearchOperations).bulkIndex(anyList(), any(IndexCoordinates.class));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(ElasticPostIndexer.PENDING_KEY)), eq("1"), eq("2"));
+    }
+
+    @Test
+    @DisplayName("색인에 실패하면 대기 해시에 남겨서 다시 색인")
+    void flushKeepsPendingOnFailure() {
+        givenPending(Map.of("1", "1"));
+        when(documentLoader.loadByPostIds(List.of(1L))).thenReturn(List.of(ElasticPost.builder().postId(1L).build()));
+        when(elasticsearchOperations.bulkIndex(anyList(), any(IndexCoordinates.class))).thenThrow(new IllegalStateException("색인 실패"));
+
+        assertThatThrownBy(() -> elasticPostIndexer.flush()).isInstanceOf(IllegalStateException.class);
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+}
@@ -0,0 +1,75 @@
+package javaiscoffee.polaroad.post.elastic;
+
+import javaiscoffee.polaroad.post.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ElasticPostSearchServiceTest {
+    @InjectMocks
+    private ElasticPostSearchService elasticPostSearchService;
+    @Mock private ElasticsearchOperations elasticsearchOperations;
+    @Mock private SearchHits<ElasticPost> searchHits;
+
+    @SuppressWarnings("unchecked")
+    private static SearchHit<ElasticPost> hit(long postId, int goodNumber) {
+        SearchHit<ElasticPost> hit = mock(SearchHit.class);
+        when(hit.getContent()).thenReturn(ElasticPost.builder().postId(postId).goodNumber(goodNumber).build());
+        return hit;
+    }
+
+    private ElasticPostSearchResult search(PostListSort sortBy, PostListCursor cursor) {
+        return elasticPostSearchService.search(PostSearchType.KEYWORD, "바다", sortBy, PostConcept.FOOD, null, PostStatus.ACTIVE, cursor, 1, 2);
+    }
+
+    @Test
+    @DisplayName("한 페이지보다 1개 더 조회되면 페이지 마지막 포스트로 다음 커서 생성")
+    void nextCursorFromLastPostOfPage() {
+        List<SearchHit<ElasticPost>> hits = List.of(hit(30L, 5), hit(20L, 3), hit(10L, 1));
+        when(searchHits.getSearchHits()).thenReturn(hits);
+        when(elasticsearchOperations.search(any(Query.class), eq(ElasticPost.class))).thenReturn(searchHits);
+
+        ElasticPostSearchResult result = search(PostListSort.GOOD, null);
+
+        assertThat(result.getPostIds()).containsExactly(30L, 20L, 10L);
+        assertThat(result.getNextCursor()).isEqualTo(PostListCursor.good(3, 20L).encode());
+        assertThat(result.getFacets()).isNull();
+    }
+
+    @Test
+    @DisplayName("마지막 페이지면 다음 커서 없음")
+    void noNextCursorOnLastPage() {
+        List<SearchHit<ElasticPost>> hits = List.of(hit(30L, 5));
+        when(searchHits.getSearchHits()).thenReturn(hits);
+        when(elasticsearchOperations.search(any(Query.class), eq(ElasticPost.class))).thenReturn(searchHits);
+
+        ElasticPostSearchResult result = search(PostListSort.RECENT, PostListCursor.recent(40L));
+
+        assertThat(result.getPostIds()).containsExactly(30L);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("엘라스틱서치 요청이 실패하면 DB 검색을 쓰도록 null 반환")
+    void fallbackOnFailure() {
+        when(elasticsearchOperations.search(any(Query.class), eq(ElasticPost.class))).thenThrow(new IllegalStateException("연결 실패"));
+
+        assertThat(search(PostListSort.RECENT, null)).isNull();
+    }
+}
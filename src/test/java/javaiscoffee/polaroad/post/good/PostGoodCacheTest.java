@@ -0,0 +1,44 @@
+package javaiscoffee.polaroad.post.good;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostGoodCacheTest {
+    private final static List<String> TOGGLE_KEYS = List.of("mg:7", "pgp", "pgb", "mgt:7");
+    private final static List<String> WARM_KEYS = List.of("mg:7", "mgt:7");
+
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private PostGoodRepository postGoodRepository;
+    private PostGoodCache postGoodCache;
+
+    @BeforeEach
+    void setUp() {
+        postGoodCache = new PostGoodCache(redisTemplate, postGoodRepository);
+    }
+
+    @Test
+    @DisplayName("set이 만료된 멤버는 DB 추천과 아직 DB에 반영되지 않은 최근 토글로 다시 채운 뒤 토글")
+    void warmWithRecentTogglesBeforeToggle() {
+        //DB에는 포스트 2 추천만 반영되어 있고, 반영 중 key에 남은 토글은 mgt:7에 있음
+        when(postGoodRepository.findPostIdsByMemberId(7L)).thenReturn(List.of(2L));
+        when(redisTemplate.execute(any(RedisScript.class), eq(TOGGLE_KEYS), any(Object[].class))).thenReturn(-1L, 1L);
+        when(redisTemplate.execute(any(RedisScript.class), eq(WARM_KEYS), any(Object[].class))).thenReturn(1L);
+
+        assertThat(postGoodCache.toggle(7L, 1L)).isTrue();
+        verify(redisTemplate).execute(any(RedisScript.class), eq(WARM_KEYS), eq("86400"), eq("0"), eq("2"));
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(TOGGLE_KEYS), any(Object[].class));
+    }
+}
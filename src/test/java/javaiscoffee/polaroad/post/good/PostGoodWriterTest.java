@@ -0,0 +1,82 @@
+package javaiscoffee.polaroad.post.good;
+
+import javaiscoffee.polaroad.batch.BatchFencing;
+import javaiscoffee.polaroad.batch.BatchJob;
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.batch.BatchLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostGoodWriterTest {
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+    @Mock private BatchJobCoordinator batchJobCoordinator;
+    @Mock private BatchFencing batchFencing;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private BatchLease lease;
+    private PostGoodWriter postGoodWriter;
+
+    @BeforeEach
+    void setUp() {
+        postGoodWriter = new PostGoodWriter(redisTemplate, batchJobCoordinator, batchFencing, jdbcTemplate, transactionTemplate);
+        //리스를 획득한 것처럼 바로 실행하고 예외는 그대로 전달
+        when(batchJobCoordinator.run(anyString(), any(Duration.class), any(Duration.class), any(BatchJob.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<BatchJob>getArgument(3).run(lease);
+                    return true;
+                });
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(lease.renew()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("커밋 전에 실패하면 추천 토글을 반영 중 key에 남겨둠")
+    void keepFlushingOnFailure() {
+        when(redisTemplate.hasKey("pgp:flushing")).thenReturn(false);
+        when(redisTemplate.hasKey("pgp")).thenReturn(true);
+        when(hashOperations.entries("pgp:flushing")).thenReturn(Map.of("7:1", "1"));
+        doThrow(new IllegalStateException("커넥션 끊김")).when(transactionTemplate).executeWithoutResult(any());
+
+        assertThatThrownBy(() -> postGoodWriter.writePostGoods()).isInstanceOf(IllegalStateException.class);
+        verify(redisTemplate).rename("pgp", "pgp:flushing");
+        verify(hashOperations, never()).delete(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("지난 주기에 남은 반영 중 key를 먼저 반영하고 커밋한 뒤 지움")
+    void recoverLeftoverFlushing() {
+        when(redisTemplate.hasKey("pgp:flushing")).thenReturn(true);
+        when(hashOperations.entries("pgp:flushing")).thenReturn(Map.of("7:1", "1", "7:2", "0"));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        postGoodWriter.writePostGoods();
+
+        verify(redisTemplate, never()).rename(anyString(), anyString());
+        verify(batchFencing).check(lease);
+        verify(jdbcTemplate).batchUpdate(startsWith("insert into goods"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("delete from goods"), anyList());
+        verify(hashOperations).delete("pgp:flushing", "7:1", "7:2");
+    }
+}
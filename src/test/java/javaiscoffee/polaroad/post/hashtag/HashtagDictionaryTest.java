@@ -0,0 +1,44 @@
+package javaiscoffee.polaroad.post.hashtag;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HashtagDictionaryTest {
+    @Mock private HashtagRepository hashtagRepository;
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    private HashtagDictionary hashtagDictionary;
+
+    @BeforeEach
+    void setUp() {
+        hashtagDictionary = new HashtagDictionary(hashtagRepository, redisTemplate);
+    }
+
+    @Test
+    @DisplayName("마지막 ID 이후에 늦게 커밋된 작은 ID는 전체 다시 불러오기로 채움")
+    void reloadAllFillsLateCommittedId() {
+        //2번은 3번보다 늦게 커밋되어서 처음 불러올 때 빠짐
+        when(hashtagRepository.findTop10000ByHashtagIdGreaterThanOrderByHashtagIdAsc(0L))
+                .thenReturn(List.of(new Hashtag(1L, "바다"), new Hashtag(3L, "산")))
+                .thenReturn(List.of(new Hashtag(1L, "바다"), new Hashtag(2L, "카페"), new Hashtag(3L, "산")));
+        when(hashtagRepository.findTop10000ByHashtagIdGreaterThanOrderByHashtagIdAsc(3L)).thenReturn(List.of());
+
+        hashtagDictionary.refresh();
+        hashtagDictionary.refresh();
+        assertThat(hashtagDictionary.findId("카페")).isNull();
+
+        hashtagDictionary.reloadAll();
+        assertThat(hashtagDictionary.findId("카페")).isEqualTo(2L);
+        assertThat(hashtagDictionary.findName(2L)).isEqualTo("카페");
+    }
+}
@@ -0,0 +1,84 @@
+package javaiscoffee.polaroad.post.index;
+
+import javaiscoffee.polaroad.post.*;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagId;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagRepository;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostBitmapIndexTest {
+    @InjectMocks
+    private PostBitmapIndex postBitmapIndex;
+    @Mock private PostRepository postRepository;
+    @Mock private PostHashtagRepository postHashtagRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(postRepository.findPostIndexDtosAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new PostIndexDto(1L, PostConcept.FOOD, PostRegion.SEOUL, PostStatus.ACTIVE, 0),
+                new PostIndexDto(2L, PostConcept.FOOD, PostRegion.BUSAN, PostStatus.ACTIVE, 12),
+                new PostIndexDto(3L, PostConcept.NATURE, PostRegion.SEOUL, PostStatus.ACTIVE, 10),
+                new PostIndexDto(4L, PostConcept.FOOD, PostRegion.SEOUL, PostStatus.DELETED, 30),
+                new PostIndexDto(5L, PostConcept.FOOD, PostRegion.SEOUL, PostStatus.ACTIVE, 1)));
+        when(postHashtagRepository.findPostHashtagIdsByPostIdBetween(1L, 5L)).thenReturn(List.of(
+                new PostHashtagId(100L, 1L),
+                new PostHashtagId(100L, 3L),
+                new PostHashtagId(100L, 4L),
+                new PostHashtagId(200L, 5L)));
+        postBitmapIndex.loadAll();
+    }
+
+    @Test
+    @DisplayName("조건을 모두 만족하는 포스트를 최신순으로 조회")
+    void search() {
+        assertThat(postBitmapIndex.search(null, PostConcept.FOOD, PostRegion.SEOUL, PostStatus.ACTIVE, null, 0, 10)).containsExactly(5L, 1L);
+        assertThat(postBitmapIndex.search(100L, null, null, PostStatus.ACTIVE, null, 0, 10)).containsExactly(3L, 1L);
+        assertThat(postBitmapIndex.search(null, PostConcept.HOT, null, PostStatus.ACTIVE, null, 0, 10)).containsExactly(3L, 2L);
+        assertThat(postBitmapIndex.search(300L, null, null, PostStatus.ACTIVE, null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("offset, 커서 위치 다음부터 다음 페이지 판별용 1개 더 조회")
+    void searchPage() {
+        assertThat(postBitmapIndex.search(null, null, null, PostStatus.ACTIVE, null, 1, 2)).containsExactly(3L, 2L, 1L);
+        PostListCursor cursor = PostListCursor.recent(3L);
+        assertThat(postBitmapIndex.search(null, null, null, PostStatus.ACTIVE, cursor, 0, 1)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("다른 순서로 정렬된 후보는 순서를 유지한 채 조건에 맞는 포스트만 남김")
+    void filter() {
+        assertThat(postBitmapIndex.filter(List.of(2L, 5L, 4L, 1L, 3L), null, PostConcept.FOOD, null, PostStatus.ACTIVE)).containsExactly(2L, 5L, 1L);
+        assertThat(postBitmapIndex.filter(List.of(3L, 4L, 1L), 100L, null, PostRegion.SEOUL, PostStatus.ACTIVE)).containsExactly(3L, 1L);
+    }
+
+    @Test
+    @DisplayName("변경된 포스트는 기존 색인을 지우고 현재 상태로 다시 반영")
+    void applyChangedPosts() {
+        when(postRepository.findPostIndexDtosByPostIdIn(anyList())).thenReturn(List.of(
+                new PostIndexDto(1L, PostConcept.NATURE, PostRegion.SEOUL, PostStatus.ACTIVE, 0)));
+        when(postHashtagRepository.findPostHashtagIdsByPostIdIn(anyList())).thenReturn(List.of(new PostHashtagId(200L, 1L)));
+
+        postBitmapIndex.onPostChanged(new PostChangeEvent(1L, PostChangeType.EDITED));
+        postBitmapIndex.applyChangedPosts();
+
+        assertThat(postBitmapIndex.search(100L, null, null, PostStatus.ACTIVE, null, 0, 10)).containsExactly(3L);
+        assertThat(postBitmapIndex.search(200L, null, null, PostStatus.ACTIVE, null, 0, 10)).containsExactly(5L, 1L);
+        assertThat(postBitmapIndex.search(null, PostConcept.FOOD, null, PostStatus.ACTIVE, null, 0, 10)).containsExactly(5L, 2L);
+    }
+}
@@ -0,0 +1,106 @@
+package javaiscoffee.polaroad.post.outbox;
+
+import javaiscoffee.polaroad.batch.BatchJob;
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.batch.BatchLease;
+import javaiscoffee.polaroad.redis.PostChangeBroadcaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostOutboxRelayTest {
+    @Mock private PostOutboxRepository postOutboxRepository;
+    @Mock private PostChangeBroadcaster postChangeBroadcaster;
+    @Mock private BatchJobCoordinator batchJobCoordinator;
+    @Mock private ObjectProvider<PostOutboxConsumer> consumers;
+    @Mock private PostOutboxConsumer consumer;
+    @Mock private BatchLease lease;
+    private PostOutboxRelay postOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        postOutboxRelay = new PostOutboxRelay(postOutboxRepository, postChangeBroadcaster, batchJobCoordinator, consumers);
+        when(batchJobCoordinator.run(anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<BatchJob>getArgument(3).run(lease);
+            return true;
+        });
+        when(consumers.orderedStream()).thenAnswer(invocation -> Stream.of(consumer));
+    }
+
+    private static PostOutbox outbox(long outboxId, long postId, PostChangeType type) {
+        PostOutbox outbox = new PostOutbox(postId, type);
+        ReflectionTestUtils.setField(outbox, "outboxId", outboxId);
+        return outbox;
+    }
+
+    private void givenOutboxes(PostOutbox... outboxes) {
+        when(postOutboxRepository.findRelayTargets(eq(PostOutboxRelay.MAX_ATTEMPTS), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(outboxes));
+    }
+
+    @Test
+    @DisplayName("같은 포스트의 이벤트는 우선순위가 높은 종류로 합쳐서 전달")
+    void mergeByPriority() {
+        givenOutboxes(
+                outbox(1L, 10L, PostChangeType.DELETED),
+                outbox(2L, 10L, PostChangeType.GOOD_CHANGED),
+                outbox(3L, 20L, PostChangeType.GOOD_CHANGED),
+                outbox(4L, 20L, PostChangeType.EDITED));
+
+        postOutboxRelay.relay();
+
+        verify(consumer).consume(new PostChangeEvent(10L, PostChangeType.DELETED));
+        verify(consumer).consume(new PostChangeEvent(20L, PostChangeType.EDITED));
+        verify(consumer, times(2)).consume(any());
+        verify(postChangeBroadcaster).publish(new PostChangeEvent(10L, PostChangeType.DELETED));
+        verify(postOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    @DisplayName("전달에 실패한 포스트만 남기고 시도 횟수를 늘림")
+    void failureIsolatedPerEvent() {
+        PostOutbox failing = outbox(1L, 10L, PostChangeType.EDITED);
+        givenOutboxes(failing, outbox(2L, 20L, PostChangeType.SAVED));
+        doAnswer(invocation -> {
+            if (invocation.<PostChangeEvent>getArgument(0).getPostId().equals(10L)) throw new IllegalStateException("소비 실패");
+            return null;
+        }).when(consumer).consume(any());
+
+        postOutboxRelay.relay();
+
+        verify(consumer).consume(new PostChangeEvent(20L, PostChangeType.SAVED));
+        verify(postChangeBroadcaster, never()).publish(new PostChangeEvent(10L, PostChangeType.EDITED));
+        verify(postOutboxRepository).deleteAllByIdInBatch(List.of(2L));
+        verify(postOutboxRepository).saveAll(List.of(failing));
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getRetryTime()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("최대 횟수만큼 실패하면 다시 조회되지 않도록 보류")
+    void parkAfterMaxAttempts() {
+        PostOutbox failing = outbox(1L, 10L, PostChangeType.EDITED);
+        ReflectionTestUtils.setField(failing, "attempts", PostOutboxRelay.MAX_ATTEMPTS - 1);
+        givenOutboxes(failing);
+        doThrow(new IllegalStateException("소비 실패")).when(consumer).consume(any());
+
+        postOutboxRelay.relay();
+
+        verify(postOutboxRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(failing.getAttempts()).isEqualTo(PostOutboxRelay.MAX_ATTEMPTS);
+    }
+}
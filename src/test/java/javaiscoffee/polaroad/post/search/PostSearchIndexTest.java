@@ -0,0 +1,74 @@
+package javaiscoffee.polaroad.post.search;
+
+import javaiscoffee.polaroad.post.*;
+import javaiscoffee.polaroad.post.card.CardRepository;
+import javaiscoffee.polaroad.post.card.CardStatus;
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostSearchIndexTest {
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private PostSearchIndex postSearchIndex;
+
+    @BeforeEach
+    void setUp(@TempDir Path indexPath) {
+        when(postRepository.findPostSearchDocumentsAfter(eq(0L), any())).thenReturn(List.of(
+                new PostSearchDocumentDto(1L, "한강 수제비 맛집", "자바커피", PostConcept.FOOD, PostRegion.SEOUL, PostStatus.ACTIVE, 0),
+                new PostSearchDocumentDto(2L, "부산 바다 여행", "수제비러버", PostConcept.NATURE, PostRegion.BUSAN, PostStatus.ACTIVE, 15),
+                new PostSearchDocumentDto(3L, "벚꽃 구경", "장패드", PostConcept.NATURE, PostRegion.SEOUL, PostStatus.ACTIVE, 3),
+                new PostSearchDocumentDto(4L, "삭제된 수제비 맛집", "장패드", PostConcept.FOOD, PostRegion.SEOUL, PostStatus.DELETED, 0)));
+        when(cardRepository.findPostSearchContentsByPostIdIn(anyList(), eq(CardStatus.ACTIVE))).thenReturn(List.of(
+                new PostSearchContentDto(3L, "석촌호수 꽃놀이"),
+                new PostSearchContentDto(3L, "수제비는 못 먹었다")));
+        postSearchIndex = new PostSearchIndex(postRepository, cardRepository, indexPath.toString());
+        postSearchIndex.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        postSearchIndex.close();
+    }
+
+    @Test
+    @DisplayName("붙여 쓴 단어 일부로도 제목, 닉네임, 카드 내용에서 찾고 제목 일치를 먼저 정렬")
+    void search() {
+        assertThat(postSearchIndex.search("수제비 맛집", null, null, PostStatus.ACTIVE, 0, 10)).containsExactly(1L);
+        assertThat(postSearchIndex.search("수제비", null, null, PostStatus.ACTIVE, 0, 10)).startsWith(1L).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(postSearchIndex.search("꽃", null, null, PostStatus.ACTIVE, 0, 10)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("컨셉, 지역, 인기 포스트 조건으로 필터링")
+    void searchWithFilter() {
+        assertThat(postSearchIndex.search("수제비", PostConcept.NATURE, PostRegion.SEOUL, PostStatus.ACTIVE, 0, 10)).containsExactly(3L);
+        assertThat(postSearchIndex.search("수제비", PostConcept.HOT, null, PostStatus.ACTIVE, 0, 10)).containsExactly(2L);
+        assertThat(postSearchIndex.search("수제비", null, null, PostStatus.DELETED, 0, 10)).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("변경된 포스트는 다시 색인")
+    void applyChangedPosts() {
+        when(postRepository.findPostSearchDocumentsByPostIdIn(anyList())).thenReturn(List.of(
+                new PostSearchDocumentDto(1L, "한강 라면 맛집", "자바커피", PostConcept.FOOD, PostRegion.SEOUL, PostStatus.ACTIVE, 0)));
+
+        postSearchIndex.onPostChanged(new PostChangeEvent(1L, PostChangeType.EDITED));
+        postSearchIndex.applyChangedPosts();
+
+        assertThat(postSearchIndex.search("라면", null, null, PostStatus.ACTIVE, 0, 10)).containsExactly(1L);
+        assertThat(postSearchIndex.search("수제비 맛집", null, null, PostStatus.ACTIVE, 0, 10)).isEmpty();
+    }
+}
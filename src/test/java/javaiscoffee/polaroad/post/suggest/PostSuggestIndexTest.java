@@ -0,0 +1,67 @@
+package javaiscoffee.polaroad.post.suggest;
+
+import javaiscoffee.polaroad.post.PostRepository;
+import javaiscoffee.polaroad.post.PostStatus;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostSuggestIndexTest {
+    @Mock private PostRepository postRepository;
+    @Mock private PostHashtagRepository postHashtagRepository;
+    private PostSuggestIndex postSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(postHashtagRepository.findPostSuggestHashtags(PostStatus.ACTIVE)).thenReturn(List.of(
+                new PostSuggestEntryDto("서울", 30L),
+                new PostSuggestEntryDto("부산", 20L),
+                new PostSuggestEntryDto("서울맛집", 10L),
+                new PostSuggestEntryDto("해운대", 5L),
+                new PostSuggestEntryDto("Seoul", 1L)));
+        when(postRepository.findPostSuggestTitles(eq(PostStatus.ACTIVE), any())).thenReturn(List.of(
+                new PostSuggestEntryDto("서울 야경 명소", 2)));
+        postSuggestIndex = new PostSuggestIndex(postRepository, postHashtagRepository);
+        postSuggestIndex.rebuild();
+    }
+
+    private List<String> suggest(String keyword, int size) {
+        return postSuggestIndex.suggest(keyword, size).stream().map(PostSuggestDto::getText).toList();
+    }
+
+    @Test
+    @DisplayName("초성으로 검색하면 사용 횟수가 많은 순서로 조회")
+    void suggestByChosung() {
+        assertThat(suggest("ㅅㅇ", 10)).containsExactly("서울", "서울맛집", "서울 야경 명소");
+        assertThat(suggest("ㅅ", 1)).containsExactly("서울");
+    }
+
+    @Test
+    @DisplayName("입력 중인 마지막 글자는 받침이나 다음 음절까지 포함해서 검색")
+    void suggestByTypingSyllable() {
+        assertThat(suggest("서우", 10)).containsExactly("서울", "서울맛집", "서울 야경 명소");
+        assertThat(suggest("서울ㅁ", 10)).containsExactly("서울맛집");
+        assertThat(suggest("서울 야", 10)).containsExactly("서울 야경 명소");
+    }
+
+    @Test
+    @DisplayName("해쉬태그와 제목 종류, 대소문자 구분 없는 검색")
+    void suggestType() {
+        assertThat(postSuggestIndex.suggest("부", 10)).containsExactly(new PostSuggestDto("부산", PostSuggestType.HASHTAG));
+        assertThat(postSuggestIndex.suggest("서울야경", 10)).containsExactly(new PostSuggestDto("서울 야경 명소", PostSuggestType.TITLE));
+        assertThat(suggest("SEO", 10)).containsExactly("Seoul");
+        assertThat(suggest("없는검색어", 10)).isEmpty();
+    }
+}
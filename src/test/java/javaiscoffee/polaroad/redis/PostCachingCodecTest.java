@@ -0,0 +1,92 @@
+package javaiscoffee.polaroad.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javaiscoffee.polaroad.post.PostConcept;
+import javaiscoffee.polaroad.post.PostInfoCachingDto;
+import javaiscoffee.polaroad.post.PostRegion;
+import javaiscoffee.polaroad.post.card.CardInfoDto;
+import javaiscoffee.polaroad.post.hashtag.PostHashtagInfoDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostCachingCodecTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final PostCachingCodec codec = new PostCachingCodec(objectMapper);
+
+    private PostInfoCachingDto createPost(int cardNumber, String content) {
+        List<CardInfoDto> cards = new ArrayList<>();
+        for (int i = 0; i < cardNumber; i++) {
+            cards.add(new CardInfoDto((long) i + 100, i, 37.5665 + i, 126.9780 - i, "서울특별시 중구", "https://image.polaroad.com/" + i + ".jpg", content));
+        }
+        List<PostHashtagInfoDto> hashtags = List.of(new PostHashtagInfoDto(1L, "꽃놀이"), new PostHashtagInfoDto(300L, "한강"));
+        return new PostInfoCachingDto("한강 물 수제비 맛집", 7L, "좌표-좌표", 12, 3456L, 1, PostConcept.FOOD, PostRegion.SEOUL,
+                LocalDateTime.of(2024, 4, 9, 10, 10, 10, 123_000_000), cards, hashtags);
+    }
+
+    @Test
+    @DisplayName("바이너리 인코딩 후 디코딩하면 원래 값과 같음")
+    void encodeDecode() {
+        PostInfoCachingDto post = createPost(3, "짧은 내용");
+
+        byte[] encoded = codec.encode(post);
+
+        assertThat(encoded[0]).isEqualTo(PostCachingCodec.VERSION);
+        assertThat(codec.decode(encoded)).isEqualTo(post);
+    }
+
+    @Test
+    @DisplayName("큰 문서는 압축되고 JSON보다 작게 저장")
+    void compressLargePost() throws Exception {
+        PostInfoCachingDto post = createPost(10, "미안하다 이거 보여주려고 어그로 끌었다. ".repeat(30));
+
+        byte[] encoded = codec.encode(post);
+
+        assertThat(encoded[1]).isEqualTo((byte) 1);
+        assertThat(encoded.length).isLessThan(objectMapper.writeValueAsBytes(post).length);
+        assertThat(codec.decode(encoded)).isEqualTo(post);
+    }
+
+    @Test
+    @DisplayName("생성 소요 시간과 만료 시각도 함께 복원")
+    void encodeDecodeMetadata() {
+        PostInfoCachingDto post = createPost(1, "내용");
+
+        PostCachingEntry entry = codec.decodeEntry(codec.encode(post, 35, 1_712_000_000_000L));
+
+        assertThat(entry.getPostDto()).isEqualTo(post);
+        assertThat(entry.getComputeMillis()).isEqualTo(35);
+        assertThat(entry.getExpireAtMillis()).isEqualTo(1_712_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("null 값이 있어도 그대로 복원")
+    void encodeDecodeNull() {
+        PostInfoCachingDto post = new PostInfoCachingDto();
+
+        assertThat(codec.decode(codec.encode(post))).isEqualTo(post);
+    }
+
+    @Test
+    @DisplayName("기존 JSON 캐싱 데이터 읽기")
+    void decodeLegacyJson() throws Exception {
+        PostInfoCachingDto post = createPost(2, "기존 내용");
+        byte[] json = objectMapper.writeValueAsString(post).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(codec.decode(json)).isEqualTo(post);
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 버전이면 예외")
+    void decodeUnknownVersion() {
+        assertThatThrownBy(() -> codec.decode(new byte[]{9, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,30 @@
+package javaiscoffee.polaroad.redis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostLocalCacheTest {
+    private final PostLocalCache postLocalCache = new PostLocalCache();
+
+    @Test
+    @DisplayName("무효화되지 않았으면 로컬 캐시 채움")
+    void putWithoutInvalidation() {
+        PostCachingEntry entry = new PostCachingEntry(null, 1, 0);
+        long stamp = postLocalCache.invalidationStamp(1L);
+
+        assertThat(postLocalCache.putIfNotInvalidated(1L, entry, stamp)).isTrue();
+        assertThat(postLocalCache.get(1L)).isSameAs(entry);
+    }
+
+    @Test
+    @DisplayName("채우기 전에 무효화되었으면 지난 데이터를 넣지 않음")
+    void skipPutAfterInvalidation() {
+        long stamp = postLocalCache.invalidationStamp(1L);
+        postLocalCache.evict(1L);
+
+        assertThat(postLocalCache.putIfNotInvalidated(1L, new PostCachingEntry(null, 1, 0), stamp)).isFalse();
+        assertThat(postLocalCache.get(1L)).isNull();
+    }
+}
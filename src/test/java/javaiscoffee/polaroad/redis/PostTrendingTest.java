@@ -0,0 +1,55 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HyperLogLogOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostTrendingTest {
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private HyperLogLogOperations<String, String> hyperLogLogOperations;
+    @Mock private BatchJobCoordinator batchJobCoordinator;
+    private PostTrending postTrending;
+    //PFADD처럼 처음 들어가는 멤버만 1
+    private final Set<String> goodMembers = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        postTrending = new PostTrending(redisTemplate, batchJobCoordinator, 24, 1, 5);
+        when(redisTemplate.opsForHyperLogLog()).thenReturn(hyperLogLogOperations);
+        when(hyperLogLogOperations.add(anyString(), anyString()))
+                .thenAnswer(invocation -> goodMembers.add(invocation.getArgument(0) + ":" + invocation.getArgument(1)) ? 1L : 0L);
+    }
+
+    @Test
+    @DisplayName("한 멤버가 추천, 취소를 반복해도 급상승 점수는 처음 추천 한 번만 더함")
+    void repeatedToggleScoresOnce() {
+        for (int i = 0; i < 5; i++) postTrending.addGood(7L, 1L);
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of(PostTrending.TRENDING_KEY, PostTrending.EPOCH_KEY)), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("다른 멤버의 추천은 각각 반영")
+    void differentMembersScoreEach() {
+        postTrending.addGood(7L, 1L);
+        postTrending.addGood(8L, 1L);
+        postTrending.addGood(7L, 1L);
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of(PostTrending.TRENDING_KEY, PostTrending.EPOCH_KEY)), any(Object[].class));
+    }
+}
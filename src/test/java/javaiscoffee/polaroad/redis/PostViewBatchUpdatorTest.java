@@ -0,0 +1,101 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.batch.BatchFencing;
+import javaiscoffee.polaroad.batch.BatchJob;
+import javaiscoffee.polaroad.batch.BatchJobCoordinator;
+import javaiscoffee.polaroad.batch.BatchLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostViewBatchUpdatorTest {
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private HashOperations<String, Object, Object> hashOperations;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private BatchJobCoordinator batchJobCoordinator;
+    @Mock private BatchFencing batchFencing;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private BatchLease lease;
+    private PostViewBatchUpdator postViewBatchUpdator;
+
+    @BeforeEach
+    void setUp() {
+        postViewBatchUpdator = new PostViewBatchUpdator(redisTemplate, batchJobCoordinator, batchFencing, jdbcTemplate, transactionTemplate);
+        //리스를 획득한 것처럼 바로 실행하고 예외는 그대로 전달
+        when(batchJobCoordinator.run(anyString(), any(Duration.class), any(Duration.class), any(BatchJob.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<BatchJob>getArgument(3).run(lease);
+                    return true;
+                });
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("pvp:flushing:batch")).thenReturn("b1");
+        when(lease.renew()).thenReturn(true);
+    }
+
+    private void commitTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.<TransactionCallback<Boolean>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("커밋 전에 실패하면 조회 수를 반영 중 key에 남겨둠")
+    void keepFlushingOnFailure() {
+        when(redisTemplate.hasKey("pvp:flushing")).thenReturn(false);
+        when(redisTemplate.hasKey("pvp")).thenReturn(true);
+        when(hashOperations.entries("pvp:flushing")).thenReturn(Map.of("1", "5"));
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("커넥션 끊김"));
+
+        assertThatThrownBy(() -> postViewBatchUpdator.updatePostViewsBatch()).isInstanceOf(IllegalStateException.class);
+        verify(redisTemplate).delete("pvp:flushing:batch");
+        verify(redisTemplate).rename("pvp", "pvp:flushing");
+        verify(hashOperations, never()).delete(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("지난 주기에 남은 반영 중 key를 새 조회 수보다 먼저 반영하고 커밋한 뒤 지움")
+    void recoverLeftoverFlushing() {
+        when(redisTemplate.hasKey("pvp:flushing")).thenReturn(true);
+        when(hashOperations.entries("pvp:flushing")).thenReturn(Map.of("1", "5"));
+        when(batchFencing.checkBatch(lease, "b1:1")).thenReturn(true);
+        commitTransactions();
+
+        postViewBatchUpdator.updatePostViewsBatch();
+
+        verify(redisTemplate, never()).rename(anyString(), anyString());
+        verify(redisTemplate, never()).delete(anyString());
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        verify(hashOperations).delete("pvp:flushing", "1");
+    }
+
+    @Test
+    @DisplayName("커밋한 뒤 지우기 전에 멈춘 묶음은 다시 더하지 않고 반영 중 key에서만 지움")
+    void skipCommittedChunkOnRecovery() {
+        when(redisTemplate.hasKey("pvp:flushing")).thenReturn(true);
+        when(hashOperations.entries("pvp:flushing")).thenReturn(Map.of("1", "5"));
+        when(batchFencing.checkBatch(lease, "b1:1")).thenReturn(false);
+        commitTransactions();
+
+        postViewBatchUpdator.updatePostViewsBatch();
+
+        verifyNoInteractions(jdbcTemplate);
+        verify(hashOperations).delete("pvp:flushing", "1");
+    }
+}
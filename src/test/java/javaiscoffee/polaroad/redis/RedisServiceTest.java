@@ -0,0 +1,59 @@
+package javaiscoffee.polaroad.redis;
+
+import javaiscoffee.polaroad.post.outbox.PostChangeEvent;
+import javaiscoffee.polaroad.post.outbox.PostChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisServiceTest {
+    @Mock private RedisTemplate<String, String> redisTemplate;
+    @Mock private PostCachingCodec postCachingCodec;
+    @Mock private PostViewAggregator postViewAggregator;
+    private final PostLocalCache postLocalCache = new PostLocalCache();
+    private RedisService redisService;
+
+    @BeforeEach
+    void setUp() {
+        redisService = new RedisService(redisTemplate, postLocalCache, postCachingCodec, postViewAggregator);
+    }
+
+    @Test
+    @DisplayName("레디스에서 읽는 중에 무효화되면 응답에만 쓰고 로컬 캐시에는 넣지 않음")
+    void evictDuringFill() {
+        byte[] cachingBytes = new byte[]{1};
+        PostCachingEntry entry = new PostCachingEntry(null, 1, 0);
+        //GET 응답이 오기 전에 다른 파드의 변경으로 무효화 메시지 처리
+        when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(invocation -> {
+            postLocalCache.onPostChanged(new PostChangeEvent(1L, PostChangeType.EDITED));
+            return cachingBytes;
+        });
+        when(postCachingCodec.decodeEntry(cachingBytes)).thenReturn(entry);
+
+        assertThat(redisService.getCachingPostEntry(1L)).isSameAs(entry);
+        assertThat(postLocalCache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("무효화되지 않았으면 레디스에서 읽은 데이터로 로컬 캐시 채움")
+    void fillWithoutEviction() {
+        byte[] cachingBytes = new byte[]{1};
+        PostCachingEntry entry = new PostCachingEntry(null, 1, 0);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(cachingBytes);
+        when(postCachingCodec.decodeEntry(cachingBytes)).thenReturn(entry);
+
+        assertThat(redisService.getCachingPostEntry(1L)).isSameAs(entry);
+        assertThat(postLocalCache.get(1L)).isSameAs(entry);
+        verify(postCachingCodec, times(1)).decodeEntry(cachingBytes);
+    }
+}